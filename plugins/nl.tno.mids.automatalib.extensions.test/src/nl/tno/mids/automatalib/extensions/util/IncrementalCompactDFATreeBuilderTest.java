@@ -0,0 +1,137 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.automatalib.automata.concepts.InputAlphabetHolder;
+import net.automatalib.automata.concepts.StateIDs;
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+
+class IncrementalCompactDFATreeBuilderTest {
+    @Test
+    void testSameAsMutableTreeBuilder() {
+        IncrementalCompactDFATreeBuilder<String> compactBuilder = new IncrementalCompactDFATreeBuilder<>();
+        IncrementalMutableDFATreeBuilder<String> mutableBuilder = new IncrementalMutableDFATreeBuilder<>();
+
+        Random random = new Random(42);
+        List<String> symbols = List.of("a", "b", "c", "d", "e");
+        for (int i = 0; i < 200; i++) {
+            WordBuilder<String> wordBuilder = new WordBuilder<>();
+            int wordLength = random.nextInt(20);
+            for (int j = 0; j < wordLength; j++) {
+                wordBuilder.append(symbols.get(random.nextInt(symbols.size())));
+            }
+            Word<String> word = wordBuilder.toWord();
+            compactBuilder.insert(word);
+            mutableBuilder.insert(word);
+            assertEquals(Acceptance.TRUE, compactBuilder.lookup(word));
+        }
+
+        String expected = dfaToString(mutableBuilder.getFastDFA());
+        assertEquals(expected, dfaToString(compactBuilder.getFastDFA()));
+        assertEquals(expected, dfaToString(compactBuilder.getCompactDFA()));
+        assertEquals(mutableBuilder.getInputAlphabet(), compactBuilder.getInputAlphabet());
+    }
+
+    @Test
+    void testAcceptance() {
+        IncrementalCompactDFATreeBuilder<String> builder = new IncrementalCompactDFATreeBuilder<>();
+        builder.insert(Word.fromSymbols("a", "b"));
+        builder.insert(Word.fromSymbols("a", "c"), false);
+
+        assertEquals(Acceptance.TRUE, builder.lookup(Word.fromSymbols("a", "b")));
+        assertEquals(Acceptance.FALSE, builder.lookup(Word.fromSymbols("a", "c")));
+        assertEquals(Acceptance.DONT_KNOW, builder.lookup(Word.fromSymbols("a")));
+        assertEquals(Acceptance.DONT_KNOW, builder.lookup(Word.fromSymbols("d")));
+
+        assertThrows(ConflictException.class, () -> builder.insert(Word.fromSymbols("a", "b"), false));
+        assertThrows(ConflictException.class, () -> builder.insert(Word.fromSymbols("a", "c")));
+    }
+
+    @Test
+    void testSeparatingWord() {
+        GrowingMapAlphabet<String> alphabet = new GrowingMapAlphabet<>(List.of("a", "b", "c"));
+        IncrementalCompactDFATreeBuilder<String> builder1 = new IncrementalCompactDFATreeBuilder<>(alphabet);
+        IncrementalCompactDFATreeBuilder<String> builder2 = new IncrementalCompactDFATreeBuilder<>(alphabet);
+        builder1.insert(Word.fromSymbols("a", "b"));
+        builder1.insert(Word.fromSymbols("a", "c"));
+        builder2.insert(Word.fromSymbols("a", "b"));
+
+        assertEquals(Word.fromSymbols("a", "c"),
+                builder1.findSeparatingWord(builder2.getFastDFA(), alphabet, false));
+
+        builder2.insert(Word.fromSymbols("a", "c"));
+        assertNull(builder1.findSeparatingWord(builder2.getCompactDFA(), alphabet, false));
+    }
+
+    @Test
+    void testRename() {
+        IncrementalCompactDFATreeBuilder<Integer> builder = new IncrementalCompactDFATreeBuilder<>();
+        builder.insert(Word.fromSymbols(1, 0));
+        builder.insert(Word.fromSymbols(2));
+
+        String expected = "state 0 (initial)\n" + //
+                "  i1 -> 1\n" + //
+                "  i2 -> 3\n" + //
+                "state 1\n" + //
+                "  i0 -> 2\n" + //
+                "state 2 (accepting)\n" + //
+                "state 3 (accepting)\n";
+        assertEquals(expected, dfaToString(builder.getFastDFA(i -> "i" + i)));
+        assertEquals(expected, dfaToString(builder.getCompactDFA(i -> "i" + i)));
+        assertThrows(IllegalArgumentException.class, () -> builder.getCompactDFA(i -> "i"));
+    }
+
+    private static <S, A extends DFA<S, String> & InputAlphabetHolder<String> & StateIDs<S>> String
+            dfaToString(A automaton)
+    {
+        StringBuilder s = new StringBuilder();
+        for (int stateId = 0; stateId < automaton.size(); stateId++) {
+            // State.
+            S state = automaton.getState(stateId);
+            s.append("state ");
+            s.append(stateId);
+            if (automaton.getInitialStates().contains(state)) {
+                s.append(" (initial)");
+            }
+            if (automaton.isAccepting(state)) {
+                s.append(" (accepting)");
+            }
+            s.append("\n");
+
+            // Transitions.
+            for (String input: automaton.getInputAlphabet()) {
+                S target = automaton.getTransition(state, input);
+                if (target != null) {
+                    s.append("  ");
+                    s.append(input);
+                    s.append(" -> ");
+                    s.append(automaton.getStateId(target));
+                    s.append("\n");
+                }
+            }
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,114 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.util.automata.Automata;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+
+class IncrementalMinimalDFABuilderTest {
+    @Test
+    void testSameAsMinimizedTree() {
+        IncrementalMinimalDFABuilder<String> minimalBuilder = new IncrementalMinimalDFABuilder<>();
+        IncrementalCompactDFATreeBuilder<String> treeBuilder = new IncrementalCompactDFATreeBuilder<>();
+
+        Random random = new Random(42);
+        List<String> symbols = List.of("a", "b", "c");
+        for (int i = 0; i < 500; i++) {
+            WordBuilder<String> wordBuilder = new WordBuilder<>();
+            int wordLength = random.nextInt(12);
+            for (int j = 0; j < wordLength; j++) {
+                wordBuilder.append(symbols.get(random.nextInt(symbols.size())));
+            }
+            Word<String> word = wordBuilder.toWord();
+            minimalBuilder.insert(word);
+            treeBuilder.insert(word);
+            assertEquals(Acceptance.TRUE, minimalBuilder.lookup(word));
+
+            // Check that the DFA is minimal after every insertion.
+            if (i % 50 == 0) {
+                FastDFA<String> minimizedDFA = AutomataLibUtil.minimizeDFA(treeBuilder.getFastDFA());
+                assertEquals(minimizedDFA.size(), minimalBuilder.size());
+            }
+        }
+
+        FastDFA<String> minimizedDFA = AutomataLibUtil.minimizeDFA(treeBuilder.getFastDFA());
+        FastDFA<String> fastDFA = minimalBuilder.getFastDFA();
+        CompactDFA<String> compactDFA = minimalBuilder.getCompactDFA();
+        assertEquals(minimizedDFA.size(), fastDFA.size());
+        assertEquals(minimizedDFA.size(), compactDFA.size());
+        assertTrue(Automata.testEquivalence(minimizedDFA, fastDFA, minimizedDFA.getInputAlphabet()));
+        assertTrue(Automata.testEquivalence(minimizedDFA, compactDFA, minimizedDFA.getInputAlphabet()));
+    }
+
+    @Test
+    void testAcceptance() {
+        IncrementalMinimalDFABuilder<String> builder = new IncrementalMinimalDFABuilder<>();
+        builder.insert(Word.fromSymbols("a", "b"));
+        builder.insert(Word.fromSymbols("b", "b"));
+        builder.insert(Word.fromSymbols("a", "c"), false);
+
+        assertEquals(Acceptance.TRUE, builder.lookup(Word.fromSymbols("a", "b")));
+        assertEquals(Acceptance.TRUE, builder.lookup(Word.fromSymbols("b", "b")));
+        assertEquals(Acceptance.FALSE, builder.lookup(Word.fromSymbols("a", "c")));
+        assertEquals(Acceptance.DONT_KNOW, builder.lookup(Word.fromSymbols("a")));
+        assertEquals(Acceptance.DONT_KNOW, builder.lookup(Word.fromSymbols("b", "c")));
+        assertEquals(Acceptance.DONT_KNOW, builder.lookup(Word.fromSymbols("d")));
+
+        assertThrows(ConflictException.class, () -> builder.insert(Word.fromSymbols("a", "b"), false));
+        assertThrows(ConflictException.class, () -> builder.insert(Word.fromSymbols("a", "c")));
+    }
+
+    @Test
+    void testSharedSuffixes() {
+        IncrementalMinimalDFABuilder<String> builder = new IncrementalMinimalDFABuilder<>();
+        builder.insert(Word.fromSymbols("a", "x", "y"));
+        builder.insert(Word.fromSymbols("b", "x", "y"));
+        assertEquals(4, builder.size());
+
+        // Extending one of the words splits the shared suffix, while the unreachable states are released.
+        builder.insert(Word.fromSymbols("a", "x", "z"));
+        assertEquals(6, builder.size());
+        builder.insert(Word.fromSymbols("b", "x", "z"));
+        assertEquals(4, builder.size());
+        assertEquals(4, builder.getCompactDFA().size());
+    }
+
+    @Test
+    void testSeparatingWord() {
+        GrowingMapAlphabet<String> alphabet = new GrowingMapAlphabet<>(List.of("a", "b", "c"));
+        IncrementalMinimalDFABuilder<String> builder1 = new IncrementalMinimalDFABuilder<>(alphabet);
+        IncrementalMinimalDFABuilder<String> builder2 = new IncrementalMinimalDFABuilder<>(alphabet);
+        builder1.insert(Word.fromSymbols("a", "b"));
+        builder1.insert(Word.fromSymbols("a", "c"));
+        builder2.insert(Word.fromSymbols("a", "b"));
+
+        assertEquals(Word.fromSymbols("a", "c"), builder1.findSeparatingWord(builder2.getFastDFA(), alphabet, false));
+
+        builder2.insert(Word.fromSymbols("a", "c"));
+        assertNull(builder1.findSeparatingWord(builder2.getCompactDFA(), alphabet, false));
+    }
+}
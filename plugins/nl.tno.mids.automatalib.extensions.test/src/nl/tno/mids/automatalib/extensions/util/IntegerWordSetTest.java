@@ -0,0 +1,64 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+
+class IntegerWordSetTest {
+    @Test
+    void testAdd() {
+        IntegerWordSet set = new IntegerWordSet();
+        assertTrue(set.add(Word.fromSymbols(1, 2)));
+        assertTrue(set.add(Word.fromSymbols(2, 1)));
+        assertTrue(set.add(Word.fromSymbols(1, 2, 0)));
+        assertTrue(set.add(Word.epsilon()));
+        assertFalse(set.add(Word.fromSymbols(1, 2)));
+        assertFalse(set.add(Word.epsilon()));
+        assertEquals(4, set.size());
+
+        assertTrue(set.contains(Word.fromSymbols(2, 1)));
+        assertFalse(set.contains(Word.fromSymbols(2)));
+
+        // Words are kept in order of insertion.
+        assertEquals(3, set.getWordLength(2));
+        assertEquals(1, set.getSymbol(1, 1));
+        assertEquals(0, set.getWordLength(3));
+    }
+
+    @Test
+    void testSameAsHashSet() {
+        IntegerWordSet set = new IntegerWordSet();
+        Set<Word<Integer>> expectedSet = new HashSet<>();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            WordBuilder<Integer> wordBuilder = new WordBuilder<>();
+            int wordLength = random.nextInt(6);
+            for (int j = 0; j < wordLength; j++) {
+                wordBuilder.append(random.nextInt(4));
+            }
+            Word<Integer> word = wordBuilder.toWord();
+            assertEquals(expectedSet.add(word), set.add(word));
+        }
+        assertEquals(expectedSet.size(), set.size());
+    }
+}
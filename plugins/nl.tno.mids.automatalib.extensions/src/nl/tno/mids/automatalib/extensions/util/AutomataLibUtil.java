@@ -285,6 +285,25 @@ public class AutomataLibUtil {
         return new GrowingMapAlphabet<I>(alphabet);
     }
 
+    /**
+     * Renames the symbols of the given alphabet to a new {@link GrowingMapAlphabet}.
+     * 
+     * @param <I> The type of the original alphabet symbols.
+     * @param <O> The type of the renamed alphabet symbols.
+     * @param alphabet The alphabet to rename.
+     * @param renameFunc The <u>injective</u> renaming function that maps original symbols to new symbols.
+     * @return The renamed alphabet, with the renamed symbols in the same order as the original symbols.
+     */
+    public static <I, O> Alphabet<O> renameAlphabet(Alphabet<I> alphabet, Function<? super I, ? extends O> renameFunc) {
+        GrowingMapAlphabet<O> newAlphabet = new GrowingMapAlphabet<>();
+        for (I symbol: alphabet) {
+            newAlphabet.addSymbol(renameFunc.apply(symbol));
+        }
+        Preconditions.checkArgument(alphabet.size() == newAlphabet.size(),
+                "Expected the rename function to be injective.");
+        return newAlphabet;
+    }
+
     /**
      * Copy {@link FastDFA} to {@link CompactDFA} using a new input alphabet.
      * 
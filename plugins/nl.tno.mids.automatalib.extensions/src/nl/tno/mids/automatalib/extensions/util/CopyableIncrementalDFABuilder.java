@@ -0,0 +1,80 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import java.util.function.Function;
+
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.incremental.dfa.IncrementalDFABuilder;
+import net.automatalib.words.Alphabet;
+
+/**
+ * An {@link IncrementalDFABuilder} from which copies of the built DFA can be obtained. Insertions of words containing
+ * unknown symbols are resolved by automatically modifying the alphabet.
+ *
+ * @param <I> the type used to represent symbols in the alphabet.
+ */
+public interface CopyableIncrementalDFABuilder<I> extends IncrementalDFABuilder<I> {
+    /**
+     * @return {@link Alphabet} of the current DFA.
+     */
+    Alphabet<I> getInputAlphabet();
+
+    /**
+     * @return The number of states of the current DFA.
+     */
+    int size();
+
+    /**
+     * Returns a copy of the build DFA. This copy has a binary acceptance condition and hence the rejecting and don't
+     * know states are merged during this copy. Every call returns a new copy, and changes to this copy are not
+     * reflected in the builder itself.
+     *
+     * @return a FastDFA accepting the same language as the incrementalbuilder
+     */
+    default FastDFA<I> getFastDFA() {
+        return getFastDFA(Function.identity());
+    }
+
+    /**
+     * Returns a copy of the build DFA, with renamed input symbols. This copy has a binary acceptance condition and
+     * hence the rejecting and don't know states are merged during this copy. Every call returns a new copy, and changes
+     * to this copy are not reflected in the builder itself.
+     *
+     * @param <O> the type used to represent symbols in the alphabet of the returned DFA.
+     * @param renameFunc Injective function that maps the input symbols of the builder to the new input symbols.
+     * @return a FastDFA accepting the renamed language of the incrementalbuilder
+     */
+    <O> FastDFA<O> getFastDFA(Function<? super I, ? extends O> renameFunc);
+
+    /**
+     * Returns a copy of the build DFA. This copy has a binary acceptance condition and hence the rejecting and don't
+     * know states are merged during this copy. Every call returns a new copy, and changes to this copy are not
+     * reflected in the builder itself.
+     *
+     * @return a CompactDFA accepting the same language as the incrementalbuilder
+     */
+    default CompactDFA<I> getCompactDFA() {
+        return getCompactDFA(Function.identity());
+    }
+
+    /**
+     * Returns a copy of the build DFA, with renamed input symbols. This copy has a binary acceptance condition and
+     * hence the rejecting and don't know states are merged during this copy. Every call returns a new copy, and changes
+     * to this copy are not reflected in the builder itself.
+     *
+     * @param <O> the type used to represent symbols in the alphabet of the returned DFA.
+     * @param renameFunc Injective function that maps the input symbols of the builder to the new input symbols.
+     * @return a CompactDFA accepting the renamed language of the incrementalbuilder
+     */
+    <O> CompactDFA<O> getCompactDFA(Function<? super I, ? extends O> renameFunc);
+}
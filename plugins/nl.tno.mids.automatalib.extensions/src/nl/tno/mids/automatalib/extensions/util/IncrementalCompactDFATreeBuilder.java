@@ -0,0 +1,387 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.Function;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.FastDFAState;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.GrowingAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+
+/**
+ * Builds DFAs incrementally, as a prefix tree. Insertions of words containing unknown symbols are resolved by
+ * automatically modifying the alphabet. Returns both FastDFAs and CompactDFAs.
+ *
+ * <p>
+ * Contrary to {@link IncrementalMutableDFATreeBuilder}, the tree is not stored as an automaton with an object per
+ * state, but as primitive data: states are consecutive integers in order of creation, transitions are stored in an
+ * open-addressing hash table from source state and input index to target state, and acceptance is stored in bit sets.
+ * This keeps the memory footprint low for trees with many states, and allows exporting DFAs directly, without an
+ * intermediate copy. Exported DFAs have the same state numbering as those of {@link IncrementalMutableDFATreeBuilder}.
+ * </p>
+ *
+ * @param <I> the type used to represent symbols in the alphabet.
+ */
+public class IncrementalCompactDFATreeBuilder<I> implements CopyableIncrementalDFABuilder<I> {
+    /** Marker for unused entries in the transition table. Not a valid key, as states and inputs are non-negative. */
+    private static final long NO_KEY = -1L;
+
+    /** Initial capacity of the transition table. Must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Alphabet of the tree, extended with unknown symbols upon insertion. */
+    private final GrowingAlphabet<I> inputAlphabet;
+
+    /** Number of states of the tree. State {@code 0} is the initial state. */
+    private int size = 1;
+
+    /** Transition table keys, combining source state and input index, or {@link #NO_KEY} for unused entries. */
+    private long[] transitionKeys;
+
+    /** Transition table values, the target states of the transitions with corresponding keys. */
+    private int[] transitionTargets;
+
+    /** Accepting states. */
+    private final BitSet acceptingStates = new BitSet();
+
+    /** Rejecting states. */
+    private final BitSet rejectingStates = new BitSet();
+
+    /**
+     * Construct a new {@link IncrementalCompactDFATreeBuilder} with empty initial alphabet.
+     */
+    public IncrementalCompactDFATreeBuilder() {
+        this(new GrowingMapAlphabet<>());
+    }
+
+    /**
+     * Construct a new {@link IncrementalCompactDFATreeBuilder} with given initial alphabet. The builder uses a copy of
+     * the given alphabet.
+     *
+     * @param inputAlphabet Initial alphabet of the builder.
+     */
+    public IncrementalCompactDFATreeBuilder(Alphabet<I> inputAlphabet) {
+        this.inputAlphabet = new GrowingMapAlphabet<>(inputAlphabet);
+        this.transitionKeys = new long[INITIAL_CAPACITY];
+        this.transitionTargets = new int[INITIAL_CAPACITY];
+        Arrays.fill(transitionKeys, NO_KEY);
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        inputAlphabet.addSymbol(symbol);
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param state State to retrieve acceptance for.
+     * @return {@link Acceptance} value for given state in current DFA.
+     */
+    public Acceptance getAcceptance(int state) {
+        if (acceptingStates.get(state)) {
+            return Acceptance.TRUE;
+        } else if (rejectingStates.get(state)) {
+            return Acceptance.FALSE;
+        } else {
+            return Acceptance.DONT_KNOW;
+        }
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(DFA<?, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+        // allows generalizing the type of state from ? to S.
+        return doFindSeperatingWord(target, inputs, omitUndefined);
+    }
+
+    protected <S> Word<I> doFindSeperatingWord(DFA<S, I> target, Collection<? extends I> inputs,
+            boolean omitUndefined)
+    {
+        S automatonInit = target.getInitialState();
+        if (getAcceptance(0).conflicts(target.isAccepting(automatonInit))) {
+            return Word.epsilon();
+        }
+
+        Deque<Record<S, I>> dfsStack = new ArrayDeque<>();
+        dfsStack.push(new Record<>(automatonInit, 0, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+
+            if (!inputAlphabet.containsSymbol(input)) {
+                continue;
+            }
+            int succ = getSuccessor(rec.treeNode, inputAlphabet.getSymbolIndex(input));
+            if (succ < 0) {
+                continue;
+            }
+
+            S automatonSucc = (rec.automatonState == null) ? null : target.getTransition(rec.automatonState, input);
+            if (automatonSucc == null && omitUndefined) {
+                continue;
+            }
+
+            boolean succAcc = (automatonSucc != null) && target.isAccepting(automatonSucc);
+
+            if (getAcceptance(succ).conflicts(succAcc)) {
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            dfsStack.push(new Record<>(automatonSucc, succ, input, inputs.iterator()));
+        }
+
+        return null;
+    }
+
+    protected static final class Record<S, I> {
+        public final S automatonState;
+
+        public final int treeNode;
+
+        public final I incomingInput;
+
+        public final Iterator<? extends I> inputIt;
+
+        public Record(S automatonState, int treeNode, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.treeNode = treeNode;
+            this.incomingInput = incomingInput;
+            this.inputIt = inputIt;
+        }
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        return lookup(word) != Acceptance.DONT_KNOW;
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> inputWord) {
+        int state = 0;
+        for (I symbol: inputWord) {
+            if (!inputAlphabet.containsSymbol(symbol)) {
+                return Acceptance.DONT_KNOW;
+            }
+            state = getSuccessor(state, inputAlphabet.getSymbolIndex(symbol));
+            if (state < 0) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+        return getAcceptance(state);
+    }
+
+    // INSERTION
+
+    /**
+     * Inserts a new word in the automaton with the given acceptance formula. Contrary to other IncrementalDFABuilder
+     * implementations, this implementation modifies the alphabet if need be.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(Word<? extends I> word, boolean accepting) throws ConflictException {
+        int state = 0;
+        // Traverse over word, tracking current state in `state`, and adding states and transitions as needed.
+        for (I symbol: word) {
+            int inputIdx = inputAlphabet.addSymbol(symbol); // implementation checks for duplicates
+            int next = getSuccessor(state, inputIdx);
+            if (next < 0) {
+                next = size++;
+                addTransition(state, inputIdx, next);
+            }
+            state = next;
+        }
+        // Final state must be set accepting or rejecting.
+        if (accepting) {
+            if (rejectingStates.get(state)) {
+                throw new ConflictException("Cannot accept word " + word.toString() + " as it is already rejected");
+            }
+            acceptingStates.set(state);
+        } else {
+            if (acceptingStates.get(state)) {
+                throw new ConflictException("Cannot reject word " + word.toString() + " as it is already accepted");
+            }
+            rejectingStates.set(state);
+        }
+    }
+
+    /**
+     * Inserts a word in the automaton. Modifies the alphabet if need be.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(Word<? extends I> word) throws ConflictException {
+        insert(word, true);
+    }
+
+    /**
+     * Inserts multiple words in the alphabet. Modifies the alphabet if need be.
+     *
+     * @param words collection of words to be inserted
+     */
+    public void insert(Collection<? extends Word<? extends I>> words) {
+        for (Word<? extends I> word: words) {
+            insert(word, true);
+        }
+    }
+
+    // TRANSITION TABLE
+
+    /**
+     * @param state The source state.
+     * @param inputIdx The index of the input symbol.
+     * @return The target state of the transition, or {@code -1} if there is no such transition.
+     */
+    private int getSuccessor(int state, int inputIdx) {
+        long key = toKey(state, inputIdx);
+        int mask = transitionKeys.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            long entryKey = transitionKeys[i];
+            if (entryKey == key) {
+                return transitionTargets[i];
+            } else if (entryKey == NO_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Adds a transition that does not yet exist.
+     *
+     * @param state The source state.
+     * @param inputIdx The index of the input symbol.
+     * @param target The target state.
+     */
+    private void addTransition(int state, int inputIdx, int target) {
+        // A tree has a transition to each state but the initial state. Keep the table at most half full.
+        if (size * 2 > transitionKeys.length) {
+            resizeTransitions(transitionKeys.length * 2);
+        }
+        putTransition(toKey(state, inputIdx), target);
+    }
+
+    private void putTransition(long key, int target) {
+        int mask = transitionKeys.length - 1;
+        int i = hash(key) & mask;
+        while (transitionKeys[i] != NO_KEY) {
+            i = (i + 1) & mask;
+        }
+        transitionKeys[i] = key;
+        transitionTargets[i] = target;
+    }
+
+    private void resizeTransitions(int capacity) {
+        long[] oldKeys = transitionKeys;
+        int[] oldTargets = transitionTargets;
+        transitionKeys = new long[capacity];
+        transitionTargets = new int[capacity];
+        Arrays.fill(transitionKeys, NO_KEY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_KEY) {
+                putTransition(oldKeys[i], oldTargets[i]);
+            }
+        }
+    }
+
+    private static long toKey(int state, int inputIdx) {
+        return ((long)state << 32) | inputIdx;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int)(hash ^ (hash >>> 32));
+    }
+
+    /** COPY FUNCTIONALITY **/
+
+    @Override
+    public <O> FastDFA<O> getFastDFA(Function<? super I, ? extends O> renameFunc) {
+        Alphabet<O> alphabet = AutomataLibUtil.renameAlphabet(inputAlphabet, renameFunc);
+        FastDFA<O> dfa = new FastDFA<>(alphabet);
+        FastDFAState[] states = new FastDFAState[size];
+        states[0] = dfa.addInitialState(acceptingStates.get(0));
+        for (int state = 1; state < size; state++) {
+            states[state] = dfa.addState(acceptingStates.get(state));
+        }
+        for (int i = 0; i < transitionKeys.length; i++) {
+            long key = transitionKeys[i];
+            if (key != NO_KEY) {
+                dfa.setTransition(states[(int)(key >>> 32)], alphabet.getSymbol((int)key),
+                        states[transitionTargets[i]]);
+            }
+        }
+        return dfa;
+    }
+
+    @Override
+    public <O> CompactDFA<O> getCompactDFA(Function<? super I, ? extends O> renameFunc) {
+        CompactDFA<O> dfa = new CompactDFA<>(AutomataLibUtil.renameAlphabet(inputAlphabet, renameFunc), size);
+        dfa.addIntInitialState(acceptingStates.get(0));
+        for (int state = 1; state < size; state++) {
+            dfa.addIntState(acceptingStates.get(state));
+        }
+        for (int i = 0; i < transitionKeys.length; i++) {
+            long key = transitionKeys[i];
+            if (key != NO_KEY) {
+                dfa.setTransition((int)(key >>> 32), (int)key, transitionTargets[i]);
+            }
+        }
+        return dfa;
+    }
+
+    // Views
+
+    @Override
+    public GraphView<I, ?, ?> asGraph() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TransitionSystemView<?, I, ?> asTransitionSystem() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,484 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import net.automatalib.automata.fsa.DFA;
+import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.automata.fsa.impl.FastDFAState;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.incremental.ConflictException;
+import net.automatalib.incremental.dfa.Acceptance;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.GrowingAlphabet;
+import net.automatalib.words.Word;
+import net.automatalib.words.WordBuilder;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+
+/**
+ * Builds minimal acyclic DFAs incrementally. Insertions of words containing unknown symbols are resolved by
+ * automatically modifying the alphabet. Returns both FastDFAs and CompactDFAs.
+ *
+ * <p>
+ * Contrary to {@link IncrementalCompactDFATreeBuilder}, the built DFA is kept minimal after every insertion, rather
+ * than being a prefix tree, such that its size is proportional to the minimal DFA rather than to the inserted words.
+ * All states are kept in a register, that has a unique state per combination of acceptance and outgoing transitions.
+ * Inserting a word rebuilds the states along its path, from its last state back to the initial state, reusing
+ * equivalent states from the register. States that are no longer reachable are removed from the register.
+ * </p>
+ *
+ * <p>
+ * The DFA is minimal with respect to accepting, rejecting and don't know states. If only accepting words are inserted,
+ * copies of the DFA are thus minimal as well.
+ * </p>
+ *
+ * @param <I> the type used to represent symbols in the alphabet.
+ */
+public class IncrementalMinimalDFABuilder<I> implements CopyableIncrementalDFABuilder<I> {
+    private static final int[] NO_INPUTS = {};
+
+    private static final State[] NO_TARGETS = {};
+
+    /** Alphabet of the DFA, extended with unknown symbols upon insertion. */
+    private final GrowingAlphabet<I> inputAlphabet;
+
+    /** Register of all states of the DFA, to find the unique state with certain acceptance and transitions. */
+    private final Map<State, State> register = new HashMap<>();
+
+    /** The initial state. */
+    private State initialState;
+
+    /**
+     * Construct a new {@link IncrementalMinimalDFABuilder} with empty initial alphabet.
+     */
+    public IncrementalMinimalDFABuilder() {
+        this(new GrowingMapAlphabet<>());
+    }
+
+    /**
+     * Construct a new {@link IncrementalMinimalDFABuilder} with given initial alphabet. The builder uses a copy of the
+     * given alphabet.
+     *
+     * @param inputAlphabet Initial alphabet of the builder.
+     */
+    public IncrementalMinimalDFABuilder(Alphabet<I> inputAlphabet) {
+        this.inputAlphabet = new GrowingMapAlphabet<>(inputAlphabet);
+        this.initialState = getState(Acceptance.DONT_KNOW, NO_INPUTS, NO_TARGETS);
+        initialState.refCount++;
+    }
+
+    @Override
+    public void addAlphabetSymbol(I symbol) {
+        inputAlphabet.addSymbol(symbol);
+    }
+
+    @Override
+    public Alphabet<I> getInputAlphabet() {
+        return inputAlphabet;
+    }
+
+    @Override
+    public int size() {
+        return register.size();
+    }
+
+    @Override
+    public Word<I> findSeparatingWord(DFA<?, I> target, Collection<? extends I> inputs, boolean omitUndefined) {
+        // allows generalizing the type of state from ? to S.
+        return doFindSeperatingWord(target, inputs, omitUndefined);
+    }
+
+    private <S> Word<I> doFindSeperatingWord(DFA<S, I> target, Collection<? extends I> inputs,
+            boolean omitUndefined)
+    {
+        S automatonInit = target.getInitialState();
+        if (initialState.acceptance.conflicts(target.isAccepting(automatonInit))) {
+            return Word.epsilon();
+        }
+
+        // States of the DFA are shared by multiple paths, so keep track of the visited state pairs.
+        Map<State, Set<S>> visited = new IdentityHashMap<>();
+        visited.computeIfAbsent(initialState, s -> new HashSet<>()).add(automatonInit);
+
+        Deque<Record<S, I>> dfsStack = new ArrayDeque<>();
+        dfsStack.push(new Record<>(automatonInit, initialState, null, inputs.iterator()));
+
+        while (!dfsStack.isEmpty()) {
+            Record<S, I> rec = dfsStack.peek();
+            if (!rec.inputIt.hasNext()) {
+                dfsStack.pop();
+                continue;
+            }
+            I input = rec.inputIt.next();
+
+            if (!inputAlphabet.containsSymbol(input)) {
+                continue;
+            }
+            State succ = rec.state.getSuccessor(inputAlphabet.getSymbolIndex(input));
+            if (succ == null) {
+                continue;
+            }
+
+            S automatonSucc = (rec.automatonState == null) ? null : target.getTransition(rec.automatonState, input);
+            if (automatonSucc == null && omitUndefined) {
+                continue;
+            }
+
+            boolean succAcc = (automatonSucc != null) && target.isAccepting(automatonSucc);
+
+            if (succ.acceptance.conflicts(succAcc)) {
+                WordBuilder<I> wb = new WordBuilder<>(dfsStack.size());
+                wb.append(input);
+
+                dfsStack.pop();
+                while (!dfsStack.isEmpty()) {
+                    wb.append(rec.incomingInput);
+                    rec = dfsStack.pop();
+                }
+                return wb.reverse().toWord();
+            }
+
+            if (visited.computeIfAbsent(succ, s -> new HashSet<>()).add(automatonSucc)) {
+                dfsStack.push(new Record<>(automatonSucc, succ, input, inputs.iterator()));
+            }
+        }
+
+        return null;
+    }
+
+    private static final class Record<S, I> {
+        public final S automatonState;
+
+        public final State state;
+
+        public final I incomingInput;
+
+        public final Iterator<? extends I> inputIt;
+
+        public Record(S automatonState, State state, I incomingInput, Iterator<? extends I> inputIt) {
+            this.automatonState = automatonState;
+            this.state = state;
+            this.incomingInput = incomingInput;
+            this.inputIt = inputIt;
+        }
+    }
+
+    @Override
+    public boolean hasDefinitiveInformation(Word<? extends I> word) {
+        return lookup(word) != Acceptance.DONT_KNOW;
+    }
+
+    @Override
+    public Acceptance lookup(Word<? extends I> inputWord) {
+        State state = initialState;
+        for (I symbol: inputWord) {
+            if (!inputAlphabet.containsSymbol(symbol)) {
+                return Acceptance.DONT_KNOW;
+            }
+            state = state.getSuccessor(inputAlphabet.getSymbolIndex(symbol));
+            if (state == null) {
+                return Acceptance.DONT_KNOW;
+            }
+        }
+        return state.acceptance;
+    }
+
+    // INSERTION
+
+    /**
+     * Inserts a new word in the automaton with the given acceptance formula. Contrary to other IncrementalDFABuilder
+     * implementations, this implementation modifies the alphabet if need be.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(Word<? extends I> word, boolean accepting) throws ConflictException {
+        // Traverse over word, tracking the states along its path, if they exist.
+        int length = word.length();
+        int[] inputs = new int[length];
+        State[] path = new State[length + 1];
+        path[0] = initialState;
+        for (int i = 0; i < length; i++) {
+            inputs[i] = inputAlphabet.addSymbol(word.getSymbol(i)); // implementation checks for duplicates
+            path[i + 1] = (path[i] == null) ? null : path[i].getSuccessor(inputs[i]);
+        }
+
+        // Final state must be set accepting or rejecting.
+        Acceptance acceptance = Acceptance.fromBoolean(accepting);
+        Acceptance currentAcceptance = (path[length] == null) ? Acceptance.DONT_KNOW : path[length].acceptance;
+        if (currentAcceptance == acceptance) {
+            return;
+        } else if (currentAcceptance != Acceptance.DONT_KNOW) {
+            throw new ConflictException("Cannot " + (accepting ? "accept" : "reject") + " word " + word.toString()
+                    + " as it is already " + (accepting ? "rejected" : "accepted"));
+        }
+
+        // Rebuild the path from the final state back to the initial state, reusing equivalent states.
+        State state = (path[length] == null) ? getState(acceptance, NO_INPUTS, NO_TARGETS)
+                : getState(acceptance, path[length].inputs, path[length].targets);
+        for (int i = length - 1; i >= 0; i--) {
+            state = (path[i] == null) ? getState(Acceptance.DONT_KNOW, new int[] {inputs[i]}, new State[] {state})
+                    : withTransition(path[i], inputs[i], state);
+        }
+
+        // Replace the initial state, and release the states that are no longer reachable.
+        state.refCount++;
+        release(initialState);
+        initialState = state;
+    }
+
+    /**
+     * Inserts a word in the automaton. Modifies the alphabet if need be.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void insert(Word<? extends I> word) throws ConflictException {
+        insert(word, true);
+    }
+
+    /**
+     * Inserts multiple words in the alphabet. Modifies the alphabet if need be.
+     *
+     * @param words collection of words to be inserted
+     */
+    public void insert(Collection<? extends Word<? extends I>> words) {
+        for (Word<? extends I> word: words) {
+            insert(word, true);
+        }
+    }
+
+    // REGISTER
+
+    /**
+     * Returns the unique state with the given acceptance and transitions, adding it to the register if needed.
+     *
+     * @param acceptance The acceptance of the state.
+     * @param inputs The input indices of the outgoing transitions of the state, in increasing order.
+     * @param targets The target states of the outgoing transitions of the state, in the order of {@code inputs}.
+     * @return The registered state.
+     */
+    private State getState(Acceptance acceptance, int[] inputs, State[] targets) {
+        State state = new State(acceptance, inputs, targets);
+        State registeredState = register.putIfAbsent(state, state);
+        if (registeredState != null) {
+            return registeredState;
+        }
+        for (State target: targets) {
+            target.refCount++;
+        }
+        return state;
+    }
+
+    /**
+     * @param state The state.
+     * @param input The input index.
+     * @param target The new target state for the given input.
+     * @return The registered state equal to the given state, but with the given transition.
+     */
+    private State withTransition(State state, int input, State target) {
+        int i = Arrays.binarySearch(state.inputs, input);
+        int[] newInputs;
+        State[] newTargets;
+        if (i >= 0) {
+            newInputs = state.inputs;
+            newTargets = state.targets.clone();
+            newTargets[i] = target;
+        } else {
+            int insertionPoint = -i - 1;
+            int count = state.inputs.length;
+            newInputs = new int[count + 1];
+            newTargets = new State[count + 1];
+            System.arraycopy(state.inputs, 0, newInputs, 0, insertionPoint);
+            System.arraycopy(state.targets, 0, newTargets, 0, insertionPoint);
+            newInputs[insertionPoint] = input;
+            newTargets[insertionPoint] = target;
+            System.arraycopy(state.inputs, insertionPoint, newInputs, insertionPoint + 1, count - insertionPoint);
+            System.arraycopy(state.targets, insertionPoint, newTargets, insertionPoint + 1, count - insertionPoint);
+        }
+        return getState(state.acceptance, newInputs, newTargets);
+    }
+
+    /**
+     * Releases a reference to the given state. States without references are removed from the register, releasing
+     * their references to their target states.
+     *
+     * @param state The state to release.
+     */
+    private void release(State state) {
+        Deque<State> releasedStates = new ArrayDeque<>();
+        releasedStates.push(state);
+        while (!releasedStates.isEmpty()) {
+            State releasedState = releasedStates.pop();
+            releasedState.refCount--;
+            if (releasedState.refCount == 0) {
+                register.remove(releasedState);
+                for (State target: releasedState.targets) {
+                    releasedStates.push(target);
+                }
+            }
+        }
+    }
+
+    /**
+     * A state of the DFA. States are immutable, apart from their reference count, and are equal if they have the same
+     * acceptance and the same outgoing transitions to the same registered target states.
+     */
+    private static final class State {
+        final Acceptance acceptance;
+
+        /** The input indices of the outgoing transitions, in increasing order. */
+        final int[] inputs;
+
+        /** The target states of the outgoing transitions, in the order of {@link #inputs}. */
+        final State[] targets;
+
+        final int hashCode;
+
+        /** The number of references to this state, from other states and as initial state. */
+        int refCount;
+
+        State(Acceptance acceptance, int[] inputs, State[] targets) {
+            this.acceptance = acceptance;
+            this.inputs = inputs;
+            this.targets = targets;
+
+            int hash = acceptance.ordinal();
+            for (int i = 0; i < inputs.length; i++) {
+                hash = 31 * (31 * hash + inputs[i]) + System.identityHashCode(targets[i]);
+            }
+            this.hashCode = hash;
+        }
+
+        /**
+         * @param input The input index.
+         * @return The target state of the transition for the given input, or {@code null} if there is no such
+         *     transition.
+         */
+        State getSuccessor(int input) {
+            int i = Arrays.binarySearch(inputs, input);
+            return (i < 0) ? null : targets[i];
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof State)) {
+                return false;
+            }
+            State state = (State)obj;
+            if (hashCode != state.hashCode || acceptance != state.acceptance
+                    || !Arrays.equals(inputs, state.inputs))
+            {
+                return false;
+            }
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != state.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** COPY FUNCTIONALITY **/
+
+    /**
+     * @return The states of the DFA, in breadth-first order from the initial state, following transitions in alphabet
+     *     order. The index of a state in the list is its state number in copies of the DFA.
+     */
+    private List<State> getOrderedStates() {
+        List<State> states = new ArrayList<>(register.size());
+        Set<State> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        states.add(initialState);
+        visited.add(initialState);
+        for (int i = 0; i < states.size(); i++) {
+            for (State target: states.get(i).targets) {
+                if (visited.add(target)) {
+                    states.add(target);
+                }
+            }
+        }
+        return states;
+    }
+
+    @Override
+    public <O> FastDFA<O> getFastDFA(Function<? super I, ? extends O> renameFunc) {
+        Alphabet<O> alphabet = AutomataLibUtil.renameAlphabet(inputAlphabet, renameFunc);
+        FastDFA<O> dfa = new FastDFA<>(alphabet);
+        List<State> states = getOrderedStates();
+        Map<State, FastDFAState> dfaStates = new IdentityHashMap<>(states.size());
+        for (State state: states) {
+            boolean accepting = state.acceptance == Acceptance.TRUE;
+            dfaStates.put(state, (state == initialState) ? dfa.addInitialState(accepting) : dfa.addState(accepting));
+        }
+        for (State state: states) {
+            for (int i = 0; i < state.inputs.length; i++) {
+                dfa.setTransition(dfaStates.get(state), alphabet.getSymbol(state.inputs[i]),
+                        dfaStates.get(state.targets[i]));
+            }
+        }
+        return dfa;
+    }
+
+    @Override
+    public <O> CompactDFA<O> getCompactDFA(Function<? super I, ? extends O> renameFunc) {
+        List<State> states = getOrderedStates();
+        CompactDFA<O> dfa = new CompactDFA<>(AutomataLibUtil.renameAlphabet(inputAlphabet, renameFunc), states.size());
+        Map<State, Integer> dfaStates = new IdentityHashMap<>(states.size());
+        for (State state: states) {
+            boolean accepting = state.acceptance == Acceptance.TRUE;
+            dfaStates.put(state,
+                    (state == initialState) ? dfa.addIntInitialState(accepting) : dfa.addIntState(accepting));
+        }
+        for (State state: states) {
+            for (int i = 0; i < state.inputs.length; i++) {
+                int source = dfaStates.get(state);
+                int target = dfaStates.get(state.targets[i]);
+                dfa.setTransition(source, state.inputs[i], target);
+            }
+        }
+        return dfa;
+    }
+
+    // Views
+
+    @Override
+    public GraphView<I, ?, ?> asGraph() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TransitionSystemView<?, I, ?> asTransitionSystem() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,160 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.automatalib.extensions.util;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+import net.automatalib.words.Word;
+
+/**
+ * A set of words over integer symbols, to detect words that have been encountered before.
+ *
+ * <p>
+ * Words are stored as primitive arrays in order of insertion, together with a polynomial hash over their symbols. An
+ * open-addressing hash table maps hashes to words. Looking up a word requires hashing its symbols once, after which
+ * its symbols are only compared to those of stored words with the same hash.
+ * </p>
+ */
+public class IntegerWordSet {
+    /** Initial capacity of the hash table. Must be a power of two. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Hash table of word indices plus one, or {@code 0} for unused entries. */
+    private int[] table = new int[INITIAL_CAPACITY];
+
+    /** The words in the set, in order of insertion. */
+    private int[][] words = new int[INITIAL_CAPACITY / 2][];
+
+    /** The hashes of the words in the set, in order of insertion. */
+    private int[] hashes = new int[INITIAL_CAPACITY / 2];
+
+    /** Number of words in the set. */
+    private int size = 0;
+
+    /**
+     * Adds a word to the set, if it is not yet contained in the set.
+     *
+     * @param word The word to add.
+     * @return {@code true} if the word was added, {@code false} if it was already contained in the set.
+     */
+    public boolean add(Word<Integer> word) {
+        int hash = hash(word);
+        int mask = table.length - 1;
+        int i = hash & mask;
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            int index = table[i] - 1;
+            if (hashes[index] == hash && equals(words[index], word)) {
+                return false;
+            }
+        }
+
+        if (size == words.length) {
+            words = Arrays.copyOf(words, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        words[size] = toArray(word);
+        hashes[size] = hash;
+        size++;
+        table[i] = size;
+
+        // Keep the table at most half full.
+        if (size * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @param word The word to look up.
+     * @return {@code true} if the word is contained in the set, {@code false} otherwise.
+     */
+    public boolean contains(Word<Integer> word) {
+        int hash = hash(word);
+        int mask = table.length - 1;
+        for (int i = hash & mask; table[i] != 0; i = (i + 1) & mask) {
+            int index = table[i] - 1;
+            if (hashes[index] == hash && equals(words[index], word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of words in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The index of the word, in order of insertion.
+     * @return The length of the word.
+     */
+    public int getWordLength(int index) {
+        Preconditions.checkElementIndex(index, size);
+        return words[index].length;
+    }
+
+    /**
+     * @param index The index of the word, in order of insertion.
+     * @param position The position of the symbol within the word.
+     * @return The symbol at the given position of the word.
+     */
+    public int getSymbol(int index, int position) {
+        Preconditions.checkElementIndex(index, size);
+        return words[index][position];
+    }
+
+    private void resize(int capacity) {
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int i = hashes[index] & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = index + 1;
+        }
+    }
+
+    private static int hash(Word<Integer> word) {
+        int hash = 1;
+        for (Integer symbol: word) {
+            hash = 31 * hash + symbol;
+        }
+        // Spread the bits, as the hash table uses the lowest bits of the hash.
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(int[] storedWord, Word<Integer> word) {
+        if (storedWord.length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < storedWord.length; i++) {
+            if (storedWord[i] != word.getSymbol(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] toArray(Word<Integer> word) {
+        int[] array = new int[word.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = word.getSymbol(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,190 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.lsat.common.emf.common.util.URIHelper;
+import org.eclipse.lsat.common.emf.ecore.resource.Persistor;
+import org.eclipse.lsat.common.emf.ecore.resource.PersistorFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.esi.pps.tmsc.FullScopeTMSC;
+import nl.esi.pps.tmsc.xtext.TmscXtextStandaloneSetup;
+import nl.esi.pps.tmsc.xtext.generator.TmscXtextToTmscTransformation;
+import nl.esi.pps.tmsc.xtext.tmscXtext.TmscXtextModel;
+
+class ComponentExtractionBatchTest {
+    @BeforeAll
+    static void beforeAll() {
+        TmscXtextStandaloneSetup.doSetup();
+    }
+
+    @Test
+    public void performIsBatchTest() {
+        assertTrue(ComponentExtractionBatch.isBatch(new String[] {"-batch", "inputs.txt"}));
+        assertTrue(ComponentExtractionBatch.isBatch(new String[] {"-b", "inputs.txt"}));
+        assertFalse(ComponentExtractionBatch.isBatch(new String[] {"-i", "input.tmscz"}));
+    }
+
+    @Test
+    public void performHelpTest() throws Exception {
+        String[] args = {"-batch", "inputs.txt", "-h"};
+
+        assertNull(ComponentExtractionBatch.parse(args));
+    }
+
+    @Test
+    public void performBatchFileTest(@TempDir Path tempDir) throws Exception {
+        Files.createDirectories(tempDir.resolve("a"));
+        Files.createFile(tempDir.resolve("a/trace.tmscz"));
+        Files.createDirectories(tempDir.resolve("b"));
+        Files.createFile(tempDir.resolve("b/trace.tmscz"));
+        Path batchPath = tempDir.resolve("inputs.txt");
+        Files.write(batchPath, Arrays.asList("# Inputs.", "a/trace.tmscz", "", "b/trace.tmscz ; b/options.txt"));
+
+        String[] args = {"-batch", batchPath.toString(), "-batch-threads", "2"};
+        ComponentExtractionBatch batch = ComponentExtractionBatch.parse(args);
+
+        assertEquals(tempDir.resolve("cmi"), batch.getOutputPath());
+        assertEquals(2, batch.getThreads());
+
+        List<ComponentExtractionBatch.Entry> entries = batch.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals(tempDir.resolve("a/trace.tmscz"), entries.get(0).getInput());
+        assertNull(entries.get(0).getOptionsFile());
+        assertEquals(tempDir.resolve("cmi/trace"), entries.get(0).getOutput());
+        assertEquals(tempDir.resolve("b/trace.tmscz"), entries.get(1).getInput());
+        assertEquals(tempDir.resolve("b/options.txt"), entries.get(1).getOptionsFile());
+        assertEquals(tempDir.resolve("cmi/trace-2"), entries.get(1).getOutput());
+    }
+
+    @Test
+    public void performGlobTest(@TempDir Path tempDir) throws Exception {
+        Files.createFile(tempDir.resolve("trace1.tmscz"));
+        Files.createFile(tempDir.resolve("trace2.tmscz"));
+        Files.createFile(tempDir.resolve("options.txt"));
+
+        String[] args = {"-batch", tempDir.toString() + "/*.tmscz", "-f", tempDir.resolve("options.txt").toString(),
+                "-o", tempDir.resolve("out").toString()};
+        ComponentExtractionBatch batch = ComponentExtractionBatch.parse(args);
+
+        assertEquals(tempDir.resolve("out"), batch.getOutputPath());
+
+        List<ComponentExtractionBatch.Entry> entries = batch.getEntries();
+        assertEquals(2, entries.size());
+        assertEquals(tempDir.resolve("trace1.tmscz"), entries.get(0).getInput());
+        assertEquals(tempDir.resolve("options.txt"), entries.get(0).getOptionsFile());
+        assertEquals(tempDir.resolve("out/trace1"), entries.get(0).getOutput());
+        assertEquals(tempDir.resolve("trace2.tmscz"), entries.get(1).getInput());
+        assertEquals(tempDir.resolve("out/trace2"), entries.get(1).getOutput());
+    }
+
+    @Test
+    public void performEmptyGlobTest(@TempDir Path tempDir) {
+        String[] args = {"-batch", tempDir.toString() + "/*.tmscz"};
+
+        assertThrows(RuntimeException.class, () -> ComponentExtractionBatch.parse(args));
+    }
+
+    @Test
+    public void performInvalidBatchThreadsTest(@TempDir Path tempDir) throws Exception {
+        Files.createFile(tempDir.resolve("trace.tmscz"));
+        String[] args = {"-batch", tempDir.toString() + "/*.tmscz", "-batch-threads", "0"};
+
+        assertThrows(RuntimeException.class, () -> ComponentExtractionBatch.parse(args));
+    }
+
+    @Test
+    public void performRunTest(@TempDir Path tempDir) throws Exception {
+        saveTmsc(tempDir.resolve("trace.tmsc"));
+        Path batchPath = tempDir.resolve("inputs.txt");
+        Files.write(batchPath, Arrays.asList("missing.tmsc", "trace.tmsc"));
+
+        String[] args = {"-batch", batchPath.toString(), "-batch-threads", "2"};
+        ComponentExtractionBatch batch = ComponentExtractionBatch.parse(args);
+
+        // The failure of the first input does not prevent extraction for the second one.
+        assertFalse(batch.run());
+        assertFalse(Files.exists(tempDir.resolve("cmi/missing.tmsc")));
+        assertTrue(Files.exists(tempDir.resolve("cmi/trace/Client.cif")));
+        assertTrue(Files.exists(tempDir.resolve("cmi/trace/Server.cif")));
+        assertTrue(Files.exists(tempDir.resolve("cmi/trace/component-extraction-report.txt")));
+
+        List<String> report = Files.readAllLines(tempDir.resolve("cmi/" + ComponentExtractionBatch.REPORT_FILE_NAME),
+                StandardCharsets.UTF_8);
+        assertEquals(9, report.size());
+        assertEquals("Inputs:        2 (1 succeeded, 1 failed)", report.get(0));
+        assertEquals("Threads:       2", report.get(1));
+        assertTrue(report.get(2).startsWith("Running time:  "), report.get(2));
+        assertEquals("Extractions:", report.get(3));
+        assertTrue(report.get(4).startsWith(" - " + tempDir.resolve("missing.tmsc") + ": failed ("), report.get(4));
+        assertEquals("   Output: " + tempDir.resolve("cmi/missing.tmsc"), report.get(5));
+        assertTrue(report.get(6).startsWith("   Error:  Input path must refer to an existing file or folder."),
+                report.get(6));
+        assertTrue(report.get(7).startsWith(" - " + tempDir.resolve("trace.tmsc") + ": succeeded ("), report.get(7));
+        assertEquals("   Output: " + tempDir.resolve("cmi/trace"), report.get(8));
+    }
+
+    @Test
+    public void performExitCodeTest(@TempDir Path tempDir) throws Exception {
+        saveTmsc(tempDir.resolve("trace.tmsc"));
+        Files.write(tempDir.resolve("succeeding.txt"), Arrays.asList("trace.tmsc"));
+        Files.write(tempDir.resolve("failing.txt"), Arrays.asList("trace.tmsc", "missing.tmsc"));
+
+        assertEquals(IApplication.EXIT_OK, startApplication("-batch", tempDir.resolve("succeeding.txt").toString(),
+                "-o", tempDir.resolve("succeeding").toString()));
+        assertEquals(1, startApplication("-batch", tempDir.resolve("failing.txt").toString(), "-o",
+                tempDir.resolve("failing").toString()));
+    }
+
+    private static Object startApplication(String... args) throws Exception {
+        IApplicationContext context = (IApplicationContext)Proxy.newProxyInstance(
+                IApplicationContext.class.getClassLoader(), new Class<?>[] {IApplicationContext.class},
+                (proxy, method, methodArgs) -> method.getName().equals("getArguments")
+                        ? Collections.singletonMap(IApplicationContext.APPLICATION_ARGS, args) : null);
+        return new CmiApplication().start(context);
+    }
+
+    private static void saveTmsc(Path tmscPath) throws IOException {
+        Path tmsctPath = Paths.get("testData/ComponentExtraction/Base/input/extraction.tmsct").toAbsolutePath();
+
+        Persistor<EObject> persistor = new PersistorFactory().getPersistor();
+        List<EObject> fileContents = persistor.loadAll(URI.createFileURI(tmsctPath.toString()));
+        FullScopeTMSC tmsc = new TmscXtextToTmscTransformation().transform((TmscXtextModel)fileContents.get(0));
+
+        List<EObject> tmscContents = new ArrayList<>(2);
+        tmscContents.add(tmsc);
+        tmscContents.addAll(tmsc.getArchitectures());
+        persistor.save(URIHelper.asURI(tmscPath.toFile()), Collections.EMPTY_MAP, tmscContents);
+    }
+}
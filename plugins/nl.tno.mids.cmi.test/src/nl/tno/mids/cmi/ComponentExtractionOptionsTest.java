@@ -65,15 +65,21 @@ class ComponentExtractionOptionsTest {
             Path inputPath = Paths.get("testData/testOptions/notExist.tmscz");
             String[] args = {"-input", inputPath.toString()};
 
-            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(args));
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                    () -> ComponentExtractionOptions.parse(args));
+            assertEquals("Input path must refer to an existing file or folder.", exception.getMessage());
         }
 
         @Test
-        public void performInputNotFileValidateTest() throws IOException {
+        public void performInputFolderParseTest() throws IOException {
             Path inputPath = Paths.get("testData/testOptions/");
             String[] args = {"-input", inputPath.toString()};
 
-            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(args));
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertEquals(inputPath.toAbsolutePath().resolveSibling("cmi"),
+                    componentExtractionOptions.getOutput().getPath());
         }
     }
 
@@ -196,6 +202,105 @@ class ComponentExtractionOptionsTest {
             assertTrue(componentExtractionOptions.getExtraction().isModelPerComponent());
             assertFalse(componentExtractionOptions.getExtraction().isSynchronizeDependentTransitions());
         }
+
+        @Test
+        public void performThreadsParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-threads", "4"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertEquals(4, componentExtractionOptions.getExtraction().getThreads());
+        }
+
+        @Test
+        public void performThreadsValidateTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-threads", "0"};
+
+            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(args));
+        }
+
+        @Test
+        public void performMinimizeOnlineParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-minimize-online"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getExtraction().isMinimizeOnline());
+        }
+
+        @Test
+        public void performPipelineParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-pipeline"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getExtraction().isPipeline());
+        }
+
+        @Test
+        public void performPipelineValidateTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] singleModelArgs = {"-input", inputPath.toString(), "-pipeline", "-single-model"};
+            String[] protocolArgs = {"-input", inputPath.toString(), "-pipeline", "-p", "CompA,CompB"};
+            String[] postProcessingArgs = {"-input", inputPath.toString(), "-pipeline", "-post-processing",
+                    "ExcludeInternalTransitions"};
+
+            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(singleModelArgs));
+            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(protocolArgs));
+            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(postProcessingArgs));
+        }
+
+        @Test
+        public void performWordCacheParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-word-cache"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getExtraction().isWordCache());
+        }
+
+        @Test
+        public void performCheckpointParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            Path checkpointPath = Paths.get("testData/testOptions/checkpoint.bin");
+            String[] args = {"-input", inputPath.toString(), "-checkpoint", checkpointPath.toString()};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertEquals(checkpointPath.toAbsolutePath(), componentExtractionOptions.getExtraction().getCheckpointPath());
+        }
+
+        @Test
+        public void performTimeWindowParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-time-window", "600"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertEquals(600, componentExtractionOptions.getExtraction().getTimeWindow());
+        }
+
+        @Test
+        public void performProfileParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-profile"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getExtraction().isProfile());
+        }
     }
 
     @Nested
@@ -224,6 +329,37 @@ class ComponentExtractionOptionsTest {
             assertEquals("ABC.*", componentExtractionOptions.getPostProcessing().getComponentsInclusionRegEx());
         }
 
+        @Test
+        public void performCacheParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-post-processing-cache", "-clear-post-processing-cache"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getPostProcessing().isCache());
+            assertTrue(componentExtractionOptions.getPostProcessing().isClearCache());
+        }
+
+        @Test
+        public void performCacheSizeParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-post-processing-cache-size", "256"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertEquals(256, componentExtractionOptions.getPostProcessing().getCacheSize());
+        }
+
+        @Test
+        public void performCacheSizeValidateTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-post-processing-cache-size", "0"};
+
+            assertThrows(RuntimeException.class, () -> ComponentExtractionOptions.parse(args));
+        }
+
         @Test
         public void performRenameComponentParseTest() throws IOException {
             Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
@@ -484,6 +620,17 @@ class ComponentExtractionOptionsTest {
             assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
             assertFalse(componentExtractionOptions.getPreProcessing().isUntracedHandleSynchronously());
         }
+
+        @Test
+        public void performVirtualScopeParseTest() throws IOException {
+            Path inputPath = Paths.get("testData/testOptions/dummy.tmscz");
+            String[] args = {"-input", inputPath.toString(), "-virtual-scope"};
+
+            ComponentExtractionOptions componentExtractionOptions = ComponentExtractionOptions.parse(args);
+
+            assertEquals(inputPath.toAbsolutePath(), componentExtractionOptions.getInput().getPath());
+            assertTrue(componentExtractionOptions.getPreProcessing().isVirtualScope());
+        }
     }
 
     @Nested
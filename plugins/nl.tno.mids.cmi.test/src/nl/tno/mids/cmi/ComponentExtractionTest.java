@@ -41,6 +41,7 @@ import nl.esi.pps.tmsc.xtext.tmscXtext.TmscXtextModel;
 import nl.tno.mids.cmi.postprocessing.PostProcessingFilterMode;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationOptions;
 import nl.tno.mids.cmi.postprocessing.operations.ExcludeInternalTransitionsOptions;
+import nl.tno.mids.cmi.postprocessing.operations.HideActionsOptions;
 import nl.tno.mids.cmi.utils.TmscMetrics;
 import nl.tno.mids.common.unittest.FileCompare;
 
@@ -161,12 +162,52 @@ class ComponentExtractionTest {
         performTest(baseTestPath, options);
     }
 
+    @Test
+    void testThreadsTmsc() throws IOException {
+        // Models are constructed, post-processed and saved per component, concurrently.
+        Path baseTestPath = basePath.resolve("Threads");
+        ComponentExtractionOptions options = new ComponentExtractionOptions();
+        options.getExtraction().setThreads(2);
+        options.getExtraction().setPipeline(true);
+        performTest(baseTestPath, options);
+    }
+
+    @Test
+    void testHideActionsThreadsTmsc() throws IOException {
+        // Component local post-processing gives the same models, whether components are processed concurrently or not.
+        Path baseTestPath = basePath.resolve("HideActionsThreads");
+        Path sequentialOutputPath = baseTestPath.resolve("output_actual").resolve("sequential");
+        Path parallelOutputPath = baseTestPath.resolve("output_actual").resolve("parallel");
+
+        ComponentExtractionOptions options = new ComponentExtractionOptions();
+        HideActionsOptions hideActionsOptions = new HideActionsOptions();
+        hideActionsOptions.pattern = "IClient__j__.*";
+        options.getPostProcessing().getOperations().add(hideActionsOptions);
+        performExtraction(baseTestPath, options, sequentialOutputPath);
+
+        options.getExtraction().setThreads(2);
+        options.getExtraction().setPipeline(true);
+        performExtraction(baseTestPath, options, parallelOutputPath);
+
+        FileCompare.checkDirectoriesEqual(sequentialOutputPath, parallelOutputPath,
+                p -> !p.getFileName().toString().equals("component-extraction-options.txt"));
+    }
+
     private void performTest(Path baseTestPath, ComponentExtractionOptions options) throws IOException {
+        Path actualOutputPath = baseTestPath.resolve("output_actual");
+        Path expectedOutputPath = baseTestPath.resolve("output_expected");
+
+        performExtraction(baseTestPath, options, actualOutputPath);
+
+        FileCompare.checkDirectoriesEqual(expectedOutputPath, actualOutputPath, p -> true);
+    }
+
+    private void performExtraction(Path baseTestPath, ComponentExtractionOptions options, Path actualOutputPath)
+            throws IOException
+    {
         Path baseInputPath = baseTestPath.resolve("input");
         Path baseTmsctPath = baseInputPath.resolve("extraction.tmsct");
         Path baseTmscPath = baseInputPath.resolve("extraction.tmsc");
-        Path actualOutputPath = baseTestPath.resolve("output_actual");
-        Path expectedOutputPath = baseTestPath.resolve("output_expected");
 
         Persistor<EObject> persistor = new PersistorFactory().getPersistor();
         List<EObject> fileContents = persistor.loadAll(URI.createFileURI(baseTmsctPath.toString()));
@@ -214,8 +255,6 @@ class ComponentExtractionTest {
                 }
             });
         }
-
-        FileCompare.checkDirectoriesEqual(expectedOutputPath, actualOutputPath, p -> true);
     }
 
     class ComponentExtractionStubbed extends ComponentExtraction {
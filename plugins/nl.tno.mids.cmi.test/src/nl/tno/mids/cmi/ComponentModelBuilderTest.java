@@ -11,23 +11,25 @@
 package nl.tno.mids.cmi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
-import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.EObject;
 import org.eclipse.escet.cif.metamodel.cif.Specification;
-import org.eclipse.lsat.common.emf.ecore.resource.Persistor;
-import org.eclipse.lsat.common.emf.ecore.resource.PersistorFactory;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -35,14 +37,16 @@ import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.concepts.StateIDs;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.FastDFA;
+import net.automatalib.util.automata.Automata;
 import net.automatalib.words.Word;
 import nl.esi.pps.tmsc.FullScopeTMSC;
-import nl.esi.pps.tmsc.provider.TmscEditPlugin;
+import nl.esi.pps.tmsc.ScopedTMSC;
 import nl.esi.pps.tmsc.xtext.TmscXtextStandaloneSetup;
-import nl.esi.pps.tmsc.xtext.generator.TmscXtextToTmscTransformation;
-import nl.esi.pps.tmsc.xtext.tmscXtext.TmscXtextModel;
 import nl.tno.mids.cif.extensions.FileExtensions;
 import nl.tno.mids.common.unittest.FileCompare;
+import nl.tno.mids.cmi.utils.ComponentWordCache;
+import nl.tno.mids.cmi.utils.TmscMetrics;
+import nl.tno.mids.pps.extensions.cmi.CmiPreparer;
 import nl.tno.mids.pps.extensions.cmi.CmiPreparers;
 
 class ComponentModelBuilderTest {
@@ -161,6 +165,180 @@ class ComponentModelBuilderTest {
             assertEquals((nrOfWords * wordLength) + 1, builder.getPTA("testComponent").size());
             assertEquals((nrOfWords * (wordLength - 1)) + 1, builder.getDFA("testComponent").size());
         }
+
+        @Test
+        void testMinimizeOnline() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            ComponentModelBuilder minimizingBuilder = new ComponentModelBuilder();
+            minimizingBuilder.setMinimizeOnline(true);
+            for (ComponentModelBuilder b: List.of(builder, minimizingBuilder)) {
+                b.insert("testComponent", Word.fromSymbols("f1", "f1_ret"));
+                b.insert("testComponent", Word.fromSymbols("f1", "f2", "f2_ret", "f1_ret"));
+                b.insert("testComponent", Word.fromSymbols("f3", "f3_ret"));
+                b.insert("testComponent", Word.fromSymbols("f3", "f2", "f2_ret", "f3_ret"));
+            }
+
+            FastDFA<String> dfa = builder.getDFA("testComponent");
+            FastDFA<String> minimizedDfa = minimizingBuilder.getDFA("testComponent");
+            assertEquals(dfa.size(), minimizedDfa.size());
+            assertTrue(Automata.testEquivalence(dfa, minimizedDfa, dfa.getInputAlphabet()));
+        }
+
+        @Test
+        void testMergeBuilders() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent2", Word.fromSymbols("f2", "f2_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f3", "f3_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+
+            ComponentModelBuilder partialBuilder1 = new ComponentModelBuilder();
+            partialBuilder1.setRecordWords(true);
+            partialBuilder1.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            partialBuilder1.insert("testComponent2", Word.fromSymbols("f2", "f2_ret"));
+            ComponentModelBuilder partialBuilder2 = new ComponentModelBuilder();
+            partialBuilder2.setRecordWords(true);
+            partialBuilder2.insert("testComponent1", Word.fromSymbols("f3", "f3_ret"));
+            partialBuilder2.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+
+            ComponentModelBuilder mergedBuilder = new ComponentModelBuilder();
+            assertThrows(IllegalArgumentException.class, () -> mergedBuilder.insert(builder));
+            mergedBuilder.insert(partialBuilder1);
+            mergedBuilder.insert(partialBuilder2);
+
+            assertEquals(builder.getWordCount(), mergedBuilder.getWordCount());
+            assertEquals(builder.getDistinctWordCount(), mergedBuilder.getDistinctWordCount());
+            assertEquals(new ArrayList<>(builder.getComponentLabels()),
+                    new ArrayList<>(mergedBuilder.getComponentLabels()));
+            for (String componentLabel: builder.getComponentLabels()) {
+                assertEquals(dfaToString(builder.getDFA(componentLabel)),
+                        dfaToString(mergedBuilder.getDFA(componentLabel)));
+            }
+        }
+
+        @Test
+        void testWordCache(@TempDir Path tempDir) throws IOException {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            builder.setRecordWords(true);
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent2", Word.fromSymbols("f2", "f1", "f1_ret", "f2_ret"));
+            TmscMetrics tmscMetrics = new TmscMetrics();
+            tmscMetrics.duration = Duration.ofSeconds(3);
+            tmscMetrics.eventCount = 10;
+            tmscMetrics.callStackCount = builder.getWordCount();
+            tmscMetrics.distinctCallStackCount = builder.getDistinctWordCount();
+
+            Path cachePath = tempDir.resolve(ComponentWordCache.FILE_NAME);
+            ComponentWordCache.write(cachePath, "key", builder, tmscMetrics, List.of("warning"));
+
+            ComponentModelBuilder readBuilder = new ComponentModelBuilder();
+            TmscMetrics readMetrics = new TmscMetrics();
+            List<String> readWarnings = new ArrayList<>();
+            assertFalse(ComponentWordCache.read(cachePath, "otherKey", readBuilder, readMetrics, readWarnings));
+            assertTrue(ComponentWordCache.read(cachePath, "key", readBuilder, readMetrics, readWarnings));
+
+            assertEquals(List.of("warning"), readWarnings);
+
+            assertEquals(tmscMetrics.duration, readMetrics.duration);
+            assertEquals(10, readMetrics.eventCount);
+            assertEquals(3, readMetrics.callStackCount);
+            assertEquals(2, readMetrics.distinctCallStackCount);
+            assertEquals(builder.getComponentLabels(), readBuilder.getComponentLabels());
+            for (String componentLabel: builder.getComponentLabels()) {
+                assertEquals(dfaToString(builder.getDFA(componentLabel)),
+                        dfaToString(readBuilder.getDFA(componentLabel)));
+            }
+
+            // The counters of the read builder are those of the written builder, also when resuming from them.
+            assertEquals(3, readBuilder.getWordCount());
+            assertEquals(2, readBuilder.getDistinctWordCount());
+            readBuilder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            readBuilder.insert("testComponent1", Word.fromSymbols("f3", "f3_ret"));
+            assertEquals(5, readBuilder.getWordCount());
+            assertEquals(3, readBuilder.getDistinctWordCount());
+
+            // Words cached without component filters can be read with filters, skipping the excluded components.
+            ComponentModelBuilder filteredBuilder = new ComponentModelBuilder();
+            filteredBuilder.setRecordWords(true);
+            filteredBuilder.setComponentFilters("testComponent1", "");
+            assertTrue(ComponentWordCache.read(cachePath, "key", filteredBuilder, new TmscMetrics(),
+                    new ArrayList<>()));
+            assertEquals(Set.of("testComponent1"), filteredBuilder.getComponentLabels());
+
+            // Words cached with component filters can only be read with the same filters.
+            ComponentWordCache.write(cachePath, "key", filteredBuilder, tmscMetrics, List.of());
+            ComponentModelBuilder otherFilteredBuilder = new ComponentModelBuilder();
+            otherFilteredBuilder.setComponentFilters("", "testComponent1");
+            assertFalse(ComponentWordCache.read(cachePath, "key", otherFilteredBuilder, new TmscMetrics(),
+                    new ArrayList<>()));
+            assertFalse(ComponentWordCache.read(cachePath, "key", new ComponentModelBuilder(), new TmscMetrics(),
+                    new ArrayList<>()));
+            ComponentModelBuilder sameFilteredBuilder = new ComponentModelBuilder();
+            sameFilteredBuilder.setComponentFilters("testComponent1", "");
+            assertTrue(ComponentWordCache.read(cachePath, "key", sameFilteredBuilder, new TmscMetrics(),
+                    new ArrayList<>()));
+        }
+
+        @Test
+        void testParallelOrder() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            List<String> componentLabels = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                componentLabels.add("testComponent" + (20 - i));
+                builder.insert("testComponent" + (20 - i), Word.fromSymbols("f" + i, "f" + i + "_ret"));
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                builder.setPool(pool);
+                assertEquals(componentLabels, new ArrayList<>(builder.getDFAs().keySet()));
+                assertEquals(componentLabels, new ArrayList<>(builder.getCifModels().keySet()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        void testRepeatedWords() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f2", "f2_ret"));
+            builder.insert("testComponent2", Word.fromSymbols("f1", "f1_ret"));
+
+            assertEquals(4, builder.getWordCount());
+            assertEquals(3, builder.getDistinctWordCount());
+            assertEquals(3, builder.getDFA("testComponent1").size());
+            assertThrows(IllegalStateException.class, () -> builder.getComponentWords());
+        }
+
+        @Test
+        void testRecordWords() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            builder.setRecordWords(true);
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testComponent1", Word.fromSymbols("f2", "f2_ret"));
+            builder.insert("testComponent2", Word.fromSymbols("f1", "f1_ret"));
+
+            assertEquals(4, builder.getWordCount());
+            assertEquals(3, builder.getDistinctWordCount());
+            assertEquals(2, builder.getComponentWords().get("testComponent1").size());
+            assertEquals(1, builder.getComponentWords().get("testComponent2").size());
+            assertThrows(IllegalStateException.class, () -> builder.setRecordWords(false));
+        }
+
+        @Test
+        void testComponentFilters() {
+            ComponentModelBuilder builder = new ComponentModelBuilder();
+            builder.setComponentFilters("test.*", ".*Excluded");
+            builder.insert("testComponent", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("testExcluded", Word.fromSymbols("f1", "f1_ret"));
+            builder.insert("otherComponent", Word.fromSymbols("f1", "f1_ret"));
+
+            assertEquals(Set.of("testComponent"), builder.getComponentLabels());
+        }
     }
 
     @ParameterizedTest
@@ -184,22 +362,95 @@ class ComponentModelBuilderTest {
             "Untraced" // Test with calls to and calls from and untraced component.
     })
     void testBasicTmsc(String testName) throws IOException {
-        Path basePath = Paths.get("testData/ComponentModelBuilder/").resolve(testName);
-        Path baseTmsctPath = basePath.resolve("input").resolve(testName + ".tmsct");
-        Path baseActualPath = basePath.resolve("output_actual/");
-        Path baseExpectedPath = basePath.resolve("output_expected/");
+        testBasicTmsc(testName, null, false);
+    }
 
-        Persistor<EObject> persistor = new PersistorFactory(TmscEditPlugin.createResourceSet()).getPersistor();
-        List<EObject> fileContent = persistor.loadAll(URI.createFileURI(baseTmsctPath.toString()));
+    @ParameterizedTest
+    @ValueSource(strings =
+    {"Lattice", // Test with multiple variations of the same service fragment with overlap.
+            "MultipleClient", // Test with multiple clients that call the same server function.
+            "Nested", // Test with client calling a function on a server, which calls another function on
+                      // another server.
+            "SeperateApplications", // Test with two clients calling functions of two servers, with no interaction.
+    })
+    void testBasicTmscParallel(String testName) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            testBasicTmsc(testName, pool, false);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-        TmscXtextModel tmsctModel = (TmscXtextModel)fileContent.get(0);
-        FullScopeTMSC tmsc = new TmscXtextToTmscTransformation().transform(tmsctModel);
+    @ParameterizedTest
+    @ValueSource(strings =
+    {"Lattice", // Test with multiple variations of the same service fragment with overlap.
+            "Nested", // Test with client calling a function on a server, which calls another function on
+                      // another server.
+            "Untraced" // Test with calls to and calls from and untraced component.
+    })
+    void testBasicTmscVirtualScope(String testName) throws IOException {
+        testBasicTmsc(testName, null, true);
+    }
 
+    @Test
+    void testBasicTmscWindows() throws IOException {
+        FullScopeTMSC tmsc = TestTmscs.loadBasicTmsc("Repeated");
         CmiPreparers.findFor(tmsc).prepare(tmsc, "CMI", new ArrayList<>(), null);
 
         ComponentModelBuilder builder = new ComponentModelBuilder(true);
         builder.insert(tmsc);
 
+        // A single window covering the entire TMSC has the same models as the TMSC.
+        ComponentModelBuilder singleWindowBuilder = new ComponentModelBuilder(true);
+        singleWindowBuilder.setWindowDuration(Long.MAX_VALUE);
+        singleWindowBuilder.insert(tmsc);
+        assertTrue(singleWindowBuilder.getComponentLabels().isEmpty());
+        assertEquals(1, singleWindowBuilder.getWindows().size());
+        ComponentModelBuilder singleWindow = singleWindowBuilder.getWindows().values().iterator().next();
+        assertEquals(builder.getComponentLabels(), singleWindow.getComponentLabels());
+        for (String componentLabel: builder.getComponentLabels()) {
+            assertEquals(dfaToString(builder.getDFA(componentLabel)), dfaToString(singleWindow.getDFA(componentLabel)));
+        }
+        assertEquals(builder.getWordCount(), singleWindowBuilder.getWordCount());
+
+        // Each repetition of the call starts in its own window of one second, and is thus routed to its own window.
+        ComponentModelBuilder windowBuilder = new ComponentModelBuilder(true);
+        windowBuilder.setWindowDuration(Duration.ofSeconds(1).toNanos());
+        windowBuilder.insert(tmsc);
+        assertEquals(10, windowBuilder.getWindows().size());
+        for (ComponentModelBuilder window: windowBuilder.getWindows().values()) {
+            assertEquals(builder.getComponentLabels(), window.getComponentLabels());
+            assertEquals(2, window.getWordCount());
+            for (String componentLabel: builder.getComponentLabels()) {
+                assertEquals(dfaToString(builder.getDFA(componentLabel)), dfaToString(window.getDFA(componentLabel)));
+            }
+        }
+        assertEquals(builder.getWordCount(), windowBuilder.getWordCount());
+        assertEquals(20, windowBuilder.getDistinctWordCount());
+    }
+
+    private void testBasicTmsc(String testName, ForkJoinPool pool, boolean virtualScope) throws IOException {
+        Path basePath = Paths.get("testData/ComponentModelBuilder/").resolve(testName);
+        Path baseActualPath = basePath.resolve("output_actual/");
+        Path baseExpectedPath = basePath.resolve("output_expected/");
+
+        FullScopeTMSC tmsc = TestTmscs.loadBasicTmsc(testName);
+
+        int dependencyCount = tmsc.getDependencies().size();
+        CmiPreparer preparer = CmiPreparers.findFor(tmsc);
+        preparer.setVirtualScope(virtualScope);
+        ScopedTMSC scopedTmsc = preparer.prepare(tmsc, "CMI", new ArrayList<>(), null);
+        if (virtualScope) {
+            // A virtual scope does not add any dependencies.
+            assertTrue(scopedTmsc.getDependencies().isEmpty());
+            assertEquals(dependencyCount, tmsc.getDependencies().size());
+        }
+
+        ComponentModelBuilder builder = new ComponentModelBuilder(true);
+        builder.setPool(pool);
+        builder.insert(virtualScope ? scopedTmsc : tmsc);
+
         Map<String, Specification> cifModels = builder.getCifModels();
 
         for (String componentName: cifModels.keySet()) {
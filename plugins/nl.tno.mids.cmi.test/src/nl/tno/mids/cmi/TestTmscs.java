@@ -0,0 +1,47 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.lsat.common.emf.ecore.resource.Persistor;
+import org.eclipse.lsat.common.emf.ecore.resource.PersistorFactory;
+
+import nl.esi.pps.tmsc.FullScopeTMSC;
+import nl.esi.pps.tmsc.provider.TmscEditPlugin;
+import nl.esi.pps.tmsc.xtext.generator.TmscXtextToTmscTransformation;
+import nl.esi.pps.tmsc.xtext.tmscXtext.TmscXtextModel;
+
+/** Loaders for test TMSCs. */
+public class TestTmscs {
+    /**
+     * Loads the input TMSC of a {@link ComponentModelBuilderTest} test. Requires the TMSC Xtext language to be set up.
+     *
+     * @param testName The name of the test, which is the name of its folder in the test data.
+     * @return The loaded TMSC.
+     * @throws IOException In case loading the TMSC fails.
+     */
+    public static FullScopeTMSC loadBasicTmsc(String testName) throws IOException {
+        Path baseTmsctPath = Paths.get("testData/ComponentModelBuilder/").resolve(testName).resolve("input")
+                .resolve(testName + ".tmsct");
+
+        Persistor<EObject> persistor = new PersistorFactory(TmscEditPlugin.createResourceSet()).getPersistor();
+        List<EObject> fileContent = persistor.loadAll(URI.createFileURI(baseTmsctPath.toString()));
+
+        TmscXtextModel tmsctModel = (TmscXtextModel)fileContent.get(0);
+        return new TmscXtextToTmscTransformation().transform(tmsctModel);
+    }
+}
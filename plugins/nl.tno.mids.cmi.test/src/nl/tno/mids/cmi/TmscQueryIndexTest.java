@@ -0,0 +1,178 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.Execution;
+import nl.esi.pps.tmsc.FullScopeTMSC;
+import nl.esi.pps.tmsc.Lifeline;
+import nl.esi.pps.tmsc.Message;
+import nl.esi.pps.tmsc.ScopedTMSC;
+import nl.esi.pps.tmsc.TmscFactory;
+import nl.esi.pps.tmsc.xtext.TmscXtextStandaloneSetup;
+import nl.tno.mids.pps.extensions.cmi.AnnotatedTextPreparer;
+import nl.tno.mids.pps.extensions.cmi.CmiPreparers;
+import nl.tno.mids.pps.extensions.queries.TmscDependencyIndex;
+import nl.tno.mids.pps.extensions.queries.TmscDependencyQueries;
+import nl.tno.mids.pps.extensions.queries.TmscEventQueries;
+import nl.tno.mids.pps.extensions.queries.TmscExecutionQueries;
+import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries;
+import nl.tno.mids.pps.extensions.queries.TmscScopeIndex;
+
+/** Tests that the TMSC query indices give the same results as the queries that filter the full scope. */
+class TmscQueryIndexTest {
+    @BeforeAll
+    static void beforeAll() {
+        TmscXtextStandaloneSetup.doSetup();
+    }
+
+    @Test
+    void testIndicesMatchQueries() throws IOException {
+        FullScopeTMSC tmsc = TestTmscs.loadBasicTmsc("MultipleServer");
+        ScopedTMSC scopedTmsc = new ExcludeExecutorPreparer("Server3").prepare(tmsc, "CMI", new ArrayList<>(), null);
+
+        // Add messages such that the call of the client to the second server has two outgoing messages in scope and one
+        // outgoing message out of scope, and the handler of the second server has two incoming messages in scope.
+        Event clientCall = getLifeline(tmsc, "Client").getEvents().get(1);
+        Event server2Handler = getLifeline(tmsc, "Server2").getEvents().get(0);
+        Event server3Handler = getLifeline(tmsc, "Server3").getEvents().get(0);
+        scopedTmsc.getDependencies().add(addMessage(tmsc, clientCall, server2Handler));
+        addMessage(tmsc, clientCall, server3Handler);
+
+        List<Object> expectedResults = queryAll(tmsc, scopedTmsc);
+
+        TmscDependencyIndex.install(scopedTmsc);
+        TmscScopeIndex.install(scopedTmsc);
+        assertEquals(expectedResults, queryAll(tmsc, scopedTmsc));
+
+        // Check that the scope contains the cases the indices should handle.
+        assertTrue(TmscEventQueries.isInScope(scopedTmsc, clientCall));
+        assertFalse(TmscEventQueries.isInScope(scopedTmsc, server3Handler));
+        assertTrue(TmscDependencyQueries.hasOutgoingMessageDependencies(clientCall, scopedTmsc));
+        assertEquals("Expected a single outgoing message dependency, but found 2.",
+                query(() -> TmscDependencyQueries.getOutgoingMessageDependency(clientCall, scopedTmsc)));
+        assertEquals("Expected a single incoming message dependency, but found 2.",
+                query(() -> TmscDependencyQueries.getIncomingMessageDependency(server2Handler, scopedTmsc)));
+
+        // Modifying the scope removes the indices.
+        scopedTmsc.getDependencies().remove(scopedTmsc.getDependencies().size() - 1);
+        assertNull(TmscDependencyIndex.get(scopedTmsc));
+        assertNull(TmscScopeIndex.get(scopedTmsc));
+    }
+
+    @Test
+    void testIndicesRemovedAfterInsertion() throws IOException {
+        FullScopeTMSC tmsc = TestTmscs.loadBasicTmsc("MultipleServer");
+        ScopedTMSC scopedTmsc = CmiPreparers.findFor(tmsc).prepare(tmsc, "CMI", new ArrayList<>(), null);
+        int fullScopeAdapterCount = tmsc.eAdapters().size();
+        int scopeAdapterCount = scopedTmsc.eAdapters().size();
+
+        new ComponentModelBuilder(true).insert(scopedTmsc);
+        assertNull(TmscDependencyIndex.get(scopedTmsc));
+        assertNull(TmscScopeIndex.get(scopedTmsc));
+        assertEquals(fullScopeAdapterCount, tmsc.eAdapters().size());
+        assertEquals(scopeAdapterCount, scopedTmsc.eAdapters().size());
+
+        // Indices that were attached before insertion are kept.
+        TmscDependencyIndex dependencyIndex = TmscDependencyIndex.install(scopedTmsc);
+        TmscScopeIndex scopeIndex = TmscScopeIndex.install(scopedTmsc);
+        new ComponentModelBuilder(true).insert(scopedTmsc);
+        assertSame(dependencyIndex, TmscDependencyIndex.get(scopedTmsc));
+        assertSame(scopeIndex, TmscScopeIndex.get(scopedTmsc));
+    }
+
+    /**
+     * Queries the scope of all lifelines, executions and events of a TMSC.
+     *
+     * @param tmsc The full scope TMSC.
+     * @param scopedTmsc The scope to query.
+     * @return The results of the queries, with the messages of the exceptions thrown by queries as their results.
+     */
+    private static List<Object> queryAll(FullScopeTMSC tmsc, ScopedTMSC scopedTmsc) {
+        List<Object> results = new ArrayList<>();
+        results.add(TmscEventQueries.getEventsInScope(scopedTmsc));
+        results.add(TmscLifelineQueries.nonEmptyLifelinesOf(scopedTmsc));
+        for (Lifeline lifeline: tmsc.getLifelines()) {
+            results.add(TmscLifelineQueries.getEventsInScope(lifeline, scopedTmsc));
+
+            // The scoped roots of all executions of a lifeline match those of the individual executions.
+            Map<Execution, Execution> rootsInScope = TmscExecutionQueries.getRootsInScope(scopedTmsc, lifeline);
+            assertEquals(lifeline.getExecutions().size(), rootsInScope.size());
+            for (Execution execution: lifeline.getExecutions()) {
+                assertEquals(TmscExecutionQueries.getRootInScope(scopedTmsc, execution), rootsInScope.get(execution));
+                results.add(TmscExecutionQueries.isInScope(scopedTmsc, execution));
+                results.add(rootsInScope.get(execution));
+            }
+        }
+        for (Event event: tmsc.getEvents()) {
+            results.add(TmscEventQueries.isInScope(scopedTmsc, event));
+            results.add(TmscDependencyQueries.hasIncomingMessageDependencies(event, scopedTmsc));
+            results.add(TmscDependencyQueries.hasOutgoingMessageDependencies(event, scopedTmsc));
+            results.add(query(() -> TmscDependencyQueries.getIncomingMessageDependency(event, scopedTmsc)));
+            results.add(query(() -> TmscDependencyQueries.getOutgoingMessageDependency(event, scopedTmsc)));
+        }
+        return results;
+    }
+
+    private static Object query(Supplier<Object> query) {
+        try {
+            return query.get();
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static Lifeline getLifeline(FullScopeTMSC tmsc, String executorName) {
+        Lifeline lifeline = tmsc.getLifelines().stream()
+                .filter(candidate -> candidate.getExecutor().getName().equals(executorName)).findFirst().orElse(null);
+        assertNotNull(lifeline);
+        return lifeline;
+    }
+
+    private static Message addMessage(FullScopeTMSC tmsc, Event source, Event target) {
+        Message message = TmscFactory.eINSTANCE.createMessage();
+        message.setSource(source);
+        message.setTarget(target);
+        tmsc.getDependencies().add(message);
+        return message;
+    }
+
+    /** Preparer for annotated TMSCs that excludes the events of a single executor from the scope. */
+    static class ExcludeExecutorPreparer extends AnnotatedTextPreparer {
+        private final String executorName;
+
+        ExcludeExecutorPreparer(String executorName) {
+            this.executorName = executorName;
+        }
+
+        @Override
+        protected ScopedTMSC scope(FullScopeTMSC tmsc, String scopeName) {
+            return scopeOnEvents(tmsc, scopeName,
+                    event -> !event.getLifeline().getExecutor().getName().equals(executorName));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import nl.esi.pps.tmsc.Dependency;
+import nl.esi.pps.tmsc.EntryEvent;
+import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.Execution;
+import nl.esi.pps.tmsc.FullScopeTMSC;
+import nl.esi.pps.tmsc.Lifeline;
+import nl.esi.pps.tmsc.LifelineSegment;
+import nl.esi.pps.tmsc.ScopedTMSC;
+import nl.esi.pps.tmsc.xtext.TmscXtextStandaloneSetup;
+import nl.tno.mids.pps.extensions.cmi.AnnotatedTextPreparer;
+import nl.tno.mids.pps.extensions.queries.TmscDependencyQueries;
+import nl.tno.mids.pps.extensions.queries.TmscEventQueries;
+import nl.tno.mids.pps.extensions.queries.TmscExecutionQueries;
+import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries;
+import nl.tno.mids.pps.extensions.queries.TmscVirtualScope;
+
+/** Tests that virtual scopes have the same contents as the scopes that are materialized by the CMI preparers. */
+class TmscVirtualScopeTest {
+    /** Excludes the events of the third server, and the entry event of the trigger, which isolates its exit event. */
+    private static final Predicate<Event> PREDICATE = event -> {
+        String executorName = event.getLifeline().getExecutor().getName();
+        return !executorName.equals("Server3") && !(executorName.equals("Trigger") && event instanceof EntryEvent);
+    };
+
+    @BeforeAll
+    static void beforeAll() {
+        TmscXtextStandaloneSetup.doSetup();
+    }
+
+    @Test
+    void testVirtualScopeMatchesMaterializedScope() throws IOException {
+        FullScopeTMSC materializedTmsc = TestTmscs.loadBasicTmsc("MultipleServer");
+        FullScopeTMSC virtualTmsc = TestTmscs.loadBasicTmsc("MultipleServer");
+        int dependencyCount = virtualTmsc.getDependencies().size();
+
+        PredicatePreparer materializedPreparer = new PredicatePreparer(PREDICATE);
+        ScopedTMSC materializedScope = materializedPreparer.prepare(materializedTmsc, "CMI", new ArrayList<>(), null);
+        PredicatePreparer virtualPreparer = new PredicatePreparer(PREDICATE);
+        virtualPreparer.setVirtualScope(true);
+        ScopedTMSC virtualScope = virtualPreparer.prepare(virtualTmsc, "CMI", new ArrayList<>(), null);
+
+        // The materialized scope excludes some dependencies and thus adds life-line segments, the virtual scope does not.
+        assertNull(TmscVirtualScope.get(materializedScope));
+        assertNotNull(TmscVirtualScope.get(virtualScope));
+        assertTrue(materializedTmsc.getDependencies().size() > dependencyCount);
+        assertEquals(dependencyCount, virtualTmsc.getDependencies().size());
+        assertTrue(virtualScope.getDependencies().isEmpty());
+
+        // The exit event of the trigger satisfies the predicate, but is isolated and thus not in scope.
+        Event triggerExit = getLifeline(virtualTmsc, "Trigger").getEvents().get(1);
+        assertTrue(PREDICATE.test(triggerExit));
+        assertFalse(TmscEventQueries.isInScope(virtualScope, triggerExit));
+
+        // The events in scope are the same.
+        assertEquals(describeEvents(materializedTmsc, TmscEventQueries.getEventsInScope(materializedScope)),
+                describeEvents(virtualTmsc, TmscEventQueries.getEventsInScope(virtualScope)));
+        for (int i = 0; i < virtualTmsc.getEvents().size(); i++) {
+            assertEquals(TmscEventQueries.isInScope(materializedScope, materializedTmsc.getEvents().get(i)),
+                    TmscEventQueries.isInScope(virtualScope, virtualTmsc.getEvents().get(i)));
+        }
+        for (int i = 0; i < virtualTmsc.getLifelines().size(); i++) {
+            Lifeline materializedLifeline = materializedTmsc.getLifelines().get(i);
+            Lifeline virtualLifeline = virtualTmsc.getLifelines().get(i);
+            assertEquals(
+                    describeEvents(materializedTmsc,
+                            TmscLifelineQueries.getEventsInScope(materializedLifeline, materializedScope)),
+                    describeEvents(virtualTmsc, TmscLifelineQueries.getEventsInScope(virtualLifeline, virtualScope)));
+            for (int j = 0; j < virtualLifeline.getExecutions().size(); j++) {
+                Execution materializedExecution = materializedLifeline.getExecutions().get(j);
+                Execution virtualExecution = virtualLifeline.getExecutions().get(j);
+                assertEquals(TmscExecutionQueries.isInScope(materializedScope, materializedExecution),
+                        TmscExecutionQueries.isInScope(virtualScope, virtualExecution));
+            }
+        }
+
+        // The dependencies in scope are the same, apart from the life-line segments added by the materialized scope.
+        List<Dependency> materializedDependencies = TmscDependencyQueries.getDependenciesInScope(materializedScope)
+                .stream().filter(dependency -> !isProjection(dependency)).collect(Collectors.toList());
+        assertEquals(describeDependencies(materializedTmsc, materializedDependencies),
+                describeDependencies(virtualTmsc, TmscDependencyQueries.getDependenciesInScope(virtualScope)));
+        for (int i = 0; i < dependencyCount; i++) {
+            assertEquals(TmscDependencyQueries.isInScope(materializedScope, materializedTmsc.getDependencies().get(i)),
+                    TmscDependencyQueries.isInScope(virtualScope, virtualTmsc.getDependencies().get(i)));
+        }
+    }
+
+    private static boolean isProjection(Dependency dependency) {
+        return dependency instanceof LifelineSegment && ((LifelineSegment)dependency).isProjection();
+    }
+
+    private static List<Integer> describeEvents(FullScopeTMSC tmsc, List<Event> events) {
+        return events.stream().map(event -> tmsc.getEvents().indexOf(event)).sorted().collect(Collectors.toList());
+    }
+
+    private static List<String> describeDependencies(FullScopeTMSC tmsc, List<Dependency> dependencies) {
+        return dependencies.stream()
+                .map(dependency -> dependency.eClass().getName() + " " + tmsc.getEvents().indexOf(dependency.getSource())
+                        + " " + tmsc.getEvents().indexOf(dependency.getTarget()))
+                .sorted().collect(Collectors.toList());
+    }
+
+    private static Lifeline getLifeline(FullScopeTMSC tmsc, String executorName) {
+        Lifeline lifeline = tmsc.getLifelines().stream()
+                .filter(candidate -> candidate.getExecutor().getName().equals(executorName)).findFirst().orElse(null);
+        assertNotNull(lifeline);
+        return lifeline;
+    }
+
+    /** Preparer for annotated TMSCs that scopes on the events that satisfy a predicate. */
+    private static class PredicatePreparer extends AnnotatedTextPreparer {
+        private final Predicate<Event> predicate;
+
+        PredicatePreparer(Predicate<Event> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected ScopedTMSC scope(FullScopeTMSC tmsc, String scopeName) {
+            return scopeOnEvents(tmsc, scopeName, predicate);
+        }
+    }
+}
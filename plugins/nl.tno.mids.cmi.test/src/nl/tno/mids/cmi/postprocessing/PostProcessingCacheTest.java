@@ -0,0 +1,254 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.postprocessing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.escet.cif.metamodel.cif.Specification;
+import org.eclipse.escet.cif.prettyprinter.CifPrettyPrinter;
+import org.eclipse.escet.common.app.framework.AppEnv;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.tno.mids.cif.extensions.CIFOperations;
+import nl.tno.mids.cmi.postprocessing.operations.InjectDomainKnowledgeOperator;
+import nl.tno.mids.cmi.postprocessing.operations.InjectDomainKnowledgeOptions;
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+
+/** Tests the on-disk cache of the results of post-processing operations. */
+class PostProcessingCacheTest {
+    /** The test data of the domain knowledge injection test, using the union operator. */
+    private static final Path INJECT_PATH = Paths.get("testData/PostProcessing/InjectDomainKnowledgeTest/UNION");
+
+    @Test
+    void testReadWrite(@TempDir Path tempDir) throws IOException {
+        PostProcessingCache cache = new PostProcessingCache(tempDir, PostProcessingCache.DEFAULT_MAX_SIZE);
+        Map<String, PostProcessingModel> models = createModels(PostProcessingTest.loadInputModels());
+        String key = cache.computeKey("Operation", "options", models, models.keySet());
+
+        // The key depends on the operation, its options and the selection of the models.
+        assertEquals(key, cache.computeKey("Operation", "options", models, models.keySet()));
+        assertNotEquals(key, cache.computeKey("Other", "options", models, models.keySet()));
+        assertNotEquals(key, cache.computeKey("Operation", "other", models, models.keySet()));
+        assertNotEquals(key, cache.computeKey("Operation", "options", models, Collections.emptySet()));
+
+        // Result is not in the cache before it is written.
+        Map<String, PostProcessingModel> readModels = new LinkedHashMap<>();
+        assertFalse(cache.read(key, readModels));
+        assertTrue(readModels.isEmpty());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // Result is read as written, replacing the models.
+        cache.write(key, models);
+        readModels.put("Other", models.values().iterator().next());
+        assertTrue(cache.read(key, readModels));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(describeModels(models), describeModels(readModels));
+    }
+
+    @Test
+    void testReadWriteDfa(@TempDir Path tempDir) {
+        PostProcessingCache cache = new PostProcessingCache(tempDir, PostProcessingCache.DEFAULT_MAX_SIZE);
+        Map<String, PostProcessingModel> models = new LinkedHashMap<>();
+        for (PostProcessingModel model: createModels(PostProcessingTest.loadInputModels()).values()) {
+            models.put(model.name + "_dfa", new PostProcessingModelCompactDfa(model.getCompactDfa(), model.name,
+                    model.status));
+            models.put(model.name + "_renamed", model.rename(event -> event + "_renamed", true, model.status));
+        }
+        String key = cache.computeKey("Operation", "options", models, models.keySet());
+
+        // DFAs are read back as DFAs, and result in the same CIF specifications.
+        cache.write(key, models);
+        Map<String, PostProcessingModel> readModels = new LinkedHashMap<>();
+        assertTrue(cache.read(key, readModels));
+        assertEquals(models.keySet(), readModels.keySet());
+        for (Entry<String, PostProcessingModel> entry: readModels.entrySet()) {
+            assertEquals(models.get(entry.getKey()).getClass(), entry.getValue().getClass());
+        }
+        assertEquals(describeModels(models), describeModels(readModels));
+    }
+
+    @Test
+    void testEviction(@TempDir Path tempDir) throws IOException {
+        Map<String, PostProcessingModel> models = createModels(PostProcessingTest.loadInputModels());
+        PostProcessingCache unboundedCache = new PostProcessingCache(tempDir, PostProcessingCache.DEFAULT_MAX_SIZE);
+        String key1 = unboundedCache.computeKey("Operation", "1", models, models.keySet());
+        String key2 = unboundedCache.computeKey("Operation", "2", models, models.keySet());
+        String key3 = unboundedCache.computeKey("Operation", "3", models, models.keySet());
+
+        // Write two results, the first one before the second one.
+        unboundedCache.write(key1, models);
+        unboundedCache.write(key2, models);
+        Path path1 = getResultPath(tempDir, key1);
+        Path path2 = getResultPath(tempDir, key2);
+        Files.setLastModifiedTime(path1, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(path2, FileTime.fromMillis(2000));
+
+        // Use the first result, making the second one the least recently used one.
+        long resultSize = Files.size(path1);
+        PostProcessingCache cache = new PostProcessingCache(tempDir, 2 * resultSize + resultSize / 2);
+        assertTrue(cache.read(key1, new LinkedHashMap<>()));
+
+        // Writing a third result exceeds the maximum size, and evicts the least recently used result only.
+        cache.write(key3, models);
+        assertTrue(Files.exists(path1));
+        assertFalse(Files.exists(path2));
+        assertTrue(Files.exists(getResultPath(tempDir, key3)));
+        assertFalse(cache.read(key2, new LinkedHashMap<>()));
+    }
+
+    @Test
+    void testEvictionAfterWrites(@TempDir Path tempDir) throws IOException {
+        Map<String, PostProcessingModel> models = createModels(PostProcessingTest.loadInputModels());
+        PostProcessingCache unboundedCache = new PostProcessingCache(tempDir.resolve("unbounded"),
+                PostProcessingCache.DEFAULT_MAX_SIZE);
+        String key1 = unboundedCache.computeKey("Operation", "1", models, models.keySet());
+        unboundedCache.write(key1, models);
+        long resultSize = Files.size(getResultPath(tempDir.resolve("unbounded"), key1));
+
+        // The first write scans the folder, while the second one only adds to the total size.
+        PostProcessingCache cache = new PostProcessingCache(tempDir, 2 * resultSize + resultSize / 2);
+        String key2 = cache.computeKey("Operation", "2", models, models.keySet());
+        String key3 = cache.computeKey("Operation", "3", models, models.keySet());
+        cache.write(key1, models);
+        cache.write(key2, models);
+        Path path1 = getResultPath(tempDir, key1);
+        Path path2 = getResultPath(tempDir, key2);
+        Files.setLastModifiedTime(path1, FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(path2, FileTime.fromMillis(2000));
+
+        // Writing a third result makes the total size exceed the maximum size, and evicts the least recently used one.
+        cache.write(key3, models);
+        assertFalse(Files.exists(path1));
+        assertTrue(Files.exists(path2));
+        assertTrue(Files.exists(getResultPath(tempDir, key3)));
+    }
+
+    @Test
+    void testClear(@TempDir Path tempDir) throws IOException {
+        PostProcessingCache cache = new PostProcessingCache(tempDir, PostProcessingCache.DEFAULT_MAX_SIZE);
+        Map<String, PostProcessingModel> models = createModels(PostProcessingTest.loadInputModels());
+        String key = cache.computeKey("Operation", "options", models, models.keySet());
+        cache.write(key, models);
+
+        PostProcessingCache.clear(tempDir);
+        assertFalse(cache.read(key, new LinkedHashMap<>()));
+
+        // Clearing a folder that does not exist has no effect.
+        PostProcessingCache.clear(tempDir.resolve("missing"));
+    }
+
+    @Test
+    void testInjectDomainKnowledgeModelEdit(@TempDir Path tempDir) throws IOException {
+        // Inject a domain knowledge model that is relative to the input file.
+        Path injectPath = tempDir.resolve("injection.cif");
+        Files.copy(INJECT_PATH.resolve("injection/UNION_Injection.cif"), injectPath);
+        Path relativeResolvePath = tempDir.resolve("input.tmsc");
+        InjectDomainKnowledgeOptions options = new InjectDomainKnowledgeOptions();
+        options.operator = InjectDomainKnowledgeOperator.UNION;
+        options.modelPath = injectPath.getFileName().toString();
+        List<PostProcessingOperationOptions> operationsOptions = Collections.singletonList(options);
+        PostProcessingCache cache = new PostProcessingCache(tempDir.resolve("cache"),
+                PostProcessingCache.DEFAULT_MAX_SIZE);
+
+        // The result is computed once, and then reused.
+        String result = postProcess(relativeResolvePath, operationsOptions, cache);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(result, postProcess(relativeResolvePath, operationsOptions, cache));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // Editing the domain knowledge model invalidates the result.
+        Files.write(injectPath, "\n// Edited.\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(result, postProcess(relativeResolvePath, operationsOptions, cache));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    /**
+     * @param folder The path of the cache folder.
+     * @param key The key of a result.
+     * @return The path of the file of the result, which is named after its key.
+     */
+    private static Path getResultPath(Path folder, String key) throws IOException {
+        try (Stream<Path> paths = Files.list(folder)) {
+            List<Path> resultPaths = paths.filter(p -> p.getFileName().toString().startsWith(key + "."))
+                    .collect(Collectors.toList());
+            assertEquals(1, resultPaths.size());
+            return resultPaths.get(0);
+        }
+    }
+
+    private static Map<String, PostProcessingModel> createModels(Map<String, Specification> specifications) {
+        Map<String, PostProcessingModel> models = new LinkedHashMap<>();
+        for (Entry<String, Specification> entry: specifications.entrySet()) {
+            models.put(entry.getKey(), new PostProcessingModelCifSpec(entry.getValue(), entry.getKey(),
+                    new PostProcessingStatus(false, false)));
+        }
+        return models;
+    }
+
+    private static Map<String, String> describeModels(Map<String, PostProcessingModel> models) {
+        Map<String, String> descriptions = new LinkedHashMap<>();
+        for (Entry<String, PostProcessingModel> entry: models.entrySet()) {
+            PostProcessingModel model = entry.getValue();
+            descriptions.put(entry.getKey(), model.status.dataIsPresent() + "," + model.status.tauIsPresent() + ","
+                    + CifPrettyPrinter.boxSpec(model.getCifSpec()).toString());
+        }
+        return descriptions;
+    }
+
+    /**
+     * Post-processes the input model of the domain knowledge injection test.
+     *
+     * @param relativeResolvePath The absolute path of the input file.
+     * @param operationsOptions The options for each of the post-processing operations to perform.
+     * @param cache The cache of the results of post-processing operations.
+     * @return The post-processed model, as pretty printed CIF.
+     */
+    private static String postProcess(Path relativeResolvePath, List<PostProcessingOperationOptions> operationsOptions,
+            PostProcessingCache cache)
+    {
+        Map<String, Specification> componentsMap = new LinkedHashMap<>();
+        AppEnv.registerSimple();
+        try {
+            componentsMap.put("CIFAUTOMATON",
+                    CIFOperations.loadCIFSpec(INJECT_PATH.resolve("input/CIFAUTOMATON.cif")));
+        } finally {
+            AppEnv.unregisterThread();
+        }
+        Map<String, Specification> processedModels = PostProcessing.postProcess(componentsMap, relativeResolvePath,
+                operationsOptions, new NullProgressMonitor(), null, null, cache);
+        return CifPrettyPrinter.boxSpec(processedModels.get("CIFAUTOMATON")).toString();
+    }
+}
@@ -0,0 +1,190 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.postprocessing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.escet.cif.metamodel.cif.Specification;
+import org.eclipse.escet.cif.prettyprinter.CifPrettyPrinter;
+import org.eclipse.escet.common.app.framework.AppEnv;
+import org.junit.jupiter.api.Test;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.util.automata.Automata;
+import nl.tno.mids.cif.extensions.CIFOperations;
+import nl.tno.mids.cmi.postprocessing.operations.ExcludeInternalTransitionsOptions;
+import nl.tno.mids.cmi.postprocessing.operations.HideActionsOptions;
+import nl.tno.mids.cmi.postprocessing.operations.MergeInterfaceClientsServersOptions;
+import nl.tno.mids.cmi.postprocessing.operations.PrefixCloseOptions;
+import nl.tno.mids.cmi.postprocessing.operations.RenameFunctionsOptions;
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+import nl.tno.mids.cmi.utils.ExtractionProfiler;
+
+/** Tests post-processing of multiple models with multiple operations. */
+class PostProcessingTest {
+    /** The models of the components of the basic component extraction test. */
+    private static final Path INPUT_PATH = Paths.get("testData/ComponentExtraction/Base/output_expected");
+
+    @Test
+    void testPoolSameResult() throws IOException {
+        // Consecutive component local operations, followed by an operation that is not component local, and another
+        // component local operation.
+        List<PostProcessingOperationOptions> operationsOptions = new ArrayList<>();
+        HideActionsOptions hideActionsOptions = new HideActionsOptions();
+        hideActionsOptions.pattern = "IClient__j__.*";
+        operationsOptions.add(hideActionsOptions);
+        operationsOptions.add(new PrefixCloseOptions());
+        operationsOptions.add(new ExcludeInternalTransitionsOptions());
+        operationsOptions.add(new PrefixCloseOptions());
+
+        Map<String, String> sequentialModels = postProcess(operationsOptions, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Map<String, String> parallelModels = postProcess(operationsOptions, pool);
+            assertEquals(new ArrayList<>(sequentialModels.keySet()), new ArrayList<>(parallelModels.keySet()));
+            assertEquals(sequentialModels, parallelModels);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testRenamingChain() throws IOException {
+        // A chain of renaming operations, which are normalized once for the chain rather than after each operation.
+        List<PostProcessingOperationOptions> operationsOptions = new ArrayList<>();
+        HideActionsOptions hideActionsOptions = new HideActionsOptions();
+        hideActionsOptions.pattern = "IClient__j__.*";
+        operationsOptions.add(hideActionsOptions);
+        operationsOptions.add(new RenameFunctionsOptions("IServer:f->IServer:f2"));
+        operationsOptions.add(new MergeInterfaceClientsServersOptions());
+
+        // Applying the operations one at a time normalizes the models after each operation.
+        Map<String, Specification> stepwiseModels = loadInputModels();
+        for (PostProcessingOperationOptions operationOptions: operationsOptions) {
+            stepwiseModels = PostProcessing.postProcess(stepwiseModels, INPUT_PATH.toAbsolutePath(),
+                    Collections.singletonList(operationOptions), new NullProgressMonitor());
+        }
+        Map<String, Specification> chainedModels = PostProcessing.postProcess(loadInputModels(),
+                INPUT_PATH.toAbsolutePath(), operationsOptions, new NullProgressMonitor());
+
+        // The chained models have the same languages as the models of the separate operations.
+        assertEquals(new ArrayList<>(stepwiseModels.keySet()), new ArrayList<>(chainedModels.keySet()));
+        for (String component: stepwiseModels.keySet()) {
+            CompactDFA<String> stepwiseDfa = getCompactDfa(stepwiseModels.get(component), component);
+            CompactDFA<String> chainedDfa = getCompactDfa(chainedModels.get(component), component);
+            assertEquals(new HashSet<>(stepwiseDfa.getInputAlphabet()), new HashSet<>(chainedDfa.getInputAlphabet()));
+            assertNull(Automata.findSeparatingWord(stepwiseDfa, chainedDfa, stepwiseDfa.getInputAlphabet()),
+                    "Different languages for " + component);
+        }
+
+        // The chained models do not depend on whether a pool is used.
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(postProcess(operationsOptions, null), postProcess(operationsOptions, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testConversionReused() throws IOException {
+        Map<String, Specification> inputModels = loadInputModels();
+        int componentCount = inputModels.size();
+        ExtractionProfiler profiler = new ExtractionProfiler();
+        PostProcessing.postProcess(inputModels, INPUT_PATH.toAbsolutePath(),
+                Collections.singletonList(new ExcludeInternalTransitionsOptions()), new NullProgressMonitor(), profiler,
+                null, null);
+
+        StringWriter text = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(text)) {
+            profiler.writeText(writer);
+        }
+        Matcher matcher = Pattern.compile("Model conversions: ([\\d,]+) cached, ([\\d,]+) performed")
+                .matcher(text.toString());
+        assertTrue(matcher.find(), text.toString());
+        long hits = Long.parseLong(matcher.group(1).replace(",", ""));
+        long misses = Long.parseLong(matcher.group(2).replace(",", ""));
+
+        // Excluding internal transitions uses the DFA of each component for itself and for the other components. The
+        // DFA of each input specification is converted once, and reused at least when processing the component itself,
+        // except for the first component, of which the DFA is first used for itself.
+        assertTrue(misses >= componentCount, text.toString());
+        assertTrue(hits >= componentCount - 1, text.toString());
+    }
+
+    private static CompactDFA<String> getCompactDfa(Specification specification, String component) {
+        return new PostProcessingModelCifSpec(specification, component, new PostProcessingStatus(false, false))
+                .getCompactDfa();
+    }
+
+    /**
+     * @return The input models, per component, in the order of their names.
+     */
+    static Map<String, Specification> loadInputModels() throws IOException {
+        Map<String, Specification> componentsMap = new LinkedHashMap<>();
+        AppEnv.registerSimple();
+        try (DirectoryStream<Path> inputFiles = Files.newDirectoryStream(INPUT_PATH, "*.cif")) {
+            List<Path> inputPaths = new ArrayList<>();
+            inputFiles.forEach(inputPaths::add);
+            inputPaths.sort(null);
+            for (Path inputPath: inputPaths) {
+                String fileName = inputPath.getFileName().toString();
+                componentsMap.put(fileName.substring(0, fileName.lastIndexOf('.')),
+                        CIFOperations.loadCIFSpec(inputPath));
+            }
+        } finally {
+            AppEnv.unregisterThread();
+        }
+        return componentsMap;
+    }
+
+    /**
+     * Post-processes the input models.
+     *
+     * @param operationsOptions The options for each of the post-processing operations to perform.
+     * @param pool The pool on which to apply component local operations in parallel, or {@code null} to apply all
+     *     operations sequentially.
+     * @return The post-processed models, in the order of the post-processing result, as pretty printed CIF.
+     */
+    static Map<String, String> postProcess(List<PostProcessingOperationOptions> operationsOptions, ForkJoinPool pool)
+            throws IOException
+    {
+        Map<String, Specification> processedModels = PostProcessing.postProcess(loadInputModels(),
+                INPUT_PATH.toAbsolutePath(), operationsOptions, new NullProgressMonitor(), null, pool, null);
+
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Entry<String, Specification> entry: processedModels.entrySet()) {
+            result.put(entry.getKey(), CifPrettyPrinter.boxSpec(entry.getValue()).toString());
+        }
+        return result;
+    }
+}
@@ -10,13 +10,27 @@
 
 package nl.tno.mids.cmi.postprocessing.operations;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import nl.tno.mids.cif.extensions.FileExtensions;
+
 class InjectDomainKnowledgeTest extends BasePostProcessingOperationTest<InjectDomainKnowledge> {
     private InjectDomainKnowledgeOperator testOperator;
 
@@ -29,6 +43,48 @@ class InjectDomainKnowledgeTest extends BasePostProcessingOperationTest<InjectDo
         super.performTest(testOperator.name());
     }
 
+    @Test
+    void testPreparedDfaReused(@TempDir Path tempDir) throws IOException {
+        Path injectPath = tempDir.resolve("injection.cif");
+        Files.copy(Paths.get("testData").resolve("PostProcessing").resolve(testClass).resolve("UNION")
+                .resolve("injection").resolve("UNION_Injection.cif"), injectPath);
+        Path relativeResolvePath = tempDir.resolve("input.tmsc");
+        InjectDomainKnowledgeOptions unionOptions = new InjectDomainKnowledgeOptions();
+        unionOptions.setOperator(InjectDomainKnowledgeOperator.UNION);
+        unionOptions.setModelPath(injectPath.getFileName().toString());
+        InjectDomainKnowledgeOptions intersectionOptions = new InjectDomainKnowledgeOptions();
+        intersectionOptions.setOperator(InjectDomainKnowledgeOperator.INTERSECTION);
+        intersectionOptions.setModelPath(injectPath.toString());
+
+        // Operations on the same model file reuse the prepared DFA.
+        CompactDFA<String> unionDfa = InjectDomainKnowledge.getInjectDfa(relativeResolvePath, unionOptions,
+                new NullProgressMonitor());
+        assertSame(unionDfa, InjectDomainKnowledge.getInjectDfa(relativeResolvePath, intersectionOptions,
+                new NullProgressMonitor()));
+
+        // Editing the model file reloads it.
+        Files.write(injectPath, "\n// Edited.\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        CompactDFA<String> editedDfa = InjectDomainKnowledge.getInjectDfa(relativeResolvePath, unionOptions,
+                new NullProgressMonitor());
+        assertNotSame(unionDfa, editedDfa);
+        assertSame(editedDfa, InjectDomainKnowledge.getInjectDfa(relativeResolvePath, intersectionOptions,
+                new NullProgressMonitor()));
+    }
+
+    @Test
+    void testMissingModelFile(@TempDir Path tempDir) {
+        Path injectPath = tempDir.resolve("missing.cif");
+        InjectDomainKnowledgeOptions options = new InjectDomainKnowledgeOptions();
+        options.setOperator(InjectDomainKnowledgeOperator.UNION);
+        options.setModelPath(injectPath.getFileName().toString());
+
+        // A missing model file is reported by loading it.
+        Exception loadException = assertThrows(Exception.class, () -> FileExtensions.loadCIF(injectPath));
+        Exception exception = assertThrows(Exception.class, () -> InjectDomainKnowledge
+                .getInjectDfa(tempDir.resolve("input.tmsc"), options, new NullProgressMonitor()));
+        assertEquals(loadException.getClass(), exception.getClass());
+    }
+
     @Override
     protected InjectDomainKnowledge getOperation() {
         InjectDomainKnowledgeOptions options = new InjectDomainKnowledgeOptions();
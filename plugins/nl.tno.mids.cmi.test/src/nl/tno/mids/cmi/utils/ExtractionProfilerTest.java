@@ -0,0 +1,123 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExtractionProfilerTest {
+    @Test
+    void testWriteText() {
+        ExtractionProfiler profiler = createProfiler();
+
+        String[] lines = writeText(profiler).split("\n");
+        assertEquals(7, lines.length);
+        assertEquals("Phases:", lines[0]);
+        assertTrue(lines[1].startsWith(" - load:"), lines[1]);
+        assertTrue(lines[1].endsWith("(2 times)"), lines[1]);
+        assertTrue(lines[2].startsWith(" - word building:"), lines[2]);
+        assertTrue(lines[2].endsWith("(1 times)"), lines[2]);
+        assertEquals("Components:", lines[3]);
+        assertEquals(" - a: PTA 1,000 states, DFA 10 states and 20 transitions", lines[4]);
+        assertEquals(" - window 1/b: PTA 3 states, DFA 2 states and 2 transitions", lines[5]);
+        assertEquals("Model conversions: 5 cached, 3 performed", lines[6]);
+    }
+
+    @Test
+    void testWriteJson(@TempDir Path tempDir) throws IOException {
+        ExtractionProfiler profiler = createProfiler();
+        TmscMetrics tmscMetrics = new TmscMetrics();
+        tmscMetrics.duration = Duration.ofNanos(1234);
+        tmscMetrics.eventCount = 100;
+        tmscMetrics.callStackCount = 10;
+        tmscMetrics.distinctCallStackCount = 4;
+
+        Path path = tempDir.resolve(ExtractionProfiler.FILE_NAME);
+        profiler.writeJson(path, tmscMetrics, 42);
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("{\n  \"tmscDurationNanos\": 1234,\n  \"tmscEvents\": 100,\n"
+                + "  \"callStacks\": 10,\n  \"distinctCallStacks\": 4,\n  \"runtimeMillis\": 42,\n"), json);
+        assertTrue(Pattern.compile("\\{\"name\": \"load\", \"count\": 2, \"wallNanos\": \\d+, \"cpuNanos\": \\d+, "
+                + "\"peakHeapBytes\": \\d+\\},\n").matcher(json).find(), json);
+        assertTrue(Pattern.compile("\\{\"name\": \"word building\", \"count\": 1, ").matcher(json).find(), json);
+        assertTrue(json.contains("  \"components\": [\n"
+                + "    {\"name\": \"a\", \"ptaStates\": 1000, \"dfaStates\": 10, \"dfaTransitions\": 20},\n"
+                + "    {\"name\": \"window 1/b\", \"ptaStates\": 3, \"dfaStates\": 2, \"dfaTransitions\": 2}\n  ],\n"),
+                json);
+        assertTrue(json.endsWith("  \"modelConversionHits\": 5,\n  \"modelConversionMisses\": 3\n}\n"), json);
+    }
+
+    @Test
+    void testPausedMeasurement() {
+        ExtractionProfiler profiler = new ExtractionProfiler();
+
+        // Time spent in a paused measurement is not attributed to its phase, but only to the resumed measurement.
+        ExtractionProfiler.Measurement inner = profiler.start("inner");
+        inner.pause();
+        ExtractionProfiler.Measurement outer = profiler.start("outer");
+        outer.switchTo(inner);
+        sleep(50);
+        inner.switchTo(outer);
+        outer.stop();
+        inner.stop();
+
+        assertTrue(getWallMillis(writeText(profiler), "outer") < getWallMillis(writeText(profiler), "inner"));
+        assertTrue(getWallMillis(writeText(profiler), "inner") >= 50);
+    }
+
+    private static ExtractionProfiler createProfiler() {
+        ExtractionProfiler profiler = new ExtractionProfiler();
+        profiler.start(ExtractionProfiler.LOAD).stop();
+        profiler.start(ExtractionProfiler.WORDS).stop();
+        profiler.start(ExtractionProfiler.LOAD).stop();
+        profiler.recordComponent("a", 1000, 10, 20);
+        profiler.withComponentPrefix("window 1/").recordComponent("b", 3, 2, 2);
+        profiler.recordModelConversions(2, 1);
+        profiler.recordModelConversions(3, 2);
+        return profiler;
+    }
+
+    private static String writeText(ExtractionProfiler profiler) {
+        StringWriter text = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(text)) {
+            profiler.writeText(writer);
+        }
+        return text.toString();
+    }
+
+    private static double getWallMillis(String text, String phase) {
+        Matcher matcher = Pattern.compile(" - " + phase + ": +wall +([\\d,.]+) ms").matcher(text);
+        assertTrue(matcher.find(), text);
+        return Double.parseDouble(matcher.group(1).replace(",", ""));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -31,6 +31,10 @@ public class CmiApplication implements IApplication {
         Map<?, ?> args = context.getArguments();
         String[] cmiArgs = (String[])args.get("application.args");
 
+        if (ComponentExtractionBatch.isBatch(cmiArgs)) {
+            return startBatch(cmiArgs);
+        }
+
         ComponentExtractionOptions options = ComponentExtractionOptions.parse(cmiArgs);
 
         // No options were parsed, usage information was printed, and we're done.
@@ -48,6 +52,24 @@ public class CmiApplication implements IApplication {
         return IApplication.EXIT_OK;
     }
 
+    private Integer startBatch(String[] cmiArgs) throws Exception {
+        ComponentExtractionBatch batch = ComponentExtractionBatch.parse(cmiArgs);
+
+        // No batch was parsed, usage information was printed, and we're done.
+        if (batch == null) {
+            return IApplication.EXIT_OK;
+        }
+
+        LOGGER.info("Extracting models from " + batch.getEntries().size() + " inputs, using " + batch.getThreads()
+                + " threads");
+        LOGGER.info("Writing output to " + batch.getOutputPath().toString());
+
+        // Perform CMI for all inputs.
+        boolean succeeded = batch.run();
+
+        return succeeded ? IApplication.EXIT_OK : Integer.valueOf(1);
+    }
+
     @Override
     public void stop() {
     }
@@ -19,10 +19,14 @@ import java.time.Duration
 import java.time.LocalDateTime
 import java.time.temporal.ChronoUnit
 import java.util.ArrayList
+import java.util.LinkedHashMap
 import java.util.List
 import java.util.Locale
 import java.util.Map
-import nl.esi.pps.tmsc.Event
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.TimeUnit
+import java.util.stream.Collectors
 import nl.esi.pps.tmsc.TMSC
 import nl.tno.mids.cif.extensions.CIFOperations
 import nl.tno.mids.cif.extensions.CifExtensions
@@ -30,10 +34,15 @@ import nl.tno.mids.cif.extensions.FileExtensions
 import nl.tno.mids.cmi.api.protocol.CmiProtocolQueries
 import nl.tno.mids.cmi.cmi2yed.CmiToYedTransformer
 import nl.tno.mids.cmi.postprocessing.PostProcessing
+import nl.tno.mids.cmi.postprocessing.PostProcessingCache
 import nl.tno.mids.cmi.protocol.InferProtocolModel
+import nl.tno.mids.cmi.utils.ComponentWordCache
+import nl.tno.mids.cmi.utils.ExtractionProfiler
+import nl.tno.mids.cmi.utils.FuturesUtil
 import nl.tno.mids.cmi.utils.TmscMetrics
 import nl.tno.mids.pps.extensions.util.TmscFileHelper
 import org.eclipse.core.runtime.IProgressMonitor
+import org.eclipse.core.runtime.NullProgressMonitor
 import org.eclipse.core.runtime.SubMonitor
 import org.eclipse.emf.common.util.WrappedException
 import org.eclipse.escet.cif.metamodel.cif.Specification
@@ -42,6 +51,12 @@ import org.eclipse.escet.common.java.DateTimeUtils
 import static org.eclipse.escet.common.java.Strings.fmt
 
 class ComponentExtraction {
+    /** The profiler of the phases of model extraction, or {@code null} to not profile model extraction. */
+    var ExtractionProfiler profiler
+
+    /** The cache of the results of post-processing operations, or {@code null} to not cache them. */
+    var PostProcessingCache postProcessingCache
+
     /**
      * Component extraction using Constructive Model Inference.
      * 
@@ -51,10 +66,40 @@ class ComponentExtraction {
      * @param monitor The progress monitor.
      */
     def void extract(Path relativeResolvePath, ComponentExtractionOptions options, IProgressMonitor monitor) {
+        val threads = options.extraction.threads
+        val pool = if(threads > 1) new ForkJoinPool(threads) else null
+        try {
+            extract(relativeResolvePath, options, pool, monitor)
+        } finally {
+            pool?.shutdown
+        }
+    }
+
+    /**
+     * Component extraction using Constructive Model Inference.
+     * 
+     * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+     *      During model extraction, all paths are to be resolved against the parent folder of this file.
+     * @param options The configuration options.
+     * @param pool The pool on which to perform model extraction in parallel, or {@code null} to perform it
+     *      sequentially.
+     * @param monitor The progress monitor.
+     */
+    private def void extract(Path relativeResolvePath, ComponentExtractionOptions options, ForkJoinPool pool,
+        IProgressMonitor monitor) {
 
         val startTime = LocalDateTime.now()
         val warnings = new ArrayList
         val yEdWork = 10
+        profiler = if(options.extraction.profile) new ExtractionProfiler
+
+        // Prepare post-processing cache.
+        val postProcessingCacheFolder = options.output.path.resolve(PostProcessingCache.FOLDER_NAME)
+        if (options.postProcessing.clearCache) {
+            PostProcessingCache.clear(postProcessingCacheFolder)
+        }
+        postProcessingCache = if(options.postProcessing.cache) new PostProcessingCache(postProcessingCacheFolder,
+            options.postProcessing.cacheSize * (1L << 20))
 
         val tmscPath = options.input.path
 
@@ -77,39 +122,126 @@ class ComponentExtraction {
 
         saveOptions(options)
 
-        // Load TMSC.
-        subMonitor.split(10)
-        subMonitor.subTask("Loading TMSC from " + tmscName)
+        // Prepare model extraction.
+        val builder = createBuilder(options, pool)
+        val checkpointPath = options.extraction.checkpointPath
+        val checkpointKey = if(checkpointPath !== null) getCheckpointKey(options)
+
+        // Cached words can't be combined with a checkpoint, as the checkpoint words would be cached as well, nor with
+        // time windows, as the words are not cached per window.
+        val inputFolder = Files.isDirectory(tmscPath)
+        val wordCachePath = if(options.extraction.wordCache && !inputFolder && checkpointPath === null &&
+                !builder.windowed)
+                createOutputFolder(options).resolve(ComponentWordCache.FILE_NAME)
+        val wordCacheKey = if(wordCachePath !== null) getWordCacheKey(tmscPath, options)
+
+        // Only expose the inserted words if they are to be written.
+        builder.recordWords = wordCachePath !== null || checkpointPath !== null
+
+        // Resume from the checkpoint of a previous extraction, if available, to only insert the new TMSC.
+        if (checkpointPath !== null && Files.exists(checkpointPath)) {
+            subMonitor.subTask("Loading checkpoint " + checkpointPath)
+            val measurement = profiler?.start(ExtractionProfiler.LOAD)
+            // The warnings of the TMSCs of the checkpoint were reported by the extractions that inserted them.
+            if (!ComponentWordCache.read(checkpointPath, checkpointKey, builder, new TmscMetrics(), new ArrayList)) {
+                throw new RuntimeException(
+                    "Checkpoint was created by another version or with other extraction options: " + checkpointPath)
+            }
+            measurement?.stop
+        }
 
-        val tmsc = TmscFileHelper.loadAndPrepareTMSC(tmscPath, warnings)
+        // Reuse the words of a previous extraction from the same TMSC, if available, to skip loading the TMSC.
+        var tmscMetrics = new TmscMetrics()
+        if (inputFolder) {
+            // Extract models from all TMSCs in the input folder together.
+            subMonitor.subTask("Extracting models from TMSCs in " + tmscName)
+            tmscMetrics = insertAll(getTmscPaths(tmscPath), options, builder, warnings, pool, subMonitor.split(75))
+            tmscMetrics.callStackCount = builder.wordCount
+            tmscMetrics.distinctCallStackCount = builder.distinctWordCount
+        } else if (wordCachePath !== null &&
+            readWordCache(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings)) {
+            subMonitor.split(75)
+            subMonitor.subTask("Loaded cached words of TMSC " + tmscName)
+        } else {
+            // Load TMSC.
+            subMonitor.split(10)
+            subMonitor.subTask("Loading TMSC from " + tmscName)
+
+            val tmsc = loadAndPrepareTMSC(tmscPath, options, warnings)
+
+            // Model extraction, which also determines the TMSC metrics.
+            subMonitor.split(65)
+            subMonitor.subTask("Extracting models from TMSC " + tmscName)
+            tmscMetrics = builder.insert(tmsc)
+            tmscMetrics.callStackCount = builder.wordCount
+            tmscMetrics.distinctCallStackCount = builder.distinctWordCount
+
+            // Release the TMSC before post-processing, as the models no longer refer to it.
+            TmscFileHelper.unloadTMSC(tmsc)
+
+            if (wordCachePath !== null) {
+                ComponentWordCache.write(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings)
+            }
+        }
 
-        // Pre-processing.
-        subMonitor.subTask("Pre-processing TMSC from " + tmscName)
-        preProcess(tmsc, tmscName, options, subMonitor.split(10))
+        // Save a checkpoint to resume from in later extractions.
+        if (checkpointPath !== null) {
+            subMonitor.subTask("Saving checkpoint " + checkpointPath)
+            ComponentWordCache.write(checkpointPath, checkpointKey, builder, tmscMetrics, warnings)
+        }
 
-        // Get TMSC metrics.
-        subMonitor.split(5)
-        subMonitor.subTask("Calculation TMSC metrics")
-        val tmscMetrics = getTmscMetrics(tmsc)
+        val saveWork = 45 + (options.output.saveYed ? yEdWork : 0)
+        if (builder.windowed) {
+            // Save the models of each time window as a separate model set, in a sub-folder of the output folder.
+            val windows = builder.windows
+            val windowsMonitor = SubMonitor.convert(subMonitor.split(saveWork), windows.size)
+            for (window : windows.entrySet) {
+                val windowIndex = (window.key - windows.firstKey) / builder.windowDuration
+                subMonitor.subTask(fmt("Saving models of time window %d", windowIndex))
+                val windowFolder = createOutputFolder(options).resolve(fmt("window-%d", windowIndex))
+                Files.createDirectories(windowFolder)
+                window.value.profiler = profiler?.withComponentPrefix(fmt("window-%d/", windowIndex))
+                saveModels(window.value, tmscName, relativeResolvePath, options, windowFolder, windowsMonitor.split(1))
+            }
+        } else {
+            saveModels(builder, tmscName, relativeResolvePath, options, createOutputFolder(options),
+                subMonitor.split(saveWork))
+        }
+
+        // Save CMI report, e.g. containing running time.
+        val endTime = LocalDateTime.now()
+        saveReport(options, tmscMetrics, warnings, startTime.until(endTime, ChronoUnit.MILLIS))
+    }
+
+    /**
+     * Post-processes the models constructed by {@code builder}, and saves them to {@code targetFolder}.
+     * 
+     * @param builder The builder of the models.
+     * @param tmscName The name of the input.
+     * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+     *      During post-processing, all paths are to be resolved against the parent folder of this file.
+     * @param options The configuration options.
+     * @param targetFolder The absolute path of the folder to which to save the models.
+     * @param monitor The progress monitor.
+     */
+    private def void saveModels(ComponentModelBuilder builder, String tmscName, Path relativeResolvePath,
+        ComponentExtractionOptions options, Path targetFolder, IProgressMonitor monitor) {
+        val yEdWork = 10
+        val subMonitor = SubMonitor.convert(monitor, 45 + (options.output.saveYed ? yEdWork : 0))
+
+        // Post-process and save each component separately, if configured.
+        if (options.extraction.pipeline) {
+            subMonitor.subTask("Post-processing and saving CIF models extracted from " + tmscName)
+            saveModelsPipelined(builder, relativeResolvePath, options, targetFolder, subMonitor)
+            return
+        }
 
-        // Model extraction.
-        subMonitor.split(50)
-        subMonitor.subTask("Extracting models from TMSC " + tmscName)
-        val builder = new ComponentModelBuilder(options.extraction.synchronizeDependentTransitions)
-        builder.insert(tmsc)
         var Map<String, Specification> modelsMap = builder.cifModels
 
         // Post-processing.
         subMonitor.subTask("Post-processing CIF models extracted from " + tmscName)
-
-        if (!options.postProcessing.componentsInclusionRegEx.trim.isEmpty) {
-            modelsMap = modelsMap.filter[k, v|k.matches(options.postProcessing.componentsInclusionRegEx)]
-        }
-        if (!options.postProcessing.componentsExclusionRegEx.trim.isEmpty) {
-            modelsMap = modelsMap.filter[k, v|!k.matches(options.postProcessing.componentsExclusionRegEx)]
-        }
         modelsMap = PostProcessing.postProcess(modelsMap, relativeResolvePath, options.postProcessing.operations,
-            subMonitor.split(10))
+            subMonitor.split(10), profiler, builder.pool, postProcessingCache)
 
         // Combine CIF component models into single specification, if desired.
         subMonitor.split(5)
@@ -125,7 +257,7 @@ class ComponentExtraction {
             case COMPONENTS: {
                 // If producing component models, save CIF models.
                 subMonitor.subTask("Saving CIF models")
-                saveCifModels(modelsMap, options, subMonitor.split(30))
+                saveCifModels(modelsMap, targetFolder, subMonitor.split(30))
             }
             case PROTOCOL: {
                 // If producing protocol, generate protocol model.
@@ -136,26 +268,249 @@ class ComponentExtraction {
                 // Save generated protocol model.
                 modelsMap.clear
                 modelsMap.put(CmiProtocolQueries.getProtocolName(protocolModel), protocolModel)
-                saveCifModels(modelsMap, options, subMonitor.split(1))
+                saveCifModels(modelsMap, targetFolder, subMonitor.split(1))
             }
         }
 
         if (options.output.saveYed) {
             // Save yEd representations of generated models.
             subMonitor.split(yEdWork)
-            val outputFolderAbsolutePath = createOutputFolder(options)
+            val measurement = profiler?.start(ExtractionProfiler.YED_SAVE)
             modelsMap.forEach [ modelName, spec |
                 {
-                    val outputFileAbsolutePath = outputFolderAbsolutePath.resolve(fmt("%s.graphml", modelName))
+                    val outputFileAbsolutePath = targetFolder.resolve(fmt("%s.graphml", modelName))
                     CmiToYedTransformer.transform(spec, outputFileAbsolutePath)
                 }
             ]
+            measurement?.stop
+        }
+    }
 
+    /**
+     * Constructs, post-processes and saves the model of each component separately. Using the pool of
+     * {@code builder}, the components flow through these steps concurrently. Only the models of the components in
+     * flight are thus kept in memory, while model construction, post-processing and saving overlap. Requires a model
+     * per component and only {@link PostProcessing#isComponentLocal component local} post-processing operations, as
+     * validated for the pipeline option.
+     * 
+     * @param builder The builder of the models.
+     * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+     *      During post-processing, all paths are to be resolved against the parent folder of this file.
+     * @param options The configuration options.
+     * @param targetFolder The absolute path of the folder to which to save the models.
+     * @param monitor The progress monitor.
+     */
+    private def void saveModelsPipelined(ComponentModelBuilder builder, Path relativeResolvePath,
+        ComponentExtractionOptions options, Path targetFolder, IProgressMonitor monitor) {
+        val componentLabels = builder.componentLabels.toList
+        val subMonitor = SubMonitor.convert(monitor, componentLabels.size)
+        val pool = builder.pool
+
+        if (pool === null) {
+            for (componentLabel : componentLabels) {
+                saveComponentModel(builder, componentLabel, relativeResolvePath, options, targetFolder,
+                    subMonitor.split(1))
+            }
+            return
         }
 
-        // Save CMI report, e.g. containing running time.
-        val endTime = LocalDateTime.now()
-        saveReport(options, tmscMetrics, warnings, startTime.until(endTime, ChronoUnit.MILLIS))
+        // Progress monitors are not thread safe, so progress is reported as the components complete.
+        val futures = componentLabels.map [ componentLabel |
+            CompletableFuture.runAsync([
+                saveComponentModel(builder, componentLabel, relativeResolvePath, options, targetFolder,
+                    new NullProgressMonitor)
+            ], pool)
+        ].toList
+        for (future : futures) {
+            subMonitor.split(1)
+            FuturesUtil.await(future)
+        }
+    }
+
+    /**
+     * Constructs, post-processes and saves the model of a single component.
+     * 
+     * @param builder The builder of the models.
+     * @param componentLabel The name of the component.
+     * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+     *      During post-processing, all paths are to be resolved against the parent folder of this file.
+     * @param options The configuration options.
+     * @param targetFolder The absolute path of the folder to which to save the model.
+     * @param monitor The progress monitor.
+     */
+    private def void saveComponentModel(ComponentModelBuilder builder, String componentLabel,
+        Path relativeResolvePath, ComponentExtractionOptions options, Path targetFolder, IProgressMonitor monitor) {
+        val subMonitor = SubMonitor.convert(monitor, 3)
+
+        subMonitor.subTask("Constructing CIF model of component " + componentLabel)
+        subMonitor.split(1)
+        val modelsMap = new LinkedHashMap<String, Specification>
+        modelsMap.put(componentLabel, builder.getCifModel(componentLabel, builder.getDFA(componentLabel)))
+
+        subMonitor.subTask("Post-processing CIF model of component " + componentLabel)
+        val processedModels = PostProcessing.postProcess(modelsMap, relativeResolvePath,
+            options.postProcessing.operations, subMonitor.split(1), profiler, null, postProcessingCache)
+
+        subMonitor.subTask("Saving CIF model of component " + componentLabel)
+        saveCifModels(processedModels, targetFolder, subMonitor.split(1))
+
+        if (options.output.saveYed) {
+            val measurement = profiler?.start(ExtractionProfiler.YED_SAVE)
+            processedModels.forEach [ modelName, spec |
+                CmiToYedTransformer.transform(spec, targetFolder.resolve(fmt("%s.graphml", modelName)))
+            ]
+            measurement?.stop
+        }
+    }
+
+    /**
+     * Creates a builder for component models, configured according to the given options.
+     * 
+     * @param options The configuration options.
+     * @param pool The pool on which the builder constructs models in parallel, or {@code null} to construct them
+     *      sequentially.
+     * @return The builder.
+     */
+    private def ComponentModelBuilder createBuilder(ComponentExtractionOptions options, ForkJoinPool pool) {
+        val builder = new ComponentModelBuilder(options.extraction.synchronizeDependentTransitions)
+        // Filter components during model construction, to avoid constructing models that are discarded anyway.
+        builder.setComponentFilters(options.postProcessing.componentsInclusionRegEx,
+            options.postProcessing.componentsExclusionRegEx)
+        builder.pool = pool
+        builder.minimizeOnline = options.extraction.minimizeOnline
+        builder.windowDuration = TimeUnit.SECONDS.toNanos(options.extraction.timeWindow)
+        builder.profiler = profiler
+        return builder
+    }
+
+    /**
+     * Inserts the call stacks of multiple TMSCs into {@code builder}, such that models are learned from all TMSCs
+     * together. Sequentially, the TMSCs are loaded one at a time, and each TMSC is released once its call stacks are
+     * inserted. Using the {@code pool}, the TMSCs are instead loaded and inserted concurrently, each into a separate
+     * builder (map), after which these builders are merged into {@code builder} in the order of {@code tmscPaths}
+     * (reduce). Each worker thus holds only a single TMSC in memory, while the resulting models are identical to
+     * sequential insertion.
+     * 
+     * @param tmscPaths The absolute paths of the TMSCs.
+     * @param options The configuration options.
+     * @param builder The builder into which to insert the call stacks.
+     * @param warnings The warnings produced during the operation.
+     * @param pool The pool on which to load and insert TMSCs in parallel, or {@code null} to do so sequentially.
+     * @param monitor The progress monitor.
+     * @return The combined metrics of all TMSCs.
+     */
+    private def TmscMetrics insertAll(List<Path> tmscPaths, ComponentExtractionOptions options,
+        ComponentModelBuilder builder, List<String> warnings, ForkJoinPool pool, IProgressMonitor monitor) {
+        val subMonitor = SubMonitor.convert(monitor, tmscPaths.size)
+        val tmscMetrics = new TmscMetrics()
+        tmscMetrics.duration = Duration.ZERO
+
+        if (pool === null) {
+            for (tmscPath : tmscPaths) {
+                subMonitor.split(1)
+                subMonitor.subTask("Extracting models from TMSC " + getTmscName(tmscPath))
+                addTmscMetrics(tmscMetrics, insertTmsc(tmscPath, options, builder, warnings))
+            }
+            return tmscMetrics
+        }
+
+        // Map: insert each TMSC into a separate builder, concurrently. The partial builders record their words, to merge
+        // them into the builder.
+        val partialBuilders = tmscPaths.map[createBuilder(options, null) => [recordWords = true]].toList
+        val partialWarnings = tmscPaths.map[new ArrayList<String>].toList
+        val partialMetrics = (0 ..< tmscPaths.size).map [ i |
+            CompletableFuture.supplyAsync([
+                insertTmsc(tmscPaths.get(i), options, partialBuilders.get(i), partialWarnings.get(i))
+            ], pool)
+        ].toList
+
+        // Reduce: merge the builders in order, releasing each builder once it is merged.
+        for (i : 0 ..< tmscPaths.size) {
+            subMonitor.split(1)
+            subMonitor.subTask("Extracting models from TMSC " + getTmscName(tmscPaths.get(i)))
+            addTmscMetrics(tmscMetrics, FuturesUtil.await(partialMetrics.get(i)))
+            builder.insert(partialBuilders.get(i))
+            partialBuilders.set(i, null)
+            warnings += partialWarnings.get(i)
+        }
+        return tmscMetrics
+    }
+
+    /**
+     * Loads and prepares a TMSC, inserts its call stacks into {@code builder}, and releases it.
+     * 
+     * @param tmscPath The absolute path of the TMSC.
+     * @param options The configuration options.
+     * @param builder The builder into which to insert the call stacks.
+     * @param warnings The warnings produced during the operation.
+     * @return The metrics of the TMSC.
+     */
+    private def TmscMetrics insertTmsc(Path tmscPath, ComponentExtractionOptions options,
+        ComponentModelBuilder builder, List<String> warnings) {
+        val tmsc = loadAndPrepareTMSC(tmscPath, options, warnings)
+        val tmscMetrics = builder.insert(tmsc)
+        TmscFileHelper.unloadTMSC(tmsc)
+        return tmscMetrics
+    }
+
+    /**
+     * Loads and prepares a TMSC, profiling both phases.
+     * 
+     * @param tmscPath The absolute path of the TMSC.
+     * @param options The configuration options.
+     * @param warnings The warnings produced during the operation.
+     * @return The loaded and prepared TMSC.
+     */
+    private def TMSC loadAndPrepareTMSC(Path tmscPath, ComponentExtractionOptions options, List<String> warnings) {
+        val loadMeasurement = profiler?.start(ExtractionProfiler.LOAD)
+        val fullTmsc = TmscFileHelper.loadTMSC(tmscPath)
+        loadMeasurement?.stop
+
+        val prepareMeasurement = profiler?.start(ExtractionProfiler.PREPARE)
+        val tmsc = TmscFileHelper.prepareTMSC(fullTmsc, tmscPath, warnings, options.preProcessing.virtualScope)
+        prepareMeasurement?.stop
+        return tmsc
+    }
+
+    /**
+     * Reads the words from a word cache, profiling it as loading.
+     * 
+     * @param wordCachePath The path of the word cache.
+     * @param wordCacheKey The expected key of the word cache.
+     * @param builder The builder into which to insert the words.
+     * @param tmscMetrics The metrics to fill with the metrics of the TMSC from which the words are constructed.
+     * @param warnings The warnings to which to add the warnings produced while preparing the TMSC.
+     * @return {@code true} if the words have been read from the cache, {@code false} otherwise.
+     */
+    private def boolean readWordCache(Path wordCachePath, String wordCacheKey, ComponentModelBuilder builder,
+        TmscMetrics tmscMetrics, List<String> warnings) {
+        val measurement = profiler?.start(ExtractionProfiler.LOAD)
+        val read = ComponentWordCache.read(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings)
+        measurement?.stop
+        return read
+    }
+
+    private def void addTmscMetrics(TmscMetrics tmscMetrics, TmscMetrics addedMetrics) {
+        tmscMetrics.duration = tmscMetrics.duration.plus(addedMetrics.duration)
+        tmscMetrics.eventCount += addedMetrics.eventCount
+    }
+
+    /**
+     * Determines the TMSCs in an input folder.
+     * 
+     * @param folderPath The absolute path of the input folder.
+     * @return The absolute paths of the TMSC files in the input folder, ordered by name.
+     */
+    private def List<Path> getTmscPaths(Path folderPath) {
+        try (val paths = Files.list(folderPath)) {
+            val tmscPaths = paths.filter [
+                Files.isRegularFile(it) && (fileName.toString.endsWith(".tmscz") || fileName.toString.endsWith(".tmsc"))
+            ].sorted.collect(Collectors.toList)
+            if (tmscPaths.isEmpty) {
+                throw new RuntimeException("Input folder does not contain any TMSC files: " + folderPath)
+            }
+            return tmscPaths
+        }
     }
 
     protected def saveReport(ComponentExtractionOptions options, TmscMetrics tmscMetrics, List<String> warnings,
@@ -168,7 +523,17 @@ class ComponentExtraction {
             writer.format(Locale.US, "TMSC duration: %s\n",
                 tmscMetrics.duration.toString().substring(2).replaceAll("(\\d[HMS])(?!$)", "$1 ").toLowerCase())
             writer.format(Locale.US, "TMSC events:   %,d\n", tmscMetrics.eventCount);
+            writer.format(Locale.US, "Call stacks:   %,d (%,d distinct)\n", tmscMetrics.callStackCount,
+                tmscMetrics.distinctCallStackCount);
             writer.format(Locale.US, "Running time:  %s\n", DateTimeUtils.durationToString(runtimeMs, true))
+            if (postProcessingCache !== null) {
+                writer.format(Locale.US, "Post-processing cache: %,d reused, %,d computed\n", postProcessingCache.hits,
+                    postProcessingCache.misses)
+            }
+            if (profiler !== null) {
+                profiler.writeText(writer)
+                profiler.writeJson(targetFolder.resolve(ExtractionProfiler.FILE_NAME), tmscMetrics, runtimeMs)
+            }
             if (!warnings.isEmpty()) {
                 writer.append("Warnings:\n");
                 for (String warning : warnings) {
@@ -195,36 +560,15 @@ class ComponentExtraction {
         return targetFolder
     }
 
-    private def void preProcess(TMSC tmsc, String tmscName, ComponentExtractionOptions options,
-        IProgressMonitor monitor) {
-
-        val subMonitor = SubMonitor.convert(monitor, 3)
-
-        subMonitor.subTask("Excluding components: " + tmscName)
-        subMonitor.split(1)
-        val noEvts = tmsc.events.size
-        subMonitor.split(1)
-
-        subMonitor.split(1)
-        if (tmsc.events.size != noEvts) {
-            subMonitor.subTask("Saving pre-processed TMSC: " + tmscName)
-            val targetFolder = createOutputFolder(options)
-            val targetFile = targetFolder.resolve(tmscName + "-preprocessed.tmscz")
-            TmscFileHelper.saveTMSC(tmsc, targetFile)
-        }
-    }
-
     private def combineComponentModels(Map<String, Specification> modelsMap) {
         val mergedSpec = CIFOperations.mergeSpecifications(modelsMap.values)
         modelsMap.clear
         modelsMap.put("allComponents", mergedSpec)
     }
 
-    private def saveCifModels(Map<String, Specification> namedSpecs, ComponentExtractionOptions options,
-        IProgressMonitor monitor) {
-
+    private def saveCifModels(Map<String, Specification> namedSpecs, Path targetFolder, IProgressMonitor monitor) {
         val subMonitor = SubMonitor.convert(monitor, namedSpecs.size);
-        val targetFolder = createOutputFolder(options)
+        val measurement = profiler?.start(ExtractionProfiler.CIF_SAVE)
 
         namedSpecs.forEach [ name, cif |
             subMonitor.split(1)
@@ -232,6 +576,34 @@ class ComponentExtraction {
             CifExtensions.normalizeOrder(cif)
             FileExtensions.saveCIF(cif, targetFile)
         ]
+
+        measurement?.stop
+    }
+
+    /**
+     * Computes the key of the word cache, which identifies the TMSC as well as all options that affect the words
+     * constructed from it. The component filters are not part of the key, as they only determine the components for
+     * which words are constructed, which the word cache {@link ComponentWordCache accounts for} when it is read.
+     * 
+     * @param tmscPath The absolute path of the TMSC.
+     * @param options The configuration options.
+     * @return The key of the word cache.
+     */
+    private def String getWordCacheKey(Path tmscPath, ComponentExtractionOptions options) {
+        return ComponentWordCache.computeKey(tmscPath, options.preProcessing.untracedHandleSynchronously,
+            options.extraction.synchronizeDependentTransitions)
+    }
+
+    /**
+     * Computes the key of the checkpoint, which identifies all options that affect the words constructed from TMSCs.
+     * As for the word cache, the component filters are not part of the key.
+     * 
+     * @param options The configuration options.
+     * @return The key of the checkpoint.
+     */
+    private def String getCheckpointKey(ComponentExtractionOptions options) {
+        return ComponentWordCache.computeOptionsKey(options.preProcessing.untracedHandleSynchronously,
+            options.extraction.synchronizeDependentTransitions)
     }
 
     private def String getTmscName(Path tmscPath) {
@@ -242,27 +614,4 @@ class ComponentExtraction {
         }
         return tmscName
     }
-
-    private def getTmscMetrics(TMSC tmsc) {
-        val tmscMetrics = new TmscMetrics()
-
-        var Long firstTimestamp = null
-        var Long lastTimestamp = null
-
-        for (Event event : tmsc.events) {
-            tmscMetrics.eventCount++
-
-            if (firstTimestamp === null) {
-                firstTimestamp = event.timestamp
-                lastTimestamp = event.timestamp
-            } else {
-                firstTimestamp = Long.min(firstTimestamp, event.timestamp)
-                lastTimestamp = Long.max(lastTimestamp, event.timestamp)
-            }
-        }
-
-        tmscMetrics.duration = Duration.ofNanos(lastTimestamp - firstTimestamp)
-
-        return tmscMetrics
-    }
 }
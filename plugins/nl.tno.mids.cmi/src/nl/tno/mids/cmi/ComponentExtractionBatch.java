@@ -0,0 +1,408 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.escet.common.java.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Batch of component extractions, performed concurrently within a single JVM.
+ *
+ * <p>
+ * The inputs of a batch are given either by a batch file or by a glob pattern. A batch file contains one input per
+ * line, consisting of the path of an input TMSC file or folder, optionally followed by a {@code ;} and the path of an
+ * options file for that input. Relative paths are resolved against the folder of the batch file. Empty lines and lines
+ * starting with {@code #} are ignored. A glob pattern, such as {@code traces/*.tmscz}, is resolved against the current
+ * working directory, and all files matching it are inputs.
+ * </p>
+ *
+ * <p>
+ * Each input gets its own output folder within the output folder of the batch, named after the input. A summary report
+ * of all extractions is written to the output folder of the batch.
+ * </p>
+ */
+public class ComponentExtractionBatch {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentExtractionBatch.class);
+
+    /** The name of the summary report file in the output folder of the batch. */
+    public static final String REPORT_FILE_NAME = "component-extraction-batch-report.txt";
+
+    /** The inputs of the batch. */
+    private final List<Entry> entries;
+
+    /** The output folder of the batch. */
+    private final Path outputPath;
+
+    /** The number of extractions to perform concurrently. */
+    private final int threads;
+
+    private ComponentExtractionBatch(List<Entry> entries, Path outputPath, int threads) {
+        this.entries = entries;
+        this.outputPath = outputPath;
+        this.threads = threads;
+    }
+
+    /**
+     * @param args The command line arguments.
+     * @return {@code true} if the arguments request a batch of component extractions, {@code false} otherwise.
+     */
+    public static boolean isBatch(String[] args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.equals("-b") || arg.equals("-batch") || arg.equals("--batch"));
+    }
+
+    /**
+     * Create {@link ComponentExtractionBatch} instance based on command line arguments.
+     *
+     * @param args The command line arguments.
+     * @return The batch, or {@code null} if usage information was requested and printed.
+     * @throws IOException In case of an I/O error.
+     * @throws ParseException In case the provided arguments cannot be parsed.
+     */
+    public static ComponentExtractionBatch parse(String[] args) throws IOException, ParseException {
+        Options options = buildOptions();
+        CommandLine line = new DefaultParser().parse(options, args);
+
+        if (line.hasOption("help")) {
+            new HelpFormatter().printHelp("mids-cmi -batch", options, true);
+            return null;
+        }
+
+        String batch = line.getOptionValue("batch");
+        Path sharedOptionsPath = line.hasOption("options-file")
+                ? Paths.get(line.getOptionValue("options-file")).toAbsolutePath().normalize() : null;
+
+        List<Path[]> inputs;
+        Path defaultOutputPath;
+        if (isGlob(batch)) {
+            Path basePath = getGlobBase(batch);
+            inputs = resolveGlob(batch, basePath, sharedOptionsPath);
+            defaultOutputPath = basePath.resolve("cmi");
+        } else {
+            Path batchPath = Paths.get(batch).toAbsolutePath().normalize();
+            if (!Files.isRegularFile(batchPath)) {
+                throw new RuntimeException("Batch path must refer to an existing file or be a glob pattern.");
+            }
+            inputs = readBatchFile(batchPath, sharedOptionsPath);
+            defaultOutputPath = batchPath.resolveSibling("cmi");
+        }
+
+        if (inputs.isEmpty()) {
+            throw new RuntimeException("Batch does not contain any inputs: " + batch);
+        }
+
+        Path outputPath = line.hasOption("output")
+                ? Paths.get(line.getOptionValue("output")).toAbsolutePath().normalize() : defaultOutputPath;
+        if (Files.exists(outputPath) && !Files.isDirectory(outputPath)) {
+            throw new RuntimeException("Output path may not refer to an existing file.");
+        }
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        if (line.hasOption("batch-threads")) {
+            String batchThreads = line.getOptionValue("batch-threads");
+            try {
+                threads = Integer.parseInt(batchThreads);
+            } catch (NumberFormatException e) {
+                throw new ParseException("Number of batch threads is not a valid number: " + batchThreads);
+            }
+            if (threads < 1) {
+                throw new RuntimeException("Number of batch threads must be at least one.");
+            }
+        }
+
+        // Give each input its own output folder, named after the input.
+        List<Entry> entries = new ArrayList<>(inputs.size());
+        Set<String> outputNames = new HashSet<>();
+        for (Path[] input: inputs) {
+            String baseName = getBaseName(input[0]);
+            String outputName = baseName;
+            for (int i = 2; !outputNames.add(outputName); i++) {
+                outputName = baseName + "-" + i;
+            }
+            entries.add(new Entry(input[0], input[1], outputPath.resolve(outputName)));
+        }
+
+        return new ComponentExtractionBatch(entries, outputPath, threads);
+    }
+
+    /**
+     * @return The inputs of the batch, in order.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return The output folder of the batch.
+     */
+    public Path getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * @return The number of extractions to perform concurrently.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Performs component extraction for all inputs of the batch, and writes the summary report. Failure of an
+     * extraction is recorded in the report, and does not affect the other extractions.
+     *
+     * @return {@code true} if all extractions succeeded, {@code false} otherwise.
+     */
+    public boolean run() {
+        long startTime = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Result> results = new ArrayList<>(entries.size());
+        try {
+            List<Future<Result>> futures = entries.stream().map(entry -> executor.submit(() -> extract(entry)))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // Extraction failed outside of its own error handling, record it as failed all the same.
+                    results.add(createFailedResult(entries.get(i), e.getCause(), 0));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Batch was interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        saveReport(results, System.currentTimeMillis() - startTime);
+        return results.stream().allMatch(result -> result.error == null);
+    }
+
+    private static Result extract(Entry entry) {
+        long startTime = System.currentTimeMillis();
+        LOGGER.info("Loading TMSC from " + entry.getInput().toString());
+        try {
+            List<String> args = new ArrayList<>();
+            if (entry.getOptionsFile() != null) {
+                args.add("-options-file");
+                args.add(entry.getOptionsFile().toString());
+            }
+            args.add("-input");
+            args.add(entry.getInput().toString());
+            args.add("-output");
+            args.add(entry.getOutput().toString());
+            ComponentExtractionOptions options = ComponentExtractionOptions.parse(args.toArray(new String[0]));
+
+            // Resolve relative paths in the options against the folder of the input, as for a single extraction.
+            new ComponentExtraction().extract(entry.getInput(), options, new NullProgressMonitor());
+            LOGGER.info("Wrote output to " + entry.getOutput().toString());
+            return new Result(entry, null, System.currentTimeMillis() - startTime);
+        } catch (Throwable e) {
+            // Also catch errors, such as running out of memory, to not lose the results of the other extractions.
+            return createFailedResult(entry, e, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private static Result createFailedResult(Entry entry, Throwable e, long runtimeMs) {
+        LOGGER.error("Failed to extract models from " + entry.getInput().toString(), e);
+        String message = (e.getMessage() != null) ? e.getMessage() : e.getClass().getSimpleName();
+        return new Result(entry, message, runtimeMs);
+    }
+
+    private void saveReport(List<Result> results, long runtimeMs) {
+        long failedCount = results.stream().filter(result -> result.error != null).count();
+        try {
+            Files.createDirectories(outputPath);
+        } catch (IOException e) {
+            throw new WrappedException("Failed to create batch output folder.", e);
+        }
+
+        Path targetFile = outputPath.resolve(REPORT_FILE_NAME);
+        try (PrintWriter writer = new PrintWriter(new FileOutputStream(targetFile.toFile()))) {
+            writer.format(Locale.US, "Inputs:        %,d (%,d succeeded, %,d failed)\n", results.size(),
+                    results.size() - failedCount, failedCount);
+            writer.format(Locale.US, "Threads:       %,d\n", threads);
+            writer.format(Locale.US, "Running time:  %s\n", DateTimeUtils.durationToString(runtimeMs, true));
+            writer.append("Extractions:\n");
+            for (Result result: results) {
+                writer.format(Locale.US, " - %s: %s (%s)\n", result.entry.getInput(),
+                        (result.error == null) ? "succeeded" : "failed",
+                        DateTimeUtils.durationToString(result.runtimeMs, true));
+                writer.format(Locale.US, "   Output: %s\n", result.entry.getOutput());
+                if (result.error != null) {
+                    writer.format(Locale.US, "   Error:  %s\n", result.error);
+                }
+            }
+        } catch (IOException e) {
+            throw new WrappedException("Failed to save batch report to file.", e);
+        }
+    }
+
+    private static List<Path[]> readBatchFile(Path batchPath, Path sharedOptionsPath) throws IOException {
+        List<Path[]> inputs = new ArrayList<>();
+        Path folderPath = batchPath.getParent();
+        for (String line: Files.readAllLines(batchPath, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            int separatorIndex = line.indexOf(';');
+            String input = (separatorIndex < 0) ? line : line.substring(0, separatorIndex).trim();
+            Path optionsPath = (separatorIndex < 0) ? sharedOptionsPath
+                    : folderPath.resolve(line.substring(separatorIndex + 1).trim()).normalize();
+            inputs.add(new Path[] {folderPath.resolve(input).normalize(), optionsPath});
+        }
+        return inputs;
+    }
+
+    private static List<Path[]> resolveGlob(String glob, Path basePath, Path sharedOptionsPath) throws IOException {
+        if (!Files.isDirectory(basePath)) {
+            return new ArrayList<>();
+        }
+
+        PathMatcher matcher = basePath.getFileSystem()
+                .getPathMatcher("glob:" + glob.substring(getGlobBaseLength(glob)).replace('\\', '/'));
+        try (Stream<Path> paths = Files.walk(basePath)) {
+            return paths.filter(Files::isRegularFile).filter(path -> matcher.matches(basePath.relativize(path)))
+                    .sorted().map(path -> new Path[] {path, sharedOptionsPath}).collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isGlob(String batch) {
+        return batch.chars().anyMatch(c -> "*?[{".indexOf(c) >= 0);
+    }
+
+    private static Path getGlobBase(String glob) {
+        return Paths.get(glob.substring(0, getGlobBaseLength(glob))).toAbsolutePath().normalize();
+    }
+
+    /**
+     * @param glob The glob pattern.
+     * @return The length of the part of {@code glob} before the first path segment that contains wildcards.
+     */
+    private static int getGlobBaseLength(String glob) {
+        int wildcardIndex = 0;
+        while ("*?[{".indexOf(glob.charAt(wildcardIndex)) < 0) {
+            wildcardIndex++;
+        }
+        return Math.max(glob.lastIndexOf('/', wildcardIndex), glob.lastIndexOf('\\', wildcardIndex)) + 1;
+    }
+
+    private static String getBaseName(Path inputPath) {
+        String fileName = inputPath.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        return (extensionIndex > 0 && Files.isRegularFile(inputPath)) ? fileName.substring(0, extensionIndex)
+                : fileName;
+    }
+
+    private static Options buildOptions() {
+        Options options = new Options();
+
+        options.addOption(Option.builder("h").longOpt("help").desc("Print help information").build());
+
+        options.addOption(Option.builder("b").longOpt("batch").argName("path").hasArg().required()
+                .desc("Batch file listing the inputs, or glob pattern matching the input TMSC files").build());
+
+        options.addOption(Option.builder("o").longOpt("output").argName("path").hasArg()
+                .desc("Output folder path of the batch").build());
+
+        options.addOption(Option.builder("f").longOpt("options-file").argName("path").hasArg()
+                .desc("Options file for inputs without their own options file").build());
+
+        options.addOption(Option.builder("bt").longOpt("batch-threads").argName("count").hasArg()
+                .desc("Number of extractions to perform concurrently").build());
+
+        return options;
+    }
+
+    /** An input of a batch. */
+    public static class Entry {
+        private final Path input;
+
+        private final Path optionsFile;
+
+        private final Path output;
+
+        Entry(Path input, Path optionsFile, Path output) {
+            this.input = input;
+            this.optionsFile = optionsFile;
+            this.output = output;
+        }
+
+        /**
+         * @return The path of the input TMSC file or folder.
+         */
+        public Path getInput() {
+            return input;
+        }
+
+        /**
+         * @return The path of the options file for the input, or {@code null} to use the default options.
+         */
+        public Path getOptionsFile() {
+            return optionsFile;
+        }
+
+        /**
+         * @return The output folder for the input.
+         */
+        public Path getOutput() {
+            return output;
+        }
+    }
+
+    /** The result of the extraction for an input of a batch. */
+    private static class Result {
+        private final Entry entry;
+
+        /** The error message if the extraction failed, or {@code null} if it succeeded. */
+        private final String error;
+
+        private final long runtimeMs;
+
+        Result(Entry entry, String error, long runtimeMs) {
+            this.entry = entry;
+            this.error = error;
+            this.runtimeMs = runtimeMs;
+        }
+    }
+}
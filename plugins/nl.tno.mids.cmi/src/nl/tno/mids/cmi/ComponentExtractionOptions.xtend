@@ -21,6 +21,7 @@ import java.util.List
 import java.util.Locale
 import java.util.regex.Pattern
 import java.util.stream.Collectors
+import nl.tno.mids.cmi.postprocessing.PostProcessing
 import nl.tno.mids.cmi.postprocessing.PostProcessingFilterMode
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationOptions
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProviders
@@ -47,7 +48,10 @@ class ComponentExtractionOptions implements Cloneable {
 
     @Accessors
     static class ComponentExtractionInputOptions implements Cloneable {
-        /** Absolute path to input TMSC from which to extract models. */
+        /**
+         * Absolute path to input TMSC from which to extract models, or to input folder with TMSCs from which to extract
+         * models together.
+         */
         Path path
 
         override clone() {
@@ -99,6 +103,9 @@ class ComponentExtractionOptions implements Cloneable {
         /** Whether to convert events on untraced components to represent synchronously handled functions. */
         boolean untracedHandleSynchronously = true
 
+        /** Whether to scope the TMSC virtually, without adding dependencies to it. */
+        boolean virtualScope = false
+
         override clone() {
             return super.clone
         }
@@ -115,6 +122,22 @@ class ComponentExtractionOptions implements Cloneable {
         /** Apply post-processing operations after component extraction. */
         List<PostProcessingOperationOptions> operations = newArrayList;
 
+        /**
+         * Reuse the results of post-processing operations cached in the output folder by previous extractions, and cache
+         * the results for later extractions ({@code true}), or always perform post-processing operations
+         * ({@code false}).
+         */
+        boolean cache = false
+
+        /** Remove the results of post-processing operations cached in the output folder before extraction. */
+        boolean clearCache = false
+
+        /**
+         * Maximum total size of the results of post-processing operations cached in the output folder, in megabytes.
+         * The least recently used results are removed once it is exceeded.
+         */
+        int cacheSize = 1024
+
         override clone() {
             val rslt = super.clone as ComponentExtractionPostProcessingOptions
 
@@ -137,6 +160,42 @@ class ComponentExtractionOptions implements Cloneable {
          */
         boolean modelPerComponent = true
 
+        /** Number of threads to use for model extraction, or {@code 1} to extract models sequentially. */
+        int threads = 1
+
+        /** Keep models minimal during extraction ({@code true}) or minimize them after extraction ({@code false}). */
+        boolean minimizeOnline = false
+
+        /**
+         * Post-process and save the model of each component as soon as it is constructed ({@code true}), or
+         * post-process and save the models once all of them are constructed ({@code false}).
+         */
+        boolean pipeline = false
+
+        /**
+         * Reuse the words cached in the output folder by a previous extraction from the same input, and cache the words
+         * for later extractions ({@code true}), or always construct words from the input ({@code false}).
+         */
+        boolean wordCache = false
+
+        /**
+         * Absolute path to the checkpoint file from which to resume model extraction, and to which to save the
+         * checkpoint after model extraction, or {@code null} to not use a checkpoint.
+         */
+        Path checkpointPath
+
+        /**
+         * Duration in seconds of the consecutive time windows for which to extract separate models, or {@code 0} to
+         * extract models for the entire input.
+         */
+        int timeWindow = 0
+
+        /**
+         * Profile the phases of model extraction, and add the results to the report ({@code true}), or don't profile
+         * model extraction ({@code false}).
+         */
+        boolean profile = false
+
         override clone() {
             return super.clone
         }
@@ -223,6 +282,10 @@ class ComponentExtractionOptions implements Cloneable {
             lines.add("-no-untraced-synchronous")
         }
 
+        if (preProcessing.virtualScope) {
+            lines.add("-virtual-scope")
+        }
+
         if (!extraction.modelPerComponent) {
             lines.add("-single-model")
         }
@@ -231,6 +294,37 @@ class ComponentExtractionOptions implements Cloneable {
             lines.add("-no-sync-dependent")
         }
 
+        if (extraction.threads != 1) {
+            lines.add("-threads")
+            lines.add(String.valueOf(extraction.threads))
+        }
+
+        if (extraction.minimizeOnline) {
+            lines.add("-minimize-online")
+        }
+
+        if (extraction.pipeline) {
+            lines.add("-pipeline")
+        }
+
+        if (extraction.wordCache) {
+            lines.add("-word-cache")
+        }
+
+        if (extraction.checkpointPath !== null) {
+            lines.add("-checkpoint")
+            lines.add(FilenameUtils.separatorsToUnix(extraction.checkpointPath.toString))
+        }
+
+        if (extraction.timeWindow != 0) {
+            lines.add("-time-window")
+            lines.add(String.valueOf(extraction.timeWindow))
+        }
+
+        if (extraction.profile) {
+            lines.add("-profile")
+        }
+
         if (!postProcessing.componentsExclusionRegEx.empty) {
             lines.add("-component-exclusion")
             lines.add(postProcessing.componentsExclusionRegEx)
@@ -241,6 +335,19 @@ class ComponentExtractionOptions implements Cloneable {
             lines.add(postProcessing.componentsInclusionRegEx)
         }
 
+        if (postProcessing.cache) {
+            lines.add("-post-processing-cache")
+        }
+
+        if (postProcessing.clearCache) {
+            lines.add("-clear-post-processing-cache")
+        }
+
+        if (postProcessing.cacheSize != 1024) {
+            lines.add("-post-processing-cache-size")
+            lines.add(String.valueOf(postProcessing.cacheSize))
+        }
+
         for (PostProcessingOperationOptions operationOptions : postProcessing.operations) {
             val provider = operationOptions.provider
 
@@ -295,17 +402,50 @@ class ComponentExtractionOptions implements Cloneable {
 
         val inputPath = extractionOptions.input.path
         if (!Files.exists(inputPath)) {
-            throw new RuntimeException("Input path must refer to an existing file.");
+            throw new RuntimeException("Input path must refer to an existing file or folder.");
         }
 
-        if (!Files.isRegularFile(inputPath)) {
-            throw new RuntimeException("Input path must refer to an input file, not a folder.");
+        if (!Files.isRegularFile(inputPath) && !Files.isDirectory(inputPath)) {
+            throw new RuntimeException("Input path must refer to an input file or folder.");
         }
 
         val outputPath = extractionOptions.output.path
         if (Files.exists(outputPath) && !Files.isDirectory(outputPath)) {
             throw new RuntimeException("Output path may not refer to an existing file.");
         }
+
+        if (extractionOptions.extraction.threads < 1) {
+            throw new RuntimeException("Number of threads must be at least one.");
+        }
+
+        val checkpointPath = extractionOptions.extraction.checkpointPath
+        if (checkpointPath !== null && Files.isDirectory(checkpointPath)) {
+            throw new RuntimeException("Checkpoint path may not refer to an existing folder.");
+        }
+
+        if (extractionOptions.extraction.timeWindow < 0) {
+            throw new RuntimeException("Time window duration may not be negative.");
+        }
+
+        if (extractionOptions.extraction.timeWindow > 0 && checkpointPath !== null) {
+            throw new RuntimeException("Time windows can not be combined with a checkpoint.");
+        }
+
+        if (extractionOptions.postProcessing.cacheSize < 1) {
+            throw new RuntimeException("Post-processing cache size must be at least one megabyte.");
+        }
+
+        if (extractionOptions.extraction.pipeline) {
+            if (extractionOptions.output.outputMode != OutputMode.COMPONENTS ||
+                !extractionOptions.extraction.modelPerComponent) {
+                throw new RuntimeException("Pipeline requires saving a model per component.");
+            }
+
+            if (!PostProcessing.isComponentLocal(extractionOptions.postProcessing.operations)) {
+                throw new RuntimeException(
+                    "Pipeline requires post-processing operations that apply to each component on its own.");
+            }
+        }
     }
 
     /**
@@ -346,18 +486,68 @@ class ComponentExtractionOptions implements Cloneable {
         extractionOptions.preProcessing.untracedHandleSynchronously = extractionOptions.preProcessing.
             untracedHandleSynchronously && !line.hasOption("no-untraced-synchronous")
 
+        extractionOptions.preProcessing.virtualScope = extractionOptions.preProcessing.virtualScope ||
+            line.hasOption("virtual-scope")
+
         extractionOptions.extraction.synchronizeDependentTransitions = extractionOptions.extraction.
             synchronizeDependentTransitions && !line.hasOption("no-sync-dependent")
 
         extractionOptions.extraction.modelPerComponent = extractionOptions.extraction.modelPerComponent &&
             !line.hasOption("single-model")
 
+        if (line.hasOption("threads")) {
+            val threads = line.getOptionValue("threads")
+            try {
+                extractionOptions.extraction.threads = Integer.parseInt(threads)
+            } catch (NumberFormatException e) {
+                throw new ParseException("Number of threads is not a valid number: " + threads)
+            }
+        }
+
+        extractionOptions.extraction.minimizeOnline = extractionOptions.extraction.minimizeOnline ||
+            line.hasOption("minimize-online")
+
+        extractionOptions.extraction.pipeline = extractionOptions.extraction.pipeline || line.hasOption("pipeline")
+
+        extractionOptions.extraction.wordCache = extractionOptions.extraction.wordCache || line.hasOption("word-cache")
+
+        if (line.hasOption("checkpoint")) {
+            extractionOptions.extraction.checkpointPath = Paths.get(line.getOptionValue("checkpoint")).toAbsolutePath.
+                normalize
+        }
+
+        if (line.hasOption("time-window")) {
+            val timeWindow = line.getOptionValue("time-window")
+            try {
+                extractionOptions.extraction.timeWindow = Integer.parseInt(timeWindow)
+            } catch (NumberFormatException e) {
+                throw new ParseException("Time window duration is not a valid number: " + timeWindow)
+            }
+        }
+
+        extractionOptions.extraction.profile = extractionOptions.extraction.profile || line.hasOption("profile")
+
         extractionOptions.postProcessing.componentsInclusionRegEx = line.getOptionValue("component-inclusion",
             extractionOptions.postProcessing.componentsInclusionRegEx)
 
         extractionOptions.postProcessing.componentsExclusionRegEx = line.getOptionValue("component-exclusion",
             extractionOptions.postProcessing.componentsExclusionRegEx)
 
+        extractionOptions.postProcessing.cache = extractionOptions.postProcessing.cache ||
+            line.hasOption("post-processing-cache")
+
+        extractionOptions.postProcessing.clearCache = extractionOptions.postProcessing.clearCache ||
+            line.hasOption("clear-post-processing-cache")
+
+        if (line.hasOption("post-processing-cache-size")) {
+            val cacheSize = line.getOptionValue("post-processing-cache-size")
+            try {
+                extractionOptions.postProcessing.cacheSize = Integer.parseInt(cacheSize)
+            } catch (NumberFormatException e) {
+                throw new ParseException("Post-processing cache size is not a valid number: " + cacheSize)
+            }
+        }
+
         if (line.hasOption("post-processing")) {
             val postProcessingPattern = Pattern.compile(
                 "(\\<(?<filtermode>\\w*),(?<filterpattern>[^\\>]*)\\>)?(?<name>\\w*)(\\((?<args>.*)\\))?")
@@ -407,7 +597,7 @@ class ComponentExtractionOptions implements Cloneable {
         val helpOption = Option.builder("h").longOpt("help").desc("Print help information").build
         options.addOption(helpOption)
 
-        val inputTMSCOption = Option.builder("i").longOpt("input").argName("path").hasArg().desc("Input TMSC file").
+        val inputTMSCOption = Option.builder("i").longOpt("input").argName("path").hasArg().desc("Input TMSC file or folder").
             build
         options.addOption(inputTMSCOption)
 
@@ -434,6 +624,10 @@ class ComponentExtractionOptions implements Cloneable {
             "Do not convert events on untraced components to synchronous functions").build
         options.addOption(noUntracedHandledSynchronouslyOption)
 
+        val virtualScopeOption = Option.builder("vs").longOpt("virtual-scope").desc(
+            "Scope the TMSC without adding dependencies to it").build
+        options.addOption(virtualScopeOption)
+
         val noSynchronizeDependentOption = Option.builder("d").longOpt("no-sync-dependent").desc(
             "Do not synchronize dependent transitions").build
         options.addOption(noSynchronizeDependentOption)
@@ -453,6 +647,46 @@ class ComponentExtractionOptions implements Cloneable {
         val singleModelOption = Option.builder("s").longOpt("single-model").desc("Save single model").build
         options.addOption(singleModelOption)
 
+        val threadsOption = Option.builder("t").longOpt("threads").argName("count").hasArg().desc(
+            "Number of threads to use").build
+        options.addOption(threadsOption)
+
+        val minimizeOnlineOption = Option.builder("m").longOpt("minimize-online").desc(
+            "Keep models minimal during extraction").build
+        options.addOption(minimizeOnlineOption)
+
+        val pipelineOption = Option.builder("pl").longOpt("pipeline").desc(
+            "Post-process and save each component model as soon as it is constructed").build
+        options.addOption(pipelineOption)
+
+        val wordCacheOption = Option.builder("w").longOpt("word-cache").desc("Cache words for later extractions").
+            build
+        options.addOption(wordCacheOption)
+
+        val checkpointOption = Option.builder("k").longOpt("checkpoint").argName("path").hasArg().desc(
+            "Checkpoint file to resume extraction from and to update").build
+        options.addOption(checkpointOption)
+
+        val timeWindowOption = Option.builder("tw").longOpt("time-window").argName("seconds").hasArg().desc(
+            "Extract separate models per time window of the given duration").build
+        options.addOption(timeWindowOption)
+
+        val profileOption = Option.builder("pr").longOpt("profile").desc("Profile the phases of model extraction").
+            build
+        options.addOption(profileOption)
+
+        val postProcessingCacheOption = Option.builder("pc").longOpt("post-processing-cache").desc(
+            "Cache post-processing results for later extractions").build
+        options.addOption(postProcessingCacheOption)
+
+        val clearPostProcessingCacheOption = Option.builder("pcc").longOpt("clear-post-processing-cache").desc(
+            "Clear cached post-processing results").build
+        options.addOption(clearPostProcessingCacheOption)
+
+        val postProcessingCacheSizeOption = Option.builder("pcs").longOpt("post-processing-cache-size").argName(
+            "megabytes").hasArg().desc("Maximum size of cached post-processing results").build
+        options.addOption(postProcessingCacheSizeOption)
+
         return options
     }
 
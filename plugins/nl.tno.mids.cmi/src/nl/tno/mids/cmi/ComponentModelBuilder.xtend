@@ -10,9 +10,21 @@
 package nl.tno.mids.cmi
 
 import com.google.common.base.Preconditions
+import java.time.Duration
+import java.util.ArrayList
+import java.util.Collections
+import java.util.HashMap
 import java.util.LinkedHashMap
+import java.util.List
 import java.util.Map
 import java.util.NoSuchElementException
+import java.util.SortedMap
+import java.util.TreeMap
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicLong
+import java.util.regex.Pattern
 import net.automatalib.automata.ShrinkableAutomaton
 import net.automatalib.automata.concepts.InputAlphabetHolder
 import net.automatalib.automata.fsa.DFA
@@ -21,65 +33,456 @@ import net.automatalib.words.Word
 import net.automatalib.words.WordBuilder
 import nl.esi.pps.architecture.instantiated.Executor
 import nl.esi.pps.tmsc.Event
+import nl.esi.pps.tmsc.Execution
 import nl.esi.pps.tmsc.ExitEvent
 import nl.esi.pps.tmsc.Lifeline
+import nl.esi.pps.tmsc.ScopedTMSC
 import nl.esi.pps.tmsc.TMSC
 import nl.esi.pps.tmsc.compare.ArchitectureLifecycleStage
 import nl.esi.pps.tmsc.text.ETimestampFormat
 import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
-import nl.tno.mids.automatalib.extensions.util.IncrementalMutableDFATreeBuilder
-import nl.tno.mids.pps.extensions.queries.TmscEventQueries
+import nl.tno.mids.automatalib.extensions.util.CopyableIncrementalDFABuilder
+import nl.tno.mids.automatalib.extensions.util.IncrementalCompactDFATreeBuilder
+import nl.tno.mids.automatalib.extensions.util.IncrementalMinimalDFABuilder
+import nl.tno.mids.automatalib.extensions.util.IntegerWordSet
+import nl.tno.mids.cmi.utils.CifEventNameKey
+import nl.tno.mids.cmi.utils.CifEventSymbolTable
+import nl.tno.mids.cmi.utils.ExtractionProfiler
+import nl.tno.mids.cmi.utils.TmscMetrics
+import nl.tno.mids.pps.extensions.queries.TmscDependencyIndex
 import nl.tno.mids.pps.extensions.queries.TmscExecutionQueries
 import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries
+import nl.tno.mids.pps.extensions.queries.TmscScopeIndex
+import nl.tno.mids.pps.extensions.queries.TmscVirtualScope
 import org.eclipse.escet.cif.metamodel.cif.Specification
 import org.eclipse.xtend.lib.annotations.Accessors
 
 import static extension nl.tno.mids.automatalib.extensions.util.AutomataLibUtil.*
 import static extension nl.tno.mids.cmi.utils.CifNamesUtil.*
+import static extension nl.tno.mids.cmi.utils.FuturesUtil.*
 
 class ComponentModelBuilder {
 
-    val LinkedHashMap<String, IncrementalMutableDFATreeBuilder<String>> componentAutomata
+    val LinkedHashMap<String, CopyableIncrementalDFABuilder<Integer>> componentAutomata
     @Accessors boolean synchronous
 
+    /** The distinct words inserted per component, to insert repeated words into the component automata only once. */
+    val Map<String, IntegerWordSet> componentWords
+
+    /** Whether to record the distinct words inserted per component. */
+    var boolean recordWords = false
+
+    /** The number of words inserted, including repeated words. */
+    val AtomicLong wordCount
+
+    /** The number of distinct words inserted, summed over all components. */
+    val AtomicLong distinctWordCount
+
+    /** The CIF event names of the constructed models, interned as the input symbols of the component automata. */
+    val CifEventSymbolTable symbols
+
+    /** Pool on which to construct models in parallel, or {@code null} to construct them sequentially. */
+    @Accessors ForkJoinPool pool
+
+    /**
+     * Whether to keep the models minimal while inserting words ({@code true}), or to construct prefix tree acceptors
+     * that are minimized afterwards ({@code false}). Must be configured before inserting words.
+     */
+    @Accessors boolean minimizeOnline
+
+    /** Profiler of word building, insertion and minimization, or {@code null} to not profile them. */
+    @Accessors ExtractionProfiler profiler
+
+    /** Components to include, or {@code null} to include all components. */
+    var Pattern componentsInclusionPattern
+    /** Components to exclude, or {@code null} to exclude no components. */
+    var Pattern componentsExclusionPattern
+    /** Per executor, whether its component is included, to check the filters only once per executor. */
+    val Map<Executor, Boolean> includedExecutors
+
+    /** The duration of the time windows in nanoseconds, or {@code 0} to not construct models per time window. */
+    var long windowDuration = 0
+
+    /** Per time window, identified by its start timestamp, the builder of the models of that window. */
+    val TreeMap<Long, ComponentModelBuilder> windows
+
     new() {
         this(false)
     }
 
     new(boolean synchronous) {
+        this(synchronous, new CifEventSymbolTable)
+    }
+
+    /**
+     * @param synchronous Whether to construct synchronous CIF event names.
+     * @param symbols The CIF event name symbol table, which may be shared with the builders of time windows.
+     */
+    private new(boolean synchronous, CifEventSymbolTable symbols) {
         componentAutomata = new LinkedHashMap
+        componentWords = new HashMap
+        wordCount = new AtomicLong
+        distinctWordCount = new AtomicLong
+        this.symbols = symbols
+        includedExecutors = new HashMap
+        windows = new TreeMap
         this.synchronous = synchronous
     }
 
     /**
-     * Builds and inserts models for all execution call stacks that are in scope of {@code tmsc}.
+     * Configures which components to construct models for. Lifelines of components that are filtered out are skipped
+     * during insertion, and are thus never turned into words, automata or CIF models.
+     * 
+     * @param inclusionRegEx Regular expression that component names must fully match to be included. If empty, all
+     *      components are included.
+     * @param exclusionRegEx Regular expression that component names must not fully match to be included. If empty, no
+     *      components are excluded.
+     */
+    def void setComponentFilters(String inclusionRegEx, String exclusionRegEx) {
+        componentsInclusionPattern = if(inclusionRegEx.trim.isEmpty) null else Pattern.compile(inclusionRegEx)
+        componentsExclusionPattern = if(exclusionRegEx.trim.isEmpty) null else Pattern.compile(exclusionRegEx)
+        includedExecutors.clear
+    }
+
+    /**
+     * @return A description of the {@link #setComponentFilters component filters}, which is empty if all components
+     *      are included.
+     */
+    def String getComponentFilters() {
+        if (componentsInclusionPattern === null && componentsExclusionPattern === null) {
+            return ""
+        }
+        return "+" + (componentsInclusionPattern?.pattern ?: "") + "\n-" + (componentsExclusionPattern?.pattern ?: "")
+    }
+
+    /**
+     * Configures the time windows for which to construct separate models. If configured, the execution call stacks
+     * inserted from lifelines are not inserted into the models of this builder, but into the models of the
+     * {@link #getWindows window} that contains the timestamp of the entry event of their root execution. Windows are
+     * aligned to multiples of their duration. Must be configured before inserting words.
      * 
+     * @param windowDuration The duration of the time windows in nanoseconds, or {@code 0} to not construct models per
+     *      time window.
+     */
+    def void setWindowDuration(long windowDuration) {
+        Preconditions.checkArgument(windowDuration >= 0, "Expected a non-negative window duration.")
+        Preconditions.checkState(wordCount.get == 0, "Expected time windows to be configured before inserting words.")
+        this.windowDuration = windowDuration
+    }
+
+    /**
+     * Configures whether to record the distinct words inserted per component, in order of insertion. Recorded words are
+     * needed to {@link #insert(ComponentModelBuilder) merge} this builder into another builder, and to write them to a
+     * word cache or checkpoint. Must be configured before inserting words.
+     * 
+     * @param recordWords Whether to record the distinct words inserted per component.
+     */
+    def void setRecordWords(boolean recordWords) {
+        Preconditions.checkState(wordCount.get == 0, "Expected word recording to be configured before inserting words.")
+        this.recordWords = recordWords
+    }
+
+    /**
+     * @return Whether the distinct words inserted per component are recorded.
+     */
+    def boolean isRecordWords() {
+        return recordWords
+    }
+
+    /**
+     * @return The duration of the time windows in nanoseconds, or {@code 0} if models are not constructed per time
+     *      window.
+     */
+    def long getWindowDuration() {
+        return windowDuration
+    }
+
+    /**
+     * @return {@code true} if models are constructed per time window, {@code false} otherwise.
+     */
+    def boolean isWindowed() {
+        return windowDuration > 0
+    }
+
+    /**
+     * @return Per time window that contains at least one execution call stack, identified by its start timestamp, the
+     *      builder of the models of that window, in order of time.
+     */
+    def SortedMap<Long, ComponentModelBuilder> getWindows() {
+        return Collections.unmodifiableSortedMap(windows)
+    }
+
+    /**
+     * @param timestamp The timestamp.
+     * @return The builder of the models of the time window that contains {@code timestamp}.
+     */
+    def private ComponentModelBuilder getWindow(long timestamp) {
+        return getWindowByStart(Math.floorDiv(timestamp, windowDuration) * windowDuration)
+    }
+
+    /**
+     * @param windowStart The start timestamp of the time window.
+     * @return The builder of the models of the time window, configured like this builder.
+     */
+    def private ComponentModelBuilder getWindowByStart(long windowStart) {
+        return windows.computeIfAbsent(windowStart, [
+            val window = new ComponentModelBuilder(synchronous, symbols)
+            window.componentsInclusionPattern = componentsInclusionPattern
+            window.componentsExclusionPattern = componentsExclusionPattern
+            window.pool = pool
+            window.minimizeOnline = minimizeOnline
+            window.recordWords = recordWords
+            window.profiler = profiler
+            return window
+        ])
+    }
+
+    /**
+     * @param componentLabel The name of the component.
+     * @return {@code true} if models are to be constructed for the component, {@code false} otherwise.
+     */
+    def boolean isIncluded(String componentLabel) {
+        return (componentsInclusionPattern === null || componentsInclusionPattern.matcher(componentLabel).matches) &&
+            (componentsExclusionPattern === null || !componentsExclusionPattern.matcher(componentLabel).matches)
+    }
+
+    /**
+     * @param executor The executor of the component.
+     * @return {@code true} if models are to be constructed for the component, {@code false} otherwise.
+     */
+    def boolean isIncluded(Executor executor) {
+        return includedExecutors.computeIfAbsent(executor, [isIncluded(asCifName)])
+    }
+
+    /**
+     * Builds and inserts models for all execution call stacks that are in scope of {@code tmsc}. Models per time window
+     * are always built sequentially, as all lifelines insert into the same windows.
+     * 
+     * @param tmsc The {@link TMSC} that determines the scope for model construction.
+     * @return The duration and number of events of {@code tmsc}, determined while constructing the words, without a
+     *      separate pass over its events.
+     */
+    def TmscMetrics insert(TMSC tmsc) {
+        // Index the message dependencies and events in scope, as they are queried for every event. Indices that were
+        // already attached are kept, while the indices attached here are removed after insertion, to release them.
+        val dependencyIndexed = TmscDependencyIndex.get(tmsc) === null
+        if (dependencyIndexed) {
+            TmscDependencyIndex.install(tmsc)
+        }
+        // Virtual scopes don't need an index, as they determine their scope using a predicate.
+        val scopeIndexed = tmsc instanceof ScopedTMSC && TmscVirtualScope.get(tmsc) === null &&
+            TmscScopeIndex.get(tmsc as ScopedTMSC) === null
+        if (scopeIndexed) {
+            TmscScopeIndex.install(tmsc as ScopedTMSC)
+        }
+
+        try {
+            val tmscMetrics = new TmscMetrics
+            tmscMetrics.duration = Duration.ZERO
+
+            // The events of excluded lifelines are part of the TMSC metrics, even though no words are constructed.
+            val lifelines = new ArrayList<Lifeline>
+            for (lifeline : tmsc.fullScope.lifelines) {
+                if (!isIncluded(lifeline.executor)) {
+                    addEvents(tmscMetrics, TmscLifelineQueries.getEventsInScope(lifeline, tmsc))
+                } else if (!TmscLifelineQueries.isEmpty(lifeline, tmsc)) {
+                    lifelines += lifeline
+                }
+            }
+
+            // CIF event name symbols per event name key, to construct each distinct CIF event name only once. It is
+            // discarded after insertion, as the keys refer to the executors of the TMSC.
+            if (pool === null || windowed) {
+                val eventSymbols = new HashMap<CifEventNameKey, Integer>
+                lifelines.forEach[insert(it, tmsc, eventSymbols, tmscMetrics)]
+            } else {
+                insertParallel(lifelines, tmsc, new ConcurrentHashMap<CifEventNameKey, Integer>, tmscMetrics)
+            }
+            return tmscMetrics
+        } finally {
+            if (dependencyIndexed) {
+                TmscDependencyIndex.uninstall(tmsc)
+            }
+            if (scopeIndexed) {
+                TmscScopeIndex.uninstall(tmsc as ScopedTMSC)
+            }
+
+            // Forget the executors of the TMSC, to not keep the TMSC reachable after insertion.
+            includedExecutors.clear
+        }
+    }
+
+    /**
+     * Adds events in any order to {@code tmscMetrics}.
+     * 
+     * @param tmscMetrics The metrics to which to add the events.
+     * @param events The events to add.
+     */
+    def private static void addEvents(TmscMetrics tmscMetrics, List<Event> events) {
+        if (!events.empty) {
+            var long first = events.get(0).timestamp
+            var last = first
+            for (event : events) {
+                first = Long.min(first, event.timestamp)
+                last = Long.max(last, event.timestamp)
+            }
+            tmscMetrics.addEvents(events.size, first, last)
+        }
+    }
+
+    /**
+     * Builds and inserts models for all execution call stacks on {@code lifelines} that are in scope of {@code tmsc},
+     * using the {@link #pool}. The words of the lifelines are constructed concurrently, while they are inserted per
+     * component in the order of {@code lifelines}. The resulting models are thus identical to sequential insertion.
+     * 
+     * @param lifelines The {@link Lifeline lifelines} from which models are to be constructed.
      * @param tmsc The {@link TMSC} that determines the scope for model construction.
+     * @param eventSymbols The thread safe CIF event name symbols per event name key, to be extended as needed.
+     * @param tmscMetrics The metrics to which to add the events of {@code lifelines}.
      */
-    def void insert(TMSC tmsc) {
-        TmscLifelineQueries.nonEmptyLifelinesOf(tmsc).forEach[insert(it, tmsc)]
+    def private void insertParallel(List<Lifeline> lifelines, TMSC tmsc, Map<CifEventNameKey, Integer> eventSymbols,
+        TmscMetrics tmscMetrics) {
+        val componentInsertions = new LinkedHashMap<String, CompletableFuture<Void>>
+
+        for (lifeline : lifelines) {
+            // Get builder up front, to keep the order of the components deterministic.
+            val componentLabel = lifeline.executor.asCifName
+            val builder = getBuilder(componentLabel)
+            val insertedWords = componentWords.get(componentLabel)
+
+            // Construct words concurrently, and insert them after the words of the previous lifeline of the component.
+            val words = CompletableFuture.supplyAsync([
+                val measurement = profiler?.start(ExtractionProfiler.WORDS)
+                val lifelineWords = collectWords(lifeline, tmsc, eventSymbols, tmscMetrics)
+                measurement?.stop
+                return lifelineWords
+            ], pool)
+            val CompletableFuture<Void> previousInsertion = componentInsertions.get(componentLabel) ?:
+                CompletableFuture.completedFuture(null)
+            componentInsertions.put(componentLabel, previousInsertion.thenAcceptBoth(words, [ v, lifelineWords |
+                val measurement = profiler?.start(ExtractionProfiler.PTA_INSERT)
+                lifelineWords.forEach[insertWord(builder, insertedWords, it)]
+                measurement?.stop
+            ]))
+        }
+
+        componentInsertions.values.forEach[await]
+    }
+
+    /**
+     * Applies {@code function} to all entries of {@code map}, using the {@link #pool} if configured. The order of the
+     * resulting map is the same as the order of {@code map}, regardless of the order in which the function is applied.
+     * 
+     * @param map The map to which to apply the function.
+     * @param function The function to apply to each key and value of the map. Must be thread safe.
+     * @return The resulting map, with the results of the function for each key.
+     */
+    def private <V, R> LinkedHashMap<String, R> mapValues(Map<String, V> map, (String, V)=>R function) {
+        val result = new LinkedHashMap<String, R>(map.size)
+        if (pool === null) {
+            map.forEach[k, v|result.put(k, function.apply(k, v))]
+        } else {
+            val futures = new LinkedHashMap<String, CompletableFuture<R>>(map.size)
+            map.forEach[k, v|futures.put(k, CompletableFuture.supplyAsync([function.apply(k, v)], pool))]
+            futures.forEach[k, future|result.put(k, await(future))]
+        }
+        return result
     }
 
     /**
      * Builds and inserts models for all execution call stacks on {@code lifeline} that are in scope of {@code tmsc}.
+     * If {@link #isWindowed time windows} are configured, each call stack is inserted into the models of its window,
+     * in a single pass over the lifeline.
      * 
      * @param lifeline The {@link Lifeline} from which models are to be constructed.
      * @param tmsc The {@link TMSC} that determines the scope for model construction.
      */
     def void insert(Lifeline lifeline, TMSC tmsc) {
-        val iterator = lifeline.events.filter[TmscEventQueries.isInScope(tmsc, it)].sortBy[timestamp].iterator
-        val builder = lifeline.builder
+        insert(lifeline, tmsc, new HashMap, null)
+    }
+
+    def private void insert(Lifeline lifeline, TMSC tmsc, Map<CifEventNameKey, Integer> eventSymbols,
+        TmscMetrics tmscMetrics) {
+        if (!isIncluded(lifeline.executor)) {
+            return
+        }
+
+        val componentLabel = lifeline.executor.asCifName
+        val (Event, Word<Integer>)=>void consumer = if (windowed) {
+            [ rootEntryEvent, word |
+                wordCount.incrementAndGet
+                getWindow(rootEntryEvent.timestamp).insertSymbols(componentLabel, word)
+            ]
+        } else {
+            val builder = getBuilder(componentLabel)
+            val insertedWords = componentWords.get(componentLabel)
+            [rootEntryEvent, word|insertWord(builder, insertedWords, word)]
+        }
+
+        if (profiler === null) {
+            constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, consumer)
+            return
+        }
+
+        // Insert each word as soon as it is constructed, switching between the measurements of both phases, to profile
+        // them separately without keeping all words of the lifeline in memory.
+        val insertMeasurement = profiler.start(ExtractionProfiler.PTA_INSERT)
+        insertMeasurement.pause
+        val wordsMeasurement = profiler.start(ExtractionProfiler.WORDS)
+        constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, [ rootEntryEvent, word |
+            wordsMeasurement.switchTo(insertMeasurement)
+            consumer.apply(rootEntryEvent, word)
+            insertMeasurement.switchTo(wordsMeasurement)
+        ])
+        wordsMeasurement.stop
+        insertMeasurement.stop
+    }
+
+    def private List<Word<Integer>> collectWords(Lifeline lifeline, TMSC tmsc,
+        Map<CifEventNameKey, Integer> eventSymbols, TmscMetrics tmscMetrics) {
+        val words = new ArrayList<Word<Integer>>
+        constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, [rootEntryEvent, word|words.add(word)])
+        return words
+    }
+
+    /**
+     * Constructs words for all execution call stacks on {@code lifeline} that are in scope of {@code tmsc}.
+     * 
+     * @param lifeline The {@link Lifeline} from which words are to be constructed.
+     * @param tmsc The {@link TMSC} that determines the scope for word construction.
+     * @param eventSymbols The CIF event name symbols per event name key, to be extended as needed.
+     * @param tmscMetrics The metrics to which to add the events of {@code lifeline}, or {@code null} to not add them.
+     * @param consumer The consumer of the first event of each call stack, i.e. the entry event of its root execution,
+     *      and its constructed word, in the order of the call stacks on {@code lifeline}.
+     */
+    def private void constructWords(Lifeline lifeline, TMSC tmsc, Map<CifEventNameKey, Integer> eventSymbols,
+        TmscMetrics tmscMetrics, (Event, Word<Integer>)=>void consumer) {
+        // Stream the events in their order on the lifeline, and only sort them if they are out of order.
+        val events = TmscLifelineQueries.getEventsInScope(lifeline, tmsc)
+        val orderedEvents = if(isOrderedByTimestamp(events)) events else events.sortBy[timestamp]
+        if (tmscMetrics !== null && !orderedEvents.empty) {
+            tmscMetrics.addEvents(orderedEvents.size, orderedEvents.head.timestamp, orderedEvents.last.timestamp)
+        }
+        val iterator = orderedEvents.iterator
+        val rootsInScope = TmscExecutionQueries.getRootsInScope(tmsc, lifeline)
         var Event event;
 
         try {
             while (iterator.hasNext) { // iterates over tasks (call stacks)
-                val wordBuilder = new WordBuilder
+                val wordBuilder = new WordBuilder<Integer>
+                var Event rootEntryEvent = null
                 do {
                     event = iterator.next
-                    wordBuilder.append(event.asCifName(tmsc, synchronous))
-                } while (!isRootExitEventInScope(event, tmsc))
-                builder.insert(wordBuilder.toWord)
+                    val wordEvent = event
+                    if (rootEntryEvent === null) {
+                        rootEntryEvent = wordEvent
+                    }
+                    wordBuilder.append(eventSymbols.computeIfAbsent(wordEvent.asCifNameKey(tmsc), [
+                        symbols.getId(wordEvent.asCifName(tmsc, synchronous))
+                    ]))
+                } while (!isRootExitEventInScope(event, rootsInScope))
+                consumer.apply(rootEntryEvent, wordBuilder.toWord)
             }
         } catch (NoSuchElementException cause) {
             throw new RuntimeException(
@@ -87,26 +490,197 @@ class ComponentModelBuilder {
                     ETimestampFormat::eINSTANCE.format(event.timestamp), cause)
         }
     }
-    
-    def private boolean isRootExitEventInScope(Event event, TMSC tmsc) {
-        return event instanceof ExitEvent && TmscExecutionQueries.getRootInScope(tmsc, event.execution) === null
+
+    /**
+     * @param events The events to check.
+     * @return {@code true} if {@code events} are ordered by timestamp, {@code false} otherwise.
+     */
+    def private static boolean isOrderedByTimestamp(List<Event> events) {
+        for (var i = 1; i < events.size; i++) {
+            if (events.get(i - 1).timestamp > events.get(i).timestamp) {
+                return false
+            }
+        }
+        return true
+    }
+
+    /**
+     * @param event The event to check.
+     * @param rootsInScope Per execution on the lifeline of {@code event}, its scoped root execution, if any.
+     * @return {@code true} if {@code event} is the exit event of a scoped root execution, {@code false} otherwise.
+     */
+    def private boolean isRootExitEventInScope(Event event, Map<Execution, Execution> rootsInScope) {
+        return event instanceof ExitEvent && rootsInScope.get(event.execution) === null
     }
 
     def void insert(String componentLabel, Word<String> word) {
+        if (!isIncluded(componentLabel)) {
+            return
+        }
+
+        val builder = getBuilder(componentLabel)
+        insertWord(builder, componentWords.get(componentLabel), word.transform[symbols.getId(it)])
+    }
+
+    /**
+     * Inserts a word of CIF event name identifiers of {@link #getSymbols} into the model of a component.
+     * 
+     * @param componentLabel The name of the component.
+     * @param word The word to insert.
+     */
+    def void insertSymbols(String componentLabel, Word<Integer> word) {
+        if (!isIncluded(componentLabel)) {
+            return
+        }
+
+        val builder = getBuilder(componentLabel)
+        insertWord(builder, componentWords.get(componentLabel), word)
+    }
+
+    /**
+     * Inserts a distinct word of CIF event name identifiers of {@link #getSymbols} into the model of a component,
+     * without counting it as an inserted word. This allows to restore the recorded words of a builder, after which its
+     * number of inserted words, including repeated words, is restored using {@link #addWordCount}.
+     * 
+     * @param componentLabel The name of the component.
+     * @param word The word to insert.
+     */
+    def void insertDistinctSymbols(String componentLabel, Word<Integer> word) {
+        if (!isIncluded(componentLabel)) {
+            return
+        }
+
         val builder = getBuilder(componentLabel)
-        builder.insert(word)
+        insertDistinctWord(builder, componentWords.get(componentLabel), word)
+    }
+
+    /**
+     * Adds to the number of inserted words, for words that were inserted using {@link #insertDistinctSymbols}.
+     * 
+     * @param count The number of words to add, including repeated words.
+     */
+    def void addWordCount(long count) {
+        wordCount.addAndGet(count)
+    }
+
+    /**
+     * Inserts all words inserted into {@code other} into the models of this builder, thereby merging the models of
+     * {@code other} into the models of this builder. The words are inserted per component, in their order of insertion
+     * into {@code other}. The models of the time windows of {@code other} are merged into those of the same time
+     * windows of this builder.
+     * 
+     * @param other The builder whose words to insert.
+     */
+    def void insert(ComponentModelBuilder other) {
+        Preconditions.checkArgument(other.recordWords, "Expected a builder that records its words.")
+        Preconditions.checkArgument(!other.windowed || other.windowDuration == windowDuration,
+            "Expected builders with the same time windows.")
+        other.windows.forEach[windowStart, otherWindow|getWindowByStart(windowStart).insert(otherWindow)]
+
+        // Map the CIF event name identifiers of the other builder to those of this builder.
+        val symbolIds = newIntArrayOfSize(other.symbols.size)
+        for (var id = 0; id < symbolIds.length; id++) {
+            symbolIds.set(id, symbols.getId(other.symbols.getName(id)))
+        }
+
+        for (componentLabel : other.componentLabels) {
+            if (isIncluded(componentLabel)) {
+                val builder = getBuilder(componentLabel)
+                val insertedWords = componentWords.get(componentLabel)
+                val otherWords = other.componentWords.get(componentLabel)
+                for (var index = 0; index < otherWords.size; index++) {
+                    val wordBuilder = new WordBuilder<Integer>(otherWords.getWordLength(index))
+                    for (var position = 0; position < otherWords.getWordLength(index); position++) {
+                        wordBuilder.append(symbolIds.get(otherWords.getSymbol(index, position)))
+                    }
+                    insertDistinctWord(builder, insertedWords, wordBuilder.toWord)
+                }
+            }
+        }
+
+        // Account for all words inserted into the other builder, including repeated words.
+        wordCount.addAndGet(other.getWordCount)
+    }
+
+    /**
+     * Inserts a word into the automaton of a component, unless it was inserted before.
+     * 
+     * @param builder The builder of the automaton of the component.
+     * @param insertedWords The words inserted before into the automaton of the component.
+     * @param word The word to insert.
+     */
+    def private void insertWord(CopyableIncrementalDFABuilder<Integer> builder, IntegerWordSet insertedWords,
+        Word<Integer> word) {
+        wordCount.incrementAndGet
+        insertDistinctWord(builder, insertedWords, word)
+    }
+
+    /**
+     * Inserts a word into the automaton of a component, unless it was inserted before. Repeated words are detected by
+     * hashing them, which is cheaper than looking them up in the automaton.
+     * 
+     * @param builder The builder of the automaton of the component.
+     * @param insertedWords The words inserted before into the automaton of the component.
+     * @param word The word to insert.
+     */
+    def private void insertDistinctWord(CopyableIncrementalDFABuilder<Integer> builder, IntegerWordSet insertedWords,
+        Word<Integer> word) {
+        if (insertedWords.add(word)) {
+            builder.insert(word)
+            distinctWordCount.incrementAndGet
+        }
+    }
+
+    /**
+     * @return The number of words inserted, including repeated words.
+     */
+    def long getWordCount() {
+        return wordCount.get
+    }
+
+    /**
+     * @return The number of distinct words inserted, summed over all components and time windows. A word inserted for
+     *      several components or time windows is counted once for each of them.
+     */
+    def long getDistinctWordCount() {
+        var count = distinctWordCount.get
+        for (window : windows.values) {
+            count += window.getDistinctWordCount
+        }
+        return count
     }
 
     def getComponentLabels() {
         return componentAutomata.keySet
     }
 
+    /**
+     * @return The CIF event names of the constructed models, interned as identifiers.
+     */
+    def CifEventSymbolTable getSymbols() {
+        return symbols
+    }
+
+    /**
+     * @return The distinct words inserted per component, as CIF event name identifiers of {@link #getSymbols}.
+     * @throws IllegalStateException If words are not {@link #isRecordWords recorded}.
+     */
+    def Map<String, IntegerWordSet> getComponentWords() {
+        Preconditions.checkState(recordWords, "Expected a builder that records its words.")
+        return Collections.unmodifiableMap(componentWords)
+    }
+
     def getPTA(Executor executor) {
         return this.getPTA(executor.asCifName)
     }
 
+    /**
+     * @param componentLabel The name of the component.
+     * @return The prefix tree acceptor of the component, or its minimal acyclic DFA if models are kept minimal while
+     *      inserting words.
+     */
     def getPTA(String componentLabel) {
-        return componentAutomata.get(componentLabel).getFastDFA(true) // enforces a clean copy
+        return componentAutomata.get(componentLabel).getFastDFA[symbols.getName(it)] // enforces a clean copy
     }
 
     def getPTAs() {
@@ -122,25 +696,48 @@ class ComponentModelBuilder {
     }
 
     def getDFA(String componentLabel) {
+        val measurement = profiler?.start(ExtractionProfiler.MINIMIZE)
+
         // Get PTA.
-        // Does not enforce a clean copy, but uses caching of builder to store result.
         val pta = getPTA(componentLabel)
+        val ptaStates = pta.size
 
-        // Get minimal DFA.
-        val dfa = AutomataLibUtil.minimizeDFA(pta)
+        // Get minimal DFA. Models that are kept minimal while inserting words need no further minimization.
+        val dfa = if(minimizeOnline) pta else AutomataLibUtil.minimizeDFA(pta)
 
         // Loop the DFA.
         dfa.loop
 
+        if (profiler !== null) {
+            measurement.stop
+            profiler.recordComponent(componentLabel, ptaStates, dfa.size, countTransitions(dfa))
+        }
+
         return dfa
     }
 
+    /**
+     * @param dfa The DFA.
+     * @return The number of transitions of the DFA.
+     */
+    def private static int countTransitions(FastDFA<String> dfa) {
+        var count = 0
+        for (state : dfa.states) {
+            for (input : dfa.inputAlphabet) {
+                if (dfa.getSuccessor(state, input) !== null) {
+                    count++
+                }
+            }
+        }
+        return count
+    }
+
+    /**
+     * Returns a map from component name to minimal DFA, for each model learned by this learner. The DFAs are
+     * constructed in parallel if a {@link #pool} is configured.
+     */
     def getDFAs() {
-        val dfas = new LinkedHashMap(componentAutomata.size)
-        componentAutomata.forEach [ k, v |
-            dfas.put(k, getDFA(k))
-        ]
-        return dfas
+        return mapValues(componentAutomata, [k, v|getDFA(k)])
     }
 
     /**
@@ -166,14 +763,11 @@ class ComponentModelBuilder {
     }
 
     /**
-     * Returns a map from string to specification, containing a CIF specification for each model passed.
+     * Returns a map from string to specification, containing a CIF specification for each model passed. The CIF
+     * specifications are constructed in parallel if a {@link #pool} is configured.
      */
     def getCifModels(Map<String, FastDFA<String>> automata) {
-        val ret = new LinkedHashMap<String, Specification>(automata.size)
-        automata.forEach [ name, dfa |
-            ret.put(name, getCifModel(name, dfa));
-        ]
-        return ret
+        return mapValues(automata, [name, dfa|getCifModel(name, dfa)])
     }
 
     /**
@@ -191,8 +785,12 @@ class ComponentModelBuilder {
         if (componentAutomata.containsKey(componentLabel)) {
             return componentAutomata.get(componentLabel)
         } else {
-            val builder = new IncrementalMutableDFATreeBuilder
+            val CopyableIncrementalDFABuilder<Integer> builder = if (minimizeOnline)
+                    new IncrementalMinimalDFABuilder
+                else
+                    new IncrementalCompactDFATreeBuilder
             componentAutomata.put(componentLabel, builder)
+            componentWords.put(componentLabel, new IntegerWordSet)
             return builder
         }
     }
@@ -10,14 +10,20 @@
 package nl.tno.mids.cmi.postprocessing
 
 import java.nio.file.Path
+import java.util.Collections
 import java.util.LinkedHashMap
 import java.util.List
 import java.util.Map
 import java.util.Map.Entry
 import java.util.Set
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
 import java.util.regex.Pattern
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
+import nl.tno.mids.cmi.utils.ExtractionProfiler
+import nl.tno.mids.cmi.utils.FuturesUtil
 import org.eclipse.core.runtime.IProgressMonitor
+import org.eclipse.core.runtime.NullProgressMonitor
 import org.eclipse.core.runtime.SubMonitor
 import org.eclipse.escet.cif.metamodel.cif.Specification
 
@@ -26,6 +32,15 @@ class PostProcessing {
         // Static class.
     }
 
+    /**
+     * @param operationsOptions The options for each of the post-processing operations to perform.
+     * @return {@code true} if all operations are {@link PostProcessingOperationProvider#isComponentLocal component
+     *      local}, such that post-processing can be performed for each component separately, {@code false} otherwise.
+     */
+    static def boolean isComponentLocal(List<PostProcessingOperationOptions> operationsOptions) {
+        return operationsOptions.forall[provider.componentLocal]
+    }
+
     /**
      * Perform post-processing.
      * 
@@ -41,6 +56,34 @@ class PostProcessing {
      */
     static def Map<String, Specification> postProcess(Map<String, Specification> componentsMap,
         Path relativeResolvePath, List<PostProcessingOperationOptions> operationsOptions, IProgressMonitor monitor) {
+        return postProcess(componentsMap, relativeResolvePath, operationsOptions, monitor, null, null, null)
+    }
+
+    /**
+     * Perform post-processing, profiling each of the post-processing operations. Using the {@code pool}, consecutive
+     * {@link PostProcessingOperationProvider#isComponentLocal component local} operations are applied to the selected
+     * components concurrently. The result is identical to applying them sequentially. Using the {@code cache}, the
+     * results of {@link PostProcessingOperationProvider#getCacheKey cacheable} operations are reused from earlier
+     * post-processing of the same models. If profiling, the conversions between the representations of the models
+     * during this post-processing are recorded as well. Operations applied concurrently are profiled together.
+     * 
+     * @param componentsMap Mapping from component name (absolute name of the CIF automaton) to CIF specification for
+     *      that component. May be modified in-place, but should not be used after this call. Use the return value of
+     *      this method instead.
+     * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+     *      to be resolved against the directory that contains this file.
+     * @param operationsOptions The options for each of the post-processing operations to perform.
+     * @param monitor The progress monitor.
+     * @param profiler The profiler of the post-processing operations, or {@code null} to not profile them.
+     * @param pool The pool on which to apply component local operations in parallel, or {@code null} to apply all
+     *      operations sequentially.
+     * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+     * @return Post-processing result, as mapping from component name (absolute name of the CIF automaton) to CIF
+     *      specification for that component.
+     */
+    static def Map<String, Specification> postProcess(Map<String, Specification> componentsMap,
+        Path relativeResolvePath, List<PostProcessingOperationOptions> operationsOptions, IProgressMonitor monitor,
+        ExtractionProfiler profiler, ForkJoinPool pool, PostProcessingCache cache) {
 
         val subMonitor = SubMonitor.convert(monitor, operationsOptions.size + 1)
 
@@ -50,50 +93,55 @@ class PostProcessing {
         if (operationsOptions.empty) {
             return componentsMap
         }
+        val conversions = new PostProcessingConversions
         val modelsToProcess = new LinkedHashMap<String, PostProcessingModel>(componentsMap.size)
         for (Entry<String, Specification> componentEntry : componentsMap.entrySet) {
             val name = componentEntry.key
             val spec = componentEntry.value
             val inputModel = new PostProcessingModelCifSpec(spec, name, new PostProcessingStatus(false, false))
+            inputModel.conversions = conversions
             modelsToProcess.put(name, inputModel)
         }
 
-        // Apply operations.
-        for (operationOptions : operationsOptions) {
-            subMonitor.taskName = "Performing post-processing operation: " + operationOptions.toString
+        // Apply operations. Operations that rename events do so lazily, such that the renamings of consecutive
+        // operations are composed. The models are normalized after each run of consecutive component local operations,
+        // and after each other operation, such that the models do not depend on whether a pool is used.
+        var operationIndex = 0
+        while (operationIndex < operationsOptions.size) {
+            val operationOptions = operationsOptions.get(operationIndex)
+            if (pool !== null && operationOptions.provider.componentLocal && modelsToProcess.size > 1) {
+                // Apply the consecutive component local operations to each component concurrently.
+                var runEnd = operationIndex + 1
+                while (runEnd < operationsOptions.size && operationsOptions.get(runEnd).provider.componentLocal) {
+                    runEnd++
+                }
+                val runOptions = operationsOptions.subList(operationIndex, runEnd)
+                subMonitor.taskName = "Performing post-processing operations: " + runOptions.join(", ")
+                val runSelections = runOptions.map[selectComponents(it, modelsToProcess.keySet)].toList
 
-            // Validate options.
-            try {
-                operationOptions.validate
-            } catch (IllegalStateException e) {
-                throw new RuntimeException("Options validation failed: " + operationOptions, e)
-            }
+                // Measure the run as a whole on this thread, rather than each operation on each of the worker threads,
+                // as the times of concurrent measurements would be summed.
+                val measurement = profiler?.start(getProfilingPhase(runOptions, operationIndex))
+                applyOperationsPerComponent(runOptions, runSelections, modelsToProcess, relativeResolvePath, pool,
+                    cache, conversions, subMonitor.split(runOptions.size))
+                measurement?.stop
+                operationIndex = runEnd
+            } else {
+                subMonitor.taskName = "Performing post-processing operation: " + operationOptions.toString
+                val selectedComponents = selectComponents(operationOptions, modelsToProcess.keySet)
 
-            // Select components to which to apply the operation.
-            val PostProcessingOperationProvider<?, ?> provider = operationOptions.provider
-            var Set<String> selectedComponents
-            // If filtering is supported, apply selected filter. Otherwise, all models are always selected.
-            if (provider.supportsFilteredComponentsAsInput) {
-                selectedComponents = switch (operationOptions.filterMode) {
-                    case NONE: {
-                        modelsToProcess.keySet
-                    }
-                    case INCLUSION: {
-                        val filterPattern = Pattern.compile(operationOptions.filterPattern)
-                        modelsToProcess.keySet.filter(k|filterPattern.matcher(k).matches).toSet
-                    }
-                    case EXCLUSION: {
-                        val filterPattern = Pattern.compile(operationOptions.filterPattern)
-                        modelsToProcess.keySet.filter(k|!filterPattern.matcher(k).matches).toSet
-                    }
+                // Apply operation. Performs in-place modifications to 'modelsToProcess'.
+                val measurement = profiler?.start(getProfilingPhase(operationOptions, operationIndex))
+                applyOperation(operationOptions, modelsToProcess, selectedComponents, relativeResolvePath, cache,
+                    conversions, subMonitor.split(1))
+                operationIndex++
+                if (operationIndex == operationsOptions.size ||
+                    !operationOptions.provider.componentLocal ||
+                    !operationsOptions.get(operationIndex).provider.componentLocal) {
+                    normalizeModels(modelsToProcess, pool)
                 }
-            } else {
-                selectedComponents = modelsToProcess.keySet
+                measurement?.stop
             }
-
-            // Apply operation. Performs in-place modifications to 'filteredPostProcessMap'.
-            val PostProcessingOperation<?> operation = provider.getOperationFromRawOptions(operationOptions)
-            operation.applyOperation(modelsToProcess, selectedComponents, relativeResolvePath, subMonitor.split(1))
         }
 
         // Put result of post-processing in the original specification, modifying it in-place.
@@ -104,6 +152,196 @@ class PostProcessing {
             val spec = model.getCifSpec()
             processedModels.put(name, spec)
         }
+        profiler?.recordModelConversions(conversions.hits, conversions.misses)
         return processedModels
     }
+
+    /**
+     * Validates the options of a post-processing operation, and selects the components to which to apply it.
+     * 
+     * @param operationOptions The options for the operation.
+     * @param components The names of all components.
+     * @return The names of the components to which to apply the operation.
+     */
+    private static def Set<String> selectComponents(PostProcessingOperationOptions operationOptions,
+        Set<String> components) {
+        // Validate options.
+        try {
+            operationOptions.validate
+        } catch (IllegalStateException e) {
+            throw new RuntimeException("Options validation failed: " + operationOptions, e)
+        }
+
+        // If filtering is supported, apply selected filter. Otherwise, all models are always selected.
+        if (!operationOptions.provider.supportsFilteredComponentsAsInput) {
+            return components
+        }
+        return switch (operationOptions.filterMode) {
+            case NONE: {
+                components
+            }
+            case INCLUSION: {
+                val filterPattern = Pattern.compile(operationOptions.filterPattern)
+                components.filter(k|filterPattern.matcher(k).matches).toSet
+            }
+            case EXCLUSION: {
+                val filterPattern = Pattern.compile(operationOptions.filterPattern)
+                components.filter(k|!filterPattern.matcher(k).matches).toSet
+            }
+        }
+    }
+
+    /**
+     * @param operationOptions The options for the post-processing operation.
+     * @param operationIndex The index of the operation among all post-processing operations, starting at {@code 0}.
+     * @return The name of the profiling phase of the operation.
+     */
+    private static def String getProfilingPhase(PostProcessingOperationOptions operationOptions, int operationIndex) {
+        return ExtractionProfiler.getPostProcessingPhase(operationIndex + 1,
+            operationOptions.provider.operationClass.simpleName)
+    }
+
+    /**
+     * @param operationsOptions The options for consecutive post-processing operations.
+     * @param firstOperationIndex The index of the first of the operations among all post-processing operations,
+     *      starting at {@code 0}.
+     * @return The name of the profiling phase of the operations, if they are applied together.
+     */
+    private static def String getProfilingPhase(List<PostProcessingOperationOptions> operationsOptions,
+        int firstOperationIndex) {
+        if (operationsOptions.size == 1) {
+            return getProfilingPhase(operationsOptions.head, firstOperationIndex)
+        }
+        return ExtractionProfiler.getPostProcessingPhase(firstOperationIndex + 1,
+            firstOperationIndex + operationsOptions.size,
+            operationsOptions.map[provider.operationClass.simpleName].join(", "))
+    }
+
+    /**
+     * Applies consecutive {@link PostProcessingOperationProvider#isComponentLocal component local} operations to each of
+     * the components concurrently. Each component is processed by its own instances of the operations, on a mapping
+     * that contains only the model of that component. The renamings of the operations are thus composed per component,
+     * and each resulting model is normalized on a worker thread. The resulting models are put back into {@code models}
+     * in order, thus keeping the order of {@code models}.
+     * 
+     * @param operationsOptions The options for each of the operations.
+     * @param selections The names of the components to which to apply each of the operations.
+     * @param models Mapping from component name (absolute name of the CIF automaton) to input model for the component.
+     *      This mapping is modified in-place.
+     * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+     *      to be resolved against the directory that contains this file.
+     * @param pool The pool on which to apply the operations.
+     * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+     * @param conversions The counter of the conversions between the representations of the models.
+     * @param monitor The progress monitor.
+     */
+    private static def void applyOperationsPerComponent(List<PostProcessingOperationOptions> operationsOptions,
+        List<Set<String>> selections, Map<String, PostProcessingModel> models, Path relativeResolvePath,
+        ForkJoinPool pool, PostProcessingCache cache, PostProcessingConversions conversions, IProgressMonitor monitor) {
+        val components = models.keySet.toList
+        val subMonitor = SubMonitor.convert(monitor, components.size)
+
+        val futures = components.map [ component |
+            val operationIndices = (0 ..< operationsOptions.size).filter[selections.get(it).contains(component)].toList
+            val componentModels = new LinkedHashMap<String, PostProcessingModel>
+            componentModels.put(component, models.get(component))
+            CompletableFuture.supplyAsync([
+                for (i : operationIndices) {
+                    applyOperation(operationsOptions.get(i), componentModels, Collections.singleton(component),
+                        relativeResolvePath, cache, conversions, new NullProgressMonitor)
+                    if (i == operationIndices.last) {
+                        normalizeModels(componentModels, null)
+                    }
+                }
+                return componentModels.get(component)
+            ], pool)
+        ].toList
+
+        for (i : 0 ..< components.size) {
+            subMonitor.split(1)
+            models.put(components.get(i), FuturesUtil.await(futures.get(i)))
+        }
+    }
+
+    /**
+     * Applies a post-processing operation, or reads its result from the {@code cache} if the operation has been applied
+     * to the same models before. The results of {@link PostProcessingOperationProvider#isComponentLocal component
+     * local} operations are read and written per component, and the operation is applied only to the components of
+     * which no result is in the cache.
+     * 
+     * @param operationOptions The options for the operation.
+     * @param models Mapping from component name (absolute name of the CIF automaton) to input model for the component.
+     *      This mapping is modified in-place.
+     * @param selectedComponents The names of the components to which to apply the operation.
+     * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+     *      to be resolved against the directory that contains this file.
+     * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+     * @param conversions The counter of the conversions between the representations of the models, to be used by the
+     *      models that result from the operation.
+     * @param monitor The progress monitor.
+     */
+    private static def void applyOperation(PostProcessingOperationOptions operationOptions,
+        Map<String, PostProcessingModel> models, Set<String> selectedComponents, Path relativeResolvePath,
+        PostProcessingCache cache, PostProcessingConversions conversions, IProgressMonitor monitor) {
+        val provider = operationOptions.provider
+        val operationKey = if(cache !== null) provider.getCacheKeyFromRawOptions(operationOptions, relativeResolvePath)
+        val PostProcessingOperation<?> operation = provider.getOperationFromRawOptions(operationOptions)
+
+        // Apply operation. Performs in-place modifications to 'models'.
+        if (operationKey === null) {
+            operation.applyOperation(models, selectedComponents, relativeResolvePath, monitor)
+        } else if (provider.componentLocal) {
+            // Key the result of each component by the model of that component only.
+            val componentKeys = new LinkedHashMap<String, String>
+            for (component : selectedComponents) {
+                val componentModels = new LinkedHashMap<String, PostProcessingModel>
+                componentModels.put(component, models.get(component))
+                val key = cache.computeKey(provider.operationFormalName, operationKey, componentModels,
+                    selectedComponents)
+                if (cache.read(key, componentModels)) {
+                    models.put(component, componentModels.get(component))
+                } else {
+                    componentKeys.put(component, key)
+                }
+            }
+            if (!componentKeys.empty) {
+                operation.applyOperation(models, componentKeys.keySet, relativeResolvePath, monitor)
+                for (componentKey : componentKeys.entrySet) {
+                    val component = componentKey.key
+                    cache.write(componentKey.value, Collections.singletonMap(component, models.get(component)))
+                }
+            }
+        } else {
+            val key = cache.computeKey(provider.operationFormalName, operationKey, models, selectedComponents)
+            if (!cache.read(key, models)) {
+                operation.applyOperation(models, selectedComponents, relativeResolvePath, monitor)
+                cache.write(key, models)
+            }
+        }
+
+        // Count the conversions of new models, e.g. those created by the operation or read from the cache.
+        for (model : models.values) {
+            if (model.conversions === null) {
+                model.conversions = conversions
+            }
+        }
+    }
+
+    /**
+     * Normalizes the {@link PostProcessingModelRenamedDfa renamed} models, performing their composed renamings by
+     * determinizing and minimizing them.
+     * 
+     * @param models Mapping from component name (absolute name of the CIF automaton) to model for the component.
+     * @param pool The pool on which to normalize the models in parallel, or {@code null} to normalize them
+     *      sequentially.
+     */
+    private static def void normalizeModels(Map<String, PostProcessingModel> models, ForkJoinPool pool) {
+        val renamedModels = models.values.filter(PostProcessingModelRenamedDfa).toList
+        if (pool === null || renamedModels.size < 2) {
+            renamedModels.forEach[getCompactDfa()]
+        } else {
+            val futures = renamedModels.map[model|CompletableFuture.runAsync([model.getCompactDfa()], pool)].toList
+            futures.forEach[FuturesUtil.await(it)]
+        }
+    }
 }
@@ -0,0 +1,479 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.postprocessing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.escet.cif.metamodel.cif.Specification;
+import org.eclipse.escet.cif.prettyprinter.CifPrettyPrinter;
+
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
+import net.automatalib.words.impl.GrowingMapAlphabet;
+import nl.tno.mids.cif.extensions.CIFOperations;
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+
+/**
+ * On-disk cache of the results of post-processing operations, allowing to post-process the same models with the same
+ * operations again without performing the operations.
+ *
+ * <p>
+ * The cache is content-addressed. The key of a result is a SHA-256 hash of the operation, its
+ * {@link PostProcessingOperationProvider#getCacheKey cache key}, and the names, statuses and
+ * {@link PostProcessingModel#describeContents contents} of the input models, including whether they are selected. The
+ * results of {@link PostProcessingOperationProvider#isComponentLocal component local} operations are keyed and stored
+ * per component, such that only the model of that component is hashed, and a change to one component does not
+ * invalidate the results of the other components. Each result is stored in a separate file, named after its key,
+ * containing the names and statuses of the resulting models, compressed using GZIP.
+ * </p>
+ *
+ * <p>
+ * Models are stored in the representation they are provided in, such that reading them back does not convert them,
+ * and later conversions produce the same models as without the cache. Models provided as DFA, including renamed DFAs
+ * once they are minimized, are stored as transition table over their alphabet, which is read without parsing. Only
+ * models provided as CIF specification, such as those with data, are stored as CIF text.
+ * </p>
+ *
+ * <p>
+ * The total size of the cache is bounded. If it is exceeded, the least recently used results are removed. The last use
+ * of a result is tracked by the last-modified time of its file, which is updated whenever the result is written or
+ * read, as access times are not reliably maintained by all file systems. The cache is thread safe, and multiple caches
+ * may share a folder.
+ * </p>
+ */
+public class PostProcessingCache {
+    /** The name of the cache folder in the output folder. */
+    public static final String FOLDER_NAME = "component-extraction-post-processing-cache";
+
+    /** The default maximum total size of the results in a cache, in bytes. */
+    public static final long DEFAULT_MAX_SIZE = 1L << 30;
+
+    /** The file extension of results. */
+    private static final String EXTENSION = ".bin";
+
+    /** Marker at the start of results. */
+    private static final int MAGIC = 0x4D494450;
+
+    /** The version of the result format and keys. Results with other versions are ignored. */
+    private static final int VERSION = 3;
+
+    /** Marker of a model stored as CIF specification. */
+    private static final byte CIF_MODEL = 0;
+
+    /** Marker of a model stored as DFA, as read by {@link PostProcessingModelCompactDfa}. */
+    private static final byte DFA_MODEL = 1;
+
+    /** Marker of a model stored as renamed DFA, as read by {@link PostProcessingModelRenamedDfa}. */
+    private static final byte RENAMED_DFA_MODEL = 2;
+
+    /** The path of the cache folder. */
+    private final Path folder;
+
+    /** The maximum total size of the results in the cache, in bytes. */
+    private final long maxSize;
+
+    /**
+     * The total size of the results in the cache folder in bytes, as determined by the last scan of the folder plus the
+     * sizes of the results written since, or {@code -1} if the folder has not been scanned yet.
+     */
+    private long size = -1;
+
+    /** The number of results that were read from the cache. */
+    private long hits;
+
+    /** The number of results that were not available in the cache. */
+    private long misses;
+
+    /**
+     * @param folder The path of the cache folder. Is created if it does not yet exist.
+     * @param maxSize The maximum total size of the results in the cache, in bytes.
+     */
+    public PostProcessingCache(Path folder, long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Removes all results from a cache folder.
+     *
+     * @param folder The path of the cache folder. May not exist.
+     * @throws IOException Thrown in case removing the results fails.
+     */
+    public static void clear(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        for (Path path: listResults(folder)) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Computes a SHA-256 hash of the contents of a file, for instance to include a file that is read by an operation in
+     * its {@link PostProcessingOperationProvider#getCacheKey cache key}.
+     *
+     * @param path The path of the file.
+     * @return The hash of the contents of the file, as hexadecimal string.
+     */
+    public static String computeFileHash(Path path) {
+        MessageDigest digest = createDigest();
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream stream = Files.newInputStream(path)) {
+            int count;
+            while ((count = stream.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file: " + path, e);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Computes the key of the result of an operation.
+     *
+     * @param operationName The formal name of the operation.
+     * @param operationKey The {@link PostProcessingOperationProvider#getCacheKey cache key} of the operation.
+     * @param models Mapping from component name to input model for the component, for all components that the
+     *     operation reads. The models are not converted or normalized.
+     * @param selectedComponents The names of the components to which the operation is applied.
+     * @return The key of the result.
+     */
+    public String computeKey(String operationName, String operationKey, Map<String, PostProcessingModel> models,
+            Set<String> selectedComponents)
+    {
+        MessageDigest digest = createDigest();
+        update(digest, String.valueOf(VERSION));
+        update(digest, operationName);
+        update(digest, operationKey);
+        for (Map.Entry<String, PostProcessingModel> entry: models.entrySet()) {
+            PostProcessingModel model = entry.getValue();
+            update(digest, entry.getKey());
+            update(digest, String.valueOf(selectedComponents.contains(entry.getKey())));
+            update(digest, model.status.dataIsPresent() + "," + model.status.tauIsPresent());
+            update(digest, model.describeContents());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Reads the result with the given key, if it is in the cache, and replaces {@code models} by it.
+     *
+     * @param key The key of the result.
+     * @param models Mapping from component name to model for the component. This mapping is modified in-place.
+     * @return {@code true} if the result has been read from the cache, {@code false} if it is not in the cache.
+     */
+    public boolean read(String key, Map<String, PostProcessingModel> models) {
+        Path path = folder.resolve(key + EXTENSION);
+        Map<String, PostProcessingModel> result = new LinkedHashMap<>();
+        try (DataInputStream stream = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path)))))
+        {
+            if (stream.readInt() != MAGIC || stream.readInt() != VERSION || !key.equals(stream.readUTF())) {
+                recordAccess(false);
+                return false;
+            }
+            int modelCount = stream.readInt();
+            for (int i = 0; i < modelCount; i++) {
+                String name = stream.readUTF();
+                PostProcessingStatus status = new PostProcessingStatus(stream.readBoolean(), stream.readBoolean());
+                result.put(name, readModel(stream, name, status));
+            }
+        } catch (NoSuchFileException e) {
+            recordAccess(false);
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read post-processing cache: " + path, e);
+        }
+
+        // Mark the result as recently used.
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Result may have been evicted concurrently. It is no longer needed, so ignore.
+        }
+
+        recordAccess(true);
+        models.clear();
+        models.putAll(result);
+        return true;
+    }
+
+    /**
+     * Writes a result to the cache, and removes the least recently used results if the cache becomes too large.
+     *
+     * @param key The key of the result.
+     * @param models Mapping from component name to resulting model for the component.
+     */
+    public void write(String key, Map<String, PostProcessingModel> models) {
+        Path path = folder.resolve(key + EXTENSION);
+        try {
+            Files.createDirectories(folder);
+
+            // Write to a temporary file first, to never leave a partially written result behind.
+            Path tempPath = Files.createTempFile(folder, key, ".tmp");
+            try (DataOutputStream stream = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempPath)))))
+            {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                stream.writeUTF(key);
+                stream.writeInt(models.size());
+                for (Map.Entry<String, PostProcessingModel> entry: models.entrySet()) {
+                    PostProcessingModel model = entry.getValue();
+                    stream.writeUTF(entry.getKey());
+                    stream.writeBoolean(model.status.dataIsPresent());
+                    stream.writeBoolean(model.status.tauIsPresent());
+                    writeModel(stream, model);
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+
+            recordWrite(Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write post-processing cache: " + path, e);
+        }
+    }
+
+    /** @return The number of results that were read from the cache. */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /** @return The number of results that were not available in the cache. */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private synchronized void recordAccess(boolean hit) {
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    /**
+     * Adds a written result to the total size of the cache, and removes the least recently used results if it exceeds
+     * the maximum size. The folder is only scanned if the total size is not yet known or exceeds the maximum size, as
+     * the total size is kept up-to-date for the results written by this cache. Results written by other caches that
+     * share the folder are accounted for at the next scan.
+     *
+     * @param resultSize The size of the written result, in bytes.
+     * @throws IOException Thrown in case removing the results fails.
+     */
+    private synchronized void recordWrite(long resultSize) throws IOException {
+        if (size >= 0) {
+            size += resultSize;
+            if (size <= maxSize) {
+                return;
+            }
+        }
+        size = evict();
+    }
+
+    /**
+     * Scans the cache folder and removes the least recently used results, until the total size of the cache no longer
+     * exceeds its maximum size.
+     *
+     * @return The total size of the remaining results, in bytes.
+     * @throws IOException Thrown in case removing the results fails.
+     */
+    private long evict() throws IOException {
+        List<Path> results = new ArrayList<>();
+        Map<Path, FileTime> times = new LinkedHashMap<>();
+        long totalSize = 0;
+        for (Path path: listResults(folder)) {
+            try {
+                times.put(path, Files.getLastModifiedTime(path));
+                totalSize += Files.size(path);
+                results.add(path);
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently by another cache that shares the folder.
+            }
+        }
+        if (totalSize <= maxSize) {
+            return totalSize;
+        }
+
+        results.sort(Comparator.comparing(times::get));
+        for (Path path: results) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            try {
+                totalSize -= Files.size(path);
+                Files.delete(path);
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently by another cache that shares the folder.
+            }
+        }
+        return totalSize;
+    }
+
+    private static List<Path> listResults(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.list(folder)) {
+            return paths.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).collect(Collectors.toList());
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 hashing is not available.", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)':');
+        digest.update(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b: bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void writeModel(DataOutputStream stream, PostProcessingModel model) throws IOException {
+        if (model instanceof PostProcessingModelRenamedDfa) {
+            stream.writeByte(RENAMED_DFA_MODEL);
+            stream.writeBoolean(((PostProcessingModelRenamedDfa)model).isInitialLocationFirst());
+            writeDfa(stream, model.getCompactDfa());
+        } else if (model instanceof PostProcessingModelDual
+                && !((PostProcessingModelDual)model).isSpecificationProvided())
+        {
+            stream.writeByte(DFA_MODEL);
+            writeDfa(stream, model.getCompactDfa());
+        } else {
+            stream.writeByte(CIF_MODEL);
+            writeString(stream, CifPrettyPrinter.boxSpec(model.getCifSpec()).toString());
+        }
+    }
+
+    private static PostProcessingModel readModel(DataInputStream stream, String name, PostProcessingStatus status)
+            throws IOException
+    {
+        byte kind = stream.readByte();
+        switch (kind) {
+            case CIF_MODEL: {
+                Specification specification = CIFOperations.read(readString(stream));
+                return new PostProcessingModelCifSpec(specification, name, status);
+            }
+            case DFA_MODEL:
+                return new PostProcessingModelCompactDfa(readDfa(stream), name, status);
+            case RENAMED_DFA_MODEL: {
+                boolean initialLocationFirst = stream.readBoolean();
+                return new PostProcessingModelRenamedDfa(readDfa(stream), initialLocationFirst, name, status);
+            }
+            default:
+                throw new IOException("Unknown kind of model: " + kind);
+        }
+    }
+
+    /**
+     * Writes a DFA as its alphabet, initial state and transition table. The states are written in order of their
+     * identifiers, such that the DFA is read back with the same states.
+     *
+     * @param stream The stream to write to.
+     * @param dfa The DFA to write.
+     * @throws IOException Thrown in case writing fails.
+     */
+    private static void writeDfa(DataOutputStream stream, CompactDFA<String> dfa) throws IOException {
+        Alphabet<String> alphabet = dfa.getInputAlphabet();
+        stream.writeInt(alphabet.size());
+        for (String symbol: alphabet) {
+            stream.writeUTF(symbol);
+        }
+        Integer initialState = dfa.getInitialState();
+        stream.writeInt(dfa.size());
+        stream.writeInt(initialState == null ? -1 : initialState);
+        for (Integer state: dfa.getStates()) {
+            stream.writeBoolean(dfa.isAccepting(state));
+            for (String symbol: alphabet) {
+                Integer successor = dfa.getSuccessor(state, symbol);
+                stream.writeInt(successor == null ? -1 : successor);
+            }
+        }
+    }
+
+    private static CompactDFA<String> readDfa(DataInputStream stream) throws IOException {
+        int symbolCount = stream.readInt();
+        List<String> symbols = new ArrayList<>(symbolCount);
+        for (int i = 0; i < symbolCount; i++) {
+            symbols.add(stream.readUTF());
+        }
+        int stateCount = stream.readInt();
+        int initialState = stream.readInt();
+        CompactDFA<String> dfa = new CompactDFA<>(new GrowingMapAlphabet<>(symbols), stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            dfa.addState(false);
+        }
+        if (initialState >= 0) {
+            dfa.setInitialState(initialState);
+        }
+        for (int state = 0; state < stateCount; state++) {
+            dfa.setAccepting(state, stream.readBoolean());
+            for (String symbol: symbols) {
+                int successor = stream.readInt();
+                if (successor >= 0) {
+                    dfa.addTransition(state, symbol, successor);
+                }
+            }
+        }
+        return dfa;
+    }
+
+    private static void writeString(DataOutputStream stream, String value) throws IOException {
+        // CIF specifications may exceed the length limit of 'writeUTF'.
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    private static String readString(DataInputStream stream) throws IOException {
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
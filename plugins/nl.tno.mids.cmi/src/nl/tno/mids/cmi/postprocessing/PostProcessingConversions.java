@@ -0,0 +1,52 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.postprocessing;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter of the conversions between CIF specifications and DFAs of the {@link PostProcessingModel models} of a single
+ * post-processing. Models of components that are post-processed concurrently may share a counter.
+ */
+public class PostProcessingConversions {
+    /** The number of conversions that were prevented by using a cached representation. */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** The number of conversions that were performed, as no cached representation was available. */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Records the use of a representation of a model that may have to be converted from another representation.
+     *
+     * @param hit Whether a cached representation was used ({@code true}) or a conversion was performed ({@code false}).
+     */
+    void record(boolean hit) {
+        if (hit) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return The number of conversions that were prevented by using a cached representation.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of conversions that were performed, as no cached representation was available.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
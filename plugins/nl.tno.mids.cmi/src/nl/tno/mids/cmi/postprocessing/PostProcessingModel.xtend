@@ -9,6 +9,7 @@
 /////////////////////////////////////////////////////////////////////////
 package nl.tno.mids.cmi.postprocessing
 
+import java.util.function.Function
 import net.automatalib.automata.fsa.impl.compact.CompactDFA
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
 import org.eclipse.escet.cif.metamodel.cif.Specification
@@ -18,13 +19,31 @@ abstract class PostProcessingModel {
 
     public val PostProcessingStatus status
 
+    /** The counter of the conversions of this model, or {@code null} to not count them. */
+    package var PostProcessingConversions conversions
+
     new(String name, PostProcessingStatus status) {
         this.name = name
         this.status = status
     }
 
+    /**
+     * Returns the CIF specification of this model, converting it from the DFA if needed. The specification may be
+     * shared with the cached representation of this model and of models re-categorized from it. An operation that
+     * modifies it in-place must therefore replace the model by a new model of the modified specification, and must not
+     * use this model or models re-categorized from it afterwards, as their other representation is no longer
+     * up-to-date.
+     * 
+     * @return The CIF specification.
+     */
     abstract def Specification getCifSpec()
 
+    /**
+     * Returns the DFA of this model, converting it from the CIF specification if needed. The same rules apply as for
+     * in-place modifications of the {@link #getCifSpec CIF specification}.
+     * 
+     * @return The DFA.
+     */
     abstract def CompactDFA<String> getCompactDfa()
 
     /** Re-categorizes this model as having no data. Must only be invoked if currently may have data. */
@@ -32,5 +51,73 @@ abstract class PostProcessingModel {
 
     /** Re-categorizes this model as having no tau. Must only be invoked if currently may have tau events. */
     abstract def PostProcessingModel recategorizeAsNoTau()
-  
+
+    /**
+     * Describes the contents of this model, to identify the model in the keys of a {@link PostProcessingCache}. Models
+     * with the same description have the same contents. Describing a model does not convert or normalize it.
+     * 
+     * @return The description of the contents of this model.
+     */
+    protected abstract def String describeContents()
+
+    /**
+     * Renames the events of this model. The renaming is performed lazily, such that consecutive renamings are composed,
+     * and the result is determinized and minimized only once, when its DFA or CIF specification is needed.
+     * 
+     * @param renaming The renaming of the events. May rename multiple events to the same event, and may rename events
+     *      to {@code "tau"} to hide them. Is not applied to {@code "tau"} events.
+     * @param initialLocationFirst Whether the initial location of the CIF specification of the result must be its
+     *      first location.
+     * @param status The post-processing status of the result.
+     * @return The renamed model.
+     */
+    def PostProcessingModel rename(Function<String, String> renaming, boolean initialLocationFirst,
+        PostProcessingStatus status) {
+        return withConversions(
+            new PostProcessingModelRenamedDfa(compactDfa, renaming, initialLocationFirst, name, status))
+    }
+
+    /**
+     * Records the use of a representation of this model that may have to be converted from another representation.
+     *
+     * @param hit Whether a cached representation was used ({@code true}) or a conversion was performed ({@code false}).
+     */
+    protected def void recordConversion(boolean hit) {
+        conversions?.record(hit)
+    }
+
+    /**
+     * Lets a model that is derived from this model count its conversions with the same counter as this model.
+     * 
+     * @param model The derived model.
+     * @return The derived model.
+     */
+    protected def <T extends PostProcessingModel> T withConversions(T model) {
+        model.conversions = conversions
+        return model
+    }
+
+    /**
+     * Describes a DFA of which the events are renamed, for {@link #describeContents}.
+     * 
+     * @param dfa The DFA.
+     * @param renaming The renaming of the events of the DFA. Is not applied to {@code "tau"} events.
+     * @return The description of the renamed DFA.
+     */
+    protected static def String describeDfa(CompactDFA<String> dfa, Function<String, String> renaming) {
+        val description = new StringBuilder
+        description.append(dfa.initialState)
+        for (event : dfa.inputAlphabet) {
+            val renamedEvent = if(event == "tau") event else renaming.apply(event)
+            description.append(";").append(event.length).append(":").append(event)
+            description.append(">").append(renamedEvent.length).append(":").append(renamedEvent)
+        }
+        for (state : dfa.states) {
+            description.append(";").append(state).append(if(dfa.isAccepting(state)) "+" else "-")
+            for (event : dfa.inputAlphabet) {
+                description.append(",").append(dfa.getSuccessor(state, event))
+            }
+        }
+        return description.toString
+    }
 }
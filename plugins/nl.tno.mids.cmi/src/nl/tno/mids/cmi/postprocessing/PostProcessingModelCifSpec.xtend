@@ -9,39 +9,12 @@
 /////////////////////////////////////////////////////////////////////////
 package nl.tno.mids.cmi.postprocessing
 
-import com.google.common.base.Preconditions
-import nl.tno.mids.automatalib.extensions.cif.CifToAutomataLib
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
 import org.eclipse.escet.cif.metamodel.cif.Specification
 
-class PostProcessingModelCifSpec extends PostProcessingModel {
-    val Specification specification
-
+/** Model of which the CIF specification is provided. Its DFA is converted from it once it is needed. */
+class PostProcessingModelCifSpec extends PostProcessingModelDual {
     new(Specification specification, String name, PostProcessingStatus status) {
-        super(name, status)
-        this.specification = specification
-    }
-
-    override getCifSpec() {
-        return specification
-    }
-
-    override getCompactDfa() {
-        Preconditions.checkState(status.dataIsNotPresent)
-
-        val dfas = CifToAutomataLib.cifSpecificationToCompactDfas(specification, false)
-        Preconditions.checkState(dfas.size == 1)
-        return dfas.entrySet.iterator.next.value
-    }
-
-    override recategorizeAsNoData() {
-        Preconditions.checkArgument(status.dataIsPresent)
-        return new PostProcessingModelCifSpec(specification, name, new PostProcessingStatus(false, status.tauIsPresent))
-    }
-
-    override recategorizeAsNoTau() {
-        Preconditions.checkArgument(status.tauIsPresent)
-        return new PostProcessingModelCifSpec(specification, name,
-            new PostProcessingStatus(status.dataIsPresent, false))
+        super(specification, null, name, status)
     }
 }
@@ -11,36 +11,13 @@ package nl.tno.mids.cmi.postprocessing
 
 import com.google.common.base.Preconditions
 import net.automatalib.automata.fsa.impl.compact.CompactDFA
-import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
 
-class PostProcessingModelCompactDfa extends PostProcessingModel {
-    val CompactDFA<String> dfa
-
+/** Model of which the DFA is provided. Its CIF specification is converted from it once it is needed. */
+class PostProcessingModelCompactDfa extends PostProcessingModelDual {
     new(CompactDFA<String> dfa, String name, PostProcessingStatus status) {
-        super(name, status)
-        this.dfa = dfa
+        super(null, dfa, name, status)
 
         Preconditions.checkArgument(status.dataIsNotPresent)
     }
-
-    override getCifSpec() {
-        return AutomataLibToCif.fsaToCifSpecification(dfa, name, true)
-    }
-
-    override getCompactDfa() {
-        Preconditions.checkState(status.dataIsNotPresent)
-
-        return dfa
-    }
-
-    override recategorizeAsNoData() {
-        throw new UnsupportedOperationException(
-            "Can't re-categorize. Must already have no data, as CompactDFA cannot represent data.")
-    }
-
-    override recategorizeAsNoTau() {
-        Preconditions.checkArgument(status.tauIsPresent)
-        return new PostProcessingModelCompactDfa(dfa, name, new PostProcessingStatus(status.dataIsPresent, false))
-    }
 }
@@ -0,0 +1,106 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+package nl.tno.mids.cmi.postprocessing
+
+import com.google.common.base.Preconditions
+import java.util.function.Function
+import net.automatalib.automata.fsa.impl.compact.CompactDFA
+import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
+import nl.tno.mids.automatalib.extensions.cif.CifToAutomataLib
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
+import org.eclipse.escet.cif.metamodel.cif.Specification
+import org.eclipse.escet.cif.prettyprinter.CifPrettyPrinter
+
+/**
+ * Model that holds a CIF specification, a DFA, or both. The representation that is not provided is converted from the
+ * provided one once it is needed, and is then cached, such that a model that is used by multiple operations is
+ * converted at most once. The cached representation is retained when the model is re-categorized.
+ *
+ * <p>
+ * Operations may modify the representations of a model in-place, but must then replace the model by a new model of
+ * the modified representation, as the cached representation of the original model is no longer up-to-date.
+ * </p>
+ */
+class PostProcessingModelDual extends PostProcessingModel {
+    /** The CIF specification, or {@code null} if not yet converted from the {@link #dfa}. */
+    var Specification specification
+
+    /** The DFA, or {@code null} if not yet converted from the {@link #specification}. */
+    var CompactDFA<String> dfa
+
+    /** Whether the {@link #specification} is provided, rather than converted from the {@link #dfa}. */
+    val boolean specificationProvided
+
+    protected new(Specification specification, CompactDFA<String> dfa, String name, PostProcessingStatus status) {
+        this(specification, dfa, specification !== null, name, status)
+    }
+
+    private new(Specification specification, CompactDFA<String> dfa, boolean specificationProvided, String name,
+        PostProcessingStatus status) {
+        super(name, status)
+        this.specification = specification
+        this.dfa = dfa
+        this.specificationProvided = specificationProvided
+
+        Preconditions.checkArgument(specification !== null || dfa !== null)
+        Preconditions.checkArgument(dfa === null || status.dataIsNotPresent)
+    }
+
+    /**
+     * @return Whether the CIF specification is provided, rather than converted from the DFA.
+     */
+    package def boolean isSpecificationProvided() {
+        return specificationProvided
+    }
+
+    override getCifSpec() {
+        if (specification === null) {
+            recordConversion(false)
+            specification = AutomataLibToCif.fsaToCifSpecification(dfa, name, true)
+        } else if (!specificationProvided) {
+            recordConversion(true)
+        }
+        return specification
+    }
+
+    override getCompactDfa() {
+        Preconditions.checkState(status.dataIsNotPresent)
+
+        if (dfa === null) {
+            recordConversion(false)
+            val dfas = CifToAutomataLib.cifSpecificationToCompactDfas(specification, false)
+            Preconditions.checkState(dfas.size == 1)
+            dfa = dfas.entrySet.iterator.next.value
+        } else if (specificationProvided) {
+            recordConversion(true)
+        }
+        return dfa
+    }
+
+    override recategorizeAsNoData() {
+        Preconditions.checkArgument(status.dataIsPresent)
+        return withConversions(new PostProcessingModelDual(specification, dfa, specificationProvided, name,
+            new PostProcessingStatus(false, status.tauIsPresent)))
+    }
+
+    override recategorizeAsNoTau() {
+        Preconditions.checkArgument(status.tauIsPresent)
+        return withConversions(new PostProcessingModelDual(specification, dfa, specificationProvided, name,
+            new PostProcessingStatus(status.dataIsPresent, false)))
+    }
+
+    override protected describeContents() {
+        // Describe the provided representation, as the other one may not have been converted yet.
+        if (specificationProvided) {
+            return "cif:" + CifPrettyPrinter.boxSpec(specification).toString
+        }
+        return "dfa:" + describeDfa(dfa, Function.identity)
+    }
+}
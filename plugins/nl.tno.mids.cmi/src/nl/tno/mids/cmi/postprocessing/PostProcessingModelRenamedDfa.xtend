@@ -0,0 +1,134 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+package nl.tno.mids.cmi.postprocessing
+
+import com.google.common.base.Preconditions
+import java.util.function.Function
+import net.automatalib.automata.fsa.impl.compact.CompactDFA
+import net.automatalib.automata.fsa.impl.compact.CompactNFA
+import net.automatalib.util.automata.fsa.NFAs
+import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
+import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
+import nl.tno.mids.cif.extensions.AutomatonExtensions
+import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus
+import org.eclipse.escet.cif.metamodel.cif.Specification
+
+/**
+ * Model that renames the events of a DFA. The renamed DFA is determinized and minimized only once it is needed. Until
+ * then, further renamings are composed with the renaming of this model, such that a chain of renaming operations
+ * determinizes and minimizes each model only once, and does not convert to CIF in between.
+ */
+class PostProcessingModelRenamedDfa extends PostProcessingModel {
+    /** The DFA of which to rename the events. */
+    val CompactDFA<String> sourceDfa
+
+    /** The renaming of the events of the {@link #sourceDfa}. Is not applied to {@code "tau"} events. */
+    val Function<String, String> renaming
+
+    /** Whether the initial location of the CIF specification must be its first location. */
+    val boolean initialLocationFirst
+
+    /** The minimal renamed DFA, or {@code null} if not yet computed. */
+    var CompactDFA<String> dfa
+
+    /** The CIF specification of the minimal renamed DFA, or {@code null} if not yet converted. */
+    var Specification specification
+
+    new(CompactDFA<String> sourceDfa, Function<String, String> renaming, boolean initialLocationFirst, String name,
+        PostProcessingStatus status) {
+        super(name, status)
+        this.sourceDfa = sourceDfa
+        this.renaming = renaming
+        this.initialLocationFirst = initialLocationFirst
+
+        Preconditions.checkArgument(status.dataIsNotPresent)
+    }
+
+    /**
+     * Creates a model of a DFA of which the events are already renamed, and that is already minimal, for instance as it
+     * is read from a {@link PostProcessingCache}.
+     */
+    new(CompactDFA<String> dfa, boolean initialLocationFirst, String name, PostProcessingStatus status) {
+        this(dfa, Function.identity, initialLocationFirst, name, status)
+        this.dfa = dfa
+    }
+
+    /**
+     * @return Whether the initial location of the CIF specification must be its first location.
+     */
+    package def boolean isInitialLocationFirst() {
+        return initialLocationFirst
+    }
+
+    override getCifSpec() {
+        if (specification !== null) {
+            recordConversion(true)
+            return specification
+        }
+
+        recordConversion(false)
+        specification = AutomataLibToCif.fsaToCifSpecification(compactDfa, name, true)
+
+        if (initialLocationFirst) {
+            // Ensure the initial location is the first location.
+            val automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(specification)
+            AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton)
+        }
+        return specification
+    }
+
+    override getCompactDfa() {
+        Preconditions.checkState(status.dataIsNotPresent)
+
+        if (dfa === null) {
+            // Rename to an NFA, as multiple events may be renamed to the same event.
+            val nfa = AutomataLibUtil.rename(sourceDfa, [a|new CompactNFA<String>(a)], sourceDfa.inputAlphabet, [ event |
+                (event == "tau") ? event : renaming.apply(event)
+            ])
+
+            // Convert result to normalized DFA, eliminating hidden events.
+            val renamedDfa = NFAs.determinize(nfa, nfa.inputAlphabet, true, false)
+            dfa = AutomataLibUtil.normalizeWeakTrace(renamedDfa)
+        }
+        return dfa
+    }
+
+    override rename(Function<String, String> renaming, boolean initialLocationFirst, PostProcessingStatus status) {
+        // Rename the minimized DFA, if it has already been computed.
+        if (dfa !== null) {
+            return super.rename(renaming, initialLocationFirst, status)
+        }
+
+        // Compose the renamings, to determinize and minimize only once.
+        val Function<String, String> composedRenaming = [ event |
+            val renamedEvent = this.renaming.apply(event)
+            return (renamedEvent == "tau") ? renamedEvent : renaming.apply(renamedEvent)
+        ]
+        return withConversions(
+            new PostProcessingModelRenamedDfa(sourceDfa, composedRenaming, initialLocationFirst, name, status))
+    }
+
+    override recategorizeAsNoData() {
+        throw new UnsupportedOperationException(
+            "Can't re-categorize. Must already have no data, as CompactDFA cannot represent data.")
+    }
+
+    override recategorizeAsNoTau() {
+        Preconditions.checkArgument(status.tauIsPresent)
+        return withConversions(new PostProcessingModelRenamedDfa(sourceDfa, renaming, initialLocationFirst, name,
+            new PostProcessingStatus(status.dataIsPresent, false)))
+    }
+
+    override protected describeContents() {
+        // Describe the renaming rather than its result, to not normalize this model.
+        return "renamed:" + initialLocationFirst + ":" + describeDfa(sourceDfa, renaming)
+    }
+}
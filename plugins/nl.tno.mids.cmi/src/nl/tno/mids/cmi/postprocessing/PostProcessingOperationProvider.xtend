@@ -10,6 +10,7 @@
 package nl.tno.mids.cmi.postprocessing
 
 import com.google.common.base.Preconditions
+import java.nio.file.Path
 import java.util.Locale
 import org.apache.commons.lang3.StringUtils
 
@@ -31,6 +32,15 @@ abstract class PostProcessingOperationProvider<T extends PostProcessingOperation
     /** Returns {@code true} if the operation will use the filtered component list, {@code false} otherwise. */
     abstract def boolean supportsFilteredComponentsAsInput()
 
+    /**
+     * Returns {@code true} if the operation transforms each selected model independently of the other models, without
+     * adding, removing or renaming models, {@code false} otherwise. Such operations can be applied to each model as
+     * soon as it is constructed.
+     */
+    def boolean isComponentLocal() {
+        return false
+    }
+
     /** Returns the class of the operation. */
     abstract def Class<T> getOperationClass()
 
@@ -62,6 +72,33 @@ abstract class PostProcessingOperationProvider<T extends PostProcessingOperation
      */
     abstract def String writeOptions(U options);
 
+    /**
+     * Returns the key of the results of the operation in a {@link PostProcessingCache}, or {@code null} if the results
+     * of the operation are not to be cached. The key must identify all inputs of the operation other than the models,
+     * such as its options and the contents of any files that it reads. Only operations that are expensive compared to
+     * hashing and storing their input and resulting models should be cached.
+     * 
+     * @param options The options for the operation.
+     * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+     *      to be resolved against the directory that contains this file.
+     * @return The cache key, or {@code null}.
+     */
+    def String getCacheKey(U options, Path relativeResolvePath) {
+        return null
+    }
+
+    /**
+     * Returns the key of the results of the operation in a {@link PostProcessingCache}, or {@code null} if the results
+     * of the operation are not to be cached.
+     * 
+     * @param options The options for the operation.
+     * @param relativeResolvePath The absolute path of the input file.
+     * @return The cache key, or {@code null}.
+     */
+    def String getCacheKeyFromRawOptions(PostProcessingOperationOptions options, Path relativeResolvePath) {
+        return getCacheKey(options as U, relativeResolvePath)
+    }
+
     /**
      * Returns an instance of the operation.
      * 
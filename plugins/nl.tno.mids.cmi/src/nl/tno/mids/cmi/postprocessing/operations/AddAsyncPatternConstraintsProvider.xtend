@@ -45,4 +45,8 @@ class AddAsyncPatternConstraintsProvider extends PostProcessingOperationProvider
     override supportsFilteredComponentsAsInput() {
         return true
     }
+
+    override isComponentLocal() {
+        return true
+    }
 }
@@ -12,12 +12,8 @@ package nl.tno.mids.cmi.postprocessing.operations
 import java.nio.file.Path
 import java.util.Map
 import java.util.Set
-import net.automatalib.automata.fsa.impl.compact.CompactNFA
-import net.automatalib.util.automata.fsa.NFAs
 import net.automatalib.words.impl.Alphabets
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset
@@ -60,17 +56,11 @@ class ExcludeInternalTransitions extends PostProcessingOperation<ExcludeInternal
                     }
                 }
 
-                // Perform rename based on context alphabet and protected service fragment events.
-                val newNfa = AutomataLibUtil.rename(previousDfa, [a|new CompactNFA<String>(a)],
-                    previousDfa.getInputAlphabet(), [ t |
-                        (contextAlphabet.containsSymbol(t) || serviceFragmentEvents.contains(t)) ? t : "tau"
-                    ])
-
-                // Convert result to normalized DFA.
-                val newDfa = NFAs.determinize(newNfa, newNfa.inputAlphabet, true, false)
-                val newDfaNoTau = AutomataLibUtil.normalizeWeakTrace(newDfa)
-                models.put(component, new PostProcessingModelCompactDfa(newDfaNoTau, component,
-                    getResultStatus(componentModel.status)))
+                // Perform rename based on context alphabet and protected service fragment events. The hidden events
+                // are eliminated once the result is normalized to a DFA.
+                models.put(component, componentModel.rename([ t |
+                    (contextAlphabet.containsSymbol(t) || serviceFragmentEvents.contains(t)) ? t : "tau"
+                ], false, getResultStatus(componentModel.status)))
             }
         ]
 
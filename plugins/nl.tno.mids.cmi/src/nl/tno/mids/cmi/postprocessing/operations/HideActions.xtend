@@ -13,11 +13,7 @@ import java.nio.file.Path
 import java.util.Map
 import java.util.Set
 import java.util.regex.Pattern
-import net.automatalib.automata.fsa.impl.compact.CompactNFA
-import net.automatalib.util.automata.fsa.NFAs
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset
@@ -55,17 +51,11 @@ class HideActions extends PostProcessingOperation<HideActionsOptions> {
                 }
             }
 
-            // Perform rename based on pattern and protected service fragment events.
-            val newNfa = AutomataLibUtil.rename(previousDfa, [a|new CompactNFA<String>(a)],
-                previousDfa.getInputAlphabet(), [ t |
-                    (pattern.matcher(t).matches && !serviceFragmentEvents.contains(t)) ? "tau" : t
-                ])
-
-            // Convert result to normalized DFA.
-            val newDfa = NFAs.determinize(newNfa, newNfa.inputAlphabet, true, false)
-            val newDfaNoTau = AutomataLibUtil.normalizeWeakTrace(newDfa)
-            models.put(component, new PostProcessingModelCompactDfa(newDfaNoTau, component,
-                getResultStatus(componentModel.status)))
+            // Perform rename based on pattern and protected service fragment events. The hidden events are
+            // eliminated once the result is normalized to a DFA.
+            models.put(component, componentModel.rename([ t |
+                (pattern.matcher(t).matches && !serviceFragmentEvents.contains(t)) ? "tau" : t
+            ], false, getResultStatus(componentModel.status)))
         }
     }
 }
@@ -48,4 +48,8 @@ class HideActionsProvider extends PostProcessingOperationProvider<HideActions, H
         return true
     }
 
+    override isComponentLocal() {
+        return true
+    }
+
 }
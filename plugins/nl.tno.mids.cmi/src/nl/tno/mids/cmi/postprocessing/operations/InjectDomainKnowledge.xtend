@@ -9,10 +9,15 @@
 /////////////////////////////////////////////////////////////////////////
 package nl.tno.mids.cmi.postprocessing.operations
 
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import com.google.common.util.concurrent.UncheckedExecutionException
+import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.Paths
 import java.util.Map
 import java.util.Set
+import java.util.concurrent.ExecutionException
 import net.automatalib.automata.fsa.impl.compact.CompactDFA
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
 import nl.tno.mids.cif.extensions.FileExtensions
@@ -29,6 +34,12 @@ import org.eclipse.xtend.lib.annotations.Accessors
 
 @Accessors
 class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainKnowledgeOptions> {
+    /**
+     * The prepared DFAs of the domain knowledge models to inject, per absolute path, last modified time and size of the
+     * model file. They are shared by all operations, components and threads, and may therefore not be modified.
+     */
+    static val Cache<String, CompactDFA<String>> injectDfas = CacheBuilder.newBuilder.maximumSize(16).softValues.build
+
     override getPreconditionSubset() { return new PostProcessingPreconditionSubset(false, false); }
 
     override getResultSubset() { return new PostProcessingResultSubset(false, false); }
@@ -36,13 +47,19 @@ class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainKnowledg
     override applyOperation(Map<String, PostProcessingModel> models, Set<String> selectedComponents,
         Path relativeResolvePath, IProgressMonitor monitor) {
 
-        val subMonitor = SubMonitor.convert(monitor, selectedComponents.size)
+        if (selectedComponents.empty) {
+            return
+        }
+
+        // Prepare DFA containing domain knowledge to inject, once for all components.
+        val subMonitor = SubMonitor.convert(monitor, selectedComponents.size + 1)
+        val injectDfa = getInjectDfa(relativeResolvePath, options, subMonitor.split(1))
+
         for (component : selectedComponents) {
             val previousModel = models.get(component)
             preconditionSubset.ensureSubset(previousModel)
 
-            val newDfa = injectDomainKnowledge(previousModel.getCompactDfa(), relativeResolvePath, options,
-                subMonitor.split(1))
+            val newDfa = injectDomainKnowledge(previousModel.getCompactDfa(), injectDfa, options, subMonitor.split(1))
             if (newDfa !== null) {
                 // Domain knowledge injection did apply. Replace model.
                 models.put(component,
@@ -52,25 +69,50 @@ class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainKnowledg
     }
 
     /**
-     * Apply domain knowledge injection.
+     * Get the prepared DFA of the domain knowledge model to inject. The DFA is prepared only once per model file, as
+     * long as that file does not change. If the model file does not exist, loading it reports the error.
      * 
-     * @param previousDfa The DFA on which to inject the domain knowledge.
      * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
      *      to be resolved against the directory that contains this file.
      * @param options The domain knowledge injection options.
      * @param monitor The progress monitor.
-     * @return The DFA resulting from injection, or {@code null} if domain knowledge injection did not apply.
+     * @return The DFA of the domain knowledge model to inject. Must not be modified.
      */
-    private static def injectDomainKnowledge(CompactDFA<String> previousDfa, Path relativeResolvePath,
-        InjectDomainKnowledgeOptions options, IProgressMonitor monitor) {
+    static def getInjectDfa(Path relativeResolvePath, InjectDomainKnowledgeOptions options,
+        IProgressMonitor monitor) {
+
+        val absOrRelInjectPath = Paths.get(options.modelPath)
+        val absInjectResolvePath = relativeResolvePath.parent
+        val absInjectPath = absInjectResolvePath.resolve(absOrRelInjectPath).normalize.toAbsolutePath
+        if (!Files.isRegularFile(absInjectPath)) {
+            return prepareInjectDfa(absInjectPath, options, monitor)
+        }
+        val key = absInjectPath.toString + "," + Files.getLastModifiedTime(absInjectPath) + "," +
+            Files.size(absInjectPath)
+        try {
+            return injectDfas.get(key, [prepareInjectDfa(absInjectPath, options, monitor)])
+        } catch (ExecutionException e) {
+            throw e.cause
+        } catch (UncheckedExecutionException e) {
+            throw e.cause
+        }
+    }
+
+    /**
+     * Prepare the DFA of the domain knowledge model to inject.
+     * 
+     * @param absInjectPath The absolute path of the domain knowledge model to inject.
+     * @param options The domain knowledge injection options.
+     * @param monitor The progress monitor.
+     * @return The DFA of the domain knowledge model to inject.
+     */
+    private static def prepareInjectDfa(Path absInjectPath, InjectDomainKnowledgeOptions options,
+        IProgressMonitor monitor) {
 
-        val subMonitor = SubMonitor.convert(monitor, "Injecting domain knowledge: " + options.toString, 71)
+        val subMonitor = SubMonitor.convert(monitor, "Loading domain knowledge: " + options.toString, 21)
 
         // Load CIF model containing domain knowledge to inject.
         subMonitor.split(10)
-        val absOrRelInjectPath = Paths.get(options.modelPath)
-        val absInjectResolvePath = relativeResolvePath.parent
-        val absInjectPath = absInjectResolvePath.resolve(absOrRelInjectPath).normalize
         var injectSpec = FileExtensions.loadCIF(absInjectPath)
 
         // Get DFA containing domain knowledge to inject.
@@ -89,8 +131,29 @@ class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainKnowledg
                 "\" does not have any accepting states. Ensure the CIF model contains appropriate marking.")
         }
 
+        // Return result.
+        return injectDfa
+    }
+
+    /**
+     * Apply domain knowledge injection.
+     * 
+     * @param previousDfa The DFA on which to inject the domain knowledge.
+     * @param sharedInjectDfa The DFA of the domain knowledge model to inject. Is not modified.
+     * @param options The domain knowledge injection options.
+     * @param monitor The progress monitor.
+     * @return The DFA resulting from injection, or {@code null} if domain knowledge injection did not apply.
+     */
+    private static def injectDomainKnowledge(CompactDFA<String> previousDfa, CompactDFA<String> sharedInjectDfa,
+        InjectDomainKnowledgeOptions options, IProgressMonitor monitor) {
+
+        val subMonitor = SubMonitor.convert(monitor, "Injecting domain knowledge: " + options.toString, 1)
+
+        // Copy DFA to inject, as the operations synchronize the alphabets of both DFAs in-place.
+        val injectDfa = sharedInjectDfa.translate(AutomataLibUtil.copyAlphabet(sharedInjectDfa.inputAlphabet))
+
         // Apply operation.
-        subMonitor.split(50)
+        subMonitor.split(1)
         val newDfa = switch (options.operator) {
             case DIFFERENCE_LEFT:
                 AutomataLibUtil.differenceMinimized(injectDfa, previousDfa)
@@ -10,7 +10,11 @@
 package nl.tno.mids.cmi.postprocessing.operations
 
 import com.google.common.base.Preconditions
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
 import java.util.Arrays
+import nl.tno.mids.cmi.postprocessing.PostProcessingCache
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProvider
 
 class InjectDomainKnowledgeProvider extends PostProcessingOperationProvider<InjectDomainKnowledge, InjectDomainKnowledgeOptions> {
@@ -47,7 +51,21 @@ class InjectDomainKnowledgeProvider extends PostProcessingOperationProvider<Inje
         return displayEnumValue(options.operator.toString) + "," + options.modelPath
     }
 
+    override getCacheKey(InjectDomainKnowledgeOptions options, Path relativeResolvePath) {
+        // Include the contents of the domain knowledge model, as it may change between post-processing runs. Don't
+        // cache the results if the model does not exist, such that the operation reports the error.
+        val absInjectPath = relativeResolvePath.parent.resolve(Paths.get(options.modelPath)).normalize
+        if (!Files.isRegularFile(absInjectPath)) {
+            return null
+        }
+        return writeOptions(options) + "," + PostProcessingCache.computeFileHash(absInjectPath)
+    }
+
     override supportsFilteredComponentsAsInput() {
         return true
     }
+
+    override isComponentLocal() {
+        return true
+    }
 }
@@ -17,14 +17,10 @@ import java.util.regex.Pattern
 import net.automatalib.automata.fsa.impl.FastNFA
 import net.automatalib.automata.fsa.impl.compact.CompactDFA
 import net.automatalib.util.automata.fsa.NFAs
-import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
-import nl.tno.mids.cif.extensions.AutomatonExtensions
-import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries
 import nl.tno.mids.cmi.api.general.CmiGeneralEventQueries
 import nl.tno.mids.cmi.api.info.ComponentInfo
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCifSpec
 import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset
@@ -118,29 +114,13 @@ class MergeComponents extends PostProcessingOperation<MergeComponentsOptions> {
 
         // At this point, there is one model per set of models to merge, but that model contains the identity of the old
         // components that have been merged, and other models still reference to individual component names. To address
-        // this, rename all merged component references in events to the names of the merged components.
+        // this, rename all merged component references in events to the names of the merged components. Multiple
+        // events may be renamed to the same event name, so the models are determinized and minimized again, once they
+        // are needed, together with any renaming by subsequent operations.
         models.entrySet.forEach [ entry |
-            // Convert to NFA, as multiple events may be renamed to the same event name. Then rename, and determinize
-            // back to a DFA.
-            val nfa = AutomataLibUtil.dfaToNfa(entry.value.compactDfa)
-            val renamedNfa = AutomataLibUtil.rename(nfa, [ event |
+            entry.value = entry.value.rename([ event |
                 normalizeMergedComponentNamesInEvent(event, componentRenameMap)
-            ])
-            val renamedDfa = NFAs.determinize(renamedNfa, renamedNfa.inputAlphabet, true, false)
-
-            // Minimize DFA separately, for better performance.
-            val minimizedRenamedDfa = AutomataLibUtil.minimizeDFA(renamedDfa)
-
-            // Convert back to a CIF model.
-            val renamedCif = AutomataLibToCif.fsaToCifSpecification(minimizedRenamedDfa, entry.value.name, true)
-
-            // Ensure the initial location is the first location.
-            val automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(renamedCif)
-            AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton)
-
-            // Store the new model.
-            entry.value = new PostProcessingModelCifSpec(renamedCif, entry.value.name,
-                getResultStatus(entry.value.status))
+            ], true, getResultStatus(entry.value.status))
         ]
     }
 
@@ -10,6 +10,7 @@
 package nl.tno.mids.cmi.postprocessing.operations
 
 import com.google.common.base.Preconditions
+import java.nio.file.Path
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProvider
 
 class MergeComponentsProvider extends PostProcessingOperationProvider<MergeComponents, MergeComponentsOptions> {
@@ -44,6 +45,10 @@ class MergeComponentsProvider extends PostProcessingOperationProvider<MergeCompo
         return options.pattern
     }
 
+    override getCacheKey(MergeComponentsOptions options, Path relativeResolvePath) {
+        return writeOptions(options)
+    }
+
     override supportsFilteredComponentsAsInput() {
         return true
     }
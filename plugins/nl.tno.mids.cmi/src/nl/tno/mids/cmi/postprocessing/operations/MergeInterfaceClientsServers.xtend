@@ -12,16 +12,10 @@ package nl.tno.mids.cmi.postprocessing.operations
 import java.nio.file.Path
 import java.util.Map
 import java.util.Set
-import net.automatalib.util.automata.fsa.NFAs
-import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil
-import nl.tno.mids.cif.extensions.AutomatonExtensions
-import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries
 import nl.tno.mids.cmi.api.general.CmiGeneralEventQueries
 import nl.tno.mids.cmi.api.info.ComponentInfo
 import nl.tno.mids.cmi.api.info.EventFunctionExecutionSide
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCifSpec
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset
@@ -45,27 +39,11 @@ class MergeInterfaceClientsServers extends PostProcessingOperation<MergeInterfac
 
             preconditionSubset.ensureSubset(model)
 
-            // Get automaton representation of model.
-            val nfa = AutomataLibUtil.dfaToNfa(model.compactDfa)
-
-            // Apply renaming to all events in automaton.
-            val renamedNfa = AutomataLibUtil.rename(nfa, [ event |
+            // Apply renaming to all events in automaton. After renaming, the automaton may no longer be deterministic,
+            // so it is made deterministic and minimal again once the result is needed.
+            models.put(component, model.rename([ event |
                 normalizeInterfaceClientsServersInEvent(event, baseComponentInfo)
-            ])
-
-            // After renaming, automaton may no longer be deterministic, so make it deterministic again.
-            val renamedDfa = NFAs.determinize(renamedNfa, renamedNfa.inputAlphabet, true, false)
-
-            // Minimize DFA separately, for better performance.
-            val minimizedDfa = AutomataLibUtil.minimizeDFA(renamedDfa)
-
-            val renamedCif = AutomataLibToCif.fsaToCifSpecification(minimizedDfa, component, true)
-
-            // Ensure the initial location is the first location.
-            val automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(renamedCif)
-            AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton)
-
-            models.put(component, new PostProcessingModelCifSpec(renamedCif, component, getResultStatus(model.status)))
+            ], true, getResultStatus(model.status)))
         ]
     }
 
@@ -51,4 +51,8 @@ class MergeInterfaceClientsServersProvider extends PostProcessingOperationProvid
     override supportsFilteredComponentsAsInput() {
         return true
     }
+
+    override isComponentLocal() {
+        return true
+    }
 }
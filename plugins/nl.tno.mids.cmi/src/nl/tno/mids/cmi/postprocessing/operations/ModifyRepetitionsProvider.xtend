@@ -10,6 +10,7 @@
 package nl.tno.mids.cmi.postprocessing.operations
 
 import com.google.common.base.Preconditions
+import java.nio.file.Path
 import java.util.Arrays
 import nl.tno.mids.cif.extensions.mrr.cif.MrrToCifMode
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProvider
@@ -52,8 +53,16 @@ class ModifyRepetitionsProvider extends PostProcessingOperationProvider<ModifyRe
             "," + options.makeInfinite + "," + options.maxRepeats
     }
 
+    override getCacheKey(ModifyRepetitionsOptions options, Path relativeResolvePath) {
+        return writeOptions(options)
+    }
+
     override supportsFilteredComponentsAsInput() {
         return true
     }
 
+    override isComponentLocal() {
+        return true
+    }
+
 }
@@ -46,4 +46,8 @@ class PrefixCloseProvider extends PostProcessingOperationProvider<PrefixClose, P
         return true
     }
 
+    override isComponentLocal() {
+        return true
+    }
+
 }
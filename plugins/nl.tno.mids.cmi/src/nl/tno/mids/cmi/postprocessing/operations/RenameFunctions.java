@@ -18,14 +18,9 @@ import java.util.Set;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.escet.common.java.Pair;
 
-import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.automata.fsa.impl.compact.CompactNFA;
-import net.automatalib.util.automata.fsa.NFAs;
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
 import nl.tno.mids.cmi.api.general.CmiGeneralEventQueries;
 import nl.tno.mids.cmi.api.info.EventInfo;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel;
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset;
@@ -64,18 +59,11 @@ public class RenameFunctions extends PostProcessingOperation<RenameFunctionsOpti
         for (Entry<String, PostProcessingModel> entry: models.entrySet()) {
             String component = entry.getKey();
             PostProcessingModel model = entry.getValue();
-            // Get an automaton representation of the current model.
-            CompactDFA<String> dfa = model.getCompactDfa();
 
-            // Apply renaming to every event in the automaton model.
-            CompactNFA<String> nfa = AutomataLibUtil.dfaToNfa(dfa);
-            CompactNFA<String> renamedNfa = AutomataLibUtil.rename(nfa,
-                    eventName -> renameEvent(eventName, options.functionMappings));
-            CompactDFA<String> renamedDfa = NFAs.determinize(renamedNfa, true, false);
-            CompactDFA<String> minimalRenamedDfa = AutomataLibUtil.minimizeDFA(renamedDfa);
-
-            models.put(component,
-                    new PostProcessingModelCompactDfa(minimalRenamedDfa, component, getResultStatus(model.status)));
+            // Apply renaming to every event in the automaton model. The renamed model is determinized and minimized
+            // once it is needed.
+            models.put(component, model.rename(eventName -> renameEvent(eventName, options.functionMappings), false,
+                    getResultStatus(model.status)));
         }
     }
 
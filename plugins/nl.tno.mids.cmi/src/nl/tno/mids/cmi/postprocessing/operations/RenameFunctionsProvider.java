@@ -66,4 +66,9 @@ public class RenameFunctionsProvider extends PostProcessingOperationProvider<Ren
     public boolean supportsFilteredComponentsAsInput() {
         return false;
     }
+
+    @Override
+    public boolean isComponentLocal() {
+        return true;
+    }
 }
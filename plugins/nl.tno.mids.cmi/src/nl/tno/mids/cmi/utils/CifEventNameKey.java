@@ -0,0 +1,86 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import java.util.Objects;
+
+import nl.esi.pps.architecture.instantiated.Executor;
+import nl.tno.mids.pps.extensions.info.EventFunctionExecutionType;
+
+/**
+ * Key that identifies the CIF event name of a TMSC event, as obtained by {@link CifNamesUtil#asCifNameKey}. Events with
+ * equal keys get equal CIF event names, for the same synchronization setting.
+ */
+public final class CifEventNameKey {
+    /** The executor on which the event happened. */
+    private final Executor executor;
+
+    /** The interface name of the event. */
+    private final String interfaceName;
+
+    /** The function name of the event. */
+    private final String functionName;
+
+    /** The function execution type of the event. */
+    private final EventFunctionExecutionType executionType;
+
+    /** Whether the event is an exit event. */
+    private final boolean exit;
+
+    /** Whether the event is the source of its message dependency, if any. */
+    private final boolean source;
+
+    /** The key of the event at the other side of the message dependency, or {@code null} if there is none. */
+    private final CifEventNameKey other;
+
+    private final int hashCode;
+
+    /**
+     * @param executor The executor on which the event happened.
+     * @param interfaceName The interface name of the event.
+     * @param functionName The function name of the event.
+     * @param executionType The function execution type of the event.
+     * @param exit Whether the event is an exit event.
+     * @param source Whether the event is the source of its message dependency, if any.
+     * @param other The key of the event at the other side of the message dependency, or {@code null} if there is none.
+     */
+    public CifEventNameKey(Executor executor, String interfaceName, String functionName,
+            EventFunctionExecutionType executionType, boolean exit, boolean source, CifEventNameKey other)
+    {
+        this.executor = executor;
+        this.interfaceName = interfaceName;
+        this.functionName = functionName;
+        this.executionType = executionType;
+        this.exit = exit;
+        this.source = source;
+        this.other = other;
+        this.hashCode = Objects.hash(executor, interfaceName, functionName, executionType, exit, source, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CifEventNameKey)) {
+            return false;
+        }
+        CifEventNameKey key = (CifEventNameKey)obj;
+        return hashCode == key.hashCode && executor == key.executor && exit == key.exit && source == key.source
+                && executionType == key.executionType && Objects.equals(interfaceName, key.interfaceName)
+                && Objects.equals(functionName, key.functionName) && Objects.equals(other, key.other);
+    }
+}
@@ -0,0 +1,59 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Symbol table that interns CIF event names as dense integer identifiers, in order of first occurrence. Identifiers
+ * are cheap to hash and compare, allowing automata to be constructed over identifiers, and only be converted to CIF
+ * event names at the end. This class is thread safe.
+ */
+public class CifEventSymbolTable {
+    /** Per CIF event name, its identifier. */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /** Per identifier, its CIF event name. */
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * @param name The CIF event name.
+     * @return The identifier of the given CIF event name. A new identifier is assigned if the name is not yet known.
+     */
+    public synchronized int getId(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * @param id The identifier.
+     * @return The CIF event name of the given identifier.
+     */
+    public synchronized String getName(int id) {
+        Preconditions.checkElementIndex(id, names.size(), "Unknown CIF event identifier.");
+        return names.get(id);
+    }
+
+    /** @return The number of interned CIF event names. */
+    public synchronized int size() {
+        return names.size();
+    }
+}
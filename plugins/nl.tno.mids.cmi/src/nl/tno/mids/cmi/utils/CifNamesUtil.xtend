@@ -195,6 +195,42 @@ class CifNamesUtil {
         return cifName
     }
 
+    /**
+     * Gives a key for the CIF event name for the specified {@code event} in the scope of {@code scopeTmsc}. Events with
+     * equal keys get equal CIF event names, allowing to construct and validate each distinct CIF event name only once,
+     * using {@link #asCifName(Event, TMSC, boolean)}.
+     * 
+     * @param event The {@link TMSC} {@link Event event}, which should be in scope of {@code scopeTmsc}.
+     * @param scopeTmsc The contextual {@link TMSC}.
+     * @return The CIF event name key.
+     */
+    def static CifEventNameKey asCifNameKey(Event event, TMSC scopeTmsc) {
+        val hasIncoming = TmscDependencyQueries.hasIncomingMessageDependencies(event, scopeTmsc)
+        val hasOutgoing = TmscDependencyQueries.hasOutgoingMessageDependencies(event, scopeTmsc)
+
+        // Get event for other side of dependency, if any. Events with multiple message dependencies get a key without
+        // other side, but are rejected once their name is constructed.
+        val otherEvent = if (hasIncoming == hasOutgoing) {
+                null
+            } else if (hasOutgoing) {
+                TmscDependencyQueries.getOutgoingMessageDependency(event, scopeTmsc).target
+            } else {
+                TmscDependencyQueries.getIncomingMessageDependency(event, scopeTmsc).source
+            }
+
+        return new CifEventNameKey(event.lifeline.executor, event.interfaceName, event.functionName,
+            event.executionType, event instanceof ExitEvent, hasOutgoing, otherEvent?.asCifNameKey)
+    }
+
+    /**
+     * @param event The {@link TMSC} {@link Event event}.
+     * @return The CIF event name key of the given {@code event}, disregarding its dependencies.
+     */
+    def private static CifEventNameKey asCifNameKey(Event event) {
+        return new CifEventNameKey(event.lifeline.executor, event.interfaceName, event.functionName,
+            event.executionType, event instanceof ExitEvent, false, null)
+    }
+
     /**
      * @param name The name to add postfix to.
      * @param event The event defining the postfix to add.
@@ -0,0 +1,284 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import net.automatalib.words.WordBuilder;
+import nl.tno.mids.automatalib.extensions.util.IntegerWordSet;
+import nl.tno.mids.cmi.ComponentModelBuilder;
+
+/**
+ * On-disk cache of the distinct words per component of a {@link ComponentModelBuilder}, allowing to construct the
+ * same models again without loading and preparing the TMSC. It also serves as a checkpoint of a builder, from which
+ * later extractions can resume to extend the models with the words of new TMSCs.
+ *
+ * <p>
+ * The cache is identified by a key, consisting of a hash of the TMSC file and all options that affect the words, or
+ * only the options for checkpoints. It contains the key, the {@link ComponentModelBuilder#getComponentFilters component
+ * filters} of the builder, the {@link TmscMetrics} and preparation warnings of the TMSC, the CIF event names used by
+ * the words, and per component its distinct words in order of insertion. Words are stored as variable-length encoded
+ * event name identifiers. Caches are memory-mapped when read.
+ * </p>
+ *
+ * <p>
+ * The component filters are not part of the key, as they do not change the words of the included components. A cache
+ * of a builder without component filters contains the words of all components, and can be read into builders with
+ * any component filters, which then skip the words of the components they exclude. A cache of a builder with component
+ * filters can only be read into builders with the same component filters.
+ * </p>
+ */
+public class ComponentWordCache {
+    /** The name of the cache file in the output folder. */
+    public static final String FILE_NAME = "component-extraction-words.bin";
+
+    /** Marker at the start of cache files. */
+    private static final int MAGIC = 0x4D494457;
+
+    /** The version of the cache format. Caches with other versions are ignored. */
+    private static final int VERSION = 2;
+
+    private ComponentWordCache() {
+    }
+
+    /**
+     * Computes the key of a cache.
+     *
+     * @param tmscPath The path of the TMSC file from which the words are constructed.
+     * @param options The options that affect the words constructed from the TMSC.
+     * @return The key of the cache.
+     * @throws IOException Thrown in case reading the TMSC file fails.
+     */
+    public static String computeKey(Path tmscPath, Object... options) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 hashing is not available.", e);
+        }
+
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream stream = Files.newInputStream(tmscPath)) {
+            int count;
+            while ((count = stream.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (byte b: digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        for (Object option: options) {
+            key.append('\n');
+            key.append(option);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Computes the key of a checkpoint, which unlike a cache is not tied to a single TMSC file.
+     *
+     * @param options The options that affect the words constructed from TMSCs.
+     * @return The key of the checkpoint.
+     */
+    public static String computeOptionsKey(Object... options) {
+        StringBuilder key = new StringBuilder("checkpoint");
+        for (Object option: options) {
+            key.append('\n');
+            key.append(option);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Writes the distinct words of {@code builder} to a cache file, replacing any existing cache file.
+     *
+     * @param cachePath The path of the cache file.
+     * @param key The key of the cache.
+     * @param builder The builder whose words to write, which must {@link ComponentModelBuilder#isRecordWords record}
+     *     its words.
+     * @param tmscMetrics The metrics of the TMSC from which the words are constructed.
+     * @param warnings The warnings produced while preparing the TMSC from which the words are constructed.
+     * @throws IOException Thrown in case writing the cache file fails.
+     */
+    public static void write(Path cachePath, String key, ComponentModelBuilder builder, TmscMetrics tmscMetrics,
+            List<String> warnings) throws IOException
+    {
+        // Write to a temporary file first, to never leave a partially written cache behind.
+        Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            writeString(stream, key);
+            writeString(stream, builder.getComponentFilters());
+
+            stream.writeLong(tmscMetrics.duration.toNanos());
+            stream.writeLong(tmscMetrics.eventCount);
+            stream.writeLong(tmscMetrics.callStackCount);
+            writeVarInt(stream, warnings.size());
+            for (String warning: warnings) {
+                writeString(stream, warning);
+            }
+
+            CifEventSymbolTable symbols = builder.getSymbols();
+            int symbolCount = symbols.size();
+            writeVarInt(stream, symbolCount);
+            for (int id = 0; id < symbolCount; id++) {
+                writeString(stream, symbols.getName(id));
+            }
+
+            Map<String, IntegerWordSet> componentWords = builder.getComponentWords();
+            writeVarInt(stream, componentWords.size());
+            for (String componentLabel: builder.getComponentLabels()) {
+                IntegerWordSet words = componentWords.get(componentLabel);
+                writeString(stream, componentLabel);
+                writeVarInt(stream, words.size());
+                for (int index = 0; index < words.size(); index++) {
+                    int length = words.getWordLength(index);
+                    writeVarInt(stream, length);
+                    for (int position = 0; position < length; position++) {
+                        writeVarInt(stream, words.getSymbol(index, position));
+                    }
+                }
+            }
+        }
+        Files.move(tempPath, cachePath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads the words from a cache file, if it exists, has the given key and contains the words of all components
+     * included by {@code builder}, and inserts them into {@code builder}. The number of words inserted into
+     * {@code builder} is increased by the number of words, including repeated words, inserted into the builder from
+     * which the cache was written.
+     *
+     * @param cachePath The path of the cache file.
+     * @param key The expected key of the cache.
+     * @param builder The builder into which to insert the words.
+     * @param tmscMetrics The metrics to fill with the metrics of the TMSC from which the words are constructed. The
+     *     number of distinct call stacks is that of {@code builder} after inserting the words.
+     * @param warnings The warnings to which to add the warnings produced while preparing the TMSC from which the words
+     *     are constructed.
+     * @return {@code true} if the words have been read from the cache, {@code false} if there is no valid cache for
+     *     the given key.
+     * @throws IOException Thrown in case reading the cache file fails.
+     */
+    public static boolean read(Path cachePath, String key, ComponentModelBuilder builder, TmscMetrics tmscMetrics,
+            List<String> warnings) throws IOException
+    {
+        if (!Files.isRegularFile(cachePath)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                // Too large to map at once.
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            try {
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.equals(readString(buffer))) {
+                    return false;
+                }
+                String componentFilters = readString(buffer);
+                if (!componentFilters.isEmpty() && !componentFilters.equals(builder.getComponentFilters())) {
+                    // Lacks the words of components that the builder includes.
+                    return false;
+                }
+
+                tmscMetrics.duration = Duration.ofNanos(buffer.getLong());
+                tmscMetrics.eventCount = buffer.getLong();
+                long callStackCount = buffer.getLong();
+                int warningCount = readVarInt(buffer);
+                for (int warning = 0; warning < warningCount; warning++) {
+                    warnings.add(readString(buffer));
+                }
+
+                // Map the event name identifiers of the cache to those of the builder.
+                int[] symbols = new int[readVarInt(buffer)];
+                for (int id = 0; id < symbols.length; id++) {
+                    symbols[id] = builder.getSymbols().getId(readString(buffer));
+                }
+
+                int componentCount = readVarInt(buffer);
+                for (int component = 0; component < componentCount; component++) {
+                    String componentLabel = readString(buffer);
+                    int wordCount = readVarInt(buffer);
+                    for (int word = 0; word < wordCount; word++) {
+                        int length = readVarInt(buffer);
+                        WordBuilder<Integer> wordBuilder = new WordBuilder<>(length);
+                        for (int position = 0; position < length; position++) {
+                            wordBuilder.append(symbols[readVarInt(buffer)]);
+                        }
+                        builder.insertDistinctSymbols(componentLabel, wordBuilder.toWord());
+                    }
+                }
+
+                // Restore the number of inserted words, as the repeated words are not stored.
+                builder.addWordCount(callStackCount);
+                tmscMetrics.callStackCount = callStackCount;
+                tmscMetrics.distinctCallStackCount = builder.getDistinctWordCount();
+                return true;
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt word cache: " + cachePath, e);
+            }
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream stream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            stream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream stream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(stream, bytes.length);
+        stream.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,373 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Profiler of the phases of component extraction, measuring per phase the wall-clock time, the CPU time and the peak
+ * heap usage, as well as the sizes of the models per component.
+ *
+ * <p>
+ * Phases are measured on the thread that performs them, and may be measured multiple times, for instance once per
+ * lifeline or component. The times of all measurements of a phase are summed, also if they are performed concurrently
+ * on multiple threads. The peak heap usage is sampled at the end of each measurement, and is thus an approximation.
+ * </p>
+ *
+ * <p>
+ * The profiler is thread safe. Its results can be written as text, for the component extraction report, or as JSON,
+ * to compare them between extractions.
+ * </p>
+ */
+public class ExtractionProfiler {
+    /** The name of the JSON profile file in the output folder. */
+    public static final String FILE_NAME = "component-extraction-profile.json";
+
+    /** Loading the TMSC. */
+    public static final String LOAD = "load";
+
+    /** Preparing the TMSC. */
+    public static final String PREPARE = "prepare";
+
+    /** Constructing words from the call stacks of the TMSC. */
+    public static final String WORDS = "word building";
+
+    /** Inserting words into the prefix tree acceptors of the components. */
+    public static final String PTA_INSERT = "PTA insert";
+
+    /** Minimizing the prefix tree acceptors of the components. */
+    public static final String MINIMIZE = "minimization";
+
+    /** Saving CIF models. */
+    public static final String CIF_SAVE = "CIF save";
+
+    /** Saving yEd diagrams. */
+    public static final String YED_SAVE = "yEd save";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /** The metrics per phase, in order of first measurement. */
+    private final Map<String, PhaseMetrics> phases;
+
+    /** The model sizes per component, ordered by component name. */
+    private final Map<String, ComponentMetrics> components;
+
+    /** The prefix of the names of the components recorded through this profiler. */
+    private final String componentPrefix;
+
+    /** The conversions of the models between representations during post-processing. */
+    private final ConversionMetrics modelConversions;
+
+    public ExtractionProfiler() {
+        this(new LinkedHashMap<>(), new TreeMap<>(), "", new ConversionMetrics());
+    }
+
+    private ExtractionProfiler(Map<String, PhaseMetrics> phases, Map<String, ComponentMetrics> components,
+            String componentPrefix, ConversionMetrics modelConversions)
+    {
+        this.phases = phases;
+        this.components = components;
+        this.componentPrefix = componentPrefix;
+        this.modelConversions = modelConversions;
+    }
+
+    /**
+     * @param index The index of the post-processing operation, starting at {@code 1}.
+     * @param operationName The name of the post-processing operation.
+     * @return The name of the phase of the post-processing operation.
+     */
+    public static String getPostProcessingPhase(int index, String operationName) {
+        return String.format(Locale.US, "post-processing %d: %s", index, operationName);
+    }
+
+    /**
+     * @param firstIndex The index of the first of consecutive post-processing operations, starting at {@code 1}.
+     * @param lastIndex The index of the last of the operations.
+     * @param operationNames The names of the operations.
+     * @return The name of the phase of the post-processing operations, if they are applied together.
+     */
+    public static String getPostProcessingPhase(int firstIndex, int lastIndex, String operationNames) {
+        return String.format(Locale.US, "post-processing %d-%d: %s", firstIndex, lastIndex, operationNames);
+    }
+
+    /**
+     * Returns a profiler that shares its results with this profiler, but prefixes the names of the components recorded
+     * through it, for instance to distinguish the components of different time windows.
+     *
+     * @param prefix The prefix of the component names.
+     * @return The profiler.
+     */
+    public ExtractionProfiler withComponentPrefix(String prefix) {
+        return new ExtractionProfiler(phases, components, componentPrefix + prefix, modelConversions);
+    }
+
+    /**
+     * Starts a measurement of a phase on the current thread.
+     *
+     * @param phase The name of the phase.
+     * @return The measurement, to be {@link Measurement#stop stopped} on the same thread.
+     */
+    public Measurement start(String phase) {
+        return new Measurement(phase);
+    }
+
+    /**
+     * Records the sizes of the models of a component.
+     *
+     * @param componentLabel The name of the component.
+     * @param ptaStates The number of states of the prefix tree acceptor of the component.
+     * @param dfaStates The number of states of the minimal DFA of the component.
+     * @param dfaTransitions The number of transitions of the minimal DFA of the component.
+     */
+    public void recordComponent(String componentLabel, int ptaStates, int dfaStates, int dfaTransitions) {
+        synchronized (components) {
+            components.put(componentPrefix + componentLabel, new ComponentMetrics(ptaStates, dfaStates, dfaTransitions));
+        }
+    }
+
+    /**
+     * Records the conversions of models between CIF specifications and DFAs during post-processing.
+     *
+     * @param hits The number of conversions that were prevented by using a cached representation.
+     * @param misses The number of conversions that were performed.
+     */
+    public void recordModelConversions(long hits, long misses) {
+        synchronized (modelConversions) {
+            modelConversions.hits += hits;
+            modelConversions.misses += misses;
+        }
+    }
+
+    private void record(String phase, long wallNanos, long cpuNanos) {
+        long heapUsed = MEMORY.getHeapMemoryUsage().getUsed();
+        synchronized (phases) {
+            PhaseMetrics metrics = phases.computeIfAbsent(phase, p -> new PhaseMetrics());
+            metrics.count++;
+            metrics.wallNanos += wallNanos;
+            metrics.cpuNanos += cpuNanos;
+            metrics.peakHeapBytes = Math.max(metrics.peakHeapBytes, heapUsed);
+        }
+    }
+
+    private static long getCpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Writes the results as text, as part of the component extraction report.
+     *
+     * @param writer The writer to write the results to.
+     */
+    public void writeText(PrintWriter writer) {
+        writer.append("Phases:\n");
+        synchronized (phases) {
+            for (Map.Entry<String, PhaseMetrics> entry: phases.entrySet()) {
+                PhaseMetrics metrics = entry.getValue();
+                writer.format(Locale.US, " - %-28s wall %,10.1f ms, CPU %,10.1f ms, peak heap %,8.1f MB (%,d times)\n",
+                        entry.getKey() + ":", metrics.wallNanos / 1e6, metrics.cpuNanos / 1e6,
+                        metrics.peakHeapBytes / 1e6, metrics.count);
+            }
+        }
+        writer.append("Components:\n");
+        synchronized (components) {
+            for (Map.Entry<String, ComponentMetrics> entry: components.entrySet()) {
+                ComponentMetrics metrics = entry.getValue();
+                writer.format(Locale.US, " - %s: PTA %,d states, DFA %,d states and %,d transitions\n", entry.getKey(),
+                        metrics.ptaStates, metrics.dfaStates, metrics.dfaTransitions);
+            }
+        }
+        synchronized (modelConversions) {
+            writer.format(Locale.US, "Model conversions: %,d cached, %,d performed\n", modelConversions.hits,
+                    modelConversions.misses);
+        }
+    }
+
+    /**
+     * Writes the results as JSON, together with the metrics of the input and the total running time.
+     *
+     * @param path The path of the JSON file.
+     * @param tmscMetrics The metrics of the input.
+     * @param runtimeMs The total running time in milliseconds.
+     * @throws IOException Thrown in case writing the file fails.
+     */
+    public void writeJson(Path path, TmscMetrics tmscMetrics, long runtimeMs) throws IOException {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append(String.format(Locale.US, "  \"tmscDurationNanos\": %d,\n", tmscMetrics.duration.toNanos()));
+        json.append(String.format(Locale.US, "  \"tmscEvents\": %d,\n", tmscMetrics.eventCount));
+        json.append(String.format(Locale.US, "  \"callStacks\": %d,\n", tmscMetrics.callStackCount));
+        json.append(String.format(Locale.US, "  \"distinctCallStacks\": %d,\n", tmscMetrics.distinctCallStackCount));
+        json.append(String.format(Locale.US, "  \"runtimeMillis\": %d,\n", runtimeMs));
+
+        json.append("  \"phases\": [");
+        synchronized (phases) {
+            String separator = "\n";
+            for (Map.Entry<String, PhaseMetrics> entry: phases.entrySet()) {
+                PhaseMetrics metrics = entry.getValue();
+                json.append(separator);
+                json.append(String.format(Locale.US,
+                        "    {\"name\": %s, \"count\": %d, \"wallNanos\": %d, \"cpuNanos\": %d, \"peakHeapBytes\": %d}",
+                        quote(entry.getKey()), metrics.count, metrics.wallNanos, metrics.cpuNanos,
+                        metrics.peakHeapBytes));
+                separator = ",\n";
+            }
+        }
+        json.append("\n  ],\n");
+
+        json.append("  \"components\": [");
+        synchronized (components) {
+            String separator = "\n";
+            for (Map.Entry<String, ComponentMetrics> entry: components.entrySet()) {
+                ComponentMetrics metrics = entry.getValue();
+                json.append(separator);
+                json.append(String.format(Locale.US,
+                        "    {\"name\": %s, \"ptaStates\": %d, \"dfaStates\": %d, \"dfaTransitions\": %d}",
+                        quote(entry.getKey()), metrics.ptaStates, metrics.dfaStates, metrics.dfaTransitions));
+                separator = ",\n";
+            }
+        }
+        json.append("\n  ],\n");
+
+        synchronized (modelConversions) {
+            json.append(String.format(Locale.US, "  \"modelConversionHits\": %d,\n", modelConversions.hits));
+            json.append(String.format(Locale.US, "  \"modelConversionMisses\": %d\n", modelConversions.misses));
+        }
+        json.append("}\n");
+
+        Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c: value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int)c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * A measurement of a phase on a single thread. A measurement can be paused, for instance to alternate between two
+     * interleaved phases without buffering the intermediate results of one phase for the other.
+     */
+    public class Measurement {
+        private final String phase;
+
+        private long wallStart;
+
+        private long cpuStart;
+
+        private long wallNanos = 0;
+
+        private long cpuNanos = 0;
+
+        private boolean paused = false;
+
+        private Measurement(String phase) {
+            this.phase = phase;
+            this.wallStart = System.nanoTime();
+            this.cpuStart = getCpuTime();
+        }
+
+        /** Pauses the measurement, until it is {@link #resume resumed}. */
+        public void pause() {
+            pause(System.nanoTime(), getCpuTime());
+        }
+
+        /** Resumes the measurement after it was {@link #pause paused}. */
+        public void resume() {
+            resume(System.nanoTime(), getCpuTime());
+        }
+
+        /**
+         * Pauses this measurement and resumes another measurement at the same time, reading the clocks only once.
+         *
+         * @param other The paused measurement to resume.
+         */
+        public void switchTo(Measurement other) {
+            long wallTime = System.nanoTime();
+            long cpuTime = getCpuTime();
+            pause(wallTime, cpuTime);
+            other.resume(wallTime, cpuTime);
+        }
+
+        /** Stops the measurement, and adds it to the metrics of its phase. */
+        public void stop() {
+            if (!paused) {
+                pause();
+            }
+            record(phase, wallNanos, cpuNanos);
+        }
+
+        private void pause(long wallTime, long cpuTime) {
+            wallNanos += wallTime - wallStart;
+            cpuNanos += cpuTime - cpuStart;
+            paused = true;
+        }
+
+        private void resume(long wallTime, long cpuTime) {
+            wallStart = wallTime;
+            cpuStart = cpuTime;
+            paused = false;
+        }
+    }
+
+    /** The metrics of a phase. */
+    private static class PhaseMetrics {
+        long count;
+
+        long wallNanos;
+
+        long cpuNanos;
+
+        long peakHeapBytes;
+    }
+
+    /** The conversions of models between representations. */
+    private static class ConversionMetrics {
+        long hits;
+
+        long misses;
+    }
+
+    /** The model sizes of a component. */
+    private static class ComponentMetrics {
+        final int ptaStates;
+
+        final int dfaStates;
+
+        final int dfaTransitions;
+
+        ComponentMetrics(int ptaStates, int dfaStates, int dfaTransitions) {
+            this.ptaStates = ptaStates;
+            this.dfaStates = dfaStates;
+            this.dfaTransitions = dfaTransitions;
+        }
+    }
+}
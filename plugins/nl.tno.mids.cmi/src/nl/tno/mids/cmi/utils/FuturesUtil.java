@@ -0,0 +1,35 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.cmi.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/** Utilities for work that is performed concurrently using {@link CompletableFuture futures}. */
+public class FuturesUtil {
+    /**
+     * Waits for {@code future} to complete, rethrowing the runtime exception with which it completed, if any.
+     *
+     * @param <T> The type of the result of the future.
+     * @param future The future to wait for.
+     * @return The result of the future.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw e;
+        }
+    }
+}
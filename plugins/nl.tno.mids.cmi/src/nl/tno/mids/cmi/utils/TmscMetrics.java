@@ -19,4 +19,34 @@ public class TmscMetrics {
 
     /** The number of events in the TMSC. */
     public long eventCount;
+
+    /** The number of call stacks in the TMSC from which models are extracted. */
+    public long callStackCount;
+
+    /**
+     * The number of distinct call stacks in the TMSC from which models are extracted, summed over all components. A
+     * call stack that occurs for several components is counted once for each of them.
+     */
+    public long distinctCallStackCount;
+
+    /** The timestamp of the first event {@link #addEvents added}, or {@code null} if no events were added. */
+    private Long firstTimestamp = null;
+
+    /** The timestamp of the last event {@link #addEvents added}, or {@code null} if no events were added. */
+    private Long lastTimestamp = null;
+
+    /**
+     * Adds events, for instance those of a single lifeline, to the number of events, and extends the duration to
+     * include them. Events can be added concurrently, and in any order.
+     *
+     * @param count The number of events to add.
+     * @param first The timestamp of the first of the events.
+     * @param last The timestamp of the last of the events.
+     */
+    public synchronized void addEvents(long count, long first, long last) {
+        eventCount += count;
+        firstTimestamp = firstTimestamp == null ? first : Math.min(firstTimestamp, first);
+        lastTimestamp = lastTimestamp == null ? last : Math.max(lastTimestamp, last);
+        duration = Duration.ofNanos(lastTimestamp - firstTimestamp);
+    }
 }
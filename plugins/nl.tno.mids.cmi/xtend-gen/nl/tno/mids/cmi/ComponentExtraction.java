@@ -2,6 +2,7 @@ package nl.tno.mids.cmi;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -12,12 +13,21 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
-import nl.esi.pps.tmsc.Event;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import nl.esi.pps.tmsc.FullScopeTMSC;
 import nl.esi.pps.tmsc.ScopedTMSC;
 import nl.esi.pps.tmsc.TMSC;
 import nl.tno.mids.cif.extensions.CIFOperations;
@@ -26,23 +36,41 @@ import nl.tno.mids.cif.extensions.FileExtensions;
 import nl.tno.mids.cmi.api.protocol.CmiProtocolQueries;
 import nl.tno.mids.cmi.cmi2yed.CmiToYedTransformer;
 import nl.tno.mids.cmi.postprocessing.PostProcessing;
+import nl.tno.mids.cmi.postprocessing.PostProcessingCache;
 import nl.tno.mids.cmi.protocol.InferProtocolModel;
+import nl.tno.mids.cmi.utils.ComponentWordCache;
+import nl.tno.mids.cmi.utils.ExtractionProfiler;
+import nl.tno.mids.cmi.utils.FuturesUtil;
 import nl.tno.mids.cmi.utils.TmscMetrics;
 import nl.tno.mids.pps.extensions.util.TmscFileHelper;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.escet.cif.metamodel.cif.Specification;
 import org.eclipse.escet.common.java.DateTimeUtils;
 import org.eclipse.escet.common.java.Strings;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function0;
-import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
-import org.eclipse.xtext.xbase.lib.MapExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 
 @SuppressWarnings("all")
 public class ComponentExtraction {
+  /**
+   * The profiler of the phases of model extraction, or {@code null} to not profile model extraction.
+   */
+  private ExtractionProfiler profiler;
+  
+  /**
+   * The cache of the results of post-processing operations, or {@code null} to not cache them.
+   */
+  private PostProcessingCache postProcessingCache;
+  
   /**
    * Component extraction using Constructive Model Inference.
    * 
@@ -52,95 +80,178 @@ public class ComponentExtraction {
    * @param monitor The progress monitor.
    */
   public void extract(final Path relativeResolvePath, final ComponentExtractionOptions options, final IProgressMonitor monitor) {
+    final int threads = options.getExtraction().getThreads();
+    ForkJoinPool _xifexpression = null;
+    if ((threads > 1)) {
+      _xifexpression = new ForkJoinPool(threads);
+    } else {
+      _xifexpression = null;
+    }
+    final ForkJoinPool pool = _xifexpression;
+    try {
+      this.extract(relativeResolvePath, options, pool, monitor);
+    } finally {
+      if (pool!=null) {
+        pool.shutdown();
+      }
+    }
+  }
+  
+  /**
+   * Component extraction using Constructive Model Inference.
+   * 
+   * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+   *      During model extraction, all paths are to be resolved against the parent folder of this file.
+   * @param options The configuration options.
+   * @param pool The pool on which to perform model extraction in parallel, or {@code null} to perform it
+   *      sequentially.
+   * @param monitor The progress monitor.
+   */
+  private void extract(final Path relativeResolvePath, final ComponentExtractionOptions options, final ForkJoinPool pool, final IProgressMonitor monitor) {
     try {
       final LocalDateTime startTime = LocalDateTime.now();
       final ArrayList<String> warnings = new ArrayList<String>();
       final int yEdWork = 10;
+      ExtractionProfiler _xifexpression = null;
+      boolean _isProfile = options.getExtraction().isProfile();
+      if (_isProfile) {
+        _xifexpression = new ExtractionProfiler();
+      }
+      this.profiler = _xifexpression;
+      final Path postProcessingCacheFolder = options.getOutput().getPath().resolve(PostProcessingCache.FOLDER_NAME);
+      boolean _isClearCache = options.getPostProcessing().isClearCache();
+      if (_isClearCache) {
+        PostProcessingCache.clear(postProcessingCacheFolder);
+      }
+      PostProcessingCache _xifexpression_1 = null;
+      boolean _isCache = options.getPostProcessing().isCache();
+      if (_isCache) {
+        int _cacheSize = options.getPostProcessing().getCacheSize();
+        long _multiply = (_cacheSize * (1L << 20));
+        _xifexpression_1 = new PostProcessingCache(postProcessingCacheFolder, _multiply);
+      }
+      this.postProcessingCache = _xifexpression_1;
       final Path tmscPath = options.getInput().getPath();
       Preconditions.checkArgument(tmscPath.isAbsolute());
       Preconditions.checkArgument(relativeResolvePath.isAbsolute());
       int work = 125;
       int _work = work;
-      int _xifexpression = (int) 0;
+      int _xifexpression_2 = (int) 0;
       boolean _isSaveYed = options.getOutput().isSaveYed();
       if (_isSaveYed) {
-        _xifexpression = yEdWork;
+        _xifexpression_2 = yEdWork;
       } else {
-        _xifexpression = 0;
+        _xifexpression_2 = 0;
       }
-      work = (_work + _xifexpression);
+      work = (_work + _xifexpression_2);
       final SubMonitor subMonitor = SubMonitor.convert(monitor, work);
       final String tmscName = this.getTmscName(tmscPath);
       subMonitor.split(5);
       subMonitor.subTask("Saving model extraction options");
       this.saveOptions(options);
-      subMonitor.split(10);
-      subMonitor.subTask(("Loading TMSC from " + tmscName));
-      final ScopedTMSC tmsc = TmscFileHelper.loadAndPrepareTMSC(tmscPath, warnings);
-      subMonitor.subTask(("Pre-processing TMSC from " + tmscName));
-      this.preProcess(tmsc, tmscName, options, subMonitor.split(10));
-      subMonitor.split(5);
-      subMonitor.subTask("Calculation TMSC metrics");
-      final TmscMetrics tmscMetrics = this.getTmscMetrics(tmsc);
-      subMonitor.split(50);
-      subMonitor.subTask(("Extracting models from TMSC " + tmscName));
-      boolean _isSynchronizeDependentTransitions = options.getExtraction().isSynchronizeDependentTransitions();
-      final ComponentModelBuilder builder = new ComponentModelBuilder(_isSynchronizeDependentTransitions);
-      builder.insert(tmsc);
-      Map<String, Specification> modelsMap = builder.getCifModels();
-      subMonitor.subTask(("Post-processing CIF models extracted from " + tmscName));
-      boolean _isEmpty = options.getPostProcessing().getComponentsInclusionRegEx().trim().isEmpty();
-      boolean _not = (!_isEmpty);
-      if (_not) {
-        final Function2<String, Specification, Boolean> _function = (String k, Specification v) -> {
-          return Boolean.valueOf(k.matches(options.getPostProcessing().getComponentsInclusionRegEx()));
-        };
-        modelsMap = MapExtensions.<String, Specification>filter(modelsMap, _function);
-      }
-      boolean _isEmpty_1 = options.getPostProcessing().getComponentsExclusionRegEx().trim().isEmpty();
-      boolean _not_1 = (!_isEmpty_1);
-      if (_not_1) {
-        final Function2<String, Specification, Boolean> _function_1 = (String k, Specification v) -> {
-          boolean _matches = k.matches(options.getPostProcessing().getComponentsExclusionRegEx());
-          return Boolean.valueOf((!_matches));
-        };
-        modelsMap = MapExtensions.<String, Specification>filter(modelsMap, _function_1);
-      }
-      modelsMap = PostProcessing.postProcess(modelsMap, relativeResolvePath, options.getPostProcessing().getOperations(), 
-        subMonitor.split(10));
-      subMonitor.split(5);
-      if ((Objects.equal(options.getOutput().getOutputMode(), OutputMode.COMPONENTS) && (!options.getExtraction().isModelPerComponent()))) {
-        subMonitor.subTask("Combining component models");
-        this.combineComponentModels(modelsMap);
-      }
-      final OutputMode outputMode = options.getOutput().getOutputMode();
-      if (outputMode != null) {
-        switch (outputMode) {
-          case COMPONENTS:
-            subMonitor.subTask("Saving CIF models");
-            this.saveCifModels(modelsMap, options, subMonitor.split(30));
-            break;
-          case PROTOCOL:
-            subMonitor.subTask("Inferring protocol");
-            final Specification protocolModel = InferProtocolModel.createProtocol(options.getOutput().getProtocolName1(), 
-              options.getOutput().getProtocolName2(), options.getOutput().getScope(), modelsMap, subMonitor.split(29));
-            modelsMap.clear();
-            modelsMap.put(CmiProtocolQueries.getProtocolName(protocolModel), protocolModel);
-            this.saveCifModels(modelsMap, options, subMonitor.split(1));
-            break;
-          default:
-            break;
+      final ComponentModelBuilder builder = this.createBuilder(options, pool);
+      final Path checkpointPath = options.getExtraction().getCheckpointPath();
+      String _xifexpression_3 = null;
+      if ((checkpointPath != null)) {
+        _xifexpression_3 = this.getCheckpointKey(options);
+      }
+      final String checkpointKey = _xifexpression_3;
+      final boolean inputFolder = Files.isDirectory(tmscPath);
+      Path _xifexpression_4 = null;
+      if ((((options.getExtraction().isWordCache() && (!inputFolder)) && (checkpointPath == null)) && 
+        (!builder.isWindowed()))) {
+        _xifexpression_4 = this.createOutputFolder(options).resolve(ComponentWordCache.FILE_NAME);
+      }
+      final Path wordCachePath = _xifexpression_4;
+      String _xifexpression_5 = null;
+      if ((wordCachePath != null)) {
+        _xifexpression_5 = this.getWordCacheKey(tmscPath, options);
+      }
+      final String wordCacheKey = _xifexpression_5;
+      builder.setRecordWords(((wordCachePath != null) || (checkpointPath != null)));
+      if (((checkpointPath != null) && Files.exists(checkpointPath))) {
+        subMonitor.subTask(("Loading checkpoint " + checkpointPath));
+        ExtractionProfiler.Measurement _start = null;
+        if (this.profiler!=null) {
+          _start=this.profiler.start(ExtractionProfiler.LOAD);
+        }
+        final ExtractionProfiler.Measurement measurement = _start;
+        TmscMetrics _tmscMetrics = new TmscMetrics();
+        ArrayList<String> _arrayList = new ArrayList<String>();
+        boolean _read = ComponentWordCache.read(checkpointPath, checkpointKey, builder, _tmscMetrics, _arrayList);
+        boolean _not = (!_read);
+        if (_not) {
+          throw new RuntimeException(
+            ("Checkpoint was created by another version or with other extraction options: " + checkpointPath));
         }
+        if (measurement!=null) {
+          measurement.stop();
+        }
+      }
+      TmscMetrics tmscMetrics = new TmscMetrics();
+      if (inputFolder) {
+        subMonitor.subTask(("Extracting models from TMSCs in " + tmscName));
+        tmscMetrics = this.insertAll(this.getTmscPaths(tmscPath), options, builder, warnings, pool, subMonitor.split(75));
+        tmscMetrics.callStackCount = builder.getWordCount();
+        tmscMetrics.distinctCallStackCount = builder.getDistinctWordCount();
+      } else {
+        if (((wordCachePath != null) && this.readWordCache(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings))) {
+          subMonitor.split(75);
+          subMonitor.subTask(("Loaded cached words of TMSC " + tmscName));
+        } else {
+          subMonitor.split(10);
+          subMonitor.subTask(("Loading TMSC from " + tmscName));
+          final TMSC tmsc = this.loadAndPrepareTMSC(tmscPath, options, warnings);
+          subMonitor.split(65);
+          subMonitor.subTask(("Extracting models from TMSC " + tmscName));
+          tmscMetrics = builder.insert(tmsc);
+          tmscMetrics.callStackCount = builder.getWordCount();
+          tmscMetrics.distinctCallStackCount = builder.getDistinctWordCount();
+          TmscFileHelper.unloadTMSC(tmsc);
+          if ((wordCachePath != null)) {
+            ComponentWordCache.write(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings);
+          }
+        }
+      }
+      if ((checkpointPath != null)) {
+        subMonitor.subTask(("Saving checkpoint " + checkpointPath));
+        ComponentWordCache.write(checkpointPath, checkpointKey, builder, tmscMetrics, warnings);
       }
+      int _xifexpression_6 = (int) 0;
       boolean _isSaveYed_1 = options.getOutput().isSaveYed();
       if (_isSaveYed_1) {
-        subMonitor.split(yEdWork);
-        final Path outputFolderAbsolutePath = this.createOutputFolder(options);
-        final BiConsumer<String, Specification> _function_2 = (String modelName, Specification spec) -> {
-          final Path outputFileAbsolutePath = outputFolderAbsolutePath.resolve(Strings.fmt("%s.graphml", modelName));
-          CmiToYedTransformer.transform(spec, outputFileAbsolutePath);
-        };
-        modelsMap.forEach(_function_2);
+        _xifexpression_6 = yEdWork;
+      } else {
+        _xifexpression_6 = 0;
+      }
+      final int saveWork = (45 + _xifexpression_6);
+      boolean _isWindowed = builder.isWindowed();
+      if (_isWindowed) {
+        final SortedMap<Long, ComponentModelBuilder> windows = builder.getWindows();
+        final SubMonitor windowsMonitor = SubMonitor.convert(subMonitor.split(saveWork), windows.size());
+        Set<Map.Entry<Long, ComponentModelBuilder>> _entrySet = windows.entrySet();
+        for (final Map.Entry<Long, ComponentModelBuilder> window : _entrySet) {
+          {
+            Long _key = window.getKey();
+            Long _firstKey = windows.firstKey();
+            long _minus = ((_key).longValue() - (_firstKey).longValue());
+            long _windowDuration = builder.getWindowDuration();
+            final long windowIndex = (_minus / _windowDuration);
+            subMonitor.subTask(Strings.fmt("Saving models of time window %d", Long.valueOf(windowIndex)));
+            final Path windowFolder = this.createOutputFolder(options).resolve(Strings.fmt("window-%d", Long.valueOf(windowIndex)));
+            Files.createDirectories(windowFolder);
+            ComponentModelBuilder _value = window.getValue();
+            ExtractionProfiler _withComponentPrefix = null;
+            if (this.profiler!=null) {
+              _withComponentPrefix=this.profiler.withComponentPrefix(Strings.fmt("window-%d/", Long.valueOf(windowIndex)));
+            }
+            _value.setProfiler(_withComponentPrefix);
+            this.saveModels(window.getValue(), tmscName, relativeResolvePath, options, windowFolder, windowsMonitor.split(1));
+          }
+        }
+      } else {
+        this.saveModels(builder, tmscName, relativeResolvePath, options, this.createOutputFolder(options), 
+          subMonitor.split(saveWork));
       }
       final LocalDateTime endTime = LocalDateTime.now();
       this.saveReport(options, tmscMetrics, warnings, startTime.until(endTime, ChronoUnit.MILLIS));
@@ -149,6 +260,367 @@ public class ComponentExtraction {
     }
   }
   
+  /**
+   * Post-processes the models constructed by {@code builder}, and saves them to {@code targetFolder}.
+   * 
+   * @param builder The builder of the models.
+   * @param tmscName The name of the input.
+   * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+   *      During post-processing, all paths are to be resolved against the parent folder of this file.
+   * @param options The configuration options.
+   * @param targetFolder The absolute path of the folder to which to save the models.
+   * @param monitor The progress monitor.
+   */
+  private void saveModels(final ComponentModelBuilder builder, final String tmscName, final Path relativeResolvePath, final ComponentExtractionOptions options, final Path targetFolder, final IProgressMonitor monitor) {
+    final int yEdWork = 10;
+    int _xifexpression = (int) 0;
+    boolean _isSaveYed = options.getOutput().isSaveYed();
+    if (_isSaveYed) {
+      _xifexpression = yEdWork;
+    } else {
+      _xifexpression = 0;
+    }
+    int _plus = (45 + _xifexpression);
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus);
+    boolean _isPipeline = options.getExtraction().isPipeline();
+    if (_isPipeline) {
+      subMonitor.subTask(("Post-processing and saving CIF models extracted from " + tmscName));
+      this.saveModelsPipelined(builder, relativeResolvePath, options, targetFolder, subMonitor);
+      return;
+    }
+    Map<String, Specification> modelsMap = builder.getCifModels();
+    subMonitor.subTask(("Post-processing CIF models extracted from " + tmscName));
+    modelsMap = PostProcessing.postProcess(modelsMap, relativeResolvePath, options.getPostProcessing().getOperations(), 
+      subMonitor.split(10), this.profiler, builder.getPool(), this.postProcessingCache);
+    subMonitor.split(5);
+    if ((Objects.equal(options.getOutput().getOutputMode(), OutputMode.COMPONENTS) && (!options.getExtraction().isModelPerComponent()))) {
+      subMonitor.subTask("Combining component models");
+      this.combineComponentModels(modelsMap);
+    }
+    final OutputMode outputMode = options.getOutput().getOutputMode();
+    if (outputMode != null) {
+      switch (outputMode) {
+        case COMPONENTS:
+          subMonitor.subTask("Saving CIF models");
+          this.saveCifModels(modelsMap, targetFolder, subMonitor.split(30));
+          break;
+        case PROTOCOL:
+          subMonitor.subTask("Inferring protocol");
+          final Specification protocolModel = InferProtocolModel.createProtocol(options.getOutput().getProtocolName1(), 
+            options.getOutput().getProtocolName2(), options.getOutput().getScope(), modelsMap, subMonitor.split(29));
+          modelsMap.clear();
+          modelsMap.put(CmiProtocolQueries.getProtocolName(protocolModel), protocolModel);
+          this.saveCifModels(modelsMap, targetFolder, subMonitor.split(1));
+          break;
+        default:
+          break;
+      }
+    }
+    boolean _isSaveYed_1 = options.getOutput().isSaveYed();
+    if (_isSaveYed_1) {
+      subMonitor.split(yEdWork);
+      ExtractionProfiler.Measurement _start = null;
+      if (this.profiler!=null) {
+        _start=this.profiler.start(ExtractionProfiler.YED_SAVE);
+      }
+      final ExtractionProfiler.Measurement measurement = _start;
+      final BiConsumer<String, Specification> _function = (String modelName, Specification spec) -> {
+        final Path outputFileAbsolutePath = targetFolder.resolve(Strings.fmt("%s.graphml", modelName));
+        CmiToYedTransformer.transform(spec, outputFileAbsolutePath);
+      };
+      modelsMap.forEach(_function);
+      if (measurement!=null) {
+        measurement.stop();
+      }
+    }
+  }
+  
+  /**
+   * Constructs, post-processes and saves the model of each component separately. Using the pool of
+   * {@code builder}, the components flow through these steps concurrently. Only the models of the components in
+   * flight are thus kept in memory, while model construction, post-processing and saving overlap. Requires a model
+   * per component and only {@link PostProcessing#isComponentLocal component local} post-processing operations, as
+   * validated for the pipeline option.
+   * 
+   * @param builder The builder of the models.
+   * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+   *      During post-processing, all paths are to be resolved against the parent folder of this file.
+   * @param options The configuration options.
+   * @param targetFolder The absolute path of the folder to which to save the models.
+   * @param monitor The progress monitor.
+   */
+  private void saveModelsPipelined(final ComponentModelBuilder builder, final Path relativeResolvePath, final ComponentExtractionOptions options, final Path targetFolder, final IProgressMonitor monitor) {
+    final List<String> componentLabels = IterableExtensions.<String>toList(builder.getComponentLabels());
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, componentLabels.size());
+    final ForkJoinPool pool = builder.getPool();
+    if ((pool == null)) {
+      for (final String componentLabel : componentLabels) {
+        this.saveComponentModel(builder, componentLabel, relativeResolvePath, options, targetFolder, 
+          subMonitor.split(1));
+      }
+      return;
+    }
+    final Function1<String, CompletableFuture<Void>> _function = (String componentLabel) -> {
+      final Runnable _function_1 = () -> {
+        NullProgressMonitor _nullProgressMonitor = new NullProgressMonitor();
+        this.saveComponentModel(builder, componentLabel, relativeResolvePath, options, targetFolder, _nullProgressMonitor);
+      };
+      return CompletableFuture.runAsync(_function_1, pool);
+    };
+    final List<CompletableFuture<Void>> futures = IterableExtensions.<CompletableFuture<Void>>toList(ListExtensions.<String, CompletableFuture<Void>>map(componentLabels, _function));
+    for (final CompletableFuture<Void> future : futures) {
+      {
+        subMonitor.split(1);
+        FuturesUtil.<Void>await(future);
+      }
+    }
+  }
+  
+  /**
+   * Constructs, post-processes and saves the model of a single component.
+   * 
+   * @param builder The builder of the models.
+   * @param componentLabel The name of the component.
+   * @param relativeResolvePath The absolute path of the input file. Either the TMSC or options file.
+   *      During post-processing, all paths are to be resolved against the parent folder of this file.
+   * @param options The configuration options.
+   * @param targetFolder The absolute path of the folder to which to save the model.
+   * @param monitor The progress monitor.
+   */
+  private void saveComponentModel(final ComponentModelBuilder builder, final String componentLabel, final Path relativeResolvePath, final ComponentExtractionOptions options, final Path targetFolder, final IProgressMonitor monitor) {
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, 3);
+    subMonitor.subTask(("Constructing CIF model of component " + componentLabel));
+    subMonitor.split(1);
+    final LinkedHashMap<String, Specification> modelsMap = new LinkedHashMap<String, Specification>();
+    modelsMap.put(componentLabel, builder.getCifModel(componentLabel, builder.getDFA(componentLabel)));
+    subMonitor.subTask(("Post-processing CIF model of component " + componentLabel));
+    final Map<String, Specification> processedModels = PostProcessing.postProcess(modelsMap, relativeResolvePath, 
+      options.getPostProcessing().getOperations(), subMonitor.split(1), this.profiler, null, this.postProcessingCache);
+    subMonitor.subTask(("Saving CIF model of component " + componentLabel));
+    this.saveCifModels(processedModels, targetFolder, subMonitor.split(1));
+    boolean _isSaveYed = options.getOutput().isSaveYed();
+    if (_isSaveYed) {
+      ExtractionProfiler.Measurement _start = null;
+      if (this.profiler!=null) {
+        _start=this.profiler.start(ExtractionProfiler.YED_SAVE);
+      }
+      final ExtractionProfiler.Measurement measurement = _start;
+      final BiConsumer<String, Specification> _function = (String modelName, Specification spec) -> {
+        CmiToYedTransformer.transform(spec, targetFolder.resolve(Strings.fmt("%s.graphml", modelName)));
+      };
+      processedModels.forEach(_function);
+      if (measurement!=null) {
+        measurement.stop();
+      }
+    }
+  }
+  
+  /**
+   * Creates a builder for component models, configured according to the given options.
+   * 
+   * @param options The configuration options.
+   * @param pool The pool on which the builder constructs models in parallel, or {@code null} to construct them
+   *      sequentially.
+   * @return The builder.
+   */
+  private ComponentModelBuilder createBuilder(final ComponentExtractionOptions options, final ForkJoinPool pool) {
+    boolean _isSynchronizeDependentTransitions = options.getExtraction().isSynchronizeDependentTransitions();
+    final ComponentModelBuilder builder = new ComponentModelBuilder(_isSynchronizeDependentTransitions);
+    builder.setComponentFilters(options.getPostProcessing().getComponentsInclusionRegEx(), 
+      options.getPostProcessing().getComponentsExclusionRegEx());
+    builder.setPool(pool);
+    builder.setMinimizeOnline(options.getExtraction().isMinimizeOnline());
+    builder.setWindowDuration(TimeUnit.SECONDS.toNanos(options.getExtraction().getTimeWindow()));
+    builder.setProfiler(this.profiler);
+    return builder;
+  }
+  
+  /**
+   * Inserts the call stacks of multiple TMSCs into {@code builder}, such that models are learned from all TMSCs
+   * together. Sequentially, the TMSCs are loaded one at a time, and each TMSC is released once its call stacks are
+   * inserted. Using the {@code pool}, the TMSCs are instead loaded and inserted concurrently, each into a separate
+   * builder (map), after which these builders are merged into {@code builder} in the order of {@code tmscPaths}
+   * (reduce). Each worker thus holds only a single TMSC in memory, while the resulting models are identical to
+   * sequential insertion.
+   * 
+   * @param tmscPaths The absolute paths of the TMSCs.
+   * @param options The configuration options.
+   * @param builder The builder into which to insert the call stacks.
+   * @param warnings The warnings produced during the operation.
+   * @param pool The pool on which to load and insert TMSCs in parallel, or {@code null} to do so sequentially.
+   * @param monitor The progress monitor.
+   * @return The combined metrics of all TMSCs.
+   */
+  private TmscMetrics insertAll(final List<Path> tmscPaths, final ComponentExtractionOptions options, final ComponentModelBuilder builder, final List<String> warnings, final ForkJoinPool pool, final IProgressMonitor monitor) {
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, tmscPaths.size());
+    final TmscMetrics tmscMetrics = new TmscMetrics();
+    tmscMetrics.duration = Duration.ZERO;
+    if ((pool == null)) {
+      for (final Path tmscPath : tmscPaths) {
+        {
+          subMonitor.split(1);
+          String _tmscName = this.getTmscName(tmscPath);
+          String _plus = ("Extracting models from TMSC " + _tmscName);
+          subMonitor.subTask(_plus);
+          this.addTmscMetrics(tmscMetrics, this.insertTmsc(tmscPath, options, builder, warnings));
+        }
+      }
+      return tmscMetrics;
+    }
+    final Function1<Path, ComponentModelBuilder> _function = (Path it) -> {
+      ComponentModelBuilder _createBuilder = this.createBuilder(options, null);
+      final Procedure1<ComponentModelBuilder> _function_1 = (ComponentModelBuilder it_1) -> {
+        it_1.setRecordWords(true);
+      };
+      return ObjectExtensions.<ComponentModelBuilder>operator_doubleArrow(_createBuilder, _function_1);
+    };
+    final List<ComponentModelBuilder> partialBuilders = IterableExtensions.<ComponentModelBuilder>toList(ListExtensions.<Path, ComponentModelBuilder>map(tmscPaths, _function));
+    final Function1<Path, ArrayList<String>> _function_2 = (Path it) -> {
+      return new ArrayList<String>();
+    };
+    final List<ArrayList<String>> partialWarnings = IterableExtensions.<ArrayList<String>>toList(ListExtensions.<Path, ArrayList<String>>map(tmscPaths, _function_2));
+    int _size = tmscPaths.size();
+    final Function1<Integer, CompletableFuture<TmscMetrics>> _function_3 = (Integer i) -> {
+      final Supplier<TmscMetrics> _function_4 = () -> {
+        return this.insertTmsc(tmscPaths.get((i).intValue()), options, partialBuilders.get((i).intValue()), partialWarnings.get((i).intValue()));
+      };
+      return CompletableFuture.<TmscMetrics>supplyAsync(_function_4, pool);
+    };
+    final List<CompletableFuture<TmscMetrics>> partialMetrics = IterableExtensions.<CompletableFuture<TmscMetrics>>toList(IterableExtensions.<Integer, CompletableFuture<TmscMetrics>>map(new ExclusiveRange(0, _size, true), _function_3));
+    int _size_1 = tmscPaths.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size_1, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        subMonitor.split(1);
+        String _tmscName = this.getTmscName(tmscPaths.get((i).intValue()));
+        String _plus = ("Extracting models from TMSC " + _tmscName);
+        subMonitor.subTask(_plus);
+        this.addTmscMetrics(tmscMetrics, FuturesUtil.<TmscMetrics>await(partialMetrics.get((i).intValue())));
+        builder.insert(partialBuilders.get((i).intValue()));
+        partialBuilders.set((i).intValue(), null);
+        ArrayList<String> _get = partialWarnings.get((i).intValue());
+        Iterables.<String>addAll(warnings, _get);
+      }
+    }
+    return tmscMetrics;
+  }
+  
+  /**
+   * Loads and prepares a TMSC, inserts its call stacks into {@code builder}, and releases it.
+   * 
+   * @param tmscPath The absolute path of the TMSC.
+   * @param options The configuration options.
+   * @param builder The builder into which to insert the call stacks.
+   * @param warnings The warnings produced during the operation.
+   * @return The metrics of the TMSC.
+   */
+  private TmscMetrics insertTmsc(final Path tmscPath, final ComponentExtractionOptions options, final ComponentModelBuilder builder, final List<String> warnings) {
+    try {
+      final TMSC tmsc = this.loadAndPrepareTMSC(tmscPath, options, warnings);
+      final TmscMetrics tmscMetrics = builder.insert(tmsc);
+      TmscFileHelper.unloadTMSC(tmsc);
+      return tmscMetrics;
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Loads and prepares a TMSC, profiling both phases.
+   * 
+   * @param tmscPath The absolute path of the TMSC.
+   * @param options The configuration options.
+   * @param warnings The warnings produced during the operation.
+   * @return The loaded and prepared TMSC.
+   */
+  private TMSC loadAndPrepareTMSC(final Path tmscPath, final ComponentExtractionOptions options, final List<String> warnings) {
+    try {
+      ExtractionProfiler.Measurement _start = null;
+      if (this.profiler!=null) {
+        _start=this.profiler.start(ExtractionProfiler.LOAD);
+      }
+      final ExtractionProfiler.Measurement loadMeasurement = _start;
+      final FullScopeTMSC fullTmsc = TmscFileHelper.loadTMSC(tmscPath);
+      if (loadMeasurement!=null) {
+        loadMeasurement.stop();
+      }
+      ExtractionProfiler.Measurement _start_1 = null;
+      if (this.profiler!=null) {
+        _start_1=this.profiler.start(ExtractionProfiler.PREPARE);
+      }
+      final ExtractionProfiler.Measurement prepareMeasurement = _start_1;
+      final ScopedTMSC tmsc = TmscFileHelper.prepareTMSC(fullTmsc, tmscPath, warnings, options.getPreProcessing().isVirtualScope());
+      if (prepareMeasurement!=null) {
+        prepareMeasurement.stop();
+      }
+      return tmsc;
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Reads the words from a word cache, profiling it as loading.
+   * 
+   * @param wordCachePath The path of the word cache.
+   * @param wordCacheKey The expected key of the word cache.
+   * @param builder The builder into which to insert the words.
+   * @param tmscMetrics The metrics to fill with the metrics of the TMSC from which the words are constructed.
+   * @param warnings The warnings to which to add the warnings produced while preparing the TMSC.
+   * @return {@code true} if the words have been read from the cache, {@code false} otherwise.
+   */
+  private boolean readWordCache(final Path wordCachePath, final String wordCacheKey, final ComponentModelBuilder builder, final TmscMetrics tmscMetrics, final List<String> warnings) {
+    try {
+      ExtractionProfiler.Measurement _start = null;
+      if (this.profiler!=null) {
+        _start=this.profiler.start(ExtractionProfiler.LOAD);
+      }
+      final ExtractionProfiler.Measurement measurement = _start;
+      final boolean read = ComponentWordCache.read(wordCachePath, wordCacheKey, builder, tmscMetrics, warnings);
+      if (measurement!=null) {
+        measurement.stop();
+      }
+      return read;
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private void addTmscMetrics(final TmscMetrics tmscMetrics, final TmscMetrics addedMetrics) {
+    tmscMetrics.duration = tmscMetrics.duration.plus(addedMetrics.duration);
+    long _eventCount = tmscMetrics.eventCount;
+    tmscMetrics.eventCount = (_eventCount + addedMetrics.eventCount);
+  }
+  
+  /**
+   * Determines the TMSCs in an input folder.
+   * 
+   * @param folderPath The absolute path of the input folder.
+   * @return The absolute paths of the TMSC files in the input folder, ordered by name.
+   */
+  private List<Path> getTmscPaths(final Path folderPath) {
+    try (final Stream<Path> paths = new Function0<Stream<Path>>() {
+      @Override
+      public Stream<Path> apply() {
+        try {
+          return Files.list(folderPath);
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      }
+    }.apply()) {
+      final Predicate<Path> _function = (Path it) -> {
+        return (Files.isRegularFile(it) && (it.getFileName().toString().endsWith(".tmscz") || it.getFileName().toString().endsWith(".tmsc")));
+      };
+      final List<Path> tmscPaths = paths.filter(_function).sorted().collect(Collectors.<Path>toList());
+      boolean _isEmpty = tmscPaths.isEmpty();
+      if (_isEmpty) {
+        throw new RuntimeException(("Input folder does not contain any TMSC files: " + folderPath));
+      }
+      return tmscPaths;
+    }
+  }
+  
   protected void saveReport(final ComponentExtractionOptions options, final TmscMetrics tmscMetrics, final List<String> warnings, final long runtimeMs) {
     final Path targetFolder = this.createOutputFolder(options);
     final Path targetFile = targetFolder.resolve("component-extraction-report.txt");
@@ -167,7 +639,17 @@ public class ComponentExtraction {
       writer.format(Locale.US, "TMSC duration: %s\n", 
         tmscMetrics.duration.toString().substring(2).replaceAll("(\\d[HMS])(?!$)", "$1 ").toLowerCase());
       writer.format(Locale.US, "TMSC events:   %,d\n", Long.valueOf(tmscMetrics.eventCount));
+      writer.format(Locale.US, "Call stacks:   %,d (%,d distinct)\n", Long.valueOf(tmscMetrics.callStackCount), 
+        Long.valueOf(tmscMetrics.distinctCallStackCount));
       writer.format(Locale.US, "Running time:  %s\n", DateTimeUtils.durationToString(runtimeMs, true));
+      if ((this.postProcessingCache != null)) {
+        writer.format(Locale.US, "Post-processing cache: %,d reused, %,d computed\n", Long.valueOf(this.postProcessingCache.getHits()), 
+          Long.valueOf(this.postProcessingCache.getMisses()));
+      }
+      if ((this.profiler != null)) {
+        this.profiler.writeText(writer);
+        this.profiler.writeJson(targetFolder.resolve(ExtractionProfiler.FILE_NAME), tmscMetrics, runtimeMs);
+      }
       boolean _isEmpty = warnings.isEmpty();
       boolean _not = (!_isEmpty);
       if (_not) {
@@ -216,27 +698,6 @@ public class ComponentExtraction {
     }
   }
   
-  private void preProcess(final TMSC tmsc, final String tmscName, final ComponentExtractionOptions options, final IProgressMonitor monitor) {
-    try {
-      final SubMonitor subMonitor = SubMonitor.convert(monitor, 3);
-      subMonitor.subTask(("Excluding components: " + tmscName));
-      subMonitor.split(1);
-      final int noEvts = tmsc.getEvents().size();
-      subMonitor.split(1);
-      subMonitor.split(1);
-      int _size = tmsc.getEvents().size();
-      boolean _notEquals = (_size != noEvts);
-      if (_notEquals) {
-        subMonitor.subTask(("Saving pre-processed TMSC: " + tmscName));
-        final Path targetFolder = this.createOutputFolder(options);
-        final Path targetFile = targetFolder.resolve((tmscName + "-preprocessed.tmscz"));
-        TmscFileHelper.saveTMSC(tmsc, targetFile);
-      }
-    } catch (Throwable _e) {
-      throw Exceptions.sneakyThrow(_e);
-    }
-  }
-  
   private Specification combineComponentModels(final Map<String, Specification> modelsMap) {
     Specification _xblockexpression = null;
     {
@@ -247,9 +708,13 @@ public class ComponentExtraction {
     return _xblockexpression;
   }
   
-  private void saveCifModels(final Map<String, Specification> namedSpecs, final ComponentExtractionOptions options, final IProgressMonitor monitor) {
+  private void saveCifModels(final Map<String, Specification> namedSpecs, final Path targetFolder, final IProgressMonitor monitor) {
     final SubMonitor subMonitor = SubMonitor.convert(monitor, namedSpecs.size());
-    final Path targetFolder = this.createOutputFolder(options);
+    ExtractionProfiler.Measurement _start = null;
+    if (this.profiler!=null) {
+      _start=this.profiler.start(ExtractionProfiler.CIF_SAVE);
+    }
+    final ExtractionProfiler.Measurement measurement = _start;
     final BiConsumer<String, Specification> _function = (String name, Specification cif) -> {
       try {
         subMonitor.split(1);
@@ -261,6 +726,39 @@ public class ComponentExtraction {
       }
     };
     namedSpecs.forEach(_function);
+    if (measurement!=null) {
+      measurement.stop();
+    }
+  }
+  
+  /**
+   * Computes the key of the word cache, which identifies the TMSC as well as all options that affect the words
+   * constructed from it. The component filters are not part of the key, as they only determine the components for
+   * which words are constructed, which the word cache {@link ComponentWordCache accounts for} when it is read.
+   * 
+   * @param tmscPath The absolute path of the TMSC.
+   * @param options The configuration options.
+   * @return The key of the word cache.
+   */
+  private String getWordCacheKey(final Path tmscPath, final ComponentExtractionOptions options) {
+    try {
+      return ComponentWordCache.computeKey(tmscPath, Boolean.valueOf(options.getPreProcessing().isUntracedHandleSynchronously()), 
+        Boolean.valueOf(options.getExtraction().isSynchronizeDependentTransitions()));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Computes the key of the checkpoint, which identifies all options that affect the words constructed from TMSCs.
+   * As for the word cache, the component filters are not part of the key.
+   * 
+   * @param options The configuration options.
+   * @return The key of the checkpoint.
+   */
+  private String getCheckpointKey(final ComponentExtractionOptions options) {
+    return ComponentWordCache.computeOptionsKey(Boolean.valueOf(options.getPreProcessing().isUntracedHandleSynchronously()), 
+      Boolean.valueOf(options.getExtraction().isSynchronizeDependentTransitions()));
   }
   
   private String getTmscName(final Path tmscPath) {
@@ -271,25 +769,4 @@ public class ComponentExtraction {
     }
     return tmscName;
   }
-  
-  private TmscMetrics getTmscMetrics(final TMSC tmsc) {
-    final TmscMetrics tmscMetrics = new TmscMetrics();
-    Long firstTimestamp = null;
-    Long lastTimestamp = null;
-    Collection<Event> _events = tmsc.getEvents();
-    for (final Event event : _events) {
-      {
-        tmscMetrics.eventCount++;
-        if ((firstTimestamp == null)) {
-          firstTimestamp = event.getTimestamp();
-          lastTimestamp = event.getTimestamp();
-        } else {
-          firstTimestamp = Long.valueOf(Long.min((firstTimestamp).longValue(), (event.getTimestamp()).longValue()));
-          lastTimestamp = Long.valueOf(Long.max((lastTimestamp).longValue(), (event.getTimestamp()).longValue()));
-        }
-      }
-    }
-    tmscMetrics.duration = Duration.ofNanos(((lastTimestamp).longValue() - (firstTimestamp).longValue()));
-    return tmscMetrics;
-  }
 }
@@ -14,6 +14,7 @@ import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import nl.tno.mids.cmi.postprocessing.PostProcessing;
 import nl.tno.mids.cmi.postprocessing.PostProcessingFilterMode;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationOptions;
@@ -40,7 +41,8 @@ public class ComponentExtractionOptions implements Cloneable {
   @Accessors
   public static class ComponentExtractionInputOptions implements Cloneable {
     /**
-     * Absolute path to input TMSC from which to extract models.
+     * Absolute path to input TMSC from which to extract models, or to input folder with TMSCs from which to extract
+     * models together.
      */
     private Path path;
     
@@ -172,6 +174,11 @@ public class ComponentExtractionOptions implements Cloneable {
      */
     private boolean untracedHandleSynchronously = true;
     
+    /**
+     * Whether to scope the TMSC virtually, without adding dependencies to it.
+     */
+    private boolean virtualScope = false;
+    
     @Override
     public Object clone() {
       try {
@@ -189,6 +196,15 @@ public class ComponentExtractionOptions implements Cloneable {
     public void setUntracedHandleSynchronously(final boolean untracedHandleSynchronously) {
       this.untracedHandleSynchronously = untracedHandleSynchronously;
     }
+    
+    @Pure
+    public boolean isVirtualScope() {
+      return this.virtualScope;
+    }
+    
+    public void setVirtualScope(final boolean virtualScope) {
+      this.virtualScope = virtualScope;
+    }
   }
   
   @Accessors
@@ -208,6 +224,24 @@ public class ComponentExtractionOptions implements Cloneable {
      */
     private List<PostProcessingOperationOptions> operations = CollectionLiterals.<PostProcessingOperationOptions>newArrayList();
     
+    /**
+     * Reuse the results of post-processing operations cached in the output folder by previous extractions, and cache
+     * the results for later extractions ({@code true}), or always perform post-processing operations
+     * ({@code false}).
+     */
+    private boolean cache = false;
+    
+    /**
+     * Remove the results of post-processing operations cached in the output folder before extraction.
+     */
+    private boolean clearCache = false;
+    
+    /**
+     * Maximum total size of the results of post-processing operations cached in the output folder, in megabytes.
+     * The least recently used results are removed once it is exceeded.
+     */
+    private int cacheSize = 1024;
+    
     @Override
     public Object clone() {
       try {
@@ -251,6 +285,33 @@ public class ComponentExtractionOptions implements Cloneable {
     public void setOperations(final List<PostProcessingOperationOptions> operations) {
       this.operations = operations;
     }
+    
+    @Pure
+    public boolean isCache() {
+      return this.cache;
+    }
+    
+    public void setCache(final boolean cache) {
+      this.cache = cache;
+    }
+    
+    @Pure
+    public boolean isClearCache() {
+      return this.clearCache;
+    }
+    
+    public void setClearCache(final boolean clearCache) {
+      this.clearCache = clearCache;
+    }
+    
+    @Pure
+    public int getCacheSize() {
+      return this.cacheSize;
+    }
+    
+    public void setCacheSize(final int cacheSize) {
+      this.cacheSize = cacheSize;
+    }
   }
   
   @Accessors
@@ -266,6 +327,46 @@ public class ComponentExtractionOptions implements Cloneable {
      */
     private boolean modelPerComponent = true;
     
+    /**
+     * Number of threads to use for model extraction, or {@code 1} to extract models sequentially.
+     */
+    private int threads = 1;
+    
+    /**
+     * Keep models minimal during extraction ({@code true}) or minimize them after extraction ({@code false}).
+     */
+    private boolean minimizeOnline = false;
+    
+    /**
+     * Post-process and save the model of each component as soon as it is constructed ({@code true}), or
+     * post-process and save the models once all of them are constructed ({@code false}).
+     */
+    private boolean pipeline = false;
+    
+    /**
+     * Reuse the words cached in the output folder by a previous extraction from the same input, and cache the words
+     * for later extractions ({@code true}), or always construct words from the input ({@code false}).
+     */
+    private boolean wordCache = false;
+    
+    /**
+     * Absolute path to the checkpoint file from which to resume model extraction, and to which to save the
+     * checkpoint after model extraction, or {@code null} to not use a checkpoint.
+     */
+    private Path checkpointPath;
+    
+    /**
+     * Duration in seconds of the consecutive time windows for which to extract separate models, or {@code 0} to
+     * extract models for the entire input.
+     */
+    private int timeWindow = 0;
+    
+    /**
+     * Profile the phases of model extraction, and add the results to the report ({@code true}), or don't profile
+     * model extraction ({@code false}).
+     */
+    private boolean profile = false;
+    
     @Override
     public Object clone() {
       try {
@@ -292,6 +393,69 @@ public class ComponentExtractionOptions implements Cloneable {
     public void setModelPerComponent(final boolean modelPerComponent) {
       this.modelPerComponent = modelPerComponent;
     }
+    
+    @Pure
+    public int getThreads() {
+      return this.threads;
+    }
+    
+    public void setThreads(final int threads) {
+      this.threads = threads;
+    }
+    
+    @Pure
+    public boolean isMinimizeOnline() {
+      return this.minimizeOnline;
+    }
+    
+    public void setMinimizeOnline(final boolean minimizeOnline) {
+      this.minimizeOnline = minimizeOnline;
+    }
+    
+    @Pure
+    public boolean isPipeline() {
+      return this.pipeline;
+    }
+    
+    public void setPipeline(final boolean pipeline) {
+      this.pipeline = pipeline;
+    }
+    
+    @Pure
+    public boolean isWordCache() {
+      return this.wordCache;
+    }
+    
+    public void setWordCache(final boolean wordCache) {
+      this.wordCache = wordCache;
+    }
+    
+    @Pure
+    public Path getCheckpointPath() {
+      return this.checkpointPath;
+    }
+    
+    public void setCheckpointPath(final Path checkpointPath) {
+      this.checkpointPath = checkpointPath;
+    }
+    
+    @Pure
+    public int getTimeWindow() {
+      return this.timeWindow;
+    }
+    
+    public void setTimeWindow(final int timeWindow) {
+      this.timeWindow = timeWindow;
+    }
+    
+    @Pure
+    public boolean isProfile() {
+      return this.profile;
+    }
+    
+    public void setProfile(final boolean profile) {
+      this.profile = profile;
+    }
   }
   
   private static final String FILE_NAME = "component-extraction-options.txt";
@@ -396,12 +560,39 @@ public class ComponentExtractionOptions implements Cloneable {
         if ((!this.preProcessing.untracedHandleSynchronously)) {
           lines.add("-no-untraced-synchronous");
         }
+        if (this.preProcessing.virtualScope) {
+          lines.add("-virtual-scope");
+        }
         if ((!this.extraction.modelPerComponent)) {
           lines.add("-single-model");
         }
         if ((!this.extraction.synchronizeDependentTransitions)) {
           lines.add("-no-sync-dependent");
         }
+        if ((this.extraction.threads != 1)) {
+          lines.add("-threads");
+          lines.add(String.valueOf(this.extraction.threads));
+        }
+        if (this.extraction.minimizeOnline) {
+          lines.add("-minimize-online");
+        }
+        if (this.extraction.pipeline) {
+          lines.add("-pipeline");
+        }
+        if (this.extraction.wordCache) {
+          lines.add("-word-cache");
+        }
+        if ((this.extraction.checkpointPath != null)) {
+          lines.add("-checkpoint");
+          lines.add(FilenameUtils.separatorsToUnix(this.extraction.checkpointPath.toString()));
+        }
+        if ((this.extraction.timeWindow != 0)) {
+          lines.add("-time-window");
+          lines.add(String.valueOf(this.extraction.timeWindow));
+        }
+        if (this.extraction.profile) {
+          lines.add("-profile");
+        }
         boolean _isEmpty_1 = this.postProcessing.componentsExclusionRegEx.isEmpty();
         boolean _not_1 = (!_isEmpty_1);
         if (_not_1) {
@@ -414,6 +605,16 @@ public class ComponentExtractionOptions implements Cloneable {
           lines.add("-component-inclusion");
           lines.add(this.postProcessing.componentsInclusionRegEx);
         }
+        if (this.postProcessing.cache) {
+          lines.add("-post-processing-cache");
+        }
+        if (this.postProcessing.clearCache) {
+          lines.add("-clear-post-processing-cache");
+        }
+        if ((this.postProcessing.cacheSize != 1024)) {
+          lines.add("-post-processing-cache-size");
+          lines.add(String.valueOf(this.postProcessing.cacheSize));
+        }
         for (final PostProcessingOperationOptions operationOptions : this.postProcessing.operations) {
           {
             final PostProcessingOperationProvider<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions> provider = operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider();
@@ -475,17 +676,43 @@ public class ComponentExtractionOptions implements Cloneable {
     boolean _exists = Files.exists(inputPath);
     boolean _not = (!_exists);
     if (_not) {
-      throw new RuntimeException("Input path must refer to an existing file.");
+      throw new RuntimeException("Input path must refer to an existing file or folder.");
     }
-    boolean _isRegularFile = Files.isRegularFile(inputPath);
-    boolean _not_1 = (!_isRegularFile);
-    if (_not_1) {
-      throw new RuntimeException("Input path must refer to an input file, not a folder.");
+    if (((!Files.isRegularFile(inputPath)) && (!Files.isDirectory(inputPath)))) {
+      throw new RuntimeException("Input path must refer to an input file or folder.");
     }
     final Path outputPath = extractionOptions.output.path;
     if ((Files.exists(outputPath) && (!Files.isDirectory(outputPath)))) {
       throw new RuntimeException("Output path may not refer to an existing file.");
     }
+    if ((extractionOptions.extraction.threads < 1)) {
+      throw new RuntimeException("Number of threads must be at least one.");
+    }
+    final Path checkpointPath = extractionOptions.extraction.checkpointPath;
+    if (((checkpointPath != null) && Files.isDirectory(checkpointPath))) {
+      throw new RuntimeException("Checkpoint path may not refer to an existing folder.");
+    }
+    if ((extractionOptions.extraction.timeWindow < 0)) {
+      throw new RuntimeException("Time window duration may not be negative.");
+    }
+    if (((extractionOptions.extraction.timeWindow > 0) && (checkpointPath != null))) {
+      throw new RuntimeException("Time windows can not be combined with a checkpoint.");
+    }
+    if ((extractionOptions.postProcessing.cacheSize < 1)) {
+      throw new RuntimeException("Post-processing cache size must be at least one megabyte.");
+    }
+    if (extractionOptions.extraction.pipeline) {
+      if (((!Objects.equal(extractionOptions.output.outputMode, OutputMode.COMPONENTS)) || 
+        (!extractionOptions.extraction.modelPerComponent))) {
+        throw new RuntimeException("Pipeline requires saving a model per component.");
+      }
+      boolean _isComponentLocal = PostProcessing.isComponentLocal(extractionOptions.postProcessing.operations);
+      boolean _not_1 = (!_isComponentLocal);
+      if (_not_1) {
+        throw new RuntimeException(
+          "Pipeline requires post-processing operations that apply to each component on its own.");
+      }
+    }
   }
   
   /**
@@ -524,15 +751,70 @@ public class ComponentExtractionOptions implements Cloneable {
       }
       extractionOptions.output.saveYed = (extractionOptions.output.saveYed || line.hasOption("yed"));
       extractionOptions.preProcessing.untracedHandleSynchronously = (extractionOptions.preProcessing.untracedHandleSynchronously && (!line.hasOption("no-untraced-synchronous")));
+      extractionOptions.preProcessing.virtualScope = (extractionOptions.preProcessing.virtualScope || 
+        line.hasOption("virtual-scope"));
       extractionOptions.extraction.synchronizeDependentTransitions = (extractionOptions.extraction.synchronizeDependentTransitions && (!line.hasOption("no-sync-dependent")));
       extractionOptions.extraction.modelPerComponent = (extractionOptions.extraction.modelPerComponent && 
         (!line.hasOption("single-model")));
+      boolean _hasOption_5 = line.hasOption("threads");
+      if (_hasOption_5) {
+        final String threads = line.getOptionValue("threads");
+        try {
+          extractionOptions.extraction.threads = Integer.parseInt(threads);
+        } catch (final Throwable _t) {
+          if (_t instanceof NumberFormatException) {
+            throw new ParseException(("Number of threads is not a valid number: " + threads));
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      }
+      extractionOptions.extraction.minimizeOnline = (extractionOptions.extraction.minimizeOnline || 
+        line.hasOption("minimize-online"));
+      extractionOptions.extraction.pipeline = (extractionOptions.extraction.pipeline || line.hasOption("pipeline"));
+      extractionOptions.extraction.wordCache = (extractionOptions.extraction.wordCache || line.hasOption("word-cache"));
+      boolean _hasOption_6 = line.hasOption("checkpoint");
+      if (_hasOption_6) {
+        extractionOptions.extraction.checkpointPath = Paths.get(line.getOptionValue("checkpoint")).toAbsolutePath().
+          normalize();
+      }
+      boolean _hasOption_7 = line.hasOption("time-window");
+      if (_hasOption_7) {
+        final String timeWindow = line.getOptionValue("time-window");
+        try {
+          extractionOptions.extraction.timeWindow = Integer.parseInt(timeWindow);
+        } catch (final Throwable _t) {
+          if (_t instanceof NumberFormatException) {
+            throw new ParseException(("Time window duration is not a valid number: " + timeWindow));
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      }
+      extractionOptions.extraction.profile = (extractionOptions.extraction.profile || line.hasOption("profile"));
       extractionOptions.postProcessing.componentsInclusionRegEx = line.getOptionValue("component-inclusion", 
         extractionOptions.postProcessing.componentsInclusionRegEx);
       extractionOptions.postProcessing.componentsExclusionRegEx = line.getOptionValue("component-exclusion", 
         extractionOptions.postProcessing.componentsExclusionRegEx);
-      boolean _hasOption_5 = line.hasOption("post-processing");
-      if (_hasOption_5) {
+      extractionOptions.postProcessing.cache = (extractionOptions.postProcessing.cache || 
+        line.hasOption("post-processing-cache"));
+      extractionOptions.postProcessing.clearCache = (extractionOptions.postProcessing.clearCache || 
+        line.hasOption("clear-post-processing-cache"));
+      boolean _hasOption_8 = line.hasOption("post-processing-cache-size");
+      if (_hasOption_8) {
+        final String cacheSize = line.getOptionValue("post-processing-cache-size");
+        try {
+          extractionOptions.postProcessing.cacheSize = Integer.parseInt(cacheSize);
+        } catch (final Throwable _t) {
+          if (_t instanceof NumberFormatException) {
+            throw new ParseException(("Post-processing cache size is not a valid number: " + cacheSize));
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      }
+      boolean _hasOption_9 = line.hasOption("post-processing");
+      if (_hasOption_9) {
         final Pattern postProcessingPattern = Pattern.compile(
           "(\\<(?<filtermode>\\w*),(?<filterpattern>[^\\>]*)\\>)?(?<name>\\w*)(\\((?<args>.*)\\))?");
         final List<String> postProcessings = Arrays.<String>asList(line.getOptionValues("post-processing"));
@@ -581,7 +863,7 @@ public class ComponentExtractionOptions implements Cloneable {
     final Options options = new Options();
     final Option helpOption = Option.builder("h").longOpt("help").desc("Print help information").build();
     options.addOption(helpOption);
-    final Option inputTMSCOption = Option.builder("i").longOpt("input").argName("path").hasArg().desc("Input TMSC file").build();
+    final Option inputTMSCOption = Option.builder("i").longOpt("input").argName("path").hasArg().desc("Input TMSC file or folder").build();
     options.addOption(inputTMSCOption);
     final Option outputOption = Option.builder("o").longOpt("output").argName("path").hasArg().desc(
       "Output folder path").build();
@@ -597,6 +879,9 @@ public class ComponentExtractionOptions implements Cloneable {
     final Option noUntracedHandledSynchronouslyOption = Option.builder("u").longOpt("no-untraced-synchronous").desc(
       "Do not convert events on untraced components to synchronous functions").build();
     options.addOption(noUntracedHandledSynchronouslyOption);
+    final Option virtualScopeOption = Option.builder("vs").longOpt("virtual-scope").desc(
+      "Scope the TMSC without adding dependencies to it").build();
+    options.addOption(virtualScopeOption);
     final Option noSynchronizeDependentOption = Option.builder("d").longOpt("no-sync-dependent").desc(
       "Do not synchronize dependent transitions").build();
     options.addOption(noSynchronizeDependentOption);
@@ -609,6 +894,34 @@ public class ComponentExtractionOptions implements Cloneable {
     options.addOption(postProcessingOption);
     final Option singleModelOption = Option.builder("s").longOpt("single-model").desc("Save single model").build();
     options.addOption(singleModelOption);
+    final Option threadsOption = Option.builder("t").longOpt("threads").argName("count").hasArg().desc(
+      "Number of threads to use").build();
+    options.addOption(threadsOption);
+    final Option minimizeOnlineOption = Option.builder("m").longOpt("minimize-online").desc(
+      "Keep models minimal during extraction").build();
+    options.addOption(minimizeOnlineOption);
+    final Option pipelineOption = Option.builder("pl").longOpt("pipeline").desc(
+      "Post-process and save each component model as soon as it is constructed").build();
+    options.addOption(pipelineOption);
+    final Option wordCacheOption = Option.builder("w").longOpt("word-cache").desc("Cache words for later extractions").build();
+    options.addOption(wordCacheOption);
+    final Option checkpointOption = Option.builder("k").longOpt("checkpoint").argName("path").hasArg().desc(
+      "Checkpoint file to resume extraction from and to update").build();
+    options.addOption(checkpointOption);
+    final Option timeWindowOption = Option.builder("tw").longOpt("time-window").argName("seconds").hasArg().desc(
+      "Extract separate models per time window of the given duration").build();
+    options.addOption(timeWindowOption);
+    final Option profileOption = Option.builder("pr").longOpt("profile").desc("Profile the phases of model extraction").build();
+    options.addOption(profileOption);
+    final Option postProcessingCacheOption = Option.builder("pc").longOpt("post-processing-cache").desc(
+      "Cache post-processing results for later extractions").build();
+    options.addOption(postProcessingCacheOption);
+    final Option clearPostProcessingCacheOption = Option.builder("pcc").longOpt("clear-post-processing-cache").desc(
+      "Clear cached post-processing results").build();
+    options.addOption(clearPostProcessingCacheOption);
+    final Option postProcessingCacheSizeOption = Option.builder("pcs").longOpt("post-processing-cache-size").argName(
+      "megabytes").hasArg().desc("Maximum size of cached post-processing results").build();
+    options.addOption(postProcessingCacheSizeOption);
     return options;
   }
   
@@ -1,98 +1,640 @@
 package nl.tno.mids.cmi;
 
 import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import net.automatalib.automata.ShrinkableAutomaton;
 import net.automatalib.automata.concepts.InputAlphabetHolder;
 import net.automatalib.automata.fsa.DFA;
 import net.automatalib.automata.fsa.impl.FastDFA;
 import net.automatalib.automata.fsa.impl.FastDFAState;
+import net.automatalib.words.Alphabet;
 import net.automatalib.words.Word;
 import net.automatalib.words.WordBuilder;
 import nl.esi.pps.architecture.instantiated.Executor;
 import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.Execution;
 import nl.esi.pps.tmsc.ExitEvent;
 import nl.esi.pps.tmsc.Lifeline;
+import nl.esi.pps.tmsc.ScopedTMSC;
 import nl.esi.pps.tmsc.TMSC;
 import nl.esi.pps.tmsc.compare.ArchitectureLifecycleStage;
 import nl.esi.pps.tmsc.text.ETimestampFormat;
 import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif;
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
-import nl.tno.mids.automatalib.extensions.util.IncrementalMutableDFATreeBuilder;
+import nl.tno.mids.automatalib.extensions.util.CopyableIncrementalDFABuilder;
+import nl.tno.mids.automatalib.extensions.util.IncrementalCompactDFATreeBuilder;
+import nl.tno.mids.automatalib.extensions.util.IncrementalMinimalDFABuilder;
+import nl.tno.mids.automatalib.extensions.util.IntegerWordSet;
+import nl.tno.mids.cmi.utils.CifEventNameKey;
+import nl.tno.mids.cmi.utils.CifEventSymbolTable;
 import nl.tno.mids.cmi.utils.CifNamesUtil;
-import nl.tno.mids.pps.extensions.queries.TmscEventQueries;
+import nl.tno.mids.cmi.utils.ExtractionProfiler;
+import nl.tno.mids.cmi.utils.FuturesUtil;
+import nl.tno.mids.cmi.utils.TmscMetrics;
+import nl.tno.mids.pps.extensions.queries.TmscDependencyIndex;
 import nl.tno.mids.pps.extensions.queries.TmscExecutionQueries;
 import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries;
+import nl.tno.mids.pps.extensions.queries.TmscScopeIndex;
+import nl.tno.mids.pps.extensions.queries.TmscVirtualScope;
+import org.eclipse.emf.common.util.EList;
 import org.eclipse.escet.cif.metamodel.cif.Specification;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 @SuppressWarnings("all")
 public class ComponentModelBuilder {
-  private final LinkedHashMap<String, IncrementalMutableDFATreeBuilder<String>> componentAutomata;
+  private final LinkedHashMap<String, CopyableIncrementalDFABuilder<Integer>> componentAutomata;
   
   @Accessors
   private boolean synchronous;
   
+  /**
+   * The distinct words inserted per component, to insert repeated words into the component automata only once.
+   */
+  private final Map<String, IntegerWordSet> componentWords;
+  
+  /**
+   * Whether to record the distinct words inserted per component.
+   */
+  private boolean recordWords = false;
+  
+  /**
+   * The number of words inserted, including repeated words.
+   */
+  private final AtomicLong wordCount;
+  
+  /**
+   * The number of distinct words inserted, summed over all components.
+   */
+  private final AtomicLong distinctWordCount;
+  
+  /**
+   * The CIF event names of the constructed models, interned as the input symbols of the component automata.
+   */
+  private final CifEventSymbolTable symbols;
+  
+  /**
+   * Pool on which to construct models in parallel, or {@code null} to construct them sequentially.
+   */
+  @Accessors
+  private ForkJoinPool pool;
+  
+  /**
+   * Whether to keep the models minimal while inserting words ({@code true}), or to construct prefix tree acceptors
+   * that are minimized afterwards ({@code false}). Must be configured before inserting words.
+   */
+  @Accessors
+  private boolean minimizeOnline;
+  
+  /**
+   * Profiler of word building, insertion and minimization, or {@code null} to not profile them.
+   */
+  @Accessors
+  private ExtractionProfiler profiler;
+  
+  /**
+   * Components to include, or {@code null} to include all components.
+   */
+  private Pattern componentsInclusionPattern;
+  
+  /**
+   * Components to exclude, or {@code null} to exclude no components.
+   */
+  private Pattern componentsExclusionPattern;
+  
+  /**
+   * Per executor, whether its component is included, to check the filters only once per executor.
+   */
+  private final Map<Executor, Boolean> includedExecutors;
+  
+  /**
+   * The duration of the time windows in nanoseconds, or {@code 0} to not construct models per time window.
+   */
+  private long windowDuration = 0;
+  
+  /**
+   * Per time window, identified by its start timestamp, the builder of the models of that window.
+   */
+  private final TreeMap<Long, ComponentModelBuilder> windows;
+  
   public ComponentModelBuilder() {
     this(false);
   }
   
   public ComponentModelBuilder(final boolean synchronous) {
-    LinkedHashMap<String, IncrementalMutableDFATreeBuilder<String>> _linkedHashMap = new LinkedHashMap<String, IncrementalMutableDFATreeBuilder<String>>();
+    this(synchronous, new CifEventSymbolTable());
+  }
+  
+  /**
+   * @param synchronous Whether to construct synchronous CIF event names.
+   * @param symbols The CIF event name symbol table, which may be shared with the builders of time windows.
+   */
+  private ComponentModelBuilder(final boolean synchronous, final CifEventSymbolTable symbols) {
+    LinkedHashMap<String, CopyableIncrementalDFABuilder<Integer>> _linkedHashMap = new LinkedHashMap<String, CopyableIncrementalDFABuilder<Integer>>();
     this.componentAutomata = _linkedHashMap;
+    HashMap<String, IntegerWordSet> _hashMap = new HashMap<String, IntegerWordSet>();
+    this.componentWords = _hashMap;
+    AtomicLong _atomicLong = new AtomicLong();
+    this.wordCount = _atomicLong;
+    AtomicLong _atomicLong_1 = new AtomicLong();
+    this.distinctWordCount = _atomicLong_1;
+    this.symbols = symbols;
+    HashMap<Executor, Boolean> _hashMap_1 = new HashMap<Executor, Boolean>();
+    this.includedExecutors = _hashMap_1;
+    TreeMap<Long, ComponentModelBuilder> _treeMap = new TreeMap<Long, ComponentModelBuilder>();
+    this.windows = _treeMap;
     this.synchronous = synchronous;
   }
   
   /**
-   * Builds and inserts models for all execution call stacks that are in scope of {@code tmsc}.
+   * Configures which components to construct models for. Lifelines of components that are filtered out are skipped
+   * during insertion, and are thus never turned into words, automata or CIF models.
+   * 
+   * @param inclusionRegEx Regular expression that component names must fully match to be included. If empty, all
+   *      components are included.
+   * @param exclusionRegEx Regular expression that component names must not fully match to be included. If empty, no
+   *      components are excluded.
+   */
+  public void setComponentFilters(final String inclusionRegEx, final String exclusionRegEx) {
+    Pattern _xifexpression = null;
+    boolean _isEmpty = inclusionRegEx.trim().isEmpty();
+    if (_isEmpty) {
+      _xifexpression = null;
+    } else {
+      _xifexpression = Pattern.compile(inclusionRegEx);
+    }
+    this.componentsInclusionPattern = _xifexpression;
+    Pattern _xifexpression_1 = null;
+    boolean _isEmpty_1 = exclusionRegEx.trim().isEmpty();
+    if (_isEmpty_1) {
+      _xifexpression_1 = null;
+    } else {
+      _xifexpression_1 = Pattern.compile(exclusionRegEx);
+    }
+    this.componentsExclusionPattern = _xifexpression_1;
+    this.includedExecutors.clear();
+  }
+  
+  /**
+   * @return A description of the {@link #setComponentFilters component filters}, which is empty if all components
+   *      are included.
+   */
+  public String getComponentFilters() {
+    if (((this.componentsInclusionPattern == null) && (this.componentsExclusionPattern == null))) {
+      return "";
+    }
+    String _elvis = null;
+    String _pattern = null;
+    if (this.componentsInclusionPattern!=null) {
+      _pattern=this.componentsInclusionPattern.pattern();
+    }
+    if (_pattern != null) {
+      _elvis = _pattern;
+    } else {
+      _elvis = "";
+    }
+    String _plus = ("+" + _elvis);
+    String _plus_1 = (_plus + "\n-");
+    String _elvis_1 = null;
+    String _pattern_1 = null;
+    if (this.componentsExclusionPattern!=null) {
+      _pattern_1=this.componentsExclusionPattern.pattern();
+    }
+    if (_pattern_1 != null) {
+      _elvis_1 = _pattern_1;
+    } else {
+      _elvis_1 = "";
+    }
+    return (_plus_1 + _elvis_1);
+  }
+  
+  /**
+   * Configures the time windows for which to construct separate models. If configured, the execution call stacks
+   * inserted from lifelines are not inserted into the models of this builder, but into the models of the
+   * {@link #getWindows window} that contains the timestamp of the entry event of their root execution. Windows are
+   * aligned to multiples of their duration. Must be configured before inserting words.
+   * 
+   * @param windowDuration The duration of the time windows in nanoseconds, or {@code 0} to not construct models per
+   *      time window.
+   */
+  public void setWindowDuration(final long windowDuration) {
+    Preconditions.checkArgument((windowDuration >= 0), "Expected a non-negative window duration.");
+    long _get = this.wordCount.get();
+    boolean _equals = (_get == 0);
+    Preconditions.checkState(_equals, "Expected time windows to be configured before inserting words.");
+    this.windowDuration = windowDuration;
+  }
+  
+  /**
+   * Configures whether to record the distinct words inserted per component, in order of insertion. Recorded words are
+   * needed to {@link #insert(ComponentModelBuilder) merge} this builder into another builder, and to write them to a
+   * word cache or checkpoint. Must be configured before inserting words.
+   * 
+   * @param recordWords Whether to record the distinct words inserted per component.
+   */
+  public void setRecordWords(final boolean recordWords) {
+    long _get = this.wordCount.get();
+    boolean _equals = (_get == 0);
+    Preconditions.checkState(_equals, "Expected word recording to be configured before inserting words.");
+    this.recordWords = recordWords;
+  }
+  
+  /**
+   * @return Whether the distinct words inserted per component are recorded.
+   */
+  public boolean isRecordWords() {
+    return this.recordWords;
+  }
+  
+  /**
+   * @return The duration of the time windows in nanoseconds, or {@code 0} if models are not constructed per time
+   *      window.
+   */
+  public long getWindowDuration() {
+    return this.windowDuration;
+  }
+  
+  /**
+   * @return {@code true} if models are constructed per time window, {@code false} otherwise.
+   */
+  public boolean isWindowed() {
+    return (this.windowDuration > 0);
+  }
+  
+  /**
+   * @return Per time window that contains at least one execution call stack, identified by its start timestamp, the
+   *      builder of the models of that window, in order of time.
+   */
+  public SortedMap<Long, ComponentModelBuilder> getWindows() {
+    return Collections.<Long, ComponentModelBuilder>unmodifiableSortedMap(this.windows);
+  }
+  
+  /**
+   * @param timestamp The timestamp.
+   * @return The builder of the models of the time window that contains {@code timestamp}.
+   */
+  private ComponentModelBuilder getWindow(final long timestamp) {
+    long _floorDiv = Math.floorDiv(timestamp, this.windowDuration);
+    long _multiply = (_floorDiv * this.windowDuration);
+    return this.getWindowByStart(_multiply);
+  }
+  
+  /**
+   * @param windowStart The start timestamp of the time window.
+   * @return The builder of the models of the time window, configured like this builder.
+   */
+  private ComponentModelBuilder getWindowByStart(final long windowStart) {
+    final Function<Long, ComponentModelBuilder> _function = (Long it) -> {
+      final ComponentModelBuilder window = new ComponentModelBuilder(this.synchronous, this.symbols);
+      window.componentsInclusionPattern = this.componentsInclusionPattern;
+      window.componentsExclusionPattern = this.componentsExclusionPattern;
+      window.pool = this.pool;
+      window.minimizeOnline = this.minimizeOnline;
+      window.recordWords = this.recordWords;
+      window.profiler = this.profiler;
+      return window;
+    };
+    return this.windows.computeIfAbsent(Long.valueOf(windowStart), _function);
+  }
+  
+  /**
+   * @param componentLabel The name of the component.
+   * @return {@code true} if models are to be constructed for the component, {@code false} otherwise.
+   */
+  public boolean isIncluded(final String componentLabel) {
+    return ((this.componentsInclusionPattern == null) || this.componentsInclusionPattern.matcher(componentLabel).matches()) && 
+      ((this.componentsExclusionPattern == null) || (!this.componentsExclusionPattern.matcher(componentLabel).matches()));
+  }
+  
+  /**
+   * @param executor The executor of the component.
+   * @return {@code true} if models are to be constructed for the component, {@code false} otherwise.
+   */
+  public boolean isIncluded(final Executor executor) {
+    final Function<Executor, Boolean> _function = (Executor it) -> {
+      return Boolean.valueOf(this.isIncluded(CifNamesUtil.asCifName(it)));
+    };
+    return (this.includedExecutors.computeIfAbsent(executor, _function)).booleanValue();
+  }
+  
+  /**
+   * Builds and inserts models for all execution call stacks that are in scope of {@code tmsc}. Models per time window
+   * are always built sequentially, as all lifelines insert into the same windows.
    * 
    * @param tmsc The {@link TMSC} that determines the scope for model construction.
+   * @return The duration and number of events of {@code tmsc}, determined while constructing the words, without a
+   *      separate pass over its events.
    */
-  public void insert(final TMSC tmsc) {
-    final Consumer<Lifeline> _function = (Lifeline it) -> {
-      this.insert(it, tmsc);
+  public TmscMetrics insert(final TMSC tmsc) {
+    TmscDependencyIndex _get = TmscDependencyIndex.get(tmsc);
+    final boolean dependencyIndexed = (_get == null);
+    if (dependencyIndexed) {
+      TmscDependencyIndex.install(tmsc);
+    }
+    final boolean scopeIndexed = (((tmsc instanceof ScopedTMSC) && (TmscVirtualScope.get(tmsc) == null)) && 
+      (TmscScopeIndex.get(((ScopedTMSC) tmsc)) == null));
+    if (scopeIndexed) {
+      TmscScopeIndex.install(((ScopedTMSC) tmsc));
+    }
+    try {
+      final TmscMetrics tmscMetrics = new TmscMetrics();
+      tmscMetrics.duration = Duration.ZERO;
+      final ArrayList<Lifeline> lifelines = new ArrayList<Lifeline>();
+      EList<Lifeline> _lifelines = tmsc.getFullScope().getLifelines();
+      for (final Lifeline lifeline : _lifelines) {
+        boolean _isIncluded = this.isIncluded(lifeline.getExecutor());
+        boolean _not = (!_isIncluded);
+        if (_not) {
+          ComponentModelBuilder.addEvents(tmscMetrics, TmscLifelineQueries.getEventsInScope(lifeline, tmsc));
+        } else {
+          boolean _isEmpty = TmscLifelineQueries.isEmpty(lifeline, tmsc);
+          boolean _not_1 = (!_isEmpty);
+          if (_not_1) {
+            lifelines.add(lifeline);
+          }
+        }
+      }
+      if (((this.pool == null) || this.isWindowed())) {
+        final HashMap<CifEventNameKey, Integer> eventSymbols = new HashMap<CifEventNameKey, Integer>();
+        final Consumer<Lifeline> _function = (Lifeline it) -> {
+          this.insert(it, tmsc, eventSymbols, tmscMetrics);
+        };
+        lifelines.forEach(_function);
+      } else {
+        ConcurrentHashMap<CifEventNameKey, Integer> _concurrentHashMap = new ConcurrentHashMap<CifEventNameKey, Integer>();
+        this.insertParallel(lifelines, tmsc, _concurrentHashMap, tmscMetrics);
+      }
+      return tmscMetrics;
+    } finally {
+      if (dependencyIndexed) {
+        TmscDependencyIndex.uninstall(tmsc);
+      }
+      if (scopeIndexed) {
+        TmscScopeIndex.uninstall(((ScopedTMSC) tmsc));
+      }
+      this.includedExecutors.clear();
+    }
+  }
+  
+  /**
+   * Adds events in any order to {@code tmscMetrics}.
+   * 
+   * @param tmscMetrics The metrics to which to add the events.
+   * @param events The events to add.
+   */
+  private static void addEvents(final TmscMetrics tmscMetrics, final List<Event> events) {
+    boolean _isEmpty = events.isEmpty();
+    boolean _not = (!_isEmpty);
+    if (_not) {
+      long first = (events.get(0).getTimestamp()).longValue();
+      long last = first;
+      for (final Event event : events) {
+        {
+          first = Long.min(first, (event.getTimestamp()).longValue());
+          last = Long.max(last, (event.getTimestamp()).longValue());
+        }
+      }
+      tmscMetrics.addEvents(events.size(), first, last);
+    }
+  }
+  
+  /**
+   * Builds and inserts models for all execution call stacks on {@code lifelines} that are in scope of {@code tmsc},
+   * using the {@link #pool}. The words of the lifelines are constructed concurrently, while they are inserted per
+   * component in the order of {@code lifelines}. The resulting models are thus identical to sequential insertion.
+   * 
+   * @param lifelines The {@link Lifeline lifelines} from which models are to be constructed.
+   * @param tmsc The {@link TMSC} that determines the scope for model construction.
+   * @param eventSymbols The thread safe CIF event name symbols per event name key, to be extended as needed.
+   * @param tmscMetrics The metrics to which to add the events of {@code lifelines}.
+   */
+  private void insertParallel(final List<Lifeline> lifelines, final TMSC tmsc, final Map<CifEventNameKey, Integer> eventSymbols, final TmscMetrics tmscMetrics) {
+    final LinkedHashMap<String, CompletableFuture<Void>> componentInsertions = new LinkedHashMap<String, CompletableFuture<Void>>();
+    for (final Lifeline lifeline : lifelines) {
+      {
+        final String componentLabel = CifNamesUtil.asCifName(lifeline.getExecutor());
+        final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+        final IntegerWordSet insertedWords = this.componentWords.get(componentLabel);
+        final Supplier<List<Word<Integer>>> _function = () -> {
+          ExtractionProfiler.Measurement _start = null;
+          if (this.profiler!=null) {
+            _start=this.profiler.start(ExtractionProfiler.WORDS);
+          }
+          final ExtractionProfiler.Measurement measurement = _start;
+          final List<Word<Integer>> lifelineWords = this.collectWords(lifeline, tmsc, eventSymbols, tmscMetrics);
+          if (measurement!=null) {
+            measurement.stop();
+          }
+          return lifelineWords;
+        };
+        final CompletableFuture<List<Word<Integer>>> words = CompletableFuture.<List<Word<Integer>>>supplyAsync(_function, this.pool);
+        CompletableFuture<Void> _elvis = null;
+        CompletableFuture<Void> _get = componentInsertions.get(componentLabel);
+        if (_get != null) {
+          _elvis = _get;
+        } else {
+          CompletableFuture<Void> _completedFuture = CompletableFuture.<Void>completedFuture(null);
+          _elvis = _completedFuture;
+        }
+        final CompletableFuture<Void> previousInsertion = _elvis;
+        final BiConsumer<Void, List<Word<Integer>>> _function_1 = (Void v, List<Word<Integer>> lifelineWords) -> {
+          ExtractionProfiler.Measurement _start = null;
+          if (this.profiler!=null) {
+            _start=this.profiler.start(ExtractionProfiler.PTA_INSERT);
+          }
+          final ExtractionProfiler.Measurement measurement = _start;
+          final Consumer<Word<Integer>> _function_2 = (Word<Integer> it) -> {
+            this.insertWord(builder, insertedWords, it);
+          };
+          lifelineWords.forEach(_function_2);
+          if (measurement!=null) {
+            measurement.stop();
+          }
+        };
+        componentInsertions.put(componentLabel, previousInsertion.<List<Word<Integer>>>thenAcceptBoth(words, _function_1));
+      }
+    }
+    final Consumer<CompletableFuture<Void>> _function = (CompletableFuture<Void> it) -> {
+      FuturesUtil.<Void>await(it);
     };
-    TmscLifelineQueries.nonEmptyLifelinesOf(tmsc).forEach(_function);
+    componentInsertions.values().forEach(_function);
+  }
+  
+  /**
+   * Applies {@code function} to all entries of {@code map}, using the {@link #pool} if configured. The order of the
+   * resulting map is the same as the order of {@code map}, regardless of the order in which the function is applied.
+   * 
+   * @param map The map to which to apply the function.
+   * @param function The function to apply to each key and value of the map. Must be thread safe.
+   * @return The resulting map, with the results of the function for each key.
+   */
+  private <V extends Object, R extends Object> LinkedHashMap<String, R> mapValues(final Map<String, V> map, final Function2<? super String, ? super V, ? extends R> function) {
+    int _size = map.size();
+    final LinkedHashMap<String, R> result = new LinkedHashMap<String, R>(_size);
+    if ((this.pool == null)) {
+      final BiConsumer<String, V> _function = (String k, V v) -> {
+        result.put(k, function.apply(k, v));
+      };
+      map.forEach(_function);
+    } else {
+      int _size_1 = map.size();
+      final LinkedHashMap<String, CompletableFuture<R>> futures = new LinkedHashMap<String, CompletableFuture<R>>(_size_1);
+      final BiConsumer<String, V> _function_1 = (String k, V v) -> {
+        final Supplier<R> _function_2 = () -> {
+          return function.apply(k, v);
+        };
+        futures.put(k, CompletableFuture.<R>supplyAsync(_function_2, this.pool));
+      };
+      map.forEach(_function_1);
+      final BiConsumer<String, CompletableFuture<R>> _function_2 = (String k, CompletableFuture<R> future) -> {
+        result.put(k, FuturesUtil.<R>await(future));
+      };
+      futures.forEach(_function_2);
+    }
+    return result;
   }
   
   /**
    * Builds and inserts models for all execution call stacks on {@code lifeline} that are in scope of {@code tmsc}.
+   * If {@link #isWindowed time windows} are configured, each call stack is inserted into the models of its window,
+   * in a single pass over the lifeline.
    * 
    * @param lifeline The {@link Lifeline} from which models are to be constructed.
    * @param tmsc The {@link TMSC} that determines the scope for model construction.
    */
   public void insert(final Lifeline lifeline, final TMSC tmsc) {
-    final Function1<Event, Boolean> _function = (Event it) -> {
-      return Boolean.valueOf(TmscEventQueries.isInScope(tmsc, it));
+    HashMap<CifEventNameKey, Integer> _hashMap = new HashMap<CifEventNameKey, Integer>();
+    this.insert(lifeline, tmsc, _hashMap, null);
+  }
+  
+  private void insert(final Lifeline lifeline, final TMSC tmsc, final Map<CifEventNameKey, Integer> eventSymbols, final TmscMetrics tmscMetrics) {
+    boolean _isIncluded = this.isIncluded(lifeline.getExecutor());
+    boolean _not = (!_isIncluded);
+    if (_not) {
+      return;
+    }
+    final String componentLabel = CifNamesUtil.asCifName(lifeline.getExecutor());
+    Procedure2<Event, Word<Integer>> _xifexpression = null;
+    boolean _isWindowed = this.isWindowed();
+    if (_isWindowed) {
+      final Procedure2<Event, Word<Integer>> _function = (Event rootEntryEvent, Word<Integer> word) -> {
+        this.wordCount.incrementAndGet();
+        this.getWindow((rootEntryEvent.getTimestamp()).longValue()).insertSymbols(componentLabel, word);
+      };
+      _xifexpression = _function;
+    } else {
+      Procedure2<Event, Word<Integer>> _xblockexpression = null;
+      {
+        final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+        final IntegerWordSet insertedWords = this.componentWords.get(componentLabel);
+        final Procedure2<Event, Word<Integer>> _function_1 = (Event rootEntryEvent, Word<Integer> word) -> {
+          this.insertWord(builder, insertedWords, word);
+        };
+        _xblockexpression = _function_1;
+      }
+      _xifexpression = _xblockexpression;
+    }
+    final Procedure2<Event, Word<Integer>> consumer = _xifexpression;
+    if ((this.profiler == null)) {
+      this.constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, consumer);
+      return;
+    }
+    final ExtractionProfiler.Measurement insertMeasurement = this.profiler.start(ExtractionProfiler.PTA_INSERT);
+    insertMeasurement.pause();
+    final ExtractionProfiler.Measurement wordsMeasurement = this.profiler.start(ExtractionProfiler.WORDS);
+    final Procedure2<Event, Word<Integer>> _function_2 = (Event rootEntryEvent, Word<Integer> word) -> {
+      wordsMeasurement.switchTo(insertMeasurement);
+      consumer.apply(rootEntryEvent, word);
+      insertMeasurement.switchTo(wordsMeasurement);
     };
-    final Function1<Event, Long> _function_1 = (Event it) -> {
-      return it.getTimestamp();
+    this.constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, _function_2);
+    wordsMeasurement.stop();
+    insertMeasurement.stop();
+  }
+  
+  private List<Word<Integer>> collectWords(final Lifeline lifeline, final TMSC tmsc, final Map<CifEventNameKey, Integer> eventSymbols, final TmscMetrics tmscMetrics) {
+    final ArrayList<Word<Integer>> words = new ArrayList<Word<Integer>>();
+    final Procedure2<Event, Word<Integer>> _function = (Event rootEntryEvent, Word<Integer> word) -> {
+      words.add(word);
     };
-    final Iterator<Event> iterator = IterableExtensions.<Event, Long>sortBy(IterableExtensions.<Event>filter(lifeline.getEvents(), _function), _function_1).iterator();
-    final IncrementalMutableDFATreeBuilder<String> builder = this.getBuilder(lifeline);
+    this.constructWords(lifeline, tmsc, eventSymbols, tmscMetrics, _function);
+    return words;
+  }
+  
+  /**
+   * Constructs words for all execution call stacks on {@code lifeline} that are in scope of {@code tmsc}.
+   * 
+   * @param lifeline The {@link Lifeline} from which words are to be constructed.
+   * @param tmsc The {@link TMSC} that determines the scope for word construction.
+   * @param eventSymbols The CIF event name symbols per event name key, to be extended as needed.
+   * @param tmscMetrics The metrics to which to add the events of {@code lifeline}, or {@code null} to not add them.
+   * @param consumer The consumer of the first event of each call stack, i.e. the entry event of its root execution,
+   *      and its constructed word, in the order of the call stacks on {@code lifeline}.
+   */
+  private void constructWords(final Lifeline lifeline, final TMSC tmsc, final Map<CifEventNameKey, Integer> eventSymbols, final TmscMetrics tmscMetrics, final Procedure2<? super Event, ? super Word<Integer>> consumer) {
+    final List<Event> events = TmscLifelineQueries.getEventsInScope(lifeline, tmsc);
+    List<Event> _xifexpression = null;
+    boolean _isOrderedByTimestamp = ComponentModelBuilder.isOrderedByTimestamp(events);
+    if (_isOrderedByTimestamp) {
+      _xifexpression = events;
+    } else {
+      final Function1<Event, Long> _function = (Event it) -> {
+        return it.getTimestamp();
+      };
+      _xifexpression = IterableExtensions.<Event, Long>sortBy(events, _function);
+    }
+    final List<Event> orderedEvents = _xifexpression;
+    if (((tmscMetrics != null) && (!orderedEvents.isEmpty()))) {
+      tmscMetrics.addEvents(orderedEvents.size(), (IterableExtensions.<Event>head(orderedEvents).getTimestamp()).longValue(), (IterableExtensions.<Event>last(orderedEvents).getTimestamp()).longValue());
+    }
+    final Iterator<Event> iterator = orderedEvents.iterator();
+    final Map<Execution, Execution> rootsInScope = TmscExecutionQueries.getRootsInScope(tmsc, lifeline);
     Event event = null;
     try {
       while (iterator.hasNext()) {
         {
-          final WordBuilder<String> wordBuilder = new WordBuilder<String>();
+          final WordBuilder<Integer> wordBuilder = new WordBuilder<Integer>();
+          Event rootEntryEvent = null;
           do {
             {
               event = iterator.next();
-              wordBuilder.append(CifNamesUtil.asCifName(event, tmsc, this.synchronous));
+              final Event wordEvent = event;
+              if ((rootEntryEvent == null)) {
+                rootEntryEvent = wordEvent;
+              }
+              final Function<CifEventNameKey, Integer> _function_2 = (CifEventNameKey it) -> {
+                return Integer.valueOf(this.symbols.getId(CifNamesUtil.asCifName(wordEvent, tmsc, this.synchronous)));
+              };
+              wordBuilder.append(eventSymbols.computeIfAbsent(CifNamesUtil.asCifNameKey(wordEvent, tmsc), _function_2));
             }
-          } while((!this.isRootExitEventInScope(event, tmsc)));
-          builder.insert(wordBuilder.toWord());
+          } while((!this.isRootExitEventInScope(event, rootsInScope)));
+          consumer.apply(rootEntryEvent, wordBuilder.toWord());
         }
       }
     } catch (final Throwable _t) {
@@ -110,31 +652,219 @@ public class ComponentModelBuilder {
     }
   }
   
-  private boolean isRootExitEventInScope(final Event event, final TMSC tmsc) {
-    return ((event instanceof ExitEvent) && (TmscExecutionQueries.getRootInScope(tmsc, event.getExecution()) == null));
+  /**
+   * @param events The events to check.
+   * @return {@code true} if {@code events} are ordered by timestamp, {@code false} otherwise.
+   */
+  private static boolean isOrderedByTimestamp(final List<Event> events) {
+    for (int i = 1; (i < events.size()); i++) {
+      Long _timestamp = events.get((i - 1)).getTimestamp();
+      Long _timestamp_1 = events.get(i).getTimestamp();
+      boolean _greaterThan = (_timestamp.compareTo(_timestamp_1) > 0);
+      if (_greaterThan) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * @param event The event to check.
+   * @param rootsInScope Per execution on the lifeline of {@code event}, its scoped root execution, if any.
+   * @return {@code true} if {@code event} is the exit event of a scoped root execution, {@code false} otherwise.
+   */
+  private boolean isRootExitEventInScope(final Event event, final Map<Execution, Execution> rootsInScope) {
+    return ((event instanceof ExitEvent) && (rootsInScope.get(event.getExecution()) == null));
   }
   
   public void insert(final String componentLabel, final Word<String> word) {
-    final IncrementalMutableDFATreeBuilder<String> builder = this.getBuilder(componentLabel);
-    builder.insert(word);
+    boolean _isIncluded = this.isIncluded(componentLabel);
+    boolean _not = (!_isIncluded);
+    if (_not) {
+      return;
+    }
+    final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+    final Function<String, Integer> _function = (String it) -> {
+      return Integer.valueOf(this.symbols.getId(it));
+    };
+    this.insertWord(builder, this.componentWords.get(componentLabel), word.<Integer>transform(_function));
+  }
+  
+  /**
+   * Inserts a word of CIF event name identifiers of {@link #getSymbols} into the model of a component.
+   * 
+   * @param componentLabel The name of the component.
+   * @param word The word to insert.
+   */
+  public void insertSymbols(final String componentLabel, final Word<Integer> word) {
+    boolean _isIncluded = this.isIncluded(componentLabel);
+    boolean _not = (!_isIncluded);
+    if (_not) {
+      return;
+    }
+    final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+    this.insertWord(builder, this.componentWords.get(componentLabel), word);
+  }
+  
+  /**
+   * Inserts a distinct word of CIF event name identifiers of {@link #getSymbols} into the model of a component,
+   * without counting it as an inserted word. This allows to restore the recorded words of a builder, after which its
+   * number of inserted words, including repeated words, is restored using {@link #addWordCount}.
+   * 
+   * @param componentLabel The name of the component.
+   * @param word The word to insert.
+   */
+  public void insertDistinctSymbols(final String componentLabel, final Word<Integer> word) {
+    boolean _isIncluded = this.isIncluded(componentLabel);
+    boolean _not = (!_isIncluded);
+    if (_not) {
+      return;
+    }
+    final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+    this.insertDistinctWord(builder, this.componentWords.get(componentLabel), word);
+  }
+  
+  /**
+   * Adds to the number of inserted words, for words that were inserted using {@link #insertDistinctSymbols}.
+   * 
+   * @param count The number of words to add, including repeated words.
+   */
+  public void addWordCount(final long count) {
+    this.wordCount.addAndGet(count);
+  }
+  
+  /**
+   * Inserts all words inserted into {@code other} into the models of this builder, thereby merging the models of
+   * {@code other} into the models of this builder. The words are inserted per component, in their order of insertion
+   * into {@code other}. The models of the time windows of {@code other} are merged into those of the same time
+   * windows of this builder.
+   * 
+   * @param other The builder whose words to insert.
+   */
+  public void insert(final ComponentModelBuilder other) {
+    Preconditions.checkArgument(other.recordWords, "Expected a builder that records its words.");
+    Preconditions.checkArgument(((!other.isWindowed()) || (other.windowDuration == this.windowDuration)), 
+      "Expected builders with the same time windows.");
+    final BiConsumer<Long, ComponentModelBuilder> _function = (Long windowStart, ComponentModelBuilder otherWindow) -> {
+      this.getWindowByStart((windowStart).longValue()).insert(otherWindow);
+    };
+    other.windows.forEach(_function);
+    final int[] symbolIds = new int[other.symbols.size()];
+    for (int id = 0; (id < symbolIds.length); id++) {
+      symbolIds[id] = this.symbols.getId(other.symbols.getName(id));
+    }
+    Set<String> _componentLabels = other.getComponentLabels();
+    for (final String componentLabel : _componentLabels) {
+      boolean _isIncluded = this.isIncluded(componentLabel);
+      if (_isIncluded) {
+        final CopyableIncrementalDFABuilder<Integer> builder = this.getBuilder(componentLabel);
+        final IntegerWordSet insertedWords = this.componentWords.get(componentLabel);
+        final IntegerWordSet otherWords = other.componentWords.get(componentLabel);
+        for (int index = 0; (index < otherWords.size()); index++) {
+          {
+            int _wordLength = otherWords.getWordLength(index);
+            final WordBuilder<Integer> wordBuilder = new WordBuilder<Integer>(_wordLength);
+            for (int position = 0; (position < otherWords.getWordLength(index)); position++) {
+              wordBuilder.append(Integer.valueOf(symbolIds[otherWords.getSymbol(index, position)]));
+            }
+            this.insertDistinctWord(builder, insertedWords, wordBuilder.toWord());
+          }
+        }
+      }
+    }
+    this.wordCount.addAndGet(other.getWordCount());
+  }
+  
+  /**
+   * Inserts a word into the automaton of a component, unless it was inserted before.
+   * 
+   * @param builder The builder of the automaton of the component.
+   * @param insertedWords The words inserted before into the automaton of the component.
+   * @param word The word to insert.
+   */
+  private void insertWord(final CopyableIncrementalDFABuilder<Integer> builder, final IntegerWordSet insertedWords, final Word<Integer> word) {
+    this.wordCount.incrementAndGet();
+    this.insertDistinctWord(builder, insertedWords, word);
+  }
+  
+  /**
+   * Inserts a word into the automaton of a component, unless it was inserted before. Repeated words are detected by
+   * hashing them, which is cheaper than looking them up in the automaton.
+   * 
+   * @param builder The builder of the automaton of the component.
+   * @param insertedWords The words inserted before into the automaton of the component.
+   * @param word The word to insert.
+   */
+  private void insertDistinctWord(final CopyableIncrementalDFABuilder<Integer> builder, final IntegerWordSet insertedWords, final Word<Integer> word) {
+    boolean _add = insertedWords.add(word);
+    if (_add) {
+      builder.insert(word);
+      this.distinctWordCount.incrementAndGet();
+    }
+  }
+  
+  /**
+   * @return The number of words inserted, including repeated words.
+   */
+  public long getWordCount() {
+    return this.wordCount.get();
+  }
+  
+  /**
+   * @return The number of distinct words inserted, summed over all components and time windows. A word inserted for
+   *      several components or time windows is counted once for each of them.
+   */
+  public long getDistinctWordCount() {
+    long count = this.distinctWordCount.get();
+    Collection<ComponentModelBuilder> _values = this.windows.values();
+    for (final ComponentModelBuilder window : _values) {
+      long _count = count;
+      long _distinctWordCount = window.getDistinctWordCount();
+      count = (_count + _distinctWordCount);
+    }
+    return count;
   }
   
   public Set<String> getComponentLabels() {
     return this.componentAutomata.keySet();
   }
   
+  /**
+   * @return The CIF event names of the constructed models, interned as identifiers.
+   */
+  public CifEventSymbolTable getSymbols() {
+    return this.symbols;
+  }
+  
+  /**
+   * @return The distinct words inserted per component, as CIF event name identifiers of {@link #getSymbols}.
+   * @throws IllegalStateException If words are not {@link #isRecordWords recorded}.
+   */
+  public Map<String, IntegerWordSet> getComponentWords() {
+    Preconditions.checkState(this.recordWords, "Expected a builder that records its words.");
+    return Collections.<String, IntegerWordSet>unmodifiableMap(this.componentWords);
+  }
+  
   public FastDFA<String> getPTA(final Executor executor) {
     return this.getPTA(CifNamesUtil.asCifName(executor));
   }
   
+  /**
+   * @param componentLabel The name of the component.
+   * @return The prefix tree acceptor of the component, or its minimal acyclic DFA if models are kept minimal while
+   *      inserting words.
+   */
   public FastDFA<String> getPTA(final String componentLabel) {
-    return this.componentAutomata.get(componentLabel).getFastDFA(true);
+    final Function<Integer, String> _function = (Integer it) -> {
+      return this.symbols.getName((it).intValue());
+    };
+    return this.componentAutomata.get(componentLabel).<String>getFastDFA(_function);
   }
   
   public LinkedHashMap<String, FastDFA<String>> getPTAs() {
     int _size = this.componentAutomata.size();
     final LinkedHashMap<String, FastDFA<String>> ptas = new LinkedHashMap<String, FastDFA<String>>(_size);
-    final BiConsumer<String, IncrementalMutableDFATreeBuilder<String>> _function = (String k, IncrementalMutableDFATreeBuilder<String> v) -> {
+    final BiConsumer<String, CopyableIncrementalDFABuilder<Integer>> _function = (String k, CopyableIncrementalDFABuilder<Integer> v) -> {
       ptas.put(k, this.getPTA(k));
     };
     this.componentAutomata.forEach(_function);
@@ -146,20 +876,57 @@ public class ComponentModelBuilder {
   }
   
   public FastDFA<String> getDFA(final String componentLabel) {
+    ExtractionProfiler.Measurement _start = null;
+    if (this.profiler!=null) {
+      _start=this.profiler.start(ExtractionProfiler.MINIMIZE);
+    }
+    final ExtractionProfiler.Measurement measurement = _start;
     final FastDFA<String> pta = this.getPTA(componentLabel);
-    final FastDFA<String> dfa = AutomataLibUtil.<String>minimizeDFA(pta);
+    final int ptaStates = pta.size();
+    FastDFA<String> _xifexpression = null;
+    if (this.minimizeOnline) {
+      _xifexpression = pta;
+    } else {
+      _xifexpression = AutomataLibUtil.<String>minimizeDFA(pta);
+    }
+    final FastDFA<String> dfa = _xifexpression;
     ComponentModelBuilder.<String, FastDFAState, FastDFA<String>>loop(dfa);
+    if ((this.profiler != null)) {
+      measurement.stop();
+      this.profiler.recordComponent(componentLabel, ptaStates, dfa.size(), ComponentModelBuilder.countTransitions(dfa));
+    }
     return dfa;
   }
   
+  /**
+   * @param dfa The DFA.
+   * @return The number of transitions of the DFA.
+   */
+  private static int countTransitions(final FastDFA<String> dfa) {
+    int count = 0;
+    Collection<FastDFAState> _states = dfa.getStates();
+    for (final FastDFAState state : _states) {
+      Alphabet<String> _inputAlphabet = dfa.getInputAlphabet();
+      for (final String input : _inputAlphabet) {
+        FastDFAState _successor = dfa.getSuccessor(state, input);
+        boolean _tripleNotEquals = (_successor != null);
+        if (_tripleNotEquals) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+  
+  /**
+   * Returns a map from component name to minimal DFA, for each model learned by this learner. The DFAs are
+   * constructed in parallel if a {@link #pool} is configured.
+   */
   public LinkedHashMap<String, FastDFA<String>> getDFAs() {
-    int _size = this.componentAutomata.size();
-    final LinkedHashMap<String, FastDFA<String>> dfas = new LinkedHashMap<String, FastDFA<String>>(_size);
-    final BiConsumer<String, IncrementalMutableDFATreeBuilder<String>> _function = (String k, IncrementalMutableDFATreeBuilder<String> v) -> {
-      dfas.put(k, this.getDFA(k));
+    final Function2<String, CopyableIncrementalDFABuilder<Integer>, FastDFA<String>> _function = (String k, CopyableIncrementalDFABuilder<Integer> v) -> {
+      return this.getDFA(k);
     };
-    this.componentAutomata.forEach(_function);
-    return dfas;
+    return this.<CopyableIncrementalDFABuilder<Integer>, FastDFA<String>>mapValues(this.componentAutomata, _function);
   }
   
   /**
@@ -185,16 +952,14 @@ public class ComponentModelBuilder {
   }
   
   /**
-   * Returns a map from string to specification, containing a CIF specification for each model passed.
+   * Returns a map from string to specification, containing a CIF specification for each model passed. The CIF
+   * specifications are constructed in parallel if a {@link #pool} is configured.
    */
   public LinkedHashMap<String, Specification> getCifModels(final Map<String, FastDFA<String>> automata) {
-    int _size = automata.size();
-    final LinkedHashMap<String, Specification> ret = new LinkedHashMap<String, Specification>(_size);
-    final BiConsumer<String, FastDFA<String>> _function = (String name, FastDFA<String> dfa) -> {
-      ret.put(name, this.getCifModel(name, dfa));
+    final Function2<String, FastDFA<String>, Specification> _function = (String name, FastDFA<String> dfa) -> {
+      return this.getCifModel(name, dfa);
     };
-    automata.forEach(_function);
-    return ret;
+    return this.<FastDFA<String>, Specification>mapValues(automata, _function);
   }
   
   /**
@@ -204,17 +969,25 @@ public class ComponentModelBuilder {
     return AutomataLibToCif.<FastDFAState, FastDFAState, Void, FastDFA<String>>fsaToCifSpecification(dfa, name, true);
   }
   
-  protected IncrementalMutableDFATreeBuilder<String> getBuilder(final Lifeline lifeline) {
+  protected CopyableIncrementalDFABuilder<Integer> getBuilder(final Lifeline lifeline) {
     return this.getBuilder(CifNamesUtil.asCifName(lifeline.getExecutor()));
   }
   
-  protected IncrementalMutableDFATreeBuilder<String> getBuilder(final String componentLabel) {
+  protected CopyableIncrementalDFABuilder<Integer> getBuilder(final String componentLabel) {
     boolean _containsKey = this.componentAutomata.containsKey(componentLabel);
     if (_containsKey) {
       return this.componentAutomata.get(componentLabel);
     } else {
-      final IncrementalMutableDFATreeBuilder<String> builder = new IncrementalMutableDFATreeBuilder<String>();
+      CopyableIncrementalDFABuilder<Integer> _xifexpression = null;
+      if (this.minimizeOnline) {
+        _xifexpression = new IncrementalMinimalDFABuilder<Integer>();
+      } else {
+        _xifexpression = new IncrementalCompactDFATreeBuilder<Integer>();
+      }
+      final CopyableIncrementalDFABuilder<Integer> builder = _xifexpression;
       this.componentAutomata.put(componentLabel, builder);
+      IntegerWordSet _integerWordSet = new IntegerWordSet();
+      this.componentWords.put(componentLabel, _integerWordSet);
       return builder;
     }
   }
@@ -251,4 +1024,31 @@ public class ComponentModelBuilder {
   public void setSynchronous(final boolean synchronous) {
     this.synchronous = synchronous;
   }
+  
+  @Pure
+  public ForkJoinPool getPool() {
+    return this.pool;
+  }
+  
+  public void setPool(final ForkJoinPool pool) {
+    this.pool = pool;
+  }
+  
+  @Pure
+  public boolean isMinimizeOnline() {
+    return this.minimizeOnline;
+  }
+  
+  public void setMinimizeOnline(final boolean minimizeOnline) {
+    this.minimizeOnline = minimizeOnline;
+  }
+  
+  @Pure
+  public ExtractionProfiler getProfiler() {
+    return this.profiler;
+  }
+  
+  public void setProfiler(final ExtractionProfiler profiler) {
+    this.profiler = profiler;
+  }
 }
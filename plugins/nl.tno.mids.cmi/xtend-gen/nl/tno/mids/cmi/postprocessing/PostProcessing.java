@@ -1,24 +1,49 @@
 package nl.tno.mids.cmi.postprocessing;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+import nl.tno.mids.cmi.utils.ExtractionProfiler;
+import nl.tno.mids.cmi.utils.FuturesUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.escet.cif.metamodel.cif.Specification;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 
 @SuppressWarnings("all")
 public class PostProcessing {
   private PostProcessing() {
   }
   
+  /**
+   * @param operationsOptions The options for each of the post-processing operations to perform.
+   * @return {@code true} if all operations are {@link PostProcessingOperationProvider#isComponentLocal component
+   *      local}, such that post-processing can be performed for each component separately, {@code false} otherwise.
+   */
+  public static boolean isComponentLocal(final List<PostProcessingOperationOptions> operationsOptions) {
+    final Function1<PostProcessingOperationOptions, Boolean> _function = (PostProcessingOperationOptions it) -> {
+      return Boolean.valueOf(it.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().isComponentLocal());
+    };
+    return IterableExtensions.<PostProcessingOperationOptions>forall(operationsOptions, _function);
+  }
+  
   /**
    * Perform post-processing.
    * 
@@ -33,6 +58,32 @@ public class PostProcessing {
    *      specification for that component.
    */
   public static Map<String, Specification> postProcess(final Map<String, Specification> componentsMap, final Path relativeResolvePath, final List<PostProcessingOperationOptions> operationsOptions, final IProgressMonitor monitor) {
+    return PostProcessing.postProcess(componentsMap, relativeResolvePath, operationsOptions, monitor, null, null, null);
+  }
+  
+  /**
+   * Perform post-processing, profiling each of the post-processing operations. Using the {@code pool}, consecutive
+   * {@link PostProcessingOperationProvider#isComponentLocal component local} operations are applied to the selected
+   * components concurrently. The result is identical to applying them sequentially. Using the {@code cache}, the
+   * results of {@link PostProcessingOperationProvider#getCacheKey cacheable} operations are reused from earlier
+   * post-processing of the same models. If profiling, the conversions between the representations of the models
+   * during this post-processing are recorded as well. Operations applied concurrently are profiled together.
+   * 
+   * @param componentsMap Mapping from component name (absolute name of the CIF automaton) to CIF specification for
+   *      that component. May be modified in-place, but should not be used after this call. Use the return value of
+   *      this method instead.
+   * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+   *      to be resolved against the directory that contains this file.
+   * @param operationsOptions The options for each of the post-processing operations to perform.
+   * @param monitor The progress monitor.
+   * @param profiler The profiler of the post-processing operations, or {@code null} to not profile them.
+   * @param pool The pool on which to apply component local operations in parallel, or {@code null} to apply all
+   *      operations sequentially.
+   * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+   * @return Post-processing result, as mapping from component name (absolute name of the CIF automaton) to CIF
+   *      specification for that component.
+   */
+  public static Map<String, Specification> postProcess(final Map<String, Specification> componentsMap, final Path relativeResolvePath, final List<PostProcessingOperationOptions> operationsOptions, final IProgressMonitor monitor, final ExtractionProfiler profiler, final ForkJoinPool pool, final PostProcessingCache cache) {
     int _size = operationsOptions.size();
     int _plus = (_size + 1);
     final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus);
@@ -41,6 +92,7 @@ public class PostProcessing {
     if (_isEmpty) {
       return componentsMap;
     }
+    final PostProcessingConversions conversions = new PostProcessingConversions();
     int _size_1 = componentsMap.size();
     final LinkedHashMap<String, PostProcessingModel> modelsToProcess = new LinkedHashMap<String, PostProcessingModel>(_size_1);
     Set<Map.Entry<String, Specification>> _entrySet = componentsMap.entrySet();
@@ -50,68 +102,60 @@ public class PostProcessing {
         final Specification spec = componentEntry.getValue();
         PostProcessingStatus _postProcessingStatus = new PostProcessingStatus(false, false);
         final PostProcessingModelCifSpec inputModel = new PostProcessingModelCifSpec(spec, name, _postProcessingStatus);
+        inputModel.conversions = conversions;
         modelsToProcess.put(name, inputModel);
       }
     }
-    for (final PostProcessingOperationOptions operationOptions : operationsOptions) {
+    int operationIndex = 0;
+    while ((operationIndex < operationsOptions.size())) {
       {
-        String _string = operationOptions.toString();
-        String _plus_1 = ("Performing post-processing operation: " + _string);
-        subMonitor.setTaskName(_plus_1);
-        try {
-          operationOptions.validate();
-        } catch (final Throwable _t) {
-          if (_t instanceof IllegalStateException) {
-            final IllegalStateException e = (IllegalStateException)_t;
-            throw new RuntimeException(("Options validation failed: " + operationOptions), e);
-          } else {
-            throw Exceptions.sneakyThrow(_t);
+        final PostProcessingOperationOptions operationOptions = operationsOptions.get(operationIndex);
+        if ((((pool != null) && operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().isComponentLocal()) && (modelsToProcess.size() > 1))) {
+          int runEnd = (operationIndex + 1);
+          while (((runEnd < operationsOptions.size()) && operationsOptions.get(runEnd).<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().isComponentLocal())) {
+            runEnd++;
           }
-        }
-        final PostProcessingOperationProvider<?, ?> provider = operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider();
-        Set<String> selectedComponents = null;
-        boolean _supportsFilteredComponentsAsInput = provider.supportsFilteredComponentsAsInput();
-        if (_supportsFilteredComponentsAsInput) {
-          Set<String> _switchResult = null;
-          final PostProcessingFilterMode _switchValue = operationOptions.filterMode;
-          if (_switchValue != null) {
-            switch (_switchValue) {
-              case NONE:
-                _switchResult = modelsToProcess.keySet();
-                break;
-              case INCLUSION:
-                Set<String> _xblockexpression = null;
-                {
-                  final Pattern filterPattern = Pattern.compile(operationOptions.filterPattern);
-                  final Function1<String, Boolean> _function = (String k) -> {
-                    return Boolean.valueOf(filterPattern.matcher(k).matches());
-                  };
-                  _xblockexpression = IterableExtensions.<String>toSet(IterableExtensions.<String>filter(modelsToProcess.keySet(), _function));
-                }
-                _switchResult = _xblockexpression;
-                break;
-              case EXCLUSION:
-                Set<String> _xblockexpression_1 = null;
-                {
-                  final Pattern filterPattern = Pattern.compile(operationOptions.filterPattern);
-                  final Function1<String, Boolean> _function = (String k) -> {
-                    boolean _matches = filterPattern.matcher(k).matches();
-                    return Boolean.valueOf((!_matches));
-                  };
-                  _xblockexpression_1 = IterableExtensions.<String>toSet(IterableExtensions.<String>filter(modelsToProcess.keySet(), _function));
-                }
-                _switchResult = _xblockexpression_1;
-                break;
-              default:
-                break;
-            }
+          final List<PostProcessingOperationOptions> runOptions = operationsOptions.subList(operationIndex, runEnd);
+          String _join = IterableExtensions.join(runOptions, ", ");
+          String _plus_1 = ("Performing post-processing operations: " + _join);
+          subMonitor.setTaskName(_plus_1);
+          final Function1<PostProcessingOperationOptions, Set<String>> _function = (PostProcessingOperationOptions it) -> {
+            return PostProcessing.selectComponents(it, modelsToProcess.keySet());
+          };
+          final List<Set<String>> runSelections = IterableExtensions.<Set<String>>toList(ListExtensions.<PostProcessingOperationOptions, Set<String>>map(runOptions, _function));
+          ExtractionProfiler.Measurement _start = null;
+          if (profiler!=null) {
+            _start=profiler.start(PostProcessing.getProfilingPhase(runOptions, operationIndex));
           }
-          selectedComponents = _switchResult;
+          final ExtractionProfiler.Measurement measurement = _start;
+          PostProcessing.applyOperationsPerComponent(runOptions, runSelections, modelsToProcess, relativeResolvePath, pool, 
+            cache, conversions, subMonitor.split(runOptions.size()));
+          if (measurement!=null) {
+            measurement.stop();
+          }
+          operationIndex = runEnd;
         } else {
-          selectedComponents = modelsToProcess.keySet();
+          String _string = operationOptions.toString();
+          String _plus_2 = ("Performing post-processing operation: " + _string);
+          subMonitor.setTaskName(_plus_2);
+          final Set<String> selectedComponents = PostProcessing.selectComponents(operationOptions, modelsToProcess.keySet());
+          ExtractionProfiler.Measurement _start_1 = null;
+          if (profiler!=null) {
+            _start_1=profiler.start(PostProcessing.getProfilingPhase(operationOptions, operationIndex));
+          }
+          final ExtractionProfiler.Measurement measurement_1 = _start_1;
+          PostProcessing.applyOperation(operationOptions, modelsToProcess, selectedComponents, relativeResolvePath, cache, conversions, 
+            subMonitor.split(1));
+          operationIndex++;
+          if ((((operationIndex == operationsOptions.size()) || 
+            (!operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().isComponentLocal())) || 
+            (!operationsOptions.get(operationIndex).<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().isComponentLocal()))) {
+            PostProcessing.normalizeModels(modelsToProcess, pool);
+          }
+          if (measurement_1!=null) {
+            measurement_1.stop();
+          }
         }
-        final PostProcessingOperation<?> operation = provider.getOperationFromRawOptions(operationOptions);
-        operation.applyOperation(modelsToProcess, selectedComponents, relativeResolvePath, subMonitor.split(1));
       }
     }
     int _size_2 = modelsToProcess.size();
@@ -125,6 +169,266 @@ public class PostProcessing {
         processedModels.put(name, spec);
       }
     }
+    if (profiler!=null) {
+      profiler.recordModelConversions(conversions.getHits(), conversions.getMisses());
+    }
     return processedModels;
   }
+  
+  /**
+   * Validates the options of a post-processing operation, and selects the components to which to apply it.
+   * 
+   * @param operationOptions The options for the operation.
+   * @param components The names of all components.
+   * @return The names of the components to which to apply the operation.
+   */
+  private static Set<String> selectComponents(final PostProcessingOperationOptions operationOptions, final Set<String> components) {
+    try {
+      operationOptions.validate();
+    } catch (final Throwable _t) {
+      if (_t instanceof IllegalStateException) {
+        final IllegalStateException e = (IllegalStateException)_t;
+        throw new RuntimeException(("Options validation failed: " + operationOptions), e);
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+    boolean _supportsFilteredComponentsAsInput = operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().supportsFilteredComponentsAsInput();
+    boolean _not = (!_supportsFilteredComponentsAsInput);
+    if (_not) {
+      return components;
+    }
+    Set<String> _switchResult = null;
+    final PostProcessingFilterMode _switchValue = operationOptions.filterMode;
+    if (_switchValue != null) {
+      switch (_switchValue) {
+        case NONE:
+          _switchResult = components;
+          break;
+        case INCLUSION:
+          Set<String> _xblockexpression = null;
+          {
+            final Pattern filterPattern = Pattern.compile(operationOptions.filterPattern);
+            final Function1<String, Boolean> _function = (String k) -> {
+              return Boolean.valueOf(filterPattern.matcher(k).matches());
+            };
+            _xblockexpression = IterableExtensions.<String>toSet(IterableExtensions.<String>filter(components, _function));
+          }
+          _switchResult = _xblockexpression;
+          break;
+        case EXCLUSION:
+          Set<String> _xblockexpression_1 = null;
+          {
+            final Pattern filterPattern = Pattern.compile(operationOptions.filterPattern);
+            final Function1<String, Boolean> _function = (String k) -> {
+              boolean _matches = filterPattern.matcher(k).matches();
+              return Boolean.valueOf((!_matches));
+            };
+            _xblockexpression_1 = IterableExtensions.<String>toSet(IterableExtensions.<String>filter(components, _function));
+          }
+          _switchResult = _xblockexpression_1;
+          break;
+        default:
+          break;
+      }
+    }
+    return _switchResult;
+  }
+  
+  /**
+   * @param operationOptions The options for the post-processing operation.
+   * @param operationIndex The index of the operation among all post-processing operations, starting at {@code 0}.
+   * @return The name of the profiling phase of the operation.
+   */
+  private static String getProfilingPhase(final PostProcessingOperationOptions operationOptions, final int operationIndex) {
+    return ExtractionProfiler.getPostProcessingPhase((operationIndex + 1), 
+      operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().getOperationClass().getSimpleName());
+  }
+  
+  /**
+   * @param operationsOptions The options for consecutive post-processing operations.
+   * @param firstOperationIndex The index of the first of the operations among all post-processing operations,
+   *      starting at {@code 0}.
+   * @return The name of the profiling phase of the operations, if they are applied together.
+   */
+  private static String getProfilingPhase(final List<PostProcessingOperationOptions> operationsOptions, final int firstOperationIndex) {
+    int _size = operationsOptions.size();
+    boolean _equals = (_size == 1);
+    if (_equals) {
+      return PostProcessing.getProfilingPhase(IterableExtensions.<PostProcessingOperationOptions>head(operationsOptions), firstOperationIndex);
+    }
+    int _size_1 = operationsOptions.size();
+    final Function1<PostProcessingOperationOptions, String> _function = (PostProcessingOperationOptions it) -> {
+      return it.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider().getOperationClass().getSimpleName();
+    };
+    return ExtractionProfiler.getPostProcessingPhase((firstOperationIndex + 1), 
+      (firstOperationIndex + _size_1), 
+      IterableExtensions.join(ListExtensions.<PostProcessingOperationOptions, String>map(operationsOptions, _function), ", "));
+  }
+  
+  /**
+   * Applies consecutive {@link PostProcessingOperationProvider#isComponentLocal component local} operations to each of
+   * the components concurrently. Each component is processed by its own instances of the operations, on a mapping
+   * that contains only the model of that component. The renamings of the operations are thus composed per component,
+   * and each resulting model is normalized on a worker thread. The resulting models are put back into {@code models}
+   * in order, thus keeping the order of {@code models}.
+   * 
+   * @param operationsOptions The options for each of the operations.
+   * @param selections The names of the components to which to apply each of the operations.
+   * @param models Mapping from component name (absolute name of the CIF automaton) to input model for the component.
+   *      This mapping is modified in-place.
+   * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+   *      to be resolved against the directory that contains this file.
+   * @param pool The pool on which to apply the operations.
+   * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+   * @param conversions The counter of the conversions between the representations of the models.
+   * @param monitor The progress monitor.
+   */
+  private static void applyOperationsPerComponent(final List<PostProcessingOperationOptions> operationsOptions, final List<Set<String>> selections, final Map<String, PostProcessingModel> models, final Path relativeResolvePath, final ForkJoinPool pool, final PostProcessingCache cache, final PostProcessingConversions conversions, final IProgressMonitor monitor) {
+    final List<String> components = IterableExtensions.<String>toList(models.keySet());
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, components.size());
+    final Function1<String, CompletableFuture<PostProcessingModel>> _function = (String component) -> {
+      CompletableFuture<PostProcessingModel> _xblockexpression = null;
+      {
+        int _size = operationsOptions.size();
+        final Function1<Integer, Boolean> _function_1 = (Integer it) -> {
+          return Boolean.valueOf(selections.get((it).intValue()).contains(component));
+        };
+        final List<Integer> operationIndices = IterableExtensions.<Integer>toList(IterableExtensions.<Integer>filter(new ExclusiveRange(0, _size, true), _function_1));
+        final LinkedHashMap<String, PostProcessingModel> componentModels = new LinkedHashMap<String, PostProcessingModel>();
+        componentModels.put(component, models.get(component));
+        final Supplier<PostProcessingModel> _function_2 = () -> {
+          for (final Integer i : operationIndices) {
+            {
+              PostProcessingOperationOptions _get = operationsOptions.get((i).intValue());
+              Set<String> _singleton = Collections.<String>singleton(component);
+              NullProgressMonitor _nullProgressMonitor = new NullProgressMonitor();
+              PostProcessing.applyOperation(_get, componentModels, _singleton, relativeResolvePath, cache, conversions, _nullProgressMonitor);
+              Integer _last = IterableExtensions.<Integer>last(operationIndices);
+              boolean _equals = Objects.equal(i, _last);
+              if (_equals) {
+                PostProcessing.normalizeModels(componentModels, null);
+              }
+            }
+          }
+          return componentModels.get(component);
+        };
+        _xblockexpression = CompletableFuture.<PostProcessingModel>supplyAsync(_function_2, pool);
+      }
+      return _xblockexpression;
+    };
+    final List<CompletableFuture<PostProcessingModel>> futures = IterableExtensions.<CompletableFuture<PostProcessingModel>>toList(ListExtensions.<String, CompletableFuture<PostProcessingModel>>map(components, _function));
+    int _size = components.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        subMonitor.split(1);
+        models.put(components.get((i).intValue()), FuturesUtil.<PostProcessingModel>await(futures.get((i).intValue())));
+      }
+    }
+  }
+  
+  /**
+   * Applies a post-processing operation, or reads its result from the {@code cache} if the operation has been applied
+   * to the same models before. The results of {@link PostProcessingOperationProvider#isComponentLocal component
+   * local} operations are read and written per component, and the operation is applied only to the components of
+   * which no result is in the cache.
+   * 
+   * @param operationOptions The options for the operation.
+   * @param models Mapping from component name (absolute name of the CIF automaton) to input model for the component.
+   *      This mapping is modified in-place.
+   * @param selectedComponents The names of the components to which to apply the operation.
+   * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
+   *      to be resolved against the directory that contains this file.
+   * @param cache The cache of the results of post-processing operations, or {@code null} to not cache them.
+   * @param conversions The counter of the conversions between the representations of the models, to be used by the
+   *      models that result from the operation.
+   * @param monitor The progress monitor.
+   */
+  private static void applyOperation(final PostProcessingOperationOptions operationOptions, final Map<String, PostProcessingModel> models, final Set<String> selectedComponents, final Path relativeResolvePath, final PostProcessingCache cache, final PostProcessingConversions conversions, final IProgressMonitor monitor) {
+    final PostProcessingOperationProvider<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions> provider = operationOptions.<PostProcessingOperation<PostProcessingOperationOptions>, PostProcessingOperationOptions>getProvider();
+    String _xifexpression = null;
+    if ((cache != null)) {
+      _xifexpression = provider.getCacheKeyFromRawOptions(operationOptions, relativeResolvePath);
+    }
+    final String operationKey = _xifexpression;
+    final PostProcessingOperation<?> operation = provider.getOperationFromRawOptions(operationOptions);
+    if ((operationKey == null)) {
+      operation.applyOperation(models, selectedComponents, relativeResolvePath, monitor);
+    } else {
+      boolean _isComponentLocal = provider.isComponentLocal();
+      if (_isComponentLocal) {
+        final LinkedHashMap<String, String> componentKeys = new LinkedHashMap<String, String>();
+        for (final String component : selectedComponents) {
+          {
+            final LinkedHashMap<String, PostProcessingModel> componentModels = new LinkedHashMap<String, PostProcessingModel>();
+            componentModels.put(component, models.get(component));
+            final String key = cache.computeKey(provider.getOperationFormalName(), operationKey, componentModels, selectedComponents);
+            boolean _read = cache.read(key, componentModels);
+            if (_read) {
+              models.put(component, componentModels.get(component));
+            } else {
+              componentKeys.put(component, key);
+            }
+          }
+        }
+        boolean _isEmpty = componentKeys.isEmpty();
+        boolean _not = (!_isEmpty);
+        if (_not) {
+          operation.applyOperation(models, componentKeys.keySet(), relativeResolvePath, monitor);
+          Set<Map.Entry<String, String>> _entrySet = componentKeys.entrySet();
+          for (final Map.Entry<String, String> componentKey : _entrySet) {
+            {
+              final String component_1 = componentKey.getKey();
+              cache.write(componentKey.getValue(), Collections.<String, PostProcessingModel>singletonMap(component_1, models.get(component_1)));
+            }
+          }
+        }
+      } else {
+        final String key_1 = cache.computeKey(provider.getOperationFormalName(), operationKey, models, selectedComponents);
+        boolean _read_1 = cache.read(key_1, models);
+        boolean _not_1 = (!_read_1);
+        if (_not_1) {
+          operation.applyOperation(models, selectedComponents, relativeResolvePath, monitor);
+          cache.write(key_1, models);
+        }
+      }
+    }
+    Collection<PostProcessingModel> _values = models.values();
+    for (final PostProcessingModel model : _values) {
+      if ((model.conversions == null)) {
+        model.conversions = conversions;
+      }
+    }
+  }
+  
+  /**
+   * Normalizes the {@link PostProcessingModelRenamedDfa renamed} models, performing their composed renamings by
+   * determinizing and minimizing them.
+   * 
+   * @param models Mapping from component name (absolute name of the CIF automaton) to model for the component.
+   * @param pool The pool on which to normalize the models in parallel, or {@code null} to normalize them
+   *      sequentially.
+   */
+  private static void normalizeModels(final Map<String, PostProcessingModel> models, final ForkJoinPool pool) {
+    final List<PostProcessingModelRenamedDfa> renamedModels = IterableExtensions.<PostProcessingModelRenamedDfa>toList(Iterables.<PostProcessingModelRenamedDfa>filter(models.values(), PostProcessingModelRenamedDfa.class));
+    if (((pool == null) || (renamedModels.size() < 2))) {
+      final Consumer<PostProcessingModelRenamedDfa> _function = (PostProcessingModelRenamedDfa it) -> {
+        it.getCompactDfa();
+      };
+      renamedModels.forEach(_function);
+    } else {
+      final Function1<PostProcessingModelRenamedDfa, CompletableFuture<Void>> _function_1 = (PostProcessingModelRenamedDfa model) -> {
+        final Runnable _function_2 = () -> {
+          model.getCompactDfa();
+        };
+        return CompletableFuture.runAsync(_function_2, pool);
+      };
+      final List<CompletableFuture<Void>> futures = IterableExtensions.<CompletableFuture<Void>>toList(ListExtensions.<PostProcessingModelRenamedDfa, CompletableFuture<Void>>map(renamedModels, _function_1));
+      final Consumer<CompletableFuture<Void>> _function_2 = (CompletableFuture<Void> it) -> {
+        FuturesUtil.<Void>await(it);
+      };
+      futures.forEach(_function_2);
+    }
+  }
 }
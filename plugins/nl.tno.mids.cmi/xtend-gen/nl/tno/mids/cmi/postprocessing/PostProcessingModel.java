@@ -1,6 +1,10 @@
 package nl.tno.mids.cmi.postprocessing;
 
+import com.google.common.base.Objects;
+import java.util.Collection;
+import java.util.function.Function;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.words.Alphabet;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
 import org.eclipse.escet.cif.metamodel.cif.Specification;
 
@@ -10,13 +14,33 @@ public abstract class PostProcessingModel {
   
   public final PostProcessingStatus status;
   
+  /**
+   * The counter of the conversions of this model, or {@code null} to not count them.
+   */
+  PostProcessingConversions conversions;
+  
   public PostProcessingModel(final String name, final PostProcessingStatus status) {
     this.name = name;
     this.status = status;
   }
   
+  /**
+   * Returns the CIF specification of this model, converting it from the DFA if needed. The specification may be
+   * shared with the cached representation of this model and of models re-categorized from it. An operation that
+   * modifies it in-place must therefore replace the model by a new model of the modified specification, and must not
+   * use this model or models re-categorized from it afterwards, as their other representation is no longer
+   * up-to-date.
+   * 
+   * @return The CIF specification.
+   */
   public abstract Specification getCifSpec();
   
+  /**
+   * Returns the DFA of this model, converting it from the CIF specification if needed. The same rules apply as for
+   * in-place modifications of the {@link #getCifSpec CIF specification}.
+   * 
+   * @return The DFA.
+   */
   public abstract CompactDFA<String> getCompactDfa();
   
   /**
@@ -28,4 +52,96 @@ public abstract class PostProcessingModel {
    * Re-categorizes this model as having no tau. Must only be invoked if currently may have tau events.
    */
   public abstract PostProcessingModel recategorizeAsNoTau();
+  
+  /**
+   * Describes the contents of this model, to identify the model in the keys of a {@link PostProcessingCache}. Models
+   * with the same description have the same contents. Describing a model does not convert or normalize it.
+   * 
+   * @return The description of the contents of this model.
+   */
+  protected abstract String describeContents();
+  
+  /**
+   * Renames the events of this model. The renaming is performed lazily, such that consecutive renamings are composed,
+   * and the result is determinized and minimized only once, when its DFA or CIF specification is needed.
+   * 
+   * @param renaming The renaming of the events. May rename multiple events to the same event, and may rename events
+   *      to {@code "tau"} to hide them. Is not applied to {@code "tau"} events.
+   * @param initialLocationFirst Whether the initial location of the CIF specification of the result must be its
+   *      first location.
+   * @param status The post-processing status of the result.
+   * @return The renamed model.
+   */
+  public PostProcessingModel rename(final Function<String, String> renaming, final boolean initialLocationFirst, final PostProcessingStatus status) {
+    CompactDFA<String> _compactDfa = this.getCompactDfa();
+    PostProcessingModelRenamedDfa _postProcessingModelRenamedDfa = new PostProcessingModelRenamedDfa(_compactDfa, renaming, initialLocationFirst, this.name, status);
+    return this.<PostProcessingModelRenamedDfa>withConversions(_postProcessingModelRenamedDfa);
+  }
+  
+  /**
+   * Records the use of a representation of this model that may have to be converted from another representation.
+   * 
+   * @param hit Whether a cached representation was used ({@code true}) or a conversion was performed ({@code false}).
+   */
+  protected void recordConversion(final boolean hit) {
+    if (this.conversions!=null) {
+      this.conversions.record(hit);
+    }
+  }
+  
+  /**
+   * Lets a model that is derived from this model count its conversions with the same counter as this model.
+   * 
+   * @param model The derived model.
+   * @return The derived model.
+   */
+  protected <T extends PostProcessingModel> T withConversions(final T model) {
+    model.conversions = this.conversions;
+    return model;
+  }
+  
+  /**
+   * Describes a DFA of which the events are renamed, for {@link #describeContents}.
+   * 
+   * @param dfa The DFA.
+   * @param renaming The renaming of the events of the DFA. Is not applied to {@code "tau"} events.
+   * @return The description of the renamed DFA.
+   */
+  protected static String describeDfa(final CompactDFA<String> dfa, final Function<String, String> renaming) {
+    final StringBuilder description = new StringBuilder();
+    description.append(dfa.getInitialState());
+    Alphabet<String> _inputAlphabet = dfa.getInputAlphabet();
+    for (final String event : _inputAlphabet) {
+      {
+        String _xifexpression = null;
+        boolean _equals = Objects.equal(event, "tau");
+        if (_equals) {
+          _xifexpression = event;
+        } else {
+          _xifexpression = renaming.apply(event);
+        }
+        final String renamedEvent = _xifexpression;
+        description.append(";").append(event.length()).append(":").append(event);
+        description.append(">").append(renamedEvent.length()).append(":").append(renamedEvent);
+      }
+    }
+    Collection<Integer> _states = dfa.getStates();
+    for (final Integer state : _states) {
+      {
+        String _xifexpression = null;
+        boolean _isAccepting = dfa.isAccepting(state);
+        if (_isAccepting) {
+          _xifexpression = "+";
+        } else {
+          _xifexpression = "-";
+        }
+        description.append(";").append(state).append(_xifexpression);
+        Alphabet<String> _inputAlphabet_1 = dfa.getInputAlphabet();
+        for (final String event_1 : _inputAlphabet_1) {
+          description.append(",").append(dfa.getSuccessor(state, event_1));
+        }
+      }
+    }
+    return description.toString();
+  }
 }
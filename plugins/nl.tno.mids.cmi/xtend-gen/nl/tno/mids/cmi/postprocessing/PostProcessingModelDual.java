@@ -0,0 +1,118 @@
+package nl.tno.mids.cmi.postprocessing;
+
+import com.google.common.base.Preconditions;
+import java.util.Map;
+import java.util.function.Function;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif;
+import nl.tno.mids.automatalib.extensions.cif.CifToAutomataLib;
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+import org.eclipse.escet.cif.metamodel.cif.Specification;
+import org.eclipse.escet.cif.prettyprinter.CifPrettyPrinter;
+
+/**
+ * Model that holds a CIF specification, a DFA, or both. The representation that is not provided is converted from the
+ * provided one once it is needed, and is then cached, such that a model that is used by multiple operations is
+ * converted at most once. The cached representation is retained when the model is re-categorized.
+ * 
+ * <p>
+ * Operations may modify the representations of a model in-place, but must then replace the model by a new model of
+ * the modified representation, as the cached representation of the original model is no longer up-to-date.
+ * </p>
+ */
+@SuppressWarnings("all")
+public class PostProcessingModelDual extends PostProcessingModel {
+  /**
+   * The CIF specification, or {@code null} if not yet converted from the {@link #dfa}.
+   */
+  private Specification specification;
+  
+  /**
+   * The DFA, or {@code null} if not yet converted from the {@link #specification}.
+   */
+  private CompactDFA<String> dfa;
+  
+  /**
+   * Whether the {@link #specification} is provided, rather than converted from the {@link #dfa}.
+   */
+  private final boolean specificationProvided;
+  
+  protected PostProcessingModelDual(final Specification specification, final CompactDFA<String> dfa, final String name, final PostProcessingStatus status) {
+    this(specification, dfa, (specification != null), name, status);
+  }
+  
+  private PostProcessingModelDual(final Specification specification, final CompactDFA<String> dfa, final boolean specificationProvided, final String name, final PostProcessingStatus status) {
+    super(name, status);
+    this.specification = specification;
+    this.dfa = dfa;
+    this.specificationProvided = specificationProvided;
+    Preconditions.checkArgument(((specification != null) || (dfa != null)));
+    Preconditions.checkArgument(((dfa == null) || status.dataIsNotPresent()));
+  }
+  
+  /**
+   * @return Whether the CIF specification is provided, rather than converted from the DFA.
+   */
+  boolean isSpecificationProvided() {
+    return this.specificationProvided;
+  }
+  
+  @Override
+  public Specification getCifSpec() {
+    if ((this.specification == null)) {
+      this.recordConversion(false);
+      this.specification = AutomataLibToCif.<Integer, Integer, Void, CompactDFA<String>>fsaToCifSpecification(this.dfa, this.name, true);
+    } else {
+      if ((!this.specificationProvided)) {
+        this.recordConversion(true);
+      }
+    }
+    return this.specification;
+  }
+  
+  @Override
+  public CompactDFA<String> getCompactDfa() {
+    Preconditions.checkState(this.status.dataIsNotPresent());
+    if ((this.dfa == null)) {
+      this.recordConversion(false);
+      final Map<String, CompactDFA<String>> dfas = CifToAutomataLib.cifSpecificationToCompactDfas(this.specification, false);
+      int _size = dfas.size();
+      boolean _equals = (_size == 1);
+      Preconditions.checkState(_equals);
+      this.dfa = dfas.entrySet().iterator().next().getValue();
+    } else {
+      if (this.specificationProvided) {
+        this.recordConversion(true);
+      }
+    }
+    return this.dfa;
+  }
+  
+  @Override
+  public PostProcessingModel recategorizeAsNoData() {
+    Preconditions.checkArgument(this.status.dataIsPresent());
+    boolean _tauIsPresent = this.status.tauIsPresent();
+    PostProcessingStatus _postProcessingStatus = new PostProcessingStatus(false, _tauIsPresent);
+    PostProcessingModelDual _postProcessingModelDual = new PostProcessingModelDual(this.specification, this.dfa, this.specificationProvided, this.name, _postProcessingStatus);
+    return this.<PostProcessingModelDual>withConversions(_postProcessingModelDual);
+  }
+  
+  @Override
+  public PostProcessingModel recategorizeAsNoTau() {
+    Preconditions.checkArgument(this.status.tauIsPresent());
+    boolean _dataIsPresent = this.status.dataIsPresent();
+    PostProcessingStatus _postProcessingStatus = new PostProcessingStatus(_dataIsPresent, false);
+    PostProcessingModelDual _postProcessingModelDual = new PostProcessingModelDual(this.specification, this.dfa, this.specificationProvided, this.name, _postProcessingStatus);
+    return this.<PostProcessingModelDual>withConversions(_postProcessingModelDual);
+  }
+  
+  @Override
+  protected String describeContents() {
+    if (this.specificationProvided) {
+      String _string = CifPrettyPrinter.boxSpec(this.specification).toString();
+      return ("cif:" + _string);
+    }
+    String _describeDfa = PostProcessingModel.describeDfa(this.dfa, Function.<String>identity());
+    return ("dfa:" + _describeDfa);
+  }
+}
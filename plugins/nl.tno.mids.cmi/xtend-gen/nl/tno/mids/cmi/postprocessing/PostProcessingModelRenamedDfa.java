@@ -0,0 +1,154 @@
+package nl.tno.mids.cmi.postprocessing;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import java.util.function.Function;
+import net.automatalib.automata.fsa.impl.compact.CompactDFA;
+import net.automatalib.automata.fsa.impl.compact.CompactNFA;
+import net.automatalib.util.automata.fsa.NFAs;
+import net.automatalib.words.Alphabet;
+import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif;
+import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
+import nl.tno.mids.cif.extensions.AutomatonExtensions;
+import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries;
+import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
+import org.eclipse.escet.cif.metamodel.cif.Specification;
+import org.eclipse.escet.cif.metamodel.cif.automata.Automaton;
+
+/**
+ * Model that renames the events of a DFA. The renamed DFA is determinized and minimized only once it is needed. Until
+ * then, further renamings are composed with the renaming of this model, such that a chain of renaming operations
+ * determinizes and minimizes each model only once, and does not convert to CIF in between.
+ */
+@SuppressWarnings("all")
+public class PostProcessingModelRenamedDfa extends PostProcessingModel {
+  /**
+   * The DFA of which to rename the events.
+   */
+  private final CompactDFA<String> sourceDfa;
+  
+  /**
+   * The renaming of the events of the {@link #sourceDfa}. Is not applied to {@code "tau"} events.
+   */
+  private final Function<String, String> renaming;
+  
+  /**
+   * Whether the initial location of the CIF specification must be its first location.
+   */
+  private final boolean initialLocationFirst;
+  
+  /**
+   * The minimal renamed DFA, or {@code null} if not yet computed.
+   */
+  private CompactDFA<String> dfa;
+  
+  /**
+   * The CIF specification of the minimal renamed DFA, or {@code null} if not yet converted.
+   */
+  private Specification specification;
+  
+  public PostProcessingModelRenamedDfa(final CompactDFA<String> sourceDfa, final Function<String, String> renaming, final boolean initialLocationFirst, final String name, final PostProcessingStatus status) {
+    super(name, status);
+    this.sourceDfa = sourceDfa;
+    this.renaming = renaming;
+    this.initialLocationFirst = initialLocationFirst;
+    Preconditions.checkArgument(status.dataIsNotPresent());
+  }
+  
+  /**
+   * Creates a model of a DFA of which the events are already renamed, and that is already minimal, for instance as it
+   * is read from a {@link PostProcessingCache}.
+   */
+  public PostProcessingModelRenamedDfa(final CompactDFA<String> dfa, final boolean initialLocationFirst, final String name, final PostProcessingStatus status) {
+    this(dfa, Function.<String>identity(), initialLocationFirst, name, status);
+    this.dfa = dfa;
+  }
+  
+  /**
+   * @return Whether the initial location of the CIF specification must be its first location.
+   */
+  boolean isInitialLocationFirst() {
+    return this.initialLocationFirst;
+  }
+  
+  @Override
+  public Specification getCifSpec() {
+    if ((this.specification != null)) {
+      this.recordConversion(true);
+      return this.specification;
+    }
+    this.recordConversion(false);
+    this.specification = AutomataLibToCif.<Integer, Integer, Void, CompactDFA<String>>fsaToCifSpecification(this.getCompactDfa(), this.name, true);
+    if (this.initialLocationFirst) {
+      final Automaton automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(this.specification);
+      AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton);
+    }
+    return this.specification;
+  }
+  
+  @Override
+  public CompactDFA<String> getCompactDfa() {
+    Preconditions.checkState(this.status.dataIsNotPresent());
+    if ((this.dfa == null)) {
+      final Function<Alphabet<String>, CompactNFA<String>> _function = (Alphabet<String> a) -> {
+        return new CompactNFA<String>(a);
+      };
+      final Function<String, String> _function_1 = (String event) -> {
+        String _xifexpression = null;
+        boolean _equals = Objects.equal(event, "tau");
+        if (_equals) {
+          _xifexpression = event;
+        } else {
+          _xifexpression = this.renaming.apply(event);
+        }
+        return _xifexpression;
+      };
+      final CompactNFA<String> nfa = AutomataLibUtil.<Integer, Integer, String, String, CompactDFA<String>, CompactNFA<String>>rename(this.sourceDfa, _function, this.sourceDfa.getInputAlphabet(), _function_1);
+      final CompactDFA<String> renamedDfa = NFAs.<String>determinize(nfa, nfa.getInputAlphabet(), true, false);
+      this.dfa = AutomataLibUtil.normalizeWeakTrace(renamedDfa);
+    }
+    return this.dfa;
+  }
+  
+  @Override
+  public PostProcessingModel rename(final Function<String, String> renaming, final boolean initialLocationFirst, final PostProcessingStatus status) {
+    if ((this.dfa != null)) {
+      return super.rename(renaming, initialLocationFirst, status);
+    }
+    final Function<String, String> _function = (String event) -> {
+      final String renamedEvent = this.renaming.apply(event);
+      String _xifexpression = null;
+      boolean _equals = Objects.equal(renamedEvent, "tau");
+      if (_equals) {
+        _xifexpression = renamedEvent;
+      } else {
+        _xifexpression = renaming.apply(renamedEvent);
+      }
+      return _xifexpression;
+    };
+    final Function<String, String> composedRenaming = _function;
+    PostProcessingModelRenamedDfa _postProcessingModelRenamedDfa = new PostProcessingModelRenamedDfa(this.sourceDfa, composedRenaming, initialLocationFirst, this.name, status);
+    return this.<PostProcessingModelRenamedDfa>withConversions(_postProcessingModelRenamedDfa);
+  }
+  
+  @Override
+  public PostProcessingModel recategorizeAsNoData() {
+    throw new UnsupportedOperationException(
+      "Can\'t re-categorize. Must already have no data, as CompactDFA cannot represent data.");
+  }
+  
+  @Override
+  public PostProcessingModel recategorizeAsNoTau() {
+    Preconditions.checkArgument(this.status.tauIsPresent());
+    boolean _dataIsPresent = this.status.dataIsPresent();
+    PostProcessingStatus _postProcessingStatus = new PostProcessingStatus(_dataIsPresent, false);
+    PostProcessingModelRenamedDfa _postProcessingModelRenamedDfa = new PostProcessingModelRenamedDfa(this.sourceDfa, this.renaming, this.initialLocationFirst, this.name, _postProcessingStatus);
+    return this.<PostProcessingModelRenamedDfa>withConversions(_postProcessingModelRenamedDfa);
+  }
+  
+  @Override
+  protected String describeContents() {
+    String _describeDfa = PostProcessingModel.describeDfa(this.sourceDfa, this.renaming);
+    return ((("renamed:" + Boolean.valueOf(this.initialLocationFirst)) + ":") + _describeDfa);
+  }
+}
@@ -45,4 +45,9 @@ public class AddAsyncPatternConstraintsProvider extends PostProcessingOperationP
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
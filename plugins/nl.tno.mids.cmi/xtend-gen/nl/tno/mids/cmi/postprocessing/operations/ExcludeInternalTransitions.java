@@ -9,18 +9,13 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.automata.fsa.impl.compact.CompactNFA;
-import net.automatalib.util.automata.fsa.NFAs;
 import net.automatalib.words.Alphabet;
 import net.automatalib.words.GrowingAlphabet;
 import net.automatalib.words.impl.Alphabets;
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel;
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset;
-import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
@@ -74,10 +69,7 @@ public class ExcludeInternalTransitions extends PostProcessingOperation<ExcludeI
           }
         }
       }
-      final Function<Alphabet<String>, CompactNFA<String>> _function_4 = (Alphabet<String> a) -> {
-        return new CompactNFA<String>(a);
-      };
-      final Function<String, String> _function_5 = (String t) -> {
+      final Function<String, String> _function_4 = (String t) -> {
         String _xifexpression = null;
         if ((contextAlphabet.containsSymbol(t) || serviceFragmentEvents.contains(t))) {
           _xifexpression = t;
@@ -86,13 +78,7 @@ public class ExcludeInternalTransitions extends PostProcessingOperation<ExcludeI
         }
         return _xifexpression;
       };
-      final CompactNFA<String> newNfa = AutomataLibUtil.<Integer, Integer, String, String, CompactDFA<String>, CompactNFA<String>>rename(previousDfa, _function_4, 
-        previousDfa.getInputAlphabet(), _function_5);
-      final CompactDFA<String> newDfa = NFAs.<String>determinize(newNfa, newNfa.getInputAlphabet(), true, false);
-      final CompactDFA<String> newDfaNoTau = AutomataLibUtil.normalizeWeakTrace(newDfa);
-      PostProcessingStatus _resultStatus = this.getResultStatus(componentModel.status);
-      PostProcessingModelCompactDfa _postProcessingModelCompactDfa = new PostProcessingModelCompactDfa(newDfaNoTau, component, _resultStatus);
-      models.put(component, _postProcessingModelCompactDfa);
+      models.put(component, componentModel.rename(_function_4, false, this.getResultStatus(componentModel.status)));
     };
     selectedComponents.forEach(_function_1);
   }
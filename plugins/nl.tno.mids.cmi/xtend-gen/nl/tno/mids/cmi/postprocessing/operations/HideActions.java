@@ -8,16 +8,10 @@ import java.util.Set;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.automata.fsa.impl.compact.CompactNFA;
-import net.automatalib.util.automata.fsa.NFAs;
-import net.automatalib.words.Alphabet;
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel;
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset;
-import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.xtend.lib.annotations.Accessors;
 
@@ -59,10 +53,7 @@ public class HideActions extends PostProcessingOperation<HideActionsOptions> {
             }
           }
         }
-        final Function<Alphabet<String>, CompactNFA<String>> _function = (Alphabet<String> a) -> {
-          return new CompactNFA<String>(a);
-        };
-        final Function<String, String> _function_1 = (String t) -> {
+        final Function<String, String> _function = (String t) -> {
           String _xifexpression = null;
           if ((pattern.matcher(t).matches() && (!serviceFragmentEvents.contains(t)))) {
             _xifexpression = "tau";
@@ -71,13 +62,7 @@ public class HideActions extends PostProcessingOperation<HideActionsOptions> {
           }
           return _xifexpression;
         };
-        final CompactNFA<String> newNfa = AutomataLibUtil.<Integer, Integer, String, String, CompactDFA<String>, CompactNFA<String>>rename(previousDfa, _function, 
-          previousDfa.getInputAlphabet(), _function_1);
-        final CompactDFA<String> newDfa = NFAs.<String>determinize(newNfa, newNfa.getInputAlphabet(), true, false);
-        final CompactDFA<String> newDfaNoTau = AutomataLibUtil.normalizeWeakTrace(newDfa);
-        PostProcessingStatus _resultStatus = this.getResultStatus(componentModel.status);
-        PostProcessingModelCompactDfa _postProcessingModelCompactDfa = new PostProcessingModelCompactDfa(newDfaNoTau, component, _resultStatus);
-        models.put(component, _postProcessingModelCompactDfa);
+        models.put(component, componentModel.rename(_function, false, this.getResultStatus(componentModel.status)));
       }
     }
   }
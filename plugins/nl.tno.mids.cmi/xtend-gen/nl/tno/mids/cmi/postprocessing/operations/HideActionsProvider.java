@@ -49,4 +49,9 @@ public class HideActionsProvider extends PostProcessingOperationProvider<HideAct
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
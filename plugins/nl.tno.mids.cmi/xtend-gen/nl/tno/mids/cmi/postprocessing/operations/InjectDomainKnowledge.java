@@ -1,9 +1,16 @@
 package nl.tno.mids.cmi.postprocessing.operations;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
@@ -24,6 +31,12 @@ import org.eclipse.xtext.xbase.lib.Exceptions;
 @Accessors
 @SuppressWarnings("all")
 public class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainKnowledgeOptions> {
+  /**
+   * The prepared DFAs of the domain knowledge models to inject, per absolute path, last modified time and size of the
+   * model file. They are shared by all operations, components and threads, and may therefore not be modified.
+   */
+  private static final Cache<String, CompactDFA<String>> injectDfas = CacheBuilder.newBuilder().maximumSize(16).softValues().<String, CompactDFA<String>>build();
+  
   @Override
   public PostProcessingPreconditionSubset getPreconditionSubset() {
     return new PostProcessingPreconditionSubset(Boolean.valueOf(false), Boolean.valueOf(false));
@@ -36,13 +49,19 @@ public class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainK
   
   @Override
   public void applyOperation(final Map<String, PostProcessingModel> models, final Set<String> selectedComponents, final Path relativeResolvePath, final IProgressMonitor monitor) {
-    final SubMonitor subMonitor = SubMonitor.convert(monitor, selectedComponents.size());
+    boolean _isEmpty = selectedComponents.isEmpty();
+    if (_isEmpty) {
+      return;
+    }
+    int _size = selectedComponents.size();
+    int _plus = (_size + 1);
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus);
+    final CompactDFA<String> injectDfa = InjectDomainKnowledge.getInjectDfa(relativeResolvePath, this.options, subMonitor.split(1));
     for (final String component : selectedComponents) {
       {
         final PostProcessingModel previousModel = models.get(component);
         this.getPreconditionSubset().ensureSubset(previousModel);
-        final CompactDFA<String> newDfa = InjectDomainKnowledge.injectDomainKnowledge(previousModel.getCompactDfa(), relativeResolvePath, this.options, 
-          subMonitor.split(1));
+        final CompactDFA<String> newDfa = InjectDomainKnowledge.injectDomainKnowledge(previousModel.getCompactDfa(), injectDfa, this.options, subMonitor.split(1));
         if ((newDfa != null)) {
           PostProcessingStatus _resultStatus = this.getResultStatus(previousModel.status);
           PostProcessingModelCompactDfa _postProcessingModelCompactDfa = new PostProcessingModelCompactDfa(newDfa, component, _resultStatus);
@@ -53,24 +72,67 @@ public class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainK
   }
   
   /**
-   * Apply domain knowledge injection.
+   * Get the prepared DFA of the domain knowledge model to inject. The DFA is prepared only once per model file, as
+   * long as that file does not change. If the model file does not exist, loading it reports the error.
    * 
-   * @param previousDfa The DFA on which to inject the domain knowledge.
    * @param relativeResolvePath The absolute path of the input file. During post-processing, all relative paths are
    *      to be resolved against the directory that contains this file.
    * @param options The domain knowledge injection options.
    * @param monitor The progress monitor.
-   * @return The DFA resulting from injection, or {@code null} if domain knowledge injection did not apply.
+   * @return The DFA of the domain knowledge model to inject. Must not be modified.
    */
-  private static CompactDFA<String> injectDomainKnowledge(final CompactDFA<String> previousDfa, final Path relativeResolvePath, final InjectDomainKnowledgeOptions options, final IProgressMonitor monitor) {
+  public static CompactDFA<String> getInjectDfa(final Path relativeResolvePath, final InjectDomainKnowledgeOptions options, final IProgressMonitor monitor) {
     try {
-      String _string = options.toString();
-      String _plus = ("Injecting domain knowledge: " + _string);
-      final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus, 71);
-      subMonitor.split(10);
       final Path absOrRelInjectPath = Paths.get(options.modelPath);
       final Path absInjectResolvePath = relativeResolvePath.getParent();
-      final Path absInjectPath = absInjectResolvePath.resolve(absOrRelInjectPath).normalize();
+      final Path absInjectPath = absInjectResolvePath.resolve(absOrRelInjectPath).normalize().toAbsolutePath();
+      boolean _isRegularFile = Files.isRegularFile(absInjectPath);
+      boolean _not = (!_isRegularFile);
+      if (_not) {
+        return InjectDomainKnowledge.prepareInjectDfa(absInjectPath, options, monitor);
+      }
+      String _string = absInjectPath.toString();
+      String _plus = (_string + ",");
+      FileTime _lastModifiedTime = Files.getLastModifiedTime(absInjectPath);
+      String _plus_1 = (_plus + _lastModifiedTime);
+      String _plus_2 = (_plus_1 + ",");
+      long _size = Files.size(absInjectPath);
+      final String key = (_plus_2 + Long.valueOf(_size));
+      try {
+        final Callable<CompactDFA<String>> _function = () -> {
+          return InjectDomainKnowledge.prepareInjectDfa(absInjectPath, options, monitor);
+        };
+        return InjectDomainKnowledge.injectDfas.get(key, _function);
+      } catch (final Throwable _t) {
+        if (_t instanceof ExecutionException) {
+          final ExecutionException e = (ExecutionException)_t;
+          throw e.getCause();
+        } else if (_t instanceof UncheckedExecutionException) {
+          final UncheckedExecutionException e_1 = (UncheckedExecutionException)_t;
+          throw e_1.getCause();
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Prepare the DFA of the domain knowledge model to inject.
+   * 
+   * @param absInjectPath The absolute path of the domain knowledge model to inject.
+   * @param options The domain knowledge injection options.
+   * @param monitor The progress monitor.
+   * @return The DFA of the domain knowledge model to inject.
+   */
+  private static CompactDFA<String> prepareInjectDfa(final Path absInjectPath, final InjectDomainKnowledgeOptions options, final IProgressMonitor monitor) {
+    try {
+      String _string = options.toString();
+      String _plus = ("Loading domain knowledge: " + _string);
+      final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus, 21);
+      subMonitor.split(10);
       Specification injectSpec = FileExtensions.loadCIF(absInjectPath);
       subMonitor.split(10);
       PostProcessingStatus _postProcessingStatus = new PostProcessingStatus(true, true);
@@ -87,42 +149,59 @@ public class InjectDomainKnowledge extends PostProcessingOperation<InjectDomainK
         throw new RuntimeException((("Domain knowledge model \"" + options.modelPath) + 
           "\" does not have any accepting states. Ensure the CIF model contains appropriate marking."));
       }
-      subMonitor.split(50);
-      CompactDFA<String> _switchResult = null;
-      final InjectDomainKnowledgeOperator _switchValue = options.operator;
-      if (_switchValue != null) {
-        switch (_switchValue) {
-          case DIFFERENCE_LEFT:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>differenceMinimized(injectDfa, previousDfa);
-            break;
-          case DIFFERENCE_RIGHT:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>differenceMinimized(previousDfa, injectDfa);
-            break;
-          case EXCLUSIVE_OR:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>xorMinimized(previousDfa, injectDfa);
-            break;
-          case INTERSECTION:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>intersectionMinimized(previousDfa, injectDfa);
-            break;
-          case PARALLEL_COMPOSITION:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>parallelCompositionMinimized(previousDfa, injectDfa);
-            break;
-          case UNION:
-            _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>unionMinimized(previousDfa, injectDfa);
-            break;
-          default:
-            throw new RuntimeException(("Unknown operator: " + options.operator));
-        }
-      } else {
-        throw new RuntimeException(("Unknown operator: " + options.operator));
-      }
-      final CompactDFA<String> newDfa = _switchResult;
-      return newDfa;
+      return injectDfa;
     } catch (Throwable _e) {
       throw Exceptions.sneakyThrow(_e);
     }
   }
   
+  /**
+   * Apply domain knowledge injection.
+   * 
+   * @param previousDfa The DFA on which to inject the domain knowledge.
+   * @param sharedInjectDfa The DFA of the domain knowledge model to inject. Is not modified.
+   * @param options The domain knowledge injection options.
+   * @param monitor The progress monitor.
+   * @return The DFA resulting from injection, or {@code null} if domain knowledge injection did not apply.
+   */
+  private static CompactDFA<String> injectDomainKnowledge(final CompactDFA<String> previousDfa, final CompactDFA<String> sharedInjectDfa, final InjectDomainKnowledgeOptions options, final IProgressMonitor monitor) {
+    String _string = options.toString();
+    String _plus = ("Injecting domain knowledge: " + _string);
+    final SubMonitor subMonitor = SubMonitor.convert(monitor, _plus, 1);
+    final CompactDFA<String> injectDfa = sharedInjectDfa.<String>translate(AutomataLibUtil.<String>copyAlphabet(sharedInjectDfa.getInputAlphabet()));
+    subMonitor.split(1);
+    CompactDFA<String> _switchResult = null;
+    final InjectDomainKnowledgeOperator _switchValue = options.operator;
+    if (_switchValue != null) {
+      switch (_switchValue) {
+        case DIFFERENCE_LEFT:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>differenceMinimized(injectDfa, previousDfa);
+          break;
+        case DIFFERENCE_RIGHT:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>differenceMinimized(previousDfa, injectDfa);
+          break;
+        case EXCLUSIVE_OR:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>xorMinimized(previousDfa, injectDfa);
+          break;
+        case INTERSECTION:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>intersectionMinimized(previousDfa, injectDfa);
+          break;
+        case PARALLEL_COMPOSITION:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>parallelCompositionMinimized(previousDfa, injectDfa);
+          break;
+        case UNION:
+          _switchResult = AutomataLibUtil.<Integer, String, CompactDFA<String>>unionMinimized(previousDfa, injectDfa);
+          break;
+        default:
+          throw new RuntimeException(("Unknown operator: " + options.operator));
+      }
+    } else {
+      throw new RuntimeException(("Unknown operator: " + options.operator));
+    }
+    final CompactDFA<String> newDfa = _switchResult;
+    return newDfa;
+  }
+  
   public InjectDomainKnowledge(final InjectDomainKnowledgeOptions options) {
     super(options);
   }
@@ -1,8 +1,12 @@
 package nl.tno.mids.cmi.postprocessing.operations;
 
 import com.google.common.base.Preconditions;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import nl.tno.mids.cmi.postprocessing.PostProcessingCache;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProvider;
 
 @SuppressWarnings("all")
@@ -51,8 +55,27 @@ public class InjectDomainKnowledgeProvider extends PostProcessingOperationProvid
     return (_plus + options.modelPath);
   }
   
+  @Override
+  public String getCacheKey(final InjectDomainKnowledgeOptions options, final Path relativeResolvePath) {
+    final Path absInjectPath = relativeResolvePath.getParent().resolve(Paths.get(options.modelPath)).normalize();
+    boolean _isRegularFile = Files.isRegularFile(absInjectPath);
+    boolean _not = (!_isRegularFile);
+    if (_not) {
+      return null;
+    }
+    String _writeOptions = this.writeOptions(options);
+    String _plus = (_writeOptions + ",");
+    String _computeFileHash = PostProcessingCache.computeFileHash(absInjectPath);
+    return (_plus + _computeFileHash);
+  }
+  
   @Override
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
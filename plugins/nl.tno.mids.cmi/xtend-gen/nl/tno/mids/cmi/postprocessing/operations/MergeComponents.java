@@ -15,25 +15,18 @@ import java.util.regex.Pattern;
 import net.automatalib.automata.fsa.impl.FastNFA;
 import net.automatalib.automata.fsa.impl.FastNFAState;
 import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.automata.fsa.impl.compact.CompactNFA;
 import net.automatalib.util.automata.fsa.NFAs;
-import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif;
 import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
-import nl.tno.mids.cif.extensions.AutomatonExtensions;
-import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries;
 import nl.tno.mids.cmi.api.general.CmiGeneralEventQueries;
 import nl.tno.mids.cmi.api.info.ComponentInfo;
 import nl.tno.mids.cmi.api.info.EventInfo;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel;
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCifSpec;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModelCompactDfa;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.escet.cif.metamodel.cif.Specification;
-import org.eclipse.escet.cif.metamodel.cif.automata.Automaton;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
@@ -126,19 +119,10 @@ public class MergeComponents extends PostProcessingOperation<MergeComponentsOpti
       }
     }
     final Consumer<Map.Entry<String, PostProcessingModel>> _function_2 = (Map.Entry<String, PostProcessingModel> entry) -> {
-      final CompactNFA<String> nfa = AutomataLibUtil.<String>dfaToNfa(entry.getValue().getCompactDfa());
       final Function<String, String> _function_3 = (String event) -> {
         return this.normalizeMergedComponentNamesInEvent(event, componentRenameMap);
       };
-      final CompactNFA<String> renamedNfa = AutomataLibUtil.<String, String>rename(nfa, _function_3);
-      final CompactDFA<String> renamedDfa = NFAs.<String>determinize(renamedNfa, renamedNfa.getInputAlphabet(), true, false);
-      final CompactDFA<String> minimizedRenamedDfa = AutomataLibUtil.<String>minimizeDFA(renamedDfa);
-      final Specification renamedCif = AutomataLibToCif.<Integer, Integer, Void, CompactDFA<String>>fsaToCifSpecification(minimizedRenamedDfa, entry.getValue().name, true);
-      final Automaton automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(renamedCif);
-      AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton);
-      PostProcessingStatus _resultStatus = this.getResultStatus(entry.getValue().status);
-      PostProcessingModelCifSpec _postProcessingModelCifSpec = new PostProcessingModelCifSpec(renamedCif, entry.getValue().name, _resultStatus);
-      entry.setValue(_postProcessingModelCifSpec);
+      entry.setValue(entry.getValue().rename(_function_3, true, this.getResultStatus(entry.getValue().status)));
     };
     models.entrySet().forEach(_function_2);
   }
@@ -1,6 +1,7 @@
 package nl.tno.mids.cmi.postprocessing.operations;
 
 import com.google.common.base.Preconditions;
+import java.nio.file.Path;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperationProvider;
 
 @SuppressWarnings("all")
@@ -45,6 +46,11 @@ public class MergeComponentsProvider extends PostProcessingOperationProvider<Mer
     return options.pattern;
   }
   
+  @Override
+  public String getCacheKey(final MergeComponentsOptions options, final Path relativeResolvePath) {
+    return this.writeOptions(options);
+  }
+  
   @Override
   public boolean supportsFilteredComponentsAsInput() {
     return true;
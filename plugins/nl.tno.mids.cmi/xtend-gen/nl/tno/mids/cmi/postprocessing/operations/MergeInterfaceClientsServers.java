@@ -5,27 +5,16 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import net.automatalib.automata.fsa.impl.compact.CompactDFA;
-import net.automatalib.automata.fsa.impl.compact.CompactNFA;
-import net.automatalib.util.automata.fsa.NFAs;
-import nl.tno.mids.automatalib.extensions.cif.AutomataLibToCif;
-import nl.tno.mids.automatalib.extensions.util.AutomataLibUtil;
-import nl.tno.mids.cif.extensions.AutomatonExtensions;
-import nl.tno.mids.cmi.api.basic.CmiBasicComponentQueries;
 import nl.tno.mids.cmi.api.general.CmiGeneralEventQueries;
 import nl.tno.mids.cmi.api.info.ComponentInfo;
 import nl.tno.mids.cmi.api.info.EventFunctionExecutionSide;
 import nl.tno.mids.cmi.api.info.EventInfo;
 import nl.tno.mids.cmi.postprocessing.PostProcessingModel;
-import nl.tno.mids.cmi.postprocessing.PostProcessingModelCifSpec;
 import nl.tno.mids.cmi.postprocessing.PostProcessingOperation;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingPreconditionSubset;
 import nl.tno.mids.cmi.postprocessing.status.PostProcessingResultSubset;
-import nl.tno.mids.cmi.postprocessing.status.PostProcessingStatus;
 import nl.tno.mids.pps.extensions.info.EventFunctionExecutionType;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.escet.cif.metamodel.cif.Specification;
-import org.eclipse.escet.cif.metamodel.cif.automata.Automaton;
 import org.eclipse.xtend.lib.annotations.Accessors;
 
 /**
@@ -50,19 +39,10 @@ public class MergeInterfaceClientsServers extends PostProcessingOperation<MergeI
       final ComponentInfo baseComponentInfo = new ComponentInfo(component);
       final PostProcessingModel model = models.get(component);
       this.getPreconditionSubset().ensureSubset(model);
-      final CompactNFA<String> nfa = AutomataLibUtil.<String>dfaToNfa(model.getCompactDfa());
       final Function<String, String> _function_1 = (String event) -> {
         return this.normalizeInterfaceClientsServersInEvent(event, baseComponentInfo);
       };
-      final CompactNFA<String> renamedNfa = AutomataLibUtil.<String, String>rename(nfa, _function_1);
-      final CompactDFA<String> renamedDfa = NFAs.<String>determinize(renamedNfa, renamedNfa.getInputAlphabet(), true, false);
-      final CompactDFA<String> minimizedDfa = AutomataLibUtil.<String>minimizeDFA(renamedDfa);
-      final Specification renamedCif = AutomataLibToCif.<Integer, Integer, Void, CompactDFA<String>>fsaToCifSpecification(minimizedDfa, component, true);
-      final Automaton automaton = CmiBasicComponentQueries.getSingleComponentWithBehavior(renamedCif);
-      AutomatonExtensions.ensureInitialLocationIsFirstLocation(automaton);
-      PostProcessingStatus _resultStatus = this.getResultStatus(model.status);
-      PostProcessingModelCifSpec _postProcessingModelCifSpec = new PostProcessingModelCifSpec(renamedCif, component, _resultStatus);
-      models.put(component, _postProcessingModelCifSpec);
+      models.put(component, model.rename(_function_1, true, this.getResultStatus(model.status)));
     };
     selectedComponents.forEach(_function);
   }
@@ -54,4 +54,9 @@ public class MergeInterfaceClientsServersProvider extends PostProcessingOperatio
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
@@ -1,6 +1,7 @@
 package nl.tno.mids.cmi.postprocessing.operations;
 
 import com.google.common.base.Preconditions;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import nl.tno.mids.cif.extensions.mrr.cif.MrrToCifMode;
@@ -62,8 +63,18 @@ public class ModifyRepetitionsProvider extends PostProcessingOperationProvider<M
     return (_plus_6 + Integer.valueOf(options.maxRepeats));
   }
   
+  @Override
+  public String getCacheKey(final ModifyRepetitionsOptions options, final Path relativeResolvePath) {
+    return this.writeOptions(options);
+  }
+  
   @Override
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
@@ -45,4 +45,9 @@ public class PrefixCloseProvider extends PostProcessingOperationProvider<PrefixC
   public boolean supportsFilteredComponentsAsInput() {
     return true;
   }
+  
+  @Override
+  public boolean isComponentLocal() {
+    return true;
+  }
 }
@@ -194,6 +194,54 @@ public class CifNamesUtil {
     return cifName;
   }
   
+  /**
+   * Gives a key for the CIF event name for the specified {@code event} in the scope of {@code scopeTmsc}. Events with
+   * equal keys get equal CIF event names, allowing to construct and validate each distinct CIF event name only once,
+   * using {@link #asCifName(Event, TMSC, boolean)}.
+   * 
+   * @param event The {@link TMSC} {@link Event event}, which should be in scope of {@code scopeTmsc}.
+   * @param scopeTmsc The contextual {@link TMSC}.
+   * @return The CIF event name key.
+   */
+  public static CifEventNameKey asCifNameKey(final Event event, final TMSC scopeTmsc) {
+    final boolean hasIncoming = TmscDependencyQueries.hasIncomingMessageDependencies(event, scopeTmsc);
+    final boolean hasOutgoing = TmscDependencyQueries.hasOutgoingMessageDependencies(event, scopeTmsc);
+    Event _xifexpression = null;
+    if ((hasIncoming == hasOutgoing)) {
+      _xifexpression = null;
+    } else {
+      Event _xifexpression_1 = null;
+      if (hasOutgoing) {
+        _xifexpression_1 = TmscDependencyQueries.getOutgoingMessageDependency(event, scopeTmsc).getTarget();
+      } else {
+        _xifexpression_1 = TmscDependencyQueries.getIncomingMessageDependency(event, scopeTmsc).getSource();
+      }
+      _xifexpression = _xifexpression_1;
+    }
+    final Event otherEvent = _xifexpression;
+    Executor _executor = event.getLifeline().getExecutor();
+    String _interfaceName = CifNamesUtil.getInterfaceName(event);
+    String _functionName = CifNamesUtil.getFunctionName(event);
+    EventFunctionExecutionType _executionType = CifNamesUtil.getExecutionType(event);
+    CifEventNameKey _asCifNameKey = null;
+    if (otherEvent!=null) {
+      _asCifNameKey=CifNamesUtil.asCifNameKey(otherEvent);
+    }
+    return new CifEventNameKey(_executor, _interfaceName, _functionName, _executionType, (event instanceof ExitEvent), hasOutgoing, _asCifNameKey);
+  }
+  
+  /**
+   * @param event The {@link TMSC} {@link Event event}.
+   * @return The CIF event name key of the given {@code event}, disregarding its dependencies.
+   */
+  private static CifEventNameKey asCifNameKey(final Event event) {
+    Executor _executor = event.getLifeline().getExecutor();
+    String _interfaceName = CifNamesUtil.getInterfaceName(event);
+    String _functionName = CifNamesUtil.getFunctionName(event);
+    EventFunctionExecutionType _executionType = CifNamesUtil.getExecutionType(event);
+    return new CifEventNameKey(_executor, _interfaceName, _functionName, _executionType, (event instanceof ExitEvent), false, null);
+  }
+  
   /**
    * @param name The name to add postfix to.
    * @param event The event defining the postfix to add.
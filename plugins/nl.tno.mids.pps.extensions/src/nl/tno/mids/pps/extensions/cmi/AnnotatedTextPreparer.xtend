@@ -31,6 +31,11 @@ class AnnotatedTextPreparer extends CmiPreparer {
     }
 
     override protected scope(FullScopeTMSC tmsc, String scopeName) {
+        if (virtualScope) {
+            // Scope on all events, which puts all dependencies in scope without adding them to the scope.
+            return scopeOnEvents(tmsc, scopeName, [true])
+        }
+
         // Just add all the dependencies to the scope.
         return TmscQueries.createScopedTMSC(tmsc.dependencies, scopeName) => [
             parentScope = tmsc
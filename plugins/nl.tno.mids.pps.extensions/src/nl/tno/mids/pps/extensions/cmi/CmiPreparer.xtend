@@ -25,9 +25,12 @@ import nl.esi.pps.tmsc.TMSC
 import nl.esi.pps.tmsc.TmscFactory
 import nl.esi.pps.tmsc.util.TmscQueries
 import nl.tno.mids.pps.extensions.info.EventFunctionExecutionType
+import nl.tno.mids.pps.extensions.queries.TmscEventQueries
 import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries
+import nl.tno.mids.pps.extensions.queries.TmscVirtualScope
 import org.apache.commons.lang3.tuple.Pair
 import org.eclipse.lsat.common.util.PairwiseIterable
+import org.eclipse.xtend.lib.annotations.Accessors
 
 /**
  * A transformation for preparing {@link TMSC TMSCs} for CMI. This transformation determines and annotates all
@@ -48,6 +51,15 @@ abstract class CmiPreparer {
     @PersistedProperty(Event)
     static val EventFunctionExecutionType executionType
 
+    /**
+     * Whether {@link #scopeOnEvents} creates a {@link TmscVirtualScope virtual scope}, rather than a
+     * {@link ScopedTMSC scoped TMSC} containing the {@link Dependency dependencies} in scope. A virtual scope does not
+     * add any dependencies to the TMSC, significantly reducing the memory requirements for large TMSCs. However, the
+     * dependencies and events in scope can then only be obtained using the queries of the
+     * {@code nl.tno.mids.pps.extensions.queries} package. By default, no virtual scope is created.
+     */
+    @Accessors boolean virtualScope = false
+
     abstract def boolean appliesTo(Dependency dependency)
 
     /**
@@ -80,7 +92,7 @@ abstract class CmiPreparer {
         }
 
         // Determine CMI-specific information for all events of the scoped TMSC.
-        for (event : scopedTmsc.events) {
+        for (event : TmscEventQueries.getEventsInScope(scopedTmsc)) {
             event.functionName = functionNameFor(event)
             event.interfaceName = interfaceNameFor(event)
             event.executionType = executionTypeFor(event)
@@ -144,9 +156,19 @@ abstract class CmiPreparer {
      * @param predicate The {@link Predicate predicate} that determines which {@link Event events} are to be
      *                  included in the scope to create.
      * @return The {@link ScopedTMSC scoped TMSC} containing all {@link Dependency dependencies} between the events 
-     *         that satisfy {@code predicate}, which has also been added to the scopes of {@code tmsc}.
+     *         that satisfy {@code predicate}, which has also been added to the scopes of {@code tmsc}. If this preparer
+     *         uses {@link #isVirtualScope virtual scopes}, the scoped TMSC is empty and has a {@link TmscVirtualScope}
+     *         attached to it instead.
      */
     protected final def ScopedTMSC scopeOnEvents(FullScopeTMSC tmsc, String scopeName, Predicate<? super Event> predicate) {
+        if (virtualScope) {
+            // Create an empty TMSC scope, and define its contents by the predicate, without creating any dependencies.
+            val scopedTmsc = createScopedTMSC => [name = scopeName]
+            tmsc.childScopes += scopedTmsc
+            TmscVirtualScope.install(scopedTmsc, predicate)
+            return scopedTmsc
+        }
+
         // Split the dependencies in two sets, one in scope (true) and one outside scope (false).
         val scopeDependencies = tmsc.dependencies.filter[predicate.test(source) && predicate.test(target)]
         
@@ -0,0 +1,155 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.pps.extensions.queries;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import com.google.common.base.Preconditions;
+
+import nl.esi.pps.tmsc.Dependency;
+import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.Message;
+import nl.esi.pps.tmsc.TMSC;
+
+/**
+ * Index of the {@link Message} dependencies of the events of a {@link TMSC}, that are in scope of that TMSC.
+ *
+ * <p>
+ * The index is built in a single pass over the dependencies of the TMSC, and is attached to the TMSC as an adapter.
+ * While attached, {@link TmscDependencyQueries} uses it to look up message dependencies, rather than filtering the
+ * full scope dependencies of events. The index removes itself from the TMSC once the TMSC is modified.
+ * </p>
+ */
+public class TmscDependencyIndex extends AdapterImpl {
+    /** Per event, its single incoming message dependency. */
+    private final Map<Event, Message> incomingMessages = new HashMap<>();
+
+    /** Per event, its single outgoing message dependency. */
+    private final Map<Event, Message> outgoingMessages = new HashMap<>();
+
+    /** Events with multiple incoming message dependencies. */
+    private final Set<Event> multipleIncomingMessages = new HashSet<>();
+
+    /** Events with multiple outgoing message dependencies. */
+    private final Set<Event> multipleOutgoingMessages = new HashSet<>();
+
+    private TmscDependencyIndex(TMSC tmsc) {
+        for (Dependency dependency: TmscDependencyQueries.getDependenciesInScope(tmsc)) {
+            if (dependency instanceof Message) {
+                Message message = (Message)dependency;
+                if (outgoingMessages.putIfAbsent(message.getSource(), message) != null) {
+                    multipleOutgoingMessages.add(message.getSource());
+                }
+                if (incomingMessages.putIfAbsent(message.getTarget(), message) != null) {
+                    multipleIncomingMessages.add(message.getTarget());
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds an index for {@code tmsc} and attaches it to {@code tmsc}, if no index is attached to it yet.
+     *
+     * @param tmsc The TMSC to index.
+     * @return The index attached to {@code tmsc}.
+     */
+    public static synchronized TmscDependencyIndex install(TMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscDependencyIndex index = get(tmsc);
+        if (index == null) {
+            index = new TmscDependencyIndex(tmsc);
+            tmsc.eAdapters().add(index);
+        }
+        return index;
+    }
+
+    /**
+     * Detaches the index from {@code tmsc}, if an index is attached to it, to release its memory.
+     *
+     * @param tmsc The indexed TMSC.
+     */
+    public static synchronized void uninstall(TMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscDependencyIndex index = get(tmsc);
+        if (index != null) {
+            tmsc.eAdapters().remove(index);
+        }
+    }
+
+    /**
+     * @param tmsc The TMSC for which to get the index.
+     * @return The index attached to {@code tmsc}, or {@code null} if no index is attached to it.
+     */
+    public static TmscDependencyIndex get(TMSC tmsc) {
+        return (TmscDependencyIndex)EcoreUtil.getExistingAdapter(tmsc, TmscDependencyIndex.class);
+    }
+
+    /**
+     * @param event The event whose incoming message dependencies are requested.
+     * @return The number of incoming message dependencies of {@code event}, or {@code -1} if it has more than one.
+     */
+    int getIncomingMessageCount(Event event) {
+        return getMessageCount(event, incomingMessages, multipleIncomingMessages);
+    }
+
+    /**
+     * @param event The event whose outgoing message dependencies are requested.
+     * @return The number of outgoing message dependencies of {@code event}, or {@code -1} if it has more than one.
+     */
+    int getOutgoingMessageCount(Event event) {
+        return getMessageCount(event, outgoingMessages, multipleOutgoingMessages);
+    }
+
+    /**
+     * @param event The event whose incoming message dependency is requested.
+     * @return The first incoming message dependency of {@code event}, or {@code null} if it has none.
+     */
+    Message getIncomingMessage(Event event) {
+        return incomingMessages.get(event);
+    }
+
+    /**
+     * @param event The event whose outgoing message dependency is requested.
+     * @return The first outgoing message dependency of {@code event}, or {@code null} if it has none.
+     */
+    Message getOutgoingMessage(Event event) {
+        return outgoingMessages.get(event);
+    }
+
+    private static int getMessageCount(Event event, Map<Event, Message> messages, Set<Event> multipleMessages) {
+        if (multipleMessages.contains(event)) {
+            return -1;
+        }
+        return messages.containsKey(event) ? 1 : 0;
+    }
+
+    @Override
+    public boolean isAdapterForType(Object type) {
+        return type == TmscDependencyIndex.class;
+    }
+
+    @Override
+    public void notifyChanged(Notification notification) {
+        // Any change to the TMSC itself may change its dependencies, so the index can no longer be trusted.
+        if (!notification.isTouch() && notification.getEventType() != Notification.REMOVING_ADAPTER) {
+            ((TMSC)getTarget()).eAdapters().remove(this);
+        }
+    }
+}
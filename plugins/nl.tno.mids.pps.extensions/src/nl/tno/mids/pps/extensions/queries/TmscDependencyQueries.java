@@ -27,7 +27,11 @@ import nl.esi.pps.tmsc.Message;
 import nl.esi.pps.tmsc.ScopedTMSC;
 import nl.esi.pps.tmsc.TMSC;
 
-/** General querying functionality for {@link Dependency dependencies}. */
+/**
+ * General querying functionality for {@link Dependency dependencies}. Message dependency queries use the
+ * {@link TmscDependencyIndex} of the scope TMSC, if one is attached to it. Scope queries use the
+ * {@link TmscVirtualScope} of the scope TMSC, if one is attached to it.
+ */
 public class TmscDependencyQueries {
     private TmscDependencyQueries() {
     }
@@ -62,6 +66,11 @@ public class TmscDependencyQueries {
      *     of the {@code scopeTmsc}.
      */
     public static Message getIncomingMessageDependency(Event event, TMSC scopeTmsc) {
+        TmscDependencyIndex index = TmscDependencyIndex.get(scopeTmsc);
+        if (index != null && index.getIncomingMessageCount(event) == 1) {
+            return index.getIncomingMessage(event);
+        }
+
         List<Message> messages = filterMessageDependencies(event.getFullScopeIncomingDependencies(), scopeTmsc)
                 .collect(Collectors.toList());
 
@@ -81,6 +90,11 @@ public class TmscDependencyQueries {
      *     in scope of the {@code scopeTmsc}.
      */
     public static Message getOutgoingMessageDependency(Event event, TMSC scopeTmsc) {
+        TmscDependencyIndex index = TmscDependencyIndex.get(scopeTmsc);
+        if (index != null && index.getOutgoingMessageCount(event) == 1) {
+            return index.getOutgoingMessage(event);
+        }
+
         List<Message> messages = filterMessageDependencies(event.getFullScopeOutgoingDependencies(), scopeTmsc)
                 .collect(Collectors.toList());
 
@@ -106,12 +120,30 @@ public class TmscDependencyQueries {
         if (tmsc instanceof FullScopeTMSC) {
             return dependency.getTmsc().equals(tmsc);
         } else if (tmsc instanceof ScopedTMSC) {
+            TmscVirtualScope virtualScope = TmscVirtualScope.get(tmsc);
+            if (virtualScope != null) {
+                return virtualScope.isInScope(dependency);
+            }
             return dependency.getScopes().contains(tmsc);
         } else {
             throw new RuntimeException("Unknown TMSC type.");
         }
     }
 
+    /**
+     * @param tmsc The TMSC whose dependencies in scope are requested.
+     * @return The dependencies in scope of {@code tmsc}.
+     */
+    public static List<Dependency> getDependenciesInScope(TMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscVirtualScope virtualScope = TmscVirtualScope.get(tmsc);
+        if (virtualScope != null) {
+            return virtualScope.getDependencies();
+        }
+        return tmsc.getDependencies();
+    }
+
     /**
      * @param event The event for which to determine whether it has any incoming {@link Message} dependencies.
      * @param scopeTmsc The scope to use when searching for incoming dependencies.
@@ -119,6 +151,10 @@ public class TmscDependencyQueries {
      *     {@code scopeTmsc}, {@code false} otherwise.
      */
     public static boolean hasIncomingMessageDependencies(Event event, TMSC scopeTmsc) {
+        TmscDependencyIndex index = TmscDependencyIndex.get(scopeTmsc);
+        if (index != null) {
+            return index.getIncomingMessageCount(event) != 0;
+        }
         return filterMessageDependencies(event.getFullScopeIncomingDependencies(), scopeTmsc).findAny().isPresent();
     }
 
@@ -129,6 +165,10 @@ public class TmscDependencyQueries {
      *     {@code scopeTmsc}, {@code false} otherwise.
      */
     public static boolean hasOutgoingMessageDependencies(Event event, TMSC scopeTmsc) {
+        TmscDependencyIndex index = TmscDependencyIndex.get(scopeTmsc);
+        if (index != null) {
+            return index.getOutgoingMessageCount(event) != 0;
+        }
         return filterMessageDependencies(event.getFullScopeOutgoingDependencies(), scopeTmsc).findAny().isPresent();
     }
 
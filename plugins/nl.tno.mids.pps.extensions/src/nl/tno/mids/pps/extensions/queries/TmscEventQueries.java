@@ -31,7 +31,8 @@ public class TmscEventQueries {
     }
 
     /**
-     * Determines whether {@code event} is in scope of {@code tmsc}.
+     * Determines whether {@code event} is in scope of {@code tmsc}. Uses the {@link TmscVirtualScope} or
+     * {@link TmscScopeIndex} of {@code tmsc}, if one is attached to it.
      * 
      * @param tmsc The TMSC whose scope to consider.
      * @param event The event whose scope to check.
@@ -44,12 +45,37 @@ public class TmscEventQueries {
         if (tmsc instanceof FullScopeTMSC) {
             return event.getTmsc().equals(tmsc);
         } else if (tmsc instanceof ScopedTMSC) {
+            TmscVirtualScope virtualScope = TmscVirtualScope.get(tmsc);
+            if (virtualScope != null) {
+                return virtualScope.isInScope(event);
+            }
+            TmscScopeIndex index = TmscScopeIndex.get((ScopedTMSC)tmsc);
+            if (index != null) {
+                return index.isInScope(event);
+            }
             return TmscQueries.isInScope(event, (ScopedTMSC)tmsc);
         } else {
             throw new RuntimeException("Unknown TMSC type.");
         }
     }
 
+    /**
+     * Returns the events in scope of {@code tmsc}. Uses the {@link TmscVirtualScope} of {@code tmsc}, if one is attached
+     * to it.
+     * 
+     * @param tmsc The TMSC whose events in scope are requested.
+     * @return The events in scope of {@code tmsc}.
+     */
+    public static List<Event> getEventsInScope(TMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscVirtualScope virtualScope = TmscVirtualScope.get(tmsc);
+        if (virtualScope != null) {
+            return virtualScope.getEvents();
+        }
+        return tmsc.getEvents();
+    }
+
     /**
      * Finds all source and target events of all given executions in {@code executions} that are in scope of
      * {@code tmsc}, as well as all the source and target events of all their (nested) sub-executions that are in scope.
@@ -9,8 +9,12 @@
 /////////////////////////////////////////////////////////////////////////
 package nl.tno.mids.pps.extensions.queries;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.lsat.common.xtend.Queries;
 
@@ -19,6 +23,7 @@ import com.google.common.collect.ImmutableList;
 
 import nl.esi.pps.tmsc.Dependency;
 import nl.esi.pps.tmsc.Execution;
+import nl.esi.pps.tmsc.Lifeline;
 import nl.esi.pps.tmsc.TMSC;
 
 /** General querying functionality for {@link Dependency dependencies}. */
@@ -96,6 +101,44 @@ public class TmscExecutionQueries {
         }
     }
 
+    /**
+     * Gives the scoped root executions of all executions on {@code lifeline}, as defined by
+     * {@link #getRootInScope(TMSC, Execution)}. The scoped root executions are determined top-down, checking the scope
+     * of each execution only once, rather than walking the parent chain of each execution separately.
+     * 
+     * @param tmsc The TMSC whose scope is to be considered.
+     * @param lifeline The lifeline whose executions to consider.
+     * @return Per execution on {@code lifeline}, its scoped root execution, or {@code null} if no such execution
+     *     exists.
+     */
+    public static Map<Execution, Execution> getRootsInScope(TMSC tmsc, Lifeline lifeline) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+        Preconditions.checkNotNull(lifeline, "Expected a non-null lifeline.");
+
+        Map<Execution, Execution> rootsInScope = new HashMap<>();
+        Deque<Execution> todoExecutions = new ArrayDeque<>();
+        for (Execution execution: lifeline.getExecutions()) {
+            if (execution.getParent() == null) {
+                rootsInScope.put(execution, null);
+                todoExecutions.push(execution);
+            }
+        }
+
+        while (!todoExecutions.isEmpty()) {
+            Execution execution = todoExecutions.pop();
+
+            // The scoped root of the children is the scoped root of this execution, or this execution if it has none.
+            Execution root = rootsInScope.get(execution);
+            Execution childRoot = (root == null && isInScope(tmsc, execution)) ? execution : root;
+            for (Execution child: execution.getChildren()) {
+                rootsInScope.put(child, childRoot);
+                todoExecutions.push(child);
+            }
+        }
+
+        return rootsInScope;
+    }
+
     /**
      * Get a list of all sub-executions of {@code execution} that are in scope of {@code tmsc}.
      * 
@@ -10,10 +10,13 @@
 
 package nl.tno.mids.pps.extensions.queries;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import nl.esi.pps.tmsc.Event;
 import nl.esi.pps.tmsc.Execution;
+import nl.esi.pps.tmsc.FullScopeTMSC;
 import nl.esi.pps.tmsc.Lifeline;
 import nl.esi.pps.tmsc.TMSC;
 
@@ -32,6 +35,25 @@ public class TmscLifelineQueries {
         return lifeline.getExecutions().stream().noneMatch(exec -> TmscExecutionQueries.isInScope(scopeTmsc, exec));
     }
 
+    /**
+     * @param lifeline The input {@link Lifeline}.
+     * @param scopeTmsc The {@link TMSC} whose scope to consider.
+     * @return The {@link Event events} of {@code lifeline} that are in scope of {@code scopeTmsc}, in the order of
+     *     {@code lifeline}. For the full scope TMSC of {@code lifeline}, this is an unmodifiable view of the events of
+     *     {@code lifeline}, rather than a copy.
+     */
+    public static List<Event> getEventsInScope(Lifeline lifeline, TMSC scopeTmsc) {
+        if (scopeTmsc instanceof FullScopeTMSC && lifeline.eContainer() == scopeTmsc) {
+            return Collections.unmodifiableList(lifeline.getEvents());
+        }
+        TmscVirtualScope virtualScope = TmscVirtualScope.get(scopeTmsc);
+        if (virtualScope != null) {
+            return virtualScope.getEvents(lifeline);
+        }
+        return lifeline.getEvents().stream().filter(event -> TmscEventQueries.isInScope(scopeTmsc, event))
+                .collect(Collectors.toList());
+    }
+
     /**
      * @param scopeTmsc The {@link TMSC} whose non-empty {@link Lifeline lifelines} are requested.
      * @return A complete {@link List} of all {@link Lifeline lifelines} containing {@link Execution executions} that
@@ -0,0 +1,104 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.pps.extensions.queries;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import com.google.common.base.Preconditions;
+
+import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.ScopedTMSC;
+import nl.esi.pps.tmsc.TMSC;
+
+/**
+ * Index of the {@link Event events} that are in scope of a {@link ScopedTMSC}.
+ *
+ * <p>
+ * The index stores the events in scope in a {@link HashSet}, allowing constant time scope checks. The index is attached
+ * to the scoped TMSC as an adapter. While attached, {@link TmscEventQueries} uses it to check whether events are in
+ * scope. The index removes itself from the scoped TMSC once that TMSC is modified.
+ * </p>
+ */
+public class TmscScopeIndex extends AdapterImpl {
+    /** The events in scope. */
+    private final Set<Event> eventsInScope;
+
+    private TmscScopeIndex(ScopedTMSC tmsc) {
+        eventsInScope = new HashSet<>(TmscEventQueries.getEventsInScope(tmsc));
+    }
+
+    /**
+     * Builds an index for {@code tmsc} and attaches it to {@code tmsc}, if no index is attached to it yet.
+     *
+     * @param tmsc The scoped TMSC to index.
+     * @return The index attached to {@code tmsc}.
+     */
+    public static synchronized TmscScopeIndex install(ScopedTMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscScopeIndex index = get(tmsc);
+        if (index == null) {
+            index = new TmscScopeIndex(tmsc);
+            tmsc.eAdapters().add(index);
+        }
+        return index;
+    }
+
+    /**
+     * Detaches the index from {@code tmsc}, if an index is attached to it, to release its memory.
+     *
+     * @param tmsc The indexed scoped TMSC.
+     */
+    public static synchronized void uninstall(ScopedTMSC tmsc) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+
+        TmscScopeIndex index = get(tmsc);
+        if (index != null) {
+            tmsc.eAdapters().remove(index);
+        }
+    }
+
+    /**
+     * @param tmsc The scoped TMSC for which to get the index.
+     * @return The index attached to {@code tmsc}, or {@code null} if no index is attached to it.
+     */
+    public static TmscScopeIndex get(ScopedTMSC tmsc) {
+        return (TmscScopeIndex)EcoreUtil.getExistingAdapter(tmsc, TmscScopeIndex.class);
+    }
+
+    /**
+     * Determines whether {@code event} is in scope of the indexed TMSC.
+     *
+     * @param event The event whose scope to check.
+     * @return {@code true} if {@code event} is in scope of the indexed TMSC, {@code false} otherwise.
+     */
+    boolean isInScope(Event event) {
+        return eventsInScope.contains(event);
+    }
+
+    @Override
+    public boolean isAdapterForType(Object type) {
+        return type == TmscScopeIndex.class;
+    }
+
+    @Override
+    public void notifyChanged(Notification notification) {
+        // Any change to the scoped TMSC may change its scope, so the index can no longer be trusted.
+        if (!notification.isTouch() && notification.getEventType() != Notification.REMOVING_ADAPTER) {
+            ((TMSC)getTarget()).eAdapters().remove(this);
+        }
+    }
+}
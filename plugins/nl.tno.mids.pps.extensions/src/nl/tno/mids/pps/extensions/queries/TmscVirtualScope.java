@@ -0,0 +1,173 @@
+/////////////////////////////////////////////////////////////////////////
+// Copyright (c) 2018-2024 TNO and Contributors to the GitHub community
+//
+// This program and the accompanying materials are made available
+// under the terms of the MIT License which is available at
+// https://opensource.org/licenses/MIT
+//
+// SPDX-License-Identifier: MIT
+/////////////////////////////////////////////////////////////////////////
+
+package nl.tno.mids.pps.extensions.queries;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+import com.google.common.base.Preconditions;
+
+import nl.esi.pps.tmsc.Dependency;
+import nl.esi.pps.tmsc.Event;
+import nl.esi.pps.tmsc.FullScopeTMSC;
+import nl.esi.pps.tmsc.Lifeline;
+import nl.esi.pps.tmsc.ScopedTMSC;
+import nl.esi.pps.tmsc.TMSC;
+
+/**
+ * Scope of a {@link ScopedTMSC} that is defined by a predicate on the {@link Event events} of its full scope TMSC,
+ * rather than by the dependencies it contains.
+ *
+ * <p>
+ * A virtual scope is attached to an otherwise empty scoped TMSC as an adapter. The dependencies in scope are the
+ * dependencies of the full scope TMSC between events that satisfy the predicate. The events in scope are the same as
+ * for a scoped TMSC created by {@code CmiPreparer.scopeOnEvents}: the events that satisfy the predicate and have a
+ * dependency in scope, plus, if not all dependencies are in scope, the events that satisfy the predicate on lifelines
+ * with at least two such events, which that scoped TMSC completely orders using additional life-line segments. The
+ * order of the events in scope on a lifeline is their order on that lifeline. Hence, no dependencies are added to the
+ * scoped TMSC or its full scope TMSC, and no life-line segments are created to completely order the events in scope.
+ * </p>
+ *
+ * <p>
+ * The dependencies and events in scope are determined once, when the virtual scope is attached. The full scope TMSC
+ * should therefore not be modified afterwards. While attached, {@link TmscEventQueries}, {@link TmscDependencyQueries}
+ * and {@link TmscLifelineQueries} use it to answer scope queries. Methods of the scoped TMSC itself, such as
+ * {@link ScopedTMSC#getEvents()}, are not aware of the virtual scope.
+ * </p>
+ */
+public class TmscVirtualScope extends AdapterImpl {
+    /** The full scope TMSC of the virtual scope. */
+    private final FullScopeTMSC fullScope;
+
+    /** The predicate that determines which events of the full scope TMSC may be in scope. */
+    private final Predicate<? super Event> predicate;
+
+    /** The dependencies in scope, in the order of the dependencies of the full scope TMSC. */
+    private final List<Dependency> dependencies;
+
+    /** The lifelines whose events that satisfy the predicate are all in scope, as they are completely ordered. */
+    private final Set<Lifeline> orderedLifelines = new HashSet<>();
+
+    /** Per lifeline of the full scope TMSC, its events in scope, in the order of that lifeline. */
+    private final Map<Lifeline, List<Event>> lifelineEvents = new HashMap<>();
+
+    /** The events in scope, in the order of the events of the full scope TMSC. */
+    private final List<Event> events;
+
+    private TmscVirtualScope(FullScopeTMSC fullScope, Predicate<? super Event> predicate) {
+        this.fullScope = fullScope;
+        this.predicate = predicate;
+
+        dependencies = Collections.unmodifiableList(
+                fullScope.getDependencies().stream().filter(this::isInScope).collect(Collectors.toList()));
+        boolean allDependenciesInScope = dependencies.size() == fullScope.getDependencies().size();
+
+        for (Lifeline lifeline: fullScope.getLifelines()) {
+            List<Event> acceptedEvents = lifeline.getEvents().stream().filter(predicate).collect(Collectors.toList());
+            if (!allDependenciesInScope && acceptedEvents.size() > 1) {
+                orderedLifelines.add(lifeline);
+            }
+            lifelineEvents.put(lifeline, Collections.unmodifiableList(
+                    acceptedEvents.stream().filter(this::isInScope).collect(Collectors.toList())));
+        }
+
+        events = Collections.unmodifiableList(
+                fullScope.getEvents().stream().filter(this::isInScope).collect(Collectors.toList()));
+    }
+
+    /**
+     * Attaches a virtual scope to {@code tmsc}, replacing any virtual scope attached to it before.
+     *
+     * @param tmsc The scoped TMSC to which to attach the virtual scope. Must have a full scope TMSC.
+     * @param predicate The predicate that determines which events of the full scope TMSC are in scope.
+     * @return The virtual scope attached to {@code tmsc}.
+     */
+    public static synchronized TmscVirtualScope install(ScopedTMSC tmsc, Predicate<? super Event> predicate) {
+        Preconditions.checkNotNull(tmsc, "Expected a non-null TMSC.");
+        Preconditions.checkNotNull(predicate, "Expected a non-null predicate.");
+        Preconditions.checkArgument(tmsc.getFullScope() != null, "Expected a TMSC with a full scope.");
+
+        TmscVirtualScope scope = get(tmsc);
+        if (scope != null) {
+            tmsc.eAdapters().remove(scope);
+        }
+        scope = new TmscVirtualScope(tmsc.getFullScope(), predicate);
+        tmsc.eAdapters().add(scope);
+        return scope;
+    }
+
+    /**
+     * @param tmsc The TMSC for which to get the virtual scope.
+     * @return The virtual scope attached to {@code tmsc}, or {@code null} if no virtual scope is attached to it.
+     */
+    public static TmscVirtualScope get(TMSC tmsc) {
+        return (TmscVirtualScope)EcoreUtil.getExistingAdapter(tmsc, TmscVirtualScope.class);
+    }
+
+    /**
+     * @param event The event whose scope to check.
+     * @return {@code true} if {@code event} is in scope, {@code false} otherwise.
+     */
+    boolean isInScope(Event event) {
+        if (event.getTmsc() != fullScope || !predicate.test(event)) {
+            return false;
+        }
+        return orderedLifelines.contains(event.getLifeline())
+                || event.getFullScopeIncomingDependencies().stream().anyMatch(this::isInScope)
+                || event.getFullScopeOutgoingDependencies().stream().anyMatch(this::isInScope);
+    }
+
+    /**
+     * @param dependency The dependency whose scope to check.
+     * @return {@code true} if {@code dependency} is in scope, {@code false} otherwise.
+     */
+    boolean isInScope(Dependency dependency) {
+        return dependency.getTmsc() == fullScope && predicate.test(dependency.getSource())
+                && predicate.test(dependency.getTarget());
+    }
+
+    /**
+     * @return The events in scope, in the order of the events of the full scope TMSC.
+     */
+    List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * @return The dependencies in scope, in the order of the dependencies of the full scope TMSC.
+     */
+    List<Dependency> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * @param lifeline The lifeline whose events in scope are requested.
+     * @return The events of {@code lifeline} that are in scope, in the order of {@code lifeline}.
+     */
+    List<Event> getEvents(Lifeline lifeline) {
+        List<Event> eventsInScope = lifelineEvents.get(lifeline);
+        return (eventsInScope == null) ? Collections.emptyList() : eventsInScope;
+    }
+
+    @Override
+    public boolean isAdapterForType(Object type) {
+        return type == TmscVirtualScope.class;
+    }
+}
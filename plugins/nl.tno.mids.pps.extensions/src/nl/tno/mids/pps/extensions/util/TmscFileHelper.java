@@ -18,6 +18,8 @@ import java.util.Optional;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.lsat.common.emf.ecore.resource.Persistor;
 import org.eclipse.lsat.common.emf.ecore.resource.PersistorFactory;
 
@@ -71,12 +73,40 @@ public class TmscFileHelper {
         // Load the TMSC.
         FullScopeTMSC fullTmsc = loadTMSC(tmscPath);
 
+        // Return the loaded and prepared TMSC.
+        return prepareTMSC(fullTmsc, tmscPath, warnings);
+    }
+
+    /**
+     * Prepares a loaded {@link FullScopeTMSC full-scope TMSC} for CMI by applying a suitable {@link CmiPreparer CMI
+     * preparer}.
+     * 
+     * @param fullTmsc The full-scope TMSC to prepare.
+     * @param tmscPath The path from which the TMSC was read.
+     * @param warnings The warnings produced during the operation.
+     * @return The prepared {@link TMSC}.
+     */
+    public static ScopedTMSC prepareTMSC(FullScopeTMSC fullTmsc, Path tmscPath, List<String> warnings) {
+        return prepareTMSC(fullTmsc, tmscPath, warnings, false);
+    }
+
+    /**
+     * Prepares a loaded {@link FullScopeTMSC full-scope TMSC} for CMI by applying a suitable {@link CmiPreparer CMI
+     * preparer}.
+     * 
+     * @param fullTmsc The full-scope TMSC to prepare.
+     * @param tmscPath The path from which the TMSC was read.
+     * @param warnings The warnings produced during the operation.
+     * @param virtualScope Whether the preparer creates a {@link CmiPreparer#isVirtualScope virtual scope}.
+     * @return The prepared {@link TMSC}.
+     */
+    public static ScopedTMSC prepareTMSC(FullScopeTMSC fullTmsc, Path tmscPath, List<String> warnings,
+            boolean virtualScope)
+    {
         // Determine the CMI preparer for the loaded TMSC, and prepare the TMSC using this preparer.
         CmiPreparer cmiPreparer = CmiPreparers.findFor(fullTmsc);
-        ScopedTMSC tmsc = cmiPreparer.prepare(fullTmsc, "CMI", warnings, tmscPath);
-
-        // Return the loaded and prepared TMSC.
-        return tmsc;
+        cmiPreparer.setVirtualScope(virtualScope);
+        return cmiPreparer.prepare(fullTmsc, "CMI", warnings, tmscPath);
     }
 
     /**
@@ -94,4 +124,28 @@ public class TmscFileHelper {
         contents.addAll(tmsc.getFullScope().getArchitectures());
         persistor.save(URI.createFileURI(targetPath.toString()), contents);
     }
+
+    /**
+     * Unloads the resources from which {@code tmsc} was loaded, including those of its architectures. This releases
+     * the memory of the TMSC as soon as it is no longer referenced, even if some of its objects are still referenced.
+     * The TMSC can no longer be used afterwards.
+     * 
+     * @param tmsc The {@link TMSC} whose underlying {@link FullScopeTMSC full-scope TMSC} is to be unloaded.
+     */
+    public static void unloadTMSC(TMSC tmsc) {
+        Resource resource = tmsc.getFullScope().eResource();
+        if (resource == null) {
+            return;
+        }
+
+        ResourceSet resourceSet = resource.getResourceSet();
+        if (resourceSet == null) {
+            resource.unload();
+        } else {
+            for (Resource setResource: new ArrayList<>(resourceSet.getResources())) {
+                setResource.unload();
+            }
+            resourceSet.getResources().clear();
+        }
+    }
 }
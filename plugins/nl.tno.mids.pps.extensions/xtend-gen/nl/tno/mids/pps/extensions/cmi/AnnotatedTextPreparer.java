@@ -1,5 +1,6 @@
 package nl.tno.mids.pps.extensions.cmi;
 
+import java.util.function.Predicate;
 import nl.esi.pps.architecture.implemented.Function;
 import nl.esi.pps.tmsc.Dependency;
 import nl.esi.pps.tmsc.Event;
@@ -25,11 +26,18 @@ public class AnnotatedTextPreparer extends CmiPreparer {
   
   @Override
   protected ScopedTMSC scope(final FullScopeTMSC tmsc, final String scopeName) {
+    boolean _isVirtualScope = this.isVirtualScope();
+    if (_isVirtualScope) {
+      final Predicate<Event> _function = (Event it) -> {
+        return true;
+      };
+      return this.scopeOnEvents(tmsc, scopeName, _function);
+    }
     ScopedTMSC _createScopedTMSC = TmscQueries.createScopedTMSC(tmsc.getDependencies(), scopeName);
-    final Procedure1<ScopedTMSC> _function = (ScopedTMSC it) -> {
+    final Procedure1<ScopedTMSC> _function_1 = (ScopedTMSC it) -> {
       it.setParentScope(tmsc);
     };
-    return ObjectExtensions.<ScopedTMSC>operator_doubleArrow(_createScopedTMSC, _function);
+    return ObjectExtensions.<ScopedTMSC>operator_doubleArrow(_createScopedTMSC, _function_1);
   }
   
   @Override
@@ -2,7 +2,6 @@ package nl.tno.mids.pps.extensions.cmi;
 
 import com.google.common.collect.Iterables;
 import java.nio.file.Path;
-import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 import nl.esi.emf.properties.PropertiesContainer;
@@ -17,15 +16,19 @@ import nl.esi.pps.tmsc.TMSC;
 import nl.esi.pps.tmsc.TmscFactory;
 import nl.esi.pps.tmsc.util.TmscQueries;
 import nl.tno.mids.pps.extensions.info.EventFunctionExecutionType;
+import nl.tno.mids.pps.extensions.queries.TmscEventQueries;
 import nl.tno.mids.pps.extensions.queries.TmscLifelineQueries;
+import nl.tno.mids.pps.extensions.queries.TmscVirtualScope;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.lsat.common.util.PairwiseIterable;
+import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * A transformation for preparing {@link TMSC TMSCs} for CMI. This transformation determines and annotates all
@@ -36,6 +39,16 @@ public abstract class CmiPreparer {
   @Extension
   private static final TmscFactory m_tmsc = TmscFactory.eINSTANCE;
   
+  /**
+   * Whether {@link #scopeOnEvents} creates a {@link TmscVirtualScope virtual scope}, rather than a
+   * {@link ScopedTMSC scoped TMSC} containing the {@link Dependency dependencies} in scope. A virtual scope does not
+   * add any dependencies to the TMSC, significantly reducing the memory requirements for large TMSCs. However, the
+   * dependencies and events in scope can then only be obtained using the queries of the
+   * {@code nl.tno.mids.pps.extensions.queries} package. By default, no virtual scope is created.
+   */
+  @Accessors
+  private boolean virtualScope = false;
+  
   public abstract boolean appliesTo(final Dependency dependency);
   
   /**
@@ -71,8 +84,8 @@ public abstract class CmiPreparer {
         Executor _executor = lifeline.getExecutor();
         CmiPreparer.setComponentName(_executor, this.componentNameFor(lifeline));
       }
-      Collection<Event> _events = scopedTmsc.getEvents();
-      for (final Event event : _events) {
+      List<Event> _eventsInScope = TmscEventQueries.getEventsInScope(scopedTmsc);
+      for (final Event event : _eventsInScope) {
         {
           CmiPreparer.setFunctionName(event, this.functionNameFor(event));
           CmiPreparer.setInterfaceName(event, this.interfaceNameFor(event));
@@ -138,9 +151,22 @@ public abstract class CmiPreparer {
    * @param predicate The {@link Predicate predicate} that determines which {@link Event events} are to be
    *                  included in the scope to create.
    * @return The {@link ScopedTMSC scoped TMSC} containing all {@link Dependency dependencies} between the events
-   *         that satisfy {@code predicate}, which has also been added to the scopes of {@code tmsc}.
+   *         that satisfy {@code predicate}, which has also been added to the scopes of {@code tmsc}. If this preparer
+   *         uses {@link #isVirtualScope virtual scopes}, the scoped TMSC is empty and has a {@link TmscVirtualScope}
+   *         attached to it instead.
    */
   protected final ScopedTMSC scopeOnEvents(final FullScopeTMSC tmsc, final String scopeName, final Predicate<? super Event> predicate) {
+    if (this.virtualScope) {
+      ScopedTMSC _createScopedTMSC = CmiPreparer.m_tmsc.createScopedTMSC();
+      final Procedure1<ScopedTMSC> _function = (ScopedTMSC it) -> {
+        it.setName(scopeName);
+      };
+      final ScopedTMSC scopedTmsc = ObjectExtensions.<ScopedTMSC>operator_doubleArrow(_createScopedTMSC, _function);
+      EList<ScopedTMSC> _childScopes = tmsc.getChildScopes();
+      _childScopes.add(scopedTmsc);
+      TmscVirtualScope.install(scopedTmsc, predicate);
+      return scopedTmsc;
+    }
     final Function1<Dependency, Boolean> _function = (Dependency it) -> {
       return Boolean.valueOf((predicate.test(it.getSource()) && predicate.test(it.getTarget())));
     };
@@ -257,4 +283,13 @@ public abstract class CmiPreparer {
         container.getProperties().put(key, value);
     }
   }
+  
+  @Pure
+  public boolean isVirtualScope() {
+    return this.virtualScope;
+  }
+  
+  public void setVirtualScope(final boolean virtualScope) {
+    this.virtualScope = virtualScope;
+  }
 }